@@ -0,0 +1,141 @@
+package com.example.activityscheduler.benchmarks;
+
+import com.example.activityscheduler.common.id.UuidV7Generator;
+import com.example.activityscheduler.user.model.User;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures loading 100,000 users the way Hibernate hydrates rows: the no-arg constructor followed
+ * by a reflective write of every column. {@code eagerUsers} loads into a copy of the user entity
+ * whose no-arg constructor still generates an ID and reads the clock, as {@link User} did before
+ * hydration stopped doing that work; {@code users} loads into {@link User} itself. The rows are
+ * built once, so only instantiation and field writes are measured, not JDBC.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EntityHydrationBenchmark {
+
+  private static final int ROWS = 100_000;
+
+  private Object[][] rows;
+  private Hydrator<User> users;
+  private Hydrator<EagerUser> eagerUsers;
+
+  /**
+   * Builds the rows and looks up the constructors and fields.
+   *
+   * @throws ReflectiveOperationException if an entity lacks a mapped field
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws ReflectiveOperationException {
+    LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+    rows = new Object[ROWS][];
+    for (int i = 0; i < ROWS; i++) {
+      rows[i] =
+          new Object[] {
+            UuidV7Generator.generate(),
+            "user" + i + "@example.com",
+            "User " + i,
+            i % 10 != 0,
+            start.plusSeconds(i),
+            (long) (i % 3)
+          };
+    }
+    users = new Hydrator<>(User.class);
+    eagerUsers = new Hydrator<>(EagerUser.class);
+  }
+
+  /**
+   * Loads the rows into users.
+   *
+   * @return the users, consumed by JMH
+   * @throws ReflectiveOperationException if instantiation fails
+   */
+  @Benchmark
+  public List<User> users() throws ReflectiveOperationException {
+    return users.load(rows);
+  }
+
+  /**
+   * Loads the rows into users whose no-arg constructor generates an ID and a creation time.
+   *
+   * @return the users, consumed by JMH
+   * @throws ReflectiveOperationException if instantiation fails
+   */
+  @Benchmark
+  public List<EagerUser> eagerUsers() throws ReflectiveOperationException {
+    return eagerUsers.load(rows);
+  }
+
+  /** Instantiates an entity class and writes its mapped fields, in column order. */
+  private static final class Hydrator<T> {
+
+    private static final String[] COLUMNS = {
+      "id", "email", "displayName", "isActive", "createdAt", "version"
+    };
+
+    private final Constructor<T> constructor;
+    private final Field[] fields;
+
+    Hydrator(Class<T> type) throws ReflectiveOperationException {
+      constructor = type.getDeclaredConstructor();
+      constructor.setAccessible(true);
+      fields = new Field[COLUMNS.length];
+      for (int i = 0; i < COLUMNS.length; i++) {
+        fields[i] = type.getDeclaredField(COLUMNS[i]);
+        fields[i].setAccessible(true);
+      }
+    }
+
+    List<T> load(Object[][] rows)
+        throws InstantiationException, IllegalAccessException, InvocationTargetException {
+      List<T> entities = new ArrayList<>(rows.length);
+      for (Object[] row : rows) {
+        T entity = constructor.newInstance();
+        for (int i = 0; i < fields.length; i++) {
+          fields[i].set(entity, row[i]);
+        }
+        entities.add(entity);
+      }
+      return entities;
+    }
+  }
+
+  /** The user entity as it was before, with the ID and creation time set in the constructor. */
+  public static class EagerUser {
+
+    private UUID id;
+    private String email;
+    private String displayName;
+    private boolean isActive = true;
+    private LocalDateTime createdAt = LocalDateTime.now();
+    private Long version;
+
+    /** Default constructor. Generates a new time-ordered UUID for the user ID. */
+    public EagerUser() {
+      this.id = UuidV7Generator.generate();
+    }
+  }
+}
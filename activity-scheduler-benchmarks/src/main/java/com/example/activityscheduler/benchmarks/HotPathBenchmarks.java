@@ -0,0 +1,44 @@
+package com.example.activityscheduler.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks of the CPU-bound request paths, {@link EmailValidatorBenchmark}, {@link
+ * MembershipStatusBenchmark}, {@link MembershipIdBenchmark}, {@link JsonSerializationBenchmark}
+ * and {@link EntityHydrationBenchmark}, and writes the results as JMH JSON, so that the files of
+ * two releases can be compared benchmark by benchmark.
+ *
+ * <p>Usage: {@code java -cp target/benchmarks.jar
+ * com.example.activityscheduler.benchmarks.HotPathBenchmarks [results.json]}. The results go to
+ * {@code hot-paths.json} unless another file is given.
+ */
+public final class HotPathBenchmarks {
+
+  private static final String DEFAULT_RESULTS = "hot-paths.json";
+
+  private HotPathBenchmarks() {}
+
+  /**
+   * Runs the benchmarks.
+   *
+   * @param args optionally, the file the JSON results are written to
+   * @throws RunnerException if JMH fails
+   */
+  public static void main(String[] args) throws RunnerException {
+    Options options =
+        new OptionsBuilder()
+            .include(EmailValidatorBenchmark.class.getSimpleName())
+            .include(MembershipStatusBenchmark.class.getSimpleName())
+            .include(MembershipIdBenchmark.class.getSimpleName())
+            .include(JsonSerializationBenchmark.class.getSimpleName())
+            .include(EntityHydrationBenchmark.class.getSimpleName())
+            .resultFormat(ResultFormatType.JSON)
+            .result(args.length > 0 ? args[0] : DEFAULT_RESULTS)
+            .build();
+    new Runner(options).run();
+  }
+}
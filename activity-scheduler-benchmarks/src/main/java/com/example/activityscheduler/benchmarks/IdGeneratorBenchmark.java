@@ -0,0 +1,72 @@
+package com.example.activityscheduler.benchmarks;
+
+import com.example.activityscheduler.common.id.UuidV7Generator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the throughput of {@link UUID#randomUUID()}, which draws from one shared {@code
+ * SecureRandom}, with {@link UuidV7Generator#generate()}, which keeps all of its state per thread.
+ *
+ * <p>Usage: {@code java -cp target/benchmarks.jar
+ * com.example.activityscheduler.benchmarks.IdGeneratorBenchmark} runs both benchmarks at 1, 2, 4,
+ * 8, 16, 32 and 64 threads. A single thread count can be run with {@code java -jar
+ * target/benchmarks.jar IdGeneratorBenchmark -t <threads>}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdGeneratorBenchmark {
+
+  private static final int[] THREADS = {1, 2, 4, 8, 16, 32, 64};
+
+  /**
+   * Generates a random version 4 UUID.
+   *
+   * @return the UUID, consumed by JMH
+   */
+  @Benchmark
+  public UUID randomUuid() {
+    return UUID.randomUUID();
+  }
+
+  /**
+   * Generates a time-ordered version 7 UUID.
+   *
+   * @return the UUID, consumed by JMH
+   */
+  @Benchmark
+  public UUID uuidV7() {
+    return UuidV7Generator.generate();
+  }
+
+  /**
+   * Runs both benchmarks at every thread count.
+   *
+   * @param args ignored
+   * @throws RunnerException if JMH fails
+   */
+  public static void main(String[] args) throws RunnerException {
+    for (int threads : THREADS) {
+      Options options =
+          new OptionsBuilder()
+              .include(IdGeneratorBenchmark.class.getSimpleName())
+              .threads(threads)
+              .build();
+      new Runner(options).run();
+    }
+  }
+}
@@ -0,0 +1,95 @@
+package com.example.activityscheduler.benchmarks;
+
+import com.example.activityscheduler.common.id.UuidV7Generator;
+import com.example.activityscheduler.membership.model.Membership;
+import com.example.activityscheduler.membership.model.MembershipStatus;
+import com.example.activityscheduler.organization.model.Organization;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures Jackson serialization of membership and organization lists, as returned by the list
+ * endpoints, with the settings Spring Boot applies to its {@code ObjectMapper}: Java time support
+ * and dates written as ISO-8601 strings.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+  /** Number of elements in each list. */
+  @Param({"10", "1000", "100000"})
+  public int size;
+
+  private List<Membership> memberships;
+  private List<Organization> organizations;
+  private ObjectWriter membershipWriter;
+  private ObjectWriter organizationWriter;
+
+  /** Builds the lists and the writers. */
+  @Setup(Level.Trial)
+  public void setUp() {
+    JsonMapper mapper =
+        JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    membershipWriter = mapper.writerFor(new TypeReference<List<Membership>>() {});
+    organizationWriter = mapper.writerFor(new TypeReference<List<Organization>>() {});
+
+    MembershipStatus[] statuses = MembershipStatus.values();
+    UUID orgId = UuidV7Generator.generate();
+    memberships = new ArrayList<>(size);
+    organizations = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      memberships.add(
+          new Membership(orgId, UuidV7Generator.generate(), statuses[i % statuses.length]));
+      organizations.add(new Organization(UuidV7Generator.generate(), "Organization " + i));
+    }
+  }
+
+  /**
+   * Serializes the membership list.
+   *
+   * @return the JSON, consumed by JMH
+   * @throws JsonProcessingException if serialization fails
+   */
+  @Benchmark
+  public byte[] memberships() throws JsonProcessingException {
+    return membershipWriter.writeValueAsBytes(memberships);
+  }
+
+  /**
+   * Serializes the organization list.
+   *
+   * @return the JSON, consumed by JMH
+   * @throws JsonProcessingException if serialization fails
+   */
+  @Benchmark
+  public byte[] organizations() throws JsonProcessingException {
+    return organizationWriter.writeValueAsBytes(organizations);
+  }
+}
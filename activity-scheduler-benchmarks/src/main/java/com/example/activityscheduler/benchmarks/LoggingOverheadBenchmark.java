@@ -0,0 +1,133 @@
+package com.example.activityscheduler.benchmarks;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import java.io.OutputStream;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.SimpleFormatter;
+import java.util.logging.StreamHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+
+/**
+ * Measures the logging done on a request thread for one organization's membership list, before and
+ * after the move to SLF4J. Both write to a discarding stream, so only the work of the caller and of
+ * the formatting is measured, not the console.
+ *
+ * <p>{@code julConcatenation} logs the way the application did before: the controller's and the
+ * service's "Retrieving ..." lines and the controller's "Retrieved ..." line, all at INFO through
+ * java.util.logging, with messages built by concatenation and written synchronously like the
+ * console handler does. {@code slf4jParameterized} logs the same three lines the way it does now:
+ * the "Retrieved ..." line at INFO and the other two at DEBUG, with {@code {}} placeholders,
+ * through a Logback AsyncAppender configured like {@code logback-spring.xml}. At INFO the two DEBUG
+ * lines are skipped without building their messages; at DEBUG all three are queued for the
+ * background writer. When the writer falls behind, the AsyncAppender drops events instead of
+ * blocking, as it does in production.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class LoggingOverheadBenchmark {
+
+  /** Size of the AsyncAppender queue, the default of {@code logging.async.queue-size}. */
+  private static final int QUEUE_SIZE = 8192;
+
+  /** Level the application's loggers are set to. */
+  @Param({"INFO", "DEBUG"})
+  public String level;
+
+  private final UUID orgId = UUID.randomUUID();
+  /** Number of memberships the request found; not a constant, so it is concatenated at run time. */
+  private int count = 25;
+  private java.util.logging.Logger julLogger;
+  private Handler julHandler;
+  private LoggerContext loggerContext;
+  private Logger slf4jLogger;
+
+  /** Configures both loggers at the level under test. */
+  @Setup
+  public void setUp() {
+    julHandler =
+        new StreamHandler(OutputStream.nullOutputStream(), new SimpleFormatter()) {
+          @Override
+          public synchronized void publish(LogRecord record) {
+            super.publish(record);
+            flush();
+          }
+        };
+    julHandler.setLevel(java.util.logging.Level.ALL);
+    julLogger = java.util.logging.Logger.getLogger("benchmark.jul");
+    julLogger.setUseParentHandlers(false);
+    julLogger.addHandler(julHandler);
+    julLogger.setLevel(java.util.logging.Level.INFO);
+
+    loggerContext = new LoggerContext();
+    PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+    encoder.setContext(loggerContext);
+    encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p --- [%t] %-40.40logger{39} : %m%n");
+    encoder.start();
+    OutputStreamAppender<ILoggingEvent> output = new OutputStreamAppender<>();
+    output.setContext(loggerContext);
+    output.setEncoder(encoder);
+    output.setOutputStream(OutputStream.nullOutputStream());
+    output.start();
+    AsyncAppender async = new AsyncAppender();
+    async.setContext(loggerContext);
+    async.setQueueSize(QUEUE_SIZE);
+    async.setNeverBlock(true);
+    async.addAppender(output);
+    async.start();
+    ch.qos.logback.classic.Logger logger = loggerContext.getLogger("benchmark.slf4j");
+    logger.setAdditive(false);
+    logger.addAppender(async);
+    logger.setLevel(Level.toLevel(level));
+    slf4jLogger = logger;
+  }
+
+  /** Stops the background writer and closes the handler. */
+  @TearDown
+  public void tearDown() {
+    loggerContext.stop();
+    julLogger.removeHandler(julHandler);
+    julHandler.close();
+  }
+
+  /** Logs one request the way the application did before, with java.util.logging. */
+  @Benchmark
+  public void julConcatenation() {
+    julLogger.info("Retrieving memberships for organization: " + orgId);
+    julLogger.info("Retrieving memberships for organization: " + orgId);
+    julLogger.info("Retrieved " + count + " memberships for organization: " + orgId);
+  }
+
+  /** Logs one request the way the application does now, with SLF4J and an AsyncAppender. */
+  @Benchmark
+  public void slf4jParameterized() {
+    slf4jLogger.debug("Retrieving memberships for organization: {}", orgId);
+    slf4jLogger.debug("Retrieving memberships for organization: {}", orgId);
+    slf4jLogger.info("Retrieved {} memberships for organization: {}", count, orgId);
+  }
+}
@@ -0,0 +1,100 @@
+package com.example.activityscheduler.benchmarks;
+
+import com.example.activityscheduler.common.id.UuidV7Generator;
+import com.example.activityscheduler.membership.model.MembershipId;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link MembershipId} as a hash map key, the way the membership lookup cache and the
+ * persistence context use it. Lookups use equal copies of the stored keys, so that every hit goes
+ * through {@link MembershipId#hashCode()} and {@link MembershipId#equals(Object)}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MembershipIdBenchmark {
+
+  /** Number of keys in the map. */
+  @Param({"1000", "100000"})
+  public int size;
+
+  private Map<MembershipId, Integer> map;
+  private MembershipId[] hits;
+  private MembershipId[] misses;
+  private int next;
+
+  /** Fills the map and prepares equal, but not identical, copies of its keys. */
+  @Setup(Level.Trial)
+  public void setUp() {
+    map = new HashMap<>();
+    hits = new MembershipId[size];
+    misses = new MembershipId[size];
+    UUID[] orgIds = new UUID[Math.max(1, size / 50)];
+    for (int i = 0; i < orgIds.length; i++) {
+      orgIds[i] = UuidV7Generator.generate();
+    }
+    for (int i = 0; i < size; i++) {
+      UUID orgId = orgIds[i % orgIds.length];
+      UUID userId = UuidV7Generator.generate();
+      map.put(new MembershipId(orgId, userId), i);
+      UUID sameUserId =
+          new UUID(userId.getMostSignificantBits(), userId.getLeastSignificantBits());
+      hits[i] = new MembershipId(orgId, sameUserId);
+      misses[i] = new MembershipId(orgId, UuidV7Generator.generate());
+    }
+  }
+
+  /**
+   * Hashes the next key.
+   *
+   * @return the hash code, consumed by JMH
+   */
+  @Benchmark
+  public int hashCodeOnly() {
+    return hits[advance()].hashCode();
+  }
+
+  /**
+   * Looks up a key that is in the map.
+   *
+   * @return the value, consumed by JMH
+   */
+  @Benchmark
+  public Integer getHit() {
+    return map.get(hits[advance()]);
+  }
+
+  /**
+   * Looks up a key that is not in the map.
+   *
+   * @return null, consumed by JMH
+   */
+  @Benchmark
+  public Integer getMiss() {
+    return map.get(misses[advance()]);
+  }
+
+  private int advance() {
+    int index = next;
+    next = next + 1 == size ? 0 : next + 1;
+    return index;
+  }
+}
@@ -0,0 +1,41 @@
+package com.example.activityscheduler.benchmarks;
+
+import com.example.activityscheduler.membership.model.MembershipStatus;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link MembershipStatus#fromString(String)}, which parses the status of every membership
+ * request body and query parameter, for the first and last status and for input in another case.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MembershipStatusBenchmark {
+
+  /** The string that is parsed. */
+  @Param({"ACTIVE", "SUSPENDED", "suspended"})
+  public String value;
+
+  /**
+   * Parses the status.
+   *
+   * @return the status, consumed by JMH
+   */
+  @Benchmark
+  public MembershipStatus fromString() {
+    return MembershipStatus.fromString(value);
+  }
+}
@@ -0,0 +1,286 @@
+package com.example.activityscheduler.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Compares a {@code memberships} table keyed by CHAR(36) UUIDs with the same table keyed by
+ * BINARY(16) UUIDs on MySQL. Both tables are loaded with the same rows, then the program reports
+ * the InnoDB data and index size of each table and the latency percentiles of primary key and
+ * user ID lookups.
+ *
+ * <p>Usage: {@code java -cp target/benchmarks.jar
+ * com.example.activityscheduler.benchmarks.UuidKeyStorageBenchmark <jdbc-url> <user> <password>
+ * [rows] [lookups]}. The tables are created in the schema of the JDBC URL and dropped again at the
+ * end.
+ */
+public final class UuidKeyStorageBenchmark {
+
+  private static final int DEFAULT_ROWS = 5_000_000;
+  private static final int DEFAULT_LOOKUPS = 100_000;
+  private static final int MEMBERS_PER_ORGANIZATION = 50;
+  private static final int BATCH_SIZE = 5_000;
+  private static final long SEED = 4156L;
+
+  private UuidKeyStorageBenchmark() {}
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args the JDBC URL, user and password, optionally followed by the row count and the
+   *     number of measured lookups
+   * @throws SQLException if the database cannot be reached or a statement fails
+   */
+  public static void main(String[] args) throws SQLException {
+    if (args.length < 3) {
+      System.err.println(
+          "Usage: UuidKeyStorageBenchmark <jdbc-url> <user> <password> [rows] [lookups]");
+      System.exit(2);
+    }
+    int rows = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_ROWS;
+    int lookups = args.length > 4 ? Integer.parseInt(args[4]) : DEFAULT_LOOKUPS;
+
+    Properties properties = new Properties();
+    properties.setProperty("user", args[1]);
+    properties.setProperty("password", args[2]);
+    properties.setProperty("rewriteBatchedStatements", "true");
+
+    try (Connection connection = DriverManager.getConnection(args[0], properties)) {
+      KeyType[] keyTypes = {new CharKey(), new BinaryKey()};
+      UUID[][] sample = null;
+      for (KeyType keyType : keyTypes) {
+        create(connection, keyType);
+        sample = load(connection, keyType, rows, lookups);
+      }
+      System.out.printf("%,d memberships, %,d lookups per measurement%n%n", rows, lookups);
+      System.out.printf(
+          "%-10s %12s %12s %10s %10s %10s %10s %10s %10s%n",
+          "key",
+          "data MiB",
+          "index MiB",
+          "pk p50",
+          "pk p95",
+          "pk p99",
+          "user p50",
+          "user p95",
+          "user p99");
+      for (KeyType keyType : keyTypes) {
+        long[] size = size(connection, keyType);
+        long[] byKey = measure(connection, keyType, sample, true);
+        long[] byUser = measure(connection, keyType, sample, false);
+        System.out.printf(
+            "%-10s %12.1f %12.1f %10s %10s %10s %10s %10s %10s%n",
+            keyType.columnType(),
+            size[0] / 1048576.0,
+            size[1] / 1048576.0,
+            micros(byKey, 0.50),
+            micros(byKey, 0.95),
+            micros(byKey, 0.99),
+            micros(byUser, 0.50),
+            micros(byUser, 0.95),
+            micros(byUser, 0.99));
+      }
+      for (KeyType keyType : keyTypes) {
+        try (Statement statement = connection.createStatement()) {
+          statement.execute("DROP TABLE " + keyType.table());
+        }
+      }
+    }
+  }
+
+  /** Creates the table for a key type with the production primary key and a user ID index. */
+  private static void create(Connection connection, KeyType keyType) throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("DROP TABLE IF EXISTS " + keyType.table());
+      statement.execute(
+          "CREATE TABLE "
+              + keyType.table()
+              + " (org_id "
+              + keyType.columnType()
+              + " NOT NULL, user_id "
+              + keyType.columnType()
+              + " NOT NULL, status ENUM('ACTIVE', 'INVITED', 'SUSPENDED') NOT NULL,"
+              + " created_at DATETIME(6) NOT NULL, PRIMARY KEY (org_id, user_id),"
+              + " INDEX idx_user_id (user_id)) ENGINE = InnoDB");
+    }
+  }
+
+  /**
+   * Loads the table for a key type. Every key type gets the same rows because the generator is
+   * seeded identically.
+   *
+   * @return an evenly spread sample of the loaded (organization ID, user ID) pairs
+   */
+  private static UUID[][] load(Connection connection, KeyType keyType, int rows, int lookups)
+      throws SQLException {
+    SplittableRandom random = new SplittableRandom(SEED);
+    UUID[] organizations = new UUID[Math.max(1, rows / MEMBERS_PER_ORGANIZATION)];
+    for (int i = 0; i < organizations.length; i++) {
+      organizations[i] = randomUuid(random);
+    }
+    UUID[][] sample = new UUID[lookups][];
+    int stride = Math.max(1, rows / lookups);
+    Timestamp createdAt = new Timestamp(System.currentTimeMillis());
+
+    boolean autoCommit = connection.getAutoCommit();
+    connection.setAutoCommit(false);
+    try (PreparedStatement insert =
+        connection.prepareStatement(
+            "INSERT INTO "
+                + keyType.table()
+                + " (org_id, user_id, status, created_at) VALUES (?, ?, 'ACTIVE', ?)")) {
+      for (int i = 0; i < rows; i++) {
+        UUID orgId = organizations[i % organizations.length];
+        UUID userId = randomUuid(random);
+        keyType.bind(insert, 1, orgId);
+        keyType.bind(insert, 2, userId);
+        insert.setTimestamp(3, createdAt);
+        insert.addBatch();
+        if (i % stride == 0 && i / stride < lookups) {
+          sample[i / stride] = new UUID[] {orgId, userId};
+        }
+        if ((i + 1) % BATCH_SIZE == 0) {
+          insert.executeBatch();
+          connection.commit();
+        }
+      }
+      insert.executeBatch();
+      connection.commit();
+    } finally {
+      connection.setAutoCommit(autoCommit);
+    }
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("ANALYZE TABLE " + keyType.table());
+    }
+    return Arrays.stream(sample).filter(pair -> pair != null).toArray(UUID[][]::new);
+  }
+
+  /**
+   * Reads the persistent InnoDB statistics of a table.
+   *
+   * @return the data length and the index length in bytes
+   */
+  private static long[] size(Connection connection, KeyType keyType) throws SQLException {
+    try (PreparedStatement query =
+        connection.prepareStatement(
+            "SELECT data_length, index_length FROM information_schema.tables"
+                + " WHERE table_schema = DATABASE() AND table_name = ?")) {
+      query.setString(1, keyType.table());
+      try (ResultSet result = query.executeQuery()) {
+        result.next();
+        return new long[] {result.getLong(1), result.getLong(2)};
+      }
+    }
+  }
+
+  /**
+   * Times one lookup per sampled pair after an unmeasured warm-up pass over the same keys.
+   *
+   * @param byKey true to look up by primary key, false to look up by user ID
+   * @return the sorted latencies in nanoseconds
+   */
+  private static long[] measure(
+      Connection connection, KeyType keyType, UUID[][] sample, boolean byKey)
+      throws SQLException {
+    String sql =
+        byKey
+            ? "SELECT status FROM " + keyType.table() + " WHERE org_id = ? AND user_id = ?"
+            : "SELECT org_id FROM " + keyType.table() + " WHERE user_id = ?";
+    long[] latencies = new long[sample.length];
+    try (PreparedStatement query = connection.prepareStatement(sql)) {
+      for (int pass = 0; pass < 2; pass++) {
+        for (int i = 0; i < sample.length; i++) {
+          long start = System.nanoTime();
+          if (byKey) {
+            keyType.bind(query, 1, sample[i][0]);
+            keyType.bind(query, 2, sample[i][1]);
+          } else {
+            keyType.bind(query, 1, sample[i][1]);
+          }
+          try (ResultSet result = query.executeQuery()) {
+            if (!result.next()) {
+              throw new IllegalStateException("Sampled membership not found");
+            }
+          }
+          latencies[i] = System.nanoTime() - start;
+        }
+      }
+    }
+    Arrays.sort(latencies);
+    return latencies;
+  }
+
+  private static String micros(long[] sortedNanos, double percentile) {
+    int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+    return String.format("%.0fus", sortedNanos[Math.max(0, index)] / 1000.0);
+  }
+
+  private static UUID randomUuid(SplittableRandom random) {
+    long msb = (random.nextLong() & 0xffffffffffff0fffL) | 0x0000000000004000L;
+    long lsb = (random.nextLong() & 0x3fffffffffffffffL) | 0x8000000000000000L;
+    return new UUID(msb, lsb);
+  }
+
+  /** A way of storing UUID keys. */
+  private interface KeyType {
+
+    String table();
+
+    String columnType();
+
+    void bind(PreparedStatement statement, int index, UUID id) throws SQLException;
+  }
+
+  /** UUIDs stored as their 36-character text, as before the BINARY(16) migration. */
+  private static final class CharKey implements KeyType {
+
+    @Override
+    public String table() {
+      return "bench_memberships_char";
+    }
+
+    @Override
+    public String columnType() {
+      return "CHAR(36)";
+    }
+
+    @Override
+    public void bind(PreparedStatement statement, int index, UUID id) throws SQLException {
+      statement.setString(index, id.toString());
+    }
+  }
+
+  /** UUIDs stored as 16 bytes in the order Hibernate binds them. */
+  private static final class BinaryKey implements KeyType {
+
+    @Override
+    public String table() {
+      return "bench_memberships_binary";
+    }
+
+    @Override
+    public String columnType() {
+      return "BINARY(16)";
+    }
+
+    @Override
+    public void bind(PreparedStatement statement, int index, UUID id) throws SQLException {
+      statement.setBytes(
+          index,
+          ByteBuffer.allocate(16)
+              .putLong(id.getMostSignificantBits())
+              .putLong(id.getLeastSignificantBits())
+              .array());
+    }
+  }
+}
@@ -0,0 +1,207 @@
+package com.example.activityscheduler.benchmarks.load;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The users, organizations and memberships a load test works on, created through the API before
+ * the measured run, together with the helpers that build requests against the application.
+ */
+final class Fixture {
+
+  private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+  private static final int SEED_CONCURRENCY = 32;
+  private static final int BATCH_SIZE = 1000;
+
+  private final HttpClient client;
+  private final URI baseUri;
+  private final ObjectMapper mapper;
+  private final String runId;
+  private final AtomicLong sequence = new AtomicLong();
+  private final List<UUID> users = new ArrayList<>();
+  private final List<UUID> organizations = new ArrayList<>();
+  private final List<UUID[]> memberships = new ArrayList<>();
+
+  Fixture(HttpClient client, URI baseUri, ObjectMapper mapper, String runId) {
+    this.client = client;
+    this.baseUri = baseUri;
+    this.mapper = mapper;
+    this.runId = runId;
+  }
+
+  /**
+   * Registers the users, creates the organizations, each with one of the users as its creator,
+   * and adds random members to every organization.
+   *
+   * @param userCount the number of users
+   * @param organizationCount the number of organizations
+   * @param membersPerOrganization the number of members added to each organization
+   * @param random the random source of the run
+   */
+  void seed(
+      int userCount, int organizationCount, int membersPerOrganization, SplittableRandom random) {
+    List<HttpRequest> requests = new ArrayList<>();
+    for (int i = 0; i < userCount; i++) {
+      requests.add(Operation.REGISTER_USER.request(this, random));
+    }
+    for (JsonNode user : sendAll(requests)) {
+      users.add(UUID.fromString(user.get("id").asText()));
+    }
+
+    requests.clear();
+    for (int i = 0; i < organizationCount; i++) {
+      String creator = users.get(i % users.size()).toString();
+      requests.add(
+          post(
+              "/api/organizations/create",
+              Map.of("name", organizationName(nextSequence()), "createdBy", creator)));
+    }
+    for (JsonNode organization : sendAll(requests)) {
+      UUID orgId = UUID.fromString(organization.get("id").asText());
+      organizations.add(orgId);
+      memberships.add(new UUID[] {orgId, UUID.fromString(organization.get("createdBy").asText())});
+    }
+
+    requests.clear();
+    List<Map<String, String>> items = new ArrayList<>();
+    for (UUID orgId : organizations) {
+      for (int i = 0; i < membersPerOrganization; i++) {
+        Map<String, String> item = new LinkedHashMap<>();
+        item.put("orgId", orgId.toString());
+        item.put("userId", users.get(random.nextInt(users.size())).toString());
+        item.put("status", "ACTIVE");
+        items.add(item);
+        if (items.size() == BATCH_SIZE) {
+          requests.add(post("/api/memberships/batch", List.copyOf(items)));
+          items.clear();
+        }
+      }
+    }
+    if (!items.isEmpty()) {
+      requests.add(post("/api/memberships/batch", items));
+    }
+    for (JsonNode results : sendAll(requests)) {
+      for (JsonNode result : results) {
+        if ("CREATED".equals(result.get("outcome").asText())) {
+          memberships.add(
+              new UUID[] {
+                UUID.fromString(result.get("orgId").asText()),
+                UUID.fromString(result.get("userId").asText())
+              });
+        }
+      }
+    }
+  }
+
+  /** Sends the requests with bounded concurrency and returns the parsed response bodies. */
+  private List<JsonNode> sendAll(List<HttpRequest> requests) {
+    Semaphore permits = new Semaphore(SEED_CONCURRENCY);
+    List<CompletableFuture<JsonNode>> responses = new ArrayList<>();
+    for (HttpRequest request : requests) {
+      permits.acquireUninterruptibly();
+      responses.add(
+          client
+              .sendAsync(request, HttpResponse.BodyHandlers.ofString())
+              .thenApply(this::parse)
+              .whenComplete((body, error) -> permits.release()));
+    }
+    return responses.stream().map(CompletableFuture::join).toList();
+  }
+
+  private JsonNode parse(HttpResponse<String> response) {
+    if (response.statusCode() / 100 != 2) {
+      throw new IllegalStateException(
+          "Seeding request "
+              + response.request().uri()
+              + " failed with "
+              + response.statusCode()
+              + ": "
+              + response.body());
+    }
+    try {
+      return mapper.readTree(response.body());
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  long nextSequence() {
+    return sequence.incrementAndGet();
+  }
+
+  String email(long n) {
+    return "load-" + runId + "-" + n + "@example.com";
+  }
+
+  String organizationName(long n) {
+    return "load-" + runId + "-organization-" + n;
+  }
+
+  UUID randomUser(SplittableRandom random) {
+    return users.get(random.nextInt(users.size()));
+  }
+
+  UUID randomOrganization(SplittableRandom random) {
+    return organizations.get(random.nextInt(organizations.size()));
+  }
+
+  UUID[] randomMembership(SplittableRandom random) {
+    return memberships.get(random.nextInt(memberships.size()));
+  }
+
+  int userCount() {
+    return users.size();
+  }
+
+  int organizationCount() {
+    return organizations.size();
+  }
+
+  int membershipCount() {
+    return memberships.size();
+  }
+
+  HttpRequest get(String path) {
+    return builder(path).GET().build();
+  }
+
+  HttpRequest post(String path, Object body) {
+    return builder(path).POST(json(body)).build();
+  }
+
+  HttpRequest put(String path, Object body) {
+    return builder(path).PUT(json(body)).build();
+  }
+
+  private HttpRequest.Builder builder(String path) {
+    return HttpRequest.newBuilder(baseUri.resolve(path))
+        .timeout(REQUEST_TIMEOUT)
+        .header("Content-Type", "application/json")
+        .header("Accept", "application/json");
+  }
+
+  private HttpRequest.BodyPublisher json(Object body) {
+    try {
+      return HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,191 @@
+package com.example.activityscheduler.benchmarks.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latency histograms and error counts of a load test run, per operation. Latencies are measured
+ * from the time a request was scheduled to be sent, not from when it was actually sent, so that
+ * a slow application cannot hide its queueing delay by slowing down the load generator.
+ */
+final class LoadReport {
+
+  /** The percentiles that are reported and compared against a baseline. */
+  private static final double[] PERCENTILES = {50, 99, 99.9};
+
+  private static final String[] PERCENTILE_FIELDS = {"p50Ms", "p99Ms", "p999Ms"};
+
+  // Microsecond resolution, three significant digits, up to a minute before values are clamped
+  private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+  private final Scenario scenario;
+  private final double arrivalRate;
+  private final long durationSeconds;
+  private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+  private final Map<Operation, AtomicLong> errors = new EnumMap<>(Operation.class);
+  private final AtomicLong dropped = new AtomicLong();
+
+  LoadReport(Scenario scenario, double arrivalRate, long durationSeconds) {
+    this.scenario = scenario;
+    this.arrivalRate = arrivalRate;
+    this.durationSeconds = durationSeconds;
+    for (Operation operation : scenario.operations()) {
+      latencies.put(operation, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+      errors.put(operation, new AtomicLong());
+    }
+  }
+
+  /**
+   * Records a completed request.
+   *
+   * @param operation the operation
+   * @param latencyNanos the time from the scheduled send to the complete response
+   * @param success whether the response had a 2xx status
+   */
+  void record(Operation operation, long latencyNanos, boolean success) {
+    long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS);
+    latencies.get(operation).recordValue(Math.max(1, micros));
+    if (!success) {
+      errors.get(operation).incrementAndGet();
+    }
+  }
+
+  /** Records a request that was not sent because too many requests were already in flight. */
+  void recordDropped() {
+    dropped.incrementAndGet();
+  }
+
+  /**
+   * Prints one line per operation with its count, errors and latency percentiles.
+   *
+   * @param out the stream to print to
+   */
+  void print(PrintStream out) {
+    out.printf(
+        "%s at %.0f requests/s for %d s, %d dropped%n",
+        scenario.displayName(), arrivalRate, durationSeconds, dropped.get());
+    out.printf(
+        "%-30s %9s %7s %10s %10s %10s %10s%n",
+        "operation", "count", "errors", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+    for (Map.Entry<Operation, Histogram> entry : latencies.entrySet()) {
+      Histogram histogram = entry.getValue();
+      out.printf(
+          "%-30s %9d %7d %10.2f %10.2f %10.2f %10.2f%n",
+          entry.getKey(),
+          histogram.getTotalCount(),
+          errors.get(entry.getKey()).get(),
+          millis(histogram.getValueAtPercentile(50)),
+          millis(histogram.getValueAtPercentile(99)),
+          millis(histogram.getValueAtPercentile(99.9)),
+          millis(histogram.getMaxValue()));
+    }
+  }
+
+  /**
+   * Returns the report as JSON, in the format of the result and baseline files.
+   *
+   * @param mapper the object mapper
+   * @return the JSON tree
+   */
+  ObjectNode toJson(ObjectMapper mapper) {
+    ObjectNode root = mapper.createObjectNode();
+    root.put("scenario", scenario.displayName());
+    root.put("arrivalRate", arrivalRate);
+    root.put("durationSeconds", durationSeconds);
+    root.put("recordedAt", Instant.now().toString());
+    root.put("dropped", dropped.get());
+    ObjectNode operations = root.putObject("operations");
+    for (Map.Entry<Operation, Histogram> entry : latencies.entrySet()) {
+      Histogram histogram = entry.getValue();
+      ObjectNode operation = operations.putObject(entry.getKey().name());
+      operation.put("count", histogram.getTotalCount());
+      operation.put("errors", errors.get(entry.getKey()).get());
+      for (int i = 0; i < PERCENTILES.length; i++) {
+        operation.put(PERCENTILE_FIELDS[i], millis(histogram.getValueAtPercentile(PERCENTILES[i])));
+      }
+      operation.put("maxMs", millis(histogram.getMaxValue()));
+    }
+    return root;
+  }
+
+  /**
+   * Writes the report to a JSON file, creating its directory if needed.
+   *
+   * @param mapper the object mapper
+   * @param file the file
+   * @throws IOException if the file cannot be written
+   */
+  void write(ObjectMapper mapper, Path file) throws IOException {
+    Path directory = file.toAbsolutePath().getParent();
+    if (directory != null) {
+      Files.createDirectories(directory);
+    }
+    mapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), toJson(mapper));
+  }
+
+  /**
+   * Compares this run with a baseline of the same scenario. An operation regresses when one of its
+   * percentiles is more than {@code tolerance} above the baseline, or when its error rate grew by
+   * more than one percentage point.
+   *
+   * @param mapper the object mapper
+   * @param baseline the baseline JSON, as written by {@link #write}
+   * @param tolerance the allowed relative increase of a percentile, such as 0.25
+   * @return a description of every regression, empty if there is none
+   */
+  List<String> compare(ObjectMapper mapper, JsonNode baseline, double tolerance) {
+    List<String> regressions = new ArrayList<>();
+    JsonNode current = toJson(mapper).get("operations");
+    Iterator<Map.Entry<String, JsonNode>> expected = baseline.path("operations").fields();
+    while (expected.hasNext()) {
+      Map.Entry<String, JsonNode> entry = expected.next();
+      JsonNode actual = current.get(entry.getKey());
+      if (actual == null) {
+        continue;
+      }
+      for (String field : PERCENTILE_FIELDS) {
+        double before = entry.getValue().path(field).asDouble();
+        double after = actual.path(field).asDouble();
+        if (before > 0 && after > before * (1 + tolerance)) {
+          regressions.add(
+              String.format(
+                  "%s %s rose from %.2f to %.2f ms (+%.0f%%)",
+                  entry.getKey(), field, before, after, (after / before - 1) * 100));
+        }
+      }
+      double errorRateBefore = errorRate(entry.getValue());
+      double errorRateAfter = errorRate(actual);
+      if (errorRateAfter > errorRateBefore + 0.01) {
+        regressions.add(
+            String.format(
+                "%s error rate rose from %.1f%% to %.1f%%",
+                entry.getKey(), errorRateBefore * 100, errorRateAfter * 100));
+      }
+    }
+    return regressions;
+  }
+
+  private static double errorRate(JsonNode operation) {
+    long count = operation.path("count").asLong();
+    return count == 0 ? 0 : (double) operation.path("errors").asLong() / count;
+  }
+
+  private static double millis(long micros) {
+    return micros / 1000.0;
+  }
+}
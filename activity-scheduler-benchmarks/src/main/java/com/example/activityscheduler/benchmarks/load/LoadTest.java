@@ -0,0 +1,225 @@
+package com.example.activityscheduler.benchmarks.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An open-model HTTP load test of a running application. Requests of a {@link Scenario} arrive at
+ * a fixed average rate with exponentially distributed gaps, independent of how fast the
+ * application answers, and the latency of each is recorded in a {@link LoadReport} from its
+ * scheduled arrival. The arrivals, the operation mix and the seeded data all come from one random
+ * seed, so two runs with the same options send the same requests.
+ *
+ * <p>Usage: {@code java -cp target/benchmarks.jar
+ * com.example.activityscheduler.benchmarks.load.LoadTest --scenario membership-read-heavy --rate
+ * 200}. The results are written to {@code load-results/<scenario>.json} and compared with {@code
+ * load-baselines/<scenario>.json}; the process exits with status 1 if a percentile regressed beyond
+ * the tolerance or if there is no baseline to compare with. {@code --record-baseline} writes the
+ * results as the new baseline instead.
+ */
+public final class LoadTest {
+
+  private static final Map<String, String> DEFAULTS =
+      Map.ofEntries(
+          Map.entry("base-url", "http://localhost:8080"),
+          Map.entry("scenario", "membership-read-heavy"),
+          Map.entry("rate", "100"),
+          Map.entry("duration", "60"),
+          Map.entry("warmup", "15"),
+          Map.entry("seed-users", "2000"),
+          Map.entry("seed-orgs", "200"),
+          Map.entry("members-per-org", "50"),
+          Map.entry("seed", "4156"),
+          Map.entry("max-in-flight", "1000"),
+          Map.entry("tolerance", "0.25"),
+          Map.entry("results-dir", "load-results"),
+          Map.entry("baselines-dir", "load-baselines"));
+
+  private static final String USAGE =
+      "Usage: LoadTest [--base-url url] [--scenario "
+          + String.join("|", scenarioNames())
+          + "] [--rate requests/s] [--duration s] [--warmup s] [--seed-users n] [--seed-orgs n]"
+          + " [--members-per-org n] [--seed n] [--max-in-flight n] [--tolerance fraction]"
+          + " [--results-dir dir] [--baselines-dir dir] [--record-baseline]";
+
+  private LoadTest() {}
+
+  /**
+   * Seeds the application, runs the warm-up and the measured load, and compares the results with
+   * the baseline of the scenario.
+   *
+   * @param args the options, see the usage message
+   * @throws IOException if the results or the baseline cannot be written or read
+   * @throws InterruptedException if interrupted while waiting for outstanding requests
+   */
+  public static void main(String[] args) throws IOException, InterruptedException {
+    Map<String, String> options = parse(args);
+    Scenario scenario = Scenario.fromName(options.get("scenario"));
+    double rate = Double.parseDouble(options.get("rate"));
+    long duration = Long.parseLong(options.get("duration"));
+    long warmup = Long.parseLong(options.get("warmup"));
+    long seed = Long.parseLong(options.get("seed"));
+    int maxInFlight = Integer.parseInt(options.get("max-in-flight"));
+    if (rate <= 0 || duration <= 0 || warmup < 0 || maxInFlight <= 0) {
+      throw new IllegalArgumentException("rate, duration and max-in-flight must be positive");
+    }
+
+    ObjectMapper mapper = new ObjectMapper();
+    HttpClient client =
+        HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    SplittableRandom random = new SplittableRandom(seed);
+    // Names must not collide with those of an earlier run against the same database
+    String runId = Long.toString(System.currentTimeMillis(), 36);
+    Fixture fixture = new Fixture(client, URI.create(options.get("base-url")), mapper, runId);
+
+    System.out.printf("Seeding %s...%n", options.get("base-url"));
+    fixture.seed(
+        Integer.parseInt(options.get("seed-users")),
+        Integer.parseInt(options.get("seed-orgs")),
+        Integer.parseInt(options.get("members-per-org")),
+        random.split());
+    System.out.printf(
+        "Seeded %,d users, %,d organizations and %,d memberships%n",
+        fixture.userCount(), fixture.organizationCount(), fixture.membershipCount());
+
+    LoadReport report = new LoadReport(scenario, rate, duration);
+    run(client, fixture, scenario, rate, warmup, duration, maxInFlight, random, report);
+    report.print(System.out);
+
+    String fileName = scenario.displayName() + ".json";
+    Path baseline = Path.of(options.get("baselines-dir"), fileName);
+    if (options.containsKey("record-baseline")) {
+      report.write(mapper, baseline);
+      System.out.printf("Recorded baseline %s%n", baseline);
+      return;
+    }
+    Path results = Path.of(options.get("results-dir"), fileName);
+    report.write(mapper, results);
+    System.out.printf("Wrote %s%n", results);
+    if (!Files.exists(baseline)) {
+      System.out.printf("No baseline at %s; record one with --record-baseline%n", baseline);
+      System.exit(1);
+    }
+    JsonNode expected = mapper.readTree(baseline.toFile());
+    double tolerance = Double.parseDouble(options.get("tolerance"));
+    List<String> regressions = report.compare(mapper, expected, tolerance);
+    if (regressions.isEmpty()) {
+      System.out.printf("No regression against %s%n", baseline);
+      return;
+    }
+    System.out.printf("Regressions against %s:%n", baseline);
+    regressions.forEach(regression -> System.out.printf("  %s%n", regression));
+    System.exit(1);
+  }
+
+  /**
+   * Sends requests at the arrival rate for the warm-up and the measured duration, then waits for
+   * the outstanding ones. Only requests scheduled after the warm-up are recorded. A request that
+   * would exceed the in-flight limit is counted as dropped rather than delayed, so that the
+   * schedule of the following arrivals is kept.
+   */
+  private static void run(
+      HttpClient client,
+      Fixture fixture,
+      Scenario scenario,
+      double rate,
+      long warmupSeconds,
+      long durationSeconds,
+      int maxInFlight,
+      SplittableRandom random,
+      LoadReport report)
+      throws InterruptedException {
+    AtomicInteger inFlight = new AtomicInteger();
+    double meanGapNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+    long start = System.nanoTime();
+    long measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+    long end = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+    long arrival = start;
+    while (true) {
+      arrival += (long) (-Math.log(1 - random.nextDouble()) * meanGapNanos);
+      if (arrival >= end) {
+        break;
+      }
+      long wait;
+      while ((wait = arrival - System.nanoTime()) > 0) {
+        LockSupport.parkNanos(wait);
+      }
+      boolean measured = arrival >= measureFrom;
+      Operation operation = scenario.next(random);
+      HttpRequest request = operation.request(fixture, random);
+      if (inFlight.incrementAndGet() > maxInFlight) {
+        inFlight.decrementAndGet();
+        if (measured) {
+          report.recordDropped();
+        }
+        continue;
+      }
+      long scheduled = arrival;
+      client
+          .sendAsync(request, HttpResponse.BodyHandlers.discarding())
+          .whenComplete(
+              (response, error) -> {
+                inFlight.decrementAndGet();
+                if (measured) {
+                  boolean success = error == null && response.statusCode() / 100 == 2;
+                  report.record(operation, System.nanoTime() - scheduled, success);
+                }
+              });
+    }
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+    while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+  }
+
+  private static Map<String, String> parse(String[] args) {
+    Map<String, String> options = new HashMap<>(DEFAULTS);
+    for (int i = 0; i < args.length; i++) {
+      if (!args[i].startsWith("--")) {
+        usage("Unexpected argument " + args[i]);
+      }
+      String name = args[i].substring(2);
+      if (name.equals("record-baseline")) {
+        options.put(name, "true");
+      } else if (!DEFAULTS.containsKey(name) || i + 1 == args.length) {
+        usage("Unknown option or missing value: " + args[i]);
+      } else {
+        options.put(name, args[++i]);
+      }
+    }
+    try {
+      Scenario.fromName(options.get("scenario"));
+    } catch (IllegalArgumentException e) {
+      usage("Unknown scenario " + options.get("scenario"));
+    }
+    return options;
+  }
+
+  private static void usage(String message) {
+    System.err.println(message);
+    System.err.println(USAGE);
+    System.exit(2);
+  }
+
+  private static List<String> scenarioNames() {
+    return List.of(Scenario.values()).stream().map(Scenario::displayName).toList();
+  }
+}
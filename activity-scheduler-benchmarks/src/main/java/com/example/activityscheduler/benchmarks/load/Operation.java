@@ -0,0 +1,101 @@
+package com.example.activityscheduler.benchmarks.load;
+
+import java.net.http.HttpRequest;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/** One kind of request a load test sends, built against the data of a {@link Fixture}. */
+enum Operation {
+
+  /** Registers a new user. */
+  REGISTER_USER {
+    @Override
+    HttpRequest request(Fixture fixture, SplittableRandom random) {
+      long n = fixture.nextSequence();
+      return fixture.post(
+          "/api/users/register",
+          Map.of("email", fixture.email(n), "displayName", "Load user " + n));
+    }
+  },
+
+  /** Reads a seeded user. */
+  GET_USER {
+    @Override
+    HttpRequest request(Fixture fixture, SplittableRandom random) {
+      return fixture.get("/api/users/" + fixture.randomUser(random));
+    }
+  },
+
+  /** Reads a seeded membership. */
+  GET_MEMBERSHIP {
+    @Override
+    HttpRequest request(Fixture fixture, SplittableRandom random) {
+      UUID[] membership = fixture.randomMembership(random);
+      return fixture.get("/api/memberships/" + membership[0] + "/" + membership[1]);
+    }
+  },
+
+  /** Reads the first page of a seeded organization's memberships. */
+  LIST_ORGANIZATION_MEMBERSHIPS {
+    @Override
+    HttpRequest request(Fixture fixture, SplittableRandom random) {
+      return fixture.get(
+          "/api/memberships/organization/" + fixture.randomOrganization(random) + "/page?limit=20");
+    }
+  },
+
+  /** Counts the active members of a seeded organization. */
+  COUNT_ACTIVE_MEMBERS {
+    @Override
+    HttpRequest request(Fixture fixture, SplittableRandom random) {
+      return fixture.get(
+          "/api/memberships/organization/" + fixture.randomOrganization(random) + "/active-count");
+    }
+  },
+
+  /** Reads the roster summary of a seeded organization. */
+  ROSTER_SUMMARY {
+    @Override
+    HttpRequest request(Fixture fixture, SplittableRandom random) {
+      return fixture.get(
+          "/api/organizations/" + fixture.randomOrganization(random) + "/roster-summary");
+    }
+  },
+
+  /** Creates an organization, which also creates the creator's membership. */
+  CREATE_ORGANIZATION {
+    @Override
+    HttpRequest request(Fixture fixture, SplittableRandom random) {
+      long n = fixture.nextSequence();
+      return fixture.post(
+          "/api/organizations/create",
+          Map.of(
+              "name",
+              fixture.organizationName(n),
+              "createdBy",
+              fixture.randomUser(random).toString()));
+    }
+  },
+
+  /** Switches a seeded membership between ACTIVE and SUSPENDED. */
+  UPDATE_MEMBERSHIP_STATUS {
+    @Override
+    HttpRequest request(Fixture fixture, SplittableRandom random) {
+      UUID[] membership = fixture.randomMembership(random);
+      String status = random.nextBoolean() ? "ACTIVE" : "SUSPENDED";
+      return fixture.put(
+          "/api/memberships/" + membership[0] + "/" + membership[1] + "/status",
+          Map.of("status", status));
+    }
+  };
+
+  /**
+   * Builds the next request of this kind.
+   *
+   * @param fixture the seeded data and target application
+   * @param random the random source of the run
+   * @return the request
+   */
+  abstract HttpRequest request(Fixture fixture, SplittableRandom random);
+}
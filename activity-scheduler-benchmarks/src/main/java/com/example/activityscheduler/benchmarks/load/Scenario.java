@@ -0,0 +1,86 @@
+package com.example.activityscheduler.benchmarks.load;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/** A weighted mix of operations that a load test sends at its arrival rate. */
+enum Scenario {
+
+  /** Sign-up traffic: mostly registrations, with reads of existing users. */
+  REGISTER_HEAVY(new Operation[] {Operation.REGISTER_USER, Operation.GET_USER}, new int[] {70, 30}),
+
+  /** Membership reads and authorization checks, with a few status changes. */
+  MEMBERSHIP_READ_HEAVY(
+      new Operation[] {
+        Operation.GET_MEMBERSHIP,
+        Operation.LIST_ORGANIZATION_MEMBERSHIPS,
+        Operation.COUNT_ACTIVE_MEMBERS,
+        Operation.ROSTER_SUMMARY,
+        Operation.UPDATE_MEMBERSHIP_STATUS
+      },
+      new int[] {45, 20, 15, 10, 10}),
+
+  /** Organization creation, each of which also creates the creator's membership. */
+  ORG_CREATE(
+      new Operation[] {Operation.CREATE_ORGANIZATION, Operation.ROSTER_SUMMARY},
+      new int[] {80, 20}),
+
+  /** Bursts of membership status updates, as an administrator suspending or restoring members. */
+  STATUS_UPDATES(
+      new Operation[] {Operation.UPDATE_MEMBERSHIP_STATUS, Operation.GET_MEMBERSHIP},
+      new int[] {90, 10});
+
+  private final Operation[] operations;
+  private final int[] cumulativeWeights;
+
+  Scenario(Operation[] operations, int[] weights) {
+    this.operations = operations;
+    this.cumulativeWeights = weights.clone();
+    Arrays.parallelPrefix(cumulativeWeights, Integer::sum);
+  }
+
+  /**
+   * Returns the scenario with the given command-line name, such as {@code register-heavy}.
+   *
+   * @param name the name
+   * @return the scenario
+   * @throws IllegalArgumentException if there is no such scenario
+   */
+  static Scenario fromName(String name) {
+    return valueOf(name.toUpperCase(Locale.ROOT).replace('-', '_'));
+  }
+
+  /**
+   * Returns the command-line name of this scenario.
+   *
+   * @return the name
+   */
+  String displayName() {
+    return name().toLowerCase(Locale.ROOT).replace('_', '-');
+  }
+
+  /**
+   * Picks the next operation according to the weights.
+   *
+   * @param random the random source of the run
+   * @return the operation
+   */
+  Operation next(SplittableRandom random) {
+    int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+    int i = 0;
+    while (pick >= cumulativeWeights[i]) {
+      i++;
+    }
+    return operations[i];
+  }
+
+  /**
+   * Returns the operations of this scenario.
+   *
+   * @return the operations
+   */
+  Operation[] operations() {
+    return operations.clone();
+  }
+}
@@ -0,0 +1,125 @@
+package com.example.activityscheduler.common.bloom;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter over strings that is safe for concurrent use. A negative answer from
+ * {@link #mightContain(String)} is definite; a positive answer may be a false positive.
+ *
+ * <p>Bit positions are derived from two 64-bit hashes of the key (double hashing), so each lookup
+ * hashes the key once no matter how many hash functions are used.
+ */
+public final class BloomFilter {
+
+  private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+  private final AtomicLongArray words;
+  private final long bitCount;
+  private final int hashCount;
+
+  private BloomFilter(long bitCount, int hashCount) {
+    long wordCount = (bitCount + 63) >>> 6;
+    if (wordCount > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Bloom filter too large: " + bitCount + " bits");
+    }
+    this.words = new AtomicLongArray((int) wordCount);
+    this.bitCount = wordCount << 6;
+    this.hashCount = hashCount;
+  }
+
+  /**
+   * Creates a Bloom filter sized for the given number of keys and false positive probability.
+   *
+   * @param expectedInsertions the number of keys the filter should hold
+   * @param falsePositiveProbability the target false positive probability, between 0 and 1
+   * @return an empty Bloom filter
+   * @throws IllegalArgumentException if either argument is out of range
+   */
+  public static BloomFilter create(long expectedInsertions, double falsePositiveProbability) {
+    if (expectedInsertions < 1) {
+      throw new IllegalArgumentException("Expected insertions must be positive");
+    }
+    if (!(falsePositiveProbability > 0 && falsePositiveProbability < 1)) {
+      throw new IllegalArgumentException("False positive probability must be between 0 and 1");
+    }
+    double ln2 = Math.log(2);
+    long bits =
+        (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability) / (ln2 * ln2));
+    int hashes = Math.max(1, (int) Math.round((double) bits / expectedInsertions * ln2));
+    return new BloomFilter(Math.max(64, bits), hashes);
+  }
+
+  /**
+   * Adds a key to the filter.
+   *
+   * @param key the key to add
+   */
+  public void put(String key) {
+    long h1 = hash(key);
+    long h2 = mix(h1 ^ GOLDEN_GAMMA) | 1;
+    for (int i = 0; i < hashCount; i++) {
+      long index = Math.floorMod(h1 + i * h2, bitCount);
+      int word = (int) (index >>> 6);
+      long mask = 1L << index;
+      if ((words.get(word) & mask) == 0) {
+        words.getAndAccumulate(word, mask, (current, bit) -> current | bit);
+      }
+    }
+  }
+
+  /**
+   * Checks whether the key may have been added to the filter.
+   *
+   * @param key the key to check
+   * @return false if the key was definitely never added, true if it may have been
+   */
+  public boolean mightContain(String key) {
+    long h1 = hash(key);
+    long h2 = mix(h1 ^ GOLDEN_GAMMA) | 1;
+    for (int i = 0; i < hashCount; i++) {
+      long index = Math.floorMod(h1 + i * h2, bitCount);
+      if ((words.get((int) (index >>> 6)) & (1L << index)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the number of bits in the filter.
+   *
+   * @return the bit count
+   */
+  public long bitCount() {
+    return bitCount;
+  }
+
+  /**
+   * Returns the number of bit positions set for each key.
+   *
+   * @return the hash function count
+   */
+  public int hashCount() {
+    return hashCount;
+  }
+
+  /** 64-bit FNV-1a over the UTF-16 code units of the key, finished with a mixing step. */
+  private static long hash(String key) {
+    long h = 0xcbf29ce484222325L;
+    for (int i = 0; i < key.length(); i++) {
+      h ^= key.charAt(i);
+      h *= 0x100000001b3L;
+    }
+    return mix(h);
+  }
+
+  /** The MurmurHash3 64-bit finalizer, which spreads every input bit over the whole output. */
+  private static long mix(long h) {
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+}
@@ -0,0 +1,216 @@
+package com.example.activityscheduler.common.bloom;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Bloom filter over the values of a unique column, used to answer "is this value taken?" without a
+ * database query when the answer is no. Subclasses supply the column's values; this class keeps the
+ * filter up to date.
+ *
+ * <p>The filter is built from a streaming scan when the application starts and rebuilt on a fixed
+ * delay so that deleted values eventually stop matching. Writers call {@link #add(String)} before
+ * inserting a value. Values added while a rebuild is scanning are replayed into the new filter
+ * before it replaces the old one. Until the first build finishes, every check answers "maybe".
+ *
+ * <p>Each instance only adds the values it inserts itself, so a value inserted through another
+ * instance is missing from this filter until the next rebuild scans it. A "no" is therefore only
+ * given while the filter in use was scanned less than the maximum staleness ago; after that, for
+ * example when rebuilds keep failing, every check answers "maybe" again. The maximum staleness is
+ * the longest a value inserted elsewhere can be reported as unused. A zero maximum staleness never
+ * answers "no", which is what a caller that must not miss a value should use.
+ *
+ * <p>Values are compared case-insensitively and without trailing spaces, matching how the
+ * database's default collation compares them. Values that contain non-ASCII characters always
+ * answer "maybe", because accent-insensitive collations may treat them as equal to other values.
+ */
+public abstract class KeyExistenceFilter {
+
+  /** Smallest number of keys a rebuilt filter is sized for. */
+  static final long MIN_CAPACITY = 10_000;
+
+  private static final Logger logger = LoggerFactory.getLogger(KeyExistenceFilter.class);
+
+  private final String name;
+  private final double falsePositiveProbability;
+  private final long pendingGraceNanos;
+  private final long maxStalenessNanos;
+  private final TransactionTemplate transactionTemplate;
+  private final Deque<PendingKey> pending = new ArrayDeque<>();
+  private volatile Snapshot snapshot;
+
+  /**
+   * Constructs a KeyExistenceFilter.
+   *
+   * @param name the name used in log messages
+   * @param falsePositiveProbability the target false positive probability
+   * @param pendingGrace how long an added key may take to become visible to a scan; this must be
+   *     longer than the transaction that inserts it
+   * @param maxStaleness how long after its scan started a filter may answer "no"
+   * @param transactionManager the transaction manager used for the rebuild scan
+   */
+  protected KeyExistenceFilter(
+      String name,
+      double falsePositiveProbability,
+      Duration pendingGrace,
+      Duration maxStaleness,
+      PlatformTransactionManager transactionManager) {
+    this.name = name;
+    this.falsePositiveProbability = falsePositiveProbability;
+    this.pendingGraceNanos = pendingGrace.toNanos();
+    this.maxStalenessNanos = maxStaleness.toNanos();
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setReadOnly(true);
+  }
+
+  /**
+   * Counts the values currently stored. Called inside a read-only transaction.
+   *
+   * @return the number of values
+   */
+  protected abstract long countKeys();
+
+  /**
+   * Streams every value currently stored. Called inside a read-only transaction.
+   *
+   * @return a stream of the values
+   */
+  protected abstract Stream<String> streamKeys();
+
+  /**
+   * Checks whether the value may already be taken.
+   *
+   * @param key the value to check
+   * @return false if the value is definitely not taken, true if the database must be asked
+   */
+  public boolean mightExist(String key) {
+    Snapshot current = snapshot;
+    String normalized = normalize(key);
+    return current == null
+        || normalized == null
+        || System.nanoTime() - current.scannedAt() >= maxStalenessNanos
+        || current.filter().mightContain(normalized);
+  }
+
+  /**
+   * Records a value that is about to be inserted. Must be called before the insert commits.
+   *
+   * @param key the value being inserted
+   */
+  public synchronized void add(String key) {
+    String normalized = normalize(key);
+    if (normalized == null) {
+      return;
+    }
+    long now = System.nanoTime();
+    Snapshot current = snapshot;
+    if (current != null) {
+      current.filter().put(normalized);
+    }
+    prunePending(now);
+    pending.addLast(new PendingKey(normalized, now));
+  }
+
+  /**
+   * Returns whether the first build has finished.
+   *
+   * @return true once a filter has been built
+   */
+  public boolean isReady() {
+    return snapshot != null;
+  }
+
+  /**
+   * Rebuilds the filter from a scan of the stored values and swaps it in. If the scan fails, the
+   * previous filter stays in use.
+   */
+  @Scheduled(
+      initialDelayString = "${bloom-filter.initial-delay:PT0S}",
+      fixedDelayString = "${bloom-filter.rebuild-interval:PT1M}")
+  public void rebuild() {
+    long start = System.nanoTime();
+    BloomFilter rebuilt;
+    long count;
+    try {
+      long[] scanned = new long[1];
+      rebuilt =
+          transactionTemplate.execute(
+              status -> {
+                long capacity = Math.max(MIN_CAPACITY, countKeys() * 2);
+                BloomFilter fresh = BloomFilter.create(capacity, falsePositiveProbability);
+                try (Stream<String> keys = streamKeys()) {
+                  keys.map(KeyExistenceFilter::normalize)
+                      .filter(Objects::nonNull)
+                      .forEach(
+                          key -> {
+                            fresh.put(key);
+                            scanned[0]++;
+                          });
+                }
+                return fresh;
+              });
+      count = scanned[0];
+    } catch (RuntimeException e) {
+      logger.warn("Failed to rebuild {} filter: {}", name, e.getMessage());
+      return;
+    }
+    synchronized (this) {
+      prunePending(start);
+      for (PendingKey key : pending) {
+        rebuilt.put(key.key());
+      }
+      snapshot = new Snapshot(rebuilt, start);
+    }
+    long millis = (System.nanoTime() - start) / 1_000_000;
+    logger.info(
+        "Rebuilt {} filter with {} keys and {} bits in {} ms",
+        name,
+        count,
+        rebuilt.bitCount(),
+        millis);
+  }
+
+  /**
+   * Drops pending keys that were added long enough before the given time to be committed, and so
+   * visible to any scan that starts at or after it.
+   */
+  private void prunePending(long now) {
+    while (!pending.isEmpty() && now - pending.peekFirst().addedAt() > pendingGraceNanos) {
+      pending.removeFirst();
+    }
+  }
+
+  /**
+   * Normalizes a value the way the database compares it, or returns null if the value cannot be
+   * checked safely.
+   */
+  static String normalize(String key) {
+    if (key == null) {
+      return null;
+    }
+    int end = key.length();
+    while (end > 0 && key.charAt(end - 1) == ' ') {
+      end--;
+    }
+    for (int i = 0; i < end; i++) {
+      if (key.charAt(i) > 0x7f) {
+        return null;
+      }
+    }
+    return key.substring(0, end).toLowerCase(Locale.ROOT);
+  }
+
+  private record PendingKey(String key, long addedAt) {}
+
+  /** A built filter and the time its scan started. */
+  private record Snapshot(BloomFilter filter, long scannedAt) {}
+}
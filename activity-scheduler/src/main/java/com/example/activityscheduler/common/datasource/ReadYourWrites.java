@@ -0,0 +1,87 @@
+package com.example.activityscheduler.common.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Remembers which clients wrote recently, so that their reads can be kept on the primary until the
+ * replicas have caught up, and whether the current thread is pinned to the primary.
+ *
+ * <p>A client is whatever {@link ReadYourWritesFilter} identifies it by. Clients are forgotten
+ * once the window has passed since their last write, or when more than the maximum number of
+ * clients wrote within one window.
+ */
+public class ReadYourWrites {
+
+  private final Cache<String, Boolean> recentWriters;
+  private final ThreadLocal<Boolean> pinned = new ThreadLocal<>();
+
+  /**
+   * Constructs a ReadYourWrites that reads the system clock.
+   *
+   * @param window how long after a write a client's reads stay on the primary
+   * @param maximumClients the maximum number of recent writers remembered
+   */
+  public ReadYourWrites(Duration window, long maximumClients) {
+    this(window, maximumClients, System::nanoTime);
+  }
+
+  /**
+   * Constructs a ReadYourWrites with the given clock.
+   *
+   * @param window how long after a write a client's reads stay on the primary
+   * @param maximumClients the maximum number of recent writers remembered
+   * @param nanoClock supplies the current time in nanoseconds, as {@link System#nanoTime()}
+   */
+  public ReadYourWrites(Duration window, long maximumClients, LongSupplier nanoClock) {
+    if (window.isNegative()) {
+      throw new IllegalArgumentException("Read-your-writes window must not be negative");
+    }
+    this.recentWriters =
+        Caffeine.newBuilder()
+            .maximumSize(maximumClients)
+            .expireAfterWrite(window)
+            .ticker(nanoClock::getAsLong)
+            .build();
+  }
+
+  /**
+   * Records that the client has just written.
+   *
+   * @param client the client
+   */
+  public void recordWrite(String client) {
+    recentWriters.put(client, Boolean.TRUE);
+  }
+
+  /**
+   * Returns whether the client wrote within the window.
+   *
+   * @param client the client
+   * @return true if the client's reads must stay on the primary
+   */
+  public boolean recentlyWrote(String client) {
+    return recentWriters.getIfPresent(client) != null;
+  }
+
+  /** Sends the read-only transactions of the current thread to the primary until {@link #unpin}. */
+  public void pin() {
+    pinned.set(Boolean.TRUE);
+  }
+
+  /** Lets the read-only transactions of the current thread use the replicas again. */
+  public void unpin() {
+    pinned.remove();
+  }
+
+  /**
+   * Returns whether the current thread is pinned to the primary.
+   *
+   * @return true if read-only transactions of this thread must use the primary
+   */
+  public boolean isPinned() {
+    return pinned.get() != null;
+  }
+}
@@ -0,0 +1,61 @@
+package com.example.activityscheduler.common.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Set;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Filter that keeps a client's reads on the primary database for a while after it writes, so that
+ * it sees its own changes even when the replicas lag behind.
+ *
+ * <p>Clients are identified by the {@value #CLIENT_HEADER} header, or by their remote address if
+ * they do not send it. Any request other than GET, HEAD, OPTIONS and TRACE counts as a write: it
+ * is handled entirely on the primary, and the window starts when it completes. Only the request
+ * thread is pinned; work handed to other threads may still read from a replica.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+  /** Request header identifying the client across requests. */
+  public static final String CLIENT_HEADER = "X-Client-Id";
+
+  private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+
+  private final ReadYourWrites readYourWrites;
+
+  /**
+   * Constructs a ReadYourWritesFilter.
+   *
+   * @param readYourWrites the record of recent writers
+   */
+  public ReadYourWritesFilter(ReadYourWrites readYourWrites) {
+    this.readYourWrites = readYourWrites;
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    String client = client(request);
+    boolean write = !SAFE_METHODS.contains(request.getMethod());
+    if (write || readYourWrites.recentlyWrote(client)) {
+      readYourWrites.pin();
+    }
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      readYourWrites.unpin();
+      if (write) {
+        readYourWrites.recordWrite(client);
+      }
+    }
+  }
+
+  private static String client(HttpServletRequest request) {
+    String client = request.getHeader(CLIENT_HEADER);
+    return client == null || client.isBlank() ? request.getRemoteAddr() : client;
+  }
+}
@@ -0,0 +1,181 @@
+package com.example.activityscheduler.common.datasource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Data source for read-only transactions: hands out connections to the replicas in turn, and to
+ * the primary when the current thread is pinned to it by {@link ReadYourWrites} or no replica is
+ * available.
+ *
+ * <p>A replica becomes unavailable when it refuses a connection or when {@link #checkReplicas()}
+ * finds it down or lagging more than the maximum lag, and available again at the next check that
+ * finds it healthy. Lag is measured with the configured query, which must return the replica's
+ * delay in seconds in its first column, or NULL if replication is not running. Without a lag
+ * query the check only validates a connection.
+ */
+public class ReplicaDataSource extends AbstractDataSource implements AutoCloseable {
+
+  private static final Logger logger = LoggerFactory.getLogger(ReplicaDataSource.class);
+
+  private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+  private final DataSource primary;
+  private final List<Replica> replicas = new ArrayList<>();
+  private final ReadYourWrites readYourWrites;
+  private final String lagQuery;
+  private final double maxLagSeconds;
+  private final AtomicInteger next = new AtomicInteger();
+
+  /**
+   * Constructs a ReplicaDataSource.
+   *
+   * @param primary the primary data source
+   * @param replicas the replica data sources
+   * @param readYourWrites tells whether the current thread is pinned to the primary
+   * @param lagQuery the query returning a replica's lag in seconds, or blank to only check that a
+   *     connection can be opened
+   * @param maxLag the lag beyond which a replica is not used
+   */
+  public ReplicaDataSource(
+      DataSource primary,
+      List<? extends DataSource> replicas,
+      ReadYourWrites readYourWrites,
+      String lagQuery,
+      Duration maxLag) {
+    this.primary = primary;
+    for (int i = 0; i < replicas.size(); i++) {
+      this.replicas.add(new Replica("replica-" + i, replicas.get(i)));
+    }
+    this.readYourWrites = readYourWrites;
+    this.lagQuery = lagQuery == null ? "" : lagQuery.trim();
+    this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    if (readYourWrites.isPinned()) {
+      return primary.getConnection();
+    }
+    int start = Math.floorMod(next.getAndIncrement(), Math.max(1, replicas.size()));
+    for (int i = 0; i < replicas.size(); i++) {
+      Replica replica = replicas.get((start + i) % replicas.size());
+      if (!replica.available) {
+        continue;
+      }
+      try {
+        return replica.dataSource.getConnection();
+      } catch (SQLException e) {
+        replica.markUnavailable("connection failed: " + e.getMessage());
+      }
+    }
+    return primary.getConnection();
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    throw new SQLFeatureNotSupportedException("Connections use the credentials of each pool");
+  }
+
+  /**
+   * Checks the connection and lag of every replica and updates which ones are used.
+   *
+   * @return the number of available replicas
+   */
+  @Scheduled(fixedDelayString = "${datasource.replica.check-interval:PT5S}")
+  public int checkReplicas() {
+    int available = 0;
+    for (Replica replica : replicas) {
+      String problem = check(replica);
+      if (problem == null) {
+        replica.markAvailable();
+        available++;
+      } else {
+        replica.markUnavailable(problem);
+      }
+    }
+    return available;
+  }
+
+  /** Returns why the replica must not be used, or null if it is healthy. */
+  private String check(Replica replica) {
+    try (Connection connection = replica.dataSource.getConnection()) {
+      if (lagQuery.isEmpty()) {
+        return connection.isValid(VALIDATION_TIMEOUT_SECONDS) ? null : "connection is not valid";
+      }
+      try (Statement statement = connection.createStatement()) {
+        statement.setQueryTimeout(VALIDATION_TIMEOUT_SECONDS);
+        try (ResultSet result = statement.executeQuery(lagQuery)) {
+          if (!result.next()) {
+            return "lag query returned no row";
+          }
+          double lag = result.getDouble(1);
+          if (result.wasNull()) {
+            return "replication is not running";
+          }
+          return lag <= maxLagSeconds ? null : "lagging " + lag + " s behind";
+        }
+      }
+    } catch (SQLException e) {
+      return "check failed: " + e.getMessage();
+    }
+  }
+
+  /**
+   * Returns the number of replicas currently used for reads.
+   *
+   * @return the number of available replicas
+   */
+  public int availableReplicas() {
+    return (int) replicas.stream().filter(replica -> replica.available).count();
+  }
+
+  /** Closes the replica data sources that can be closed. The primary is left open. */
+  @Override
+  public void close() throws Exception {
+    for (Replica replica : replicas) {
+      if (replica.dataSource instanceof AutoCloseable closeable) {
+        closeable.close();
+      }
+    }
+  }
+
+  /** A replica data source and whether reads are sent to it. */
+  private static final class Replica {
+
+    private final String name;
+    private final DataSource dataSource;
+    private volatile boolean available = true;
+
+    Replica(String name, DataSource dataSource) {
+      this.name = name;
+      this.dataSource = dataSource;
+    }
+
+    void markAvailable() {
+      if (!available) {
+        available = true;
+        logger.info("Sending reads to {} again", name);
+      }
+    }
+
+    void markUnavailable(String reason) {
+      if (available) {
+        available = false;
+        logger.warn("Not sending reads to {}: {}", name, reason);
+      }
+    }
+  }
+}
@@ -0,0 +1,142 @@
+package com.example.activityscheduler.common.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Sends read-only transactions to read replicas when {@code datasource.replica.urls} is set.
+ *
+ * <p>The application's data source is a {@link LazyConnectionDataSourceProxy} that opens the
+ * physical connection only at the first statement, once the transaction has marked the connection
+ * read-only: read-write transactions then get a connection to the primary, configured by the usual
+ * {@code spring.datasource.*} properties, and read-only ones a connection from the {@link
+ * ReplicaDataSource}.
+ *
+ * <p>Replicas cannot be combined with membership sharding. When {@code membership.sharding.urls}
+ * is set too, this configuration steps aside, so that the sharding configuration alone declares
+ * the application's data source and stops startup with a message naming both properties.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replica.urls")
+@ConditionalOnExpression("'${membership.sharding.urls:false}'.equalsIgnoreCase('false')")
+public class ReplicaRoutingConfig {
+
+  /**
+   * Creates the connection pool of the primary database.
+   *
+   * @param properties the {@code spring.datasource.*} properties
+   * @return the primary pool
+   */
+  @Bean
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+    return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+  }
+
+  /**
+   * Creates the record of clients that wrote recently.
+   *
+   * @param window how long after a write a client's reads stay on the primary
+   * @param maximumClients the maximum number of recent writers remembered
+   * @return the record of recent writers
+   */
+  @Bean
+  public ReadYourWrites readYourWrites(
+      @Value("${datasource.replica.read-your-writes-window:PT5S}") Duration window,
+      @Value("${datasource.replica.read-your-writes-clients:100000}") long maximumClients) {
+    return new ReadYourWrites(window, maximumClients);
+  }
+
+  /**
+   * Creates a connection pool for each replica and the data source that picks among them.
+   *
+   * @param primaryDataSource the primary pool, used when no replica is available
+   * @param readYourWrites the record of recent writers
+   * @param properties the {@code spring.datasource.*} properties
+   * @param urls the JDBC URLs of the replicas
+   * @param username the replica user, by default the primary's
+   * @param password the replica password, by default the primary's
+   * @param maximumPoolSize the maximum number of connections to each replica
+   * @param lagQuery the query returning a replica's lag in seconds, blank for none
+   * @param maxLag the lag beyond which a replica is not used
+   * @param meterRegistry the registry to publish the replica pool metrics to
+   * @return the replica data source
+   */
+  @Bean
+  public ReplicaDataSource replicaDataSource(
+      HikariDataSource primaryDataSource,
+      ReadYourWrites readYourWrites,
+      DataSourceProperties properties,
+      @Value("${datasource.replica.urls}") List<String> urls,
+      @Value("${datasource.replica.username:${spring.datasource.username:}}") String username,
+      @Value("${datasource.replica.password:${spring.datasource.password:}}") String password,
+      @Value("${datasource.replica.maximum-pool-size:10}") int maximumPoolSize,
+      @Value("${datasource.replica.lag-query:}") String lagQuery,
+      @Value("${datasource.replica.max-lag:PT2S}") Duration maxLag,
+      MeterRegistry meterRegistry) {
+    List<HikariDataSource> replicas = new ArrayList<>();
+    for (String url : urls) {
+      HikariDataSource replica =
+          properties
+              .initializeDataSourceBuilder()
+              .type(HikariDataSource.class)
+              .url(url.trim())
+              .username(username)
+              .password(password)
+              .build();
+      replica.setPoolName("replica-" + replicas.size());
+      replica.setMaximumPoolSize(maximumPoolSize);
+      replica.setReadOnly(true);
+      replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+      replicas.add(replica);
+    }
+    return new ReplicaDataSource(primaryDataSource, replicas, readYourWrites, lagQuery, maxLag);
+  }
+
+  /**
+   * Creates the data source used by JPA, Flyway and everything else in the application.
+   *
+   * @param primaryDataSource the primary pool
+   * @param replicaDataSource the data source for read-only transactions
+   * @return the routing data source
+   */
+  @Bean
+  @Primary
+  public DataSource dataSource(
+      HikariDataSource primaryDataSource, ReplicaDataSource replicaDataSource) {
+    LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+    dataSource.setReadOnlyDataSource(replicaDataSource);
+    return dataSource;
+  }
+
+  /**
+   * Registers the filter that keeps clients on the primary after they write.
+   *
+   * @param readYourWrites the record of recent writers
+   * @return the filter registration
+   */
+  @Bean
+  public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+      ReadYourWrites readYourWrites) {
+    FilterRegistrationBean<ReadYourWritesFilter> registration =
+        new FilterRegistrationBean<>(new ReadYourWritesFilter(readYourWrites));
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+    return registration;
+  }
+}
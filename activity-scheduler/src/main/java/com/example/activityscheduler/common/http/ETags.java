@@ -0,0 +1,81 @@
+package com.example.activityscheduler.common.http;
+
+/**
+ * Entity tags for conditional requests. Single entities get a strong tag made from their version
+ * column, so {@code If-Match} can carry the version a client last saw back to the server.
+ */
+public final class ETags {
+
+  private static final String WEAK_PREFIX = "W/";
+
+  private ETags() {}
+
+  /**
+   * Formats the strong entity tag of an entity version.
+   *
+   * @param version the entity version, may be null for an entity that was never saved
+   * @return the quoted tag, or null if there is no version
+   */
+  public static String ofVersion(Long version) {
+    return version == null ? null : "\"" + version + "\"";
+  }
+
+  /**
+   * Formats a weak entity tag.
+   *
+   * @param value the opaque tag value, without quotes
+   * @return the weak tag
+   */
+  public static String weak(String value) {
+    return WEAK_PREFIX + "\"" + value + "\"";
+  }
+
+  /**
+   * Tells whether an {@code If-None-Match} header matches the current tag, using the weak
+   * comparison that header calls for.
+   *
+   * @param ifNoneMatch the header value, a comma-separated list of tags or {@code *}, may be null
+   * @param etag the current tag, may be null
+   * @return true if the client's copy is still current
+   */
+  public static boolean matches(String ifNoneMatch, String etag) {
+    if (ifNoneMatch == null || etag == null) {
+      return false;
+    }
+    String current = opaque(etag);
+    for (String candidate : ifNoneMatch.split(",")) {
+      String tag = candidate.trim();
+      if (tag.equals("*") || opaque(tag).equals(current)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Reads the entity version an {@code If-Match} header expects.
+   *
+   * @param ifMatch the header value
+   * @return the expected version, or null for {@code *}, which matches any version
+   * @throws IllegalArgumentException if the header is not a single strong tag made from a version
+   */
+  public static Long parseVersion(String ifMatch) {
+    String tag = ifMatch.trim();
+    if (tag.equals("*")) {
+      return null;
+    }
+    if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+      throw new IllegalArgumentException("If-Match must be a single strong entity tag");
+    }
+    try {
+      return Long.parseLong(tag.substring(1, tag.length() - 1));
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("If-Match does not name a version of this resource");
+    }
+  }
+
+  /** Strips the weak prefix, so that weak and strong tags with the same value compare equal. */
+  private static String opaque(String tag) {
+    return tag.startsWith(WEAK_PREFIX) ? tag.substring(WEAK_PREFIX.length()) : tag;
+  }
+}
@@ -0,0 +1,39 @@
+package com.example.activityscheduler.common.id;
+
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Parses the UUID identifiers that clients send as strings. Only the full 8-4-4-4-12 form is
+ * accepted; the shortened forms that {@link UUID#fromString(String)} tolerates are rejected.
+ */
+public final class Ids {
+
+  /**
+   * Orders IDs the way the database orders their BINARY(16) form: byte by byte, unsigned. This
+   * differs from {@link UUID#compareTo(UUID)}, which compares signed halves.
+   */
+  public static final Comparator<UUID> BINARY_ORDER =
+      Comparator.comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+          .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+  private Ids() {}
+
+  /**
+   * Parses an identifier.
+   *
+   * @param value the identifier as sent by the client, may be null
+   * @return an Optional containing the UUID, or empty if the value is not a canonical UUID
+   */
+  public static Optional<UUID> parse(String value) {
+    if (value == null || value.length() != 36) {
+      return Optional.empty();
+    }
+    try {
+      return Optional.of(UUID.fromString(value));
+    } catch (IllegalArgumentException e) {
+      return Optional.empty();
+    }
+  }
+}
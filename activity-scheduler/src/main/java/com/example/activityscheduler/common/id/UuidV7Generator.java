@@ -0,0 +1,112 @@
+package com.example.activityscheduler.common.id;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * Generates time-ordered version 7 UUIDs (RFC 9562). New keys land at the right-hand end of the
+ * primary key index instead of at random pages, and generation needs no shared lock.
+ *
+ * <p>Layout: 48 bits of Unix milliseconds, the version, a 12-bit per-thread counter, the variant,
+ * a 16-bit node ID and 46 random bits. Every thread keeps its own clock reading and counter and
+ * draws its random bits from {@link ThreadLocalRandom}, so IDs from one thread are strictly
+ * increasing and threads never wait on each other. IDs from different threads are ordered by
+ * millisecond only. The node ID keeps application instances apart; it is read from the {@code
+ * id.node} system property (0-65535) and chosen at random when that is not set.
+ *
+ * <p>The random bits are not from a secure source, so IDs must not be used as secrets.
+ */
+public final class UuidV7Generator {
+
+  /** Largest value of the per-millisecond counter. */
+  static final int MAX_COUNTER = 0xfff;
+
+  /** Largest node ID. */
+  public static final int MAX_NODE = 0xffff;
+
+  private static final UuidV7Generator DEFAULT = new UuidV7Generator(defaultNode());
+
+  private final long nodeBits;
+  private final LongSupplier clock;
+  private final ThreadLocal<State> state = ThreadLocal.withInitial(State::new);
+
+  /**
+   * Creates a generator that reads the system clock.
+   *
+   * @param node the node ID, between 0 and {@link #MAX_NODE}
+   */
+  public UuidV7Generator(int node) {
+    this(node, System::currentTimeMillis);
+  }
+
+  /**
+   * Creates a generator with the given clock.
+   *
+   * @param node the node ID, between 0 and {@link #MAX_NODE}
+   * @param clock supplies the current time in Unix milliseconds
+   */
+  public UuidV7Generator(int node, LongSupplier clock) {
+    if (node < 0 || node > MAX_NODE) {
+      throw new IllegalArgumentException("Node ID must be between 0 and " + MAX_NODE);
+    }
+    this.nodeBits = (long) node << 46;
+    this.clock = clock;
+  }
+
+  /**
+   * Generates an ID with the shared generator of this application instance.
+   *
+   * @return a new version 7 UUID
+   */
+  public static UUID generate() {
+    return DEFAULT.next();
+  }
+
+  /**
+   * Generates an ID. IDs generated by the calling thread are strictly increasing, even when the
+   * clock stands still or goes backwards.
+   *
+   * @return a new version 7 UUID
+   */
+  public UUID next() {
+    State current = state.get();
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    long now = clock.getAsLong();
+    if (now > current.millis) {
+      current.millis = now;
+      // Start low in the counter range so that bursts rarely have to borrow the next millisecond
+      current.counter = random.nextInt(MAX_COUNTER / 2);
+    } else if (current.counter < MAX_COUNTER) {
+      current.counter++;
+    } else {
+      current.millis++;
+      current.counter = 0;
+    }
+    long msb = (current.millis << 16) | 0x7000L | current.counter;
+    long lsb = 0x8000000000000000L | nodeBits | (random.nextLong() & 0x3fffffffffffL);
+    return new UUID(msb, lsb);
+  }
+
+  /**
+   * Reads the timestamp of a version 7 UUID.
+   *
+   * @param id the UUID
+   * @return the Unix milliseconds the UUID was generated at
+   */
+  public static long timestamp(UUID id) {
+    return id.getMostSignificantBits() >>> 16;
+  }
+
+  private static int defaultNode() {
+    Integer configured = Integer.getInteger("id.node");
+    return configured != null ? configured : new SecureRandom().nextInt(MAX_NODE + 1);
+  }
+
+  /** Clock reading and counter of the last ID one thread generated. */
+  private static final class State {
+    private long millis = Long.MIN_VALUE;
+    private int counter;
+  }
+}
@@ -0,0 +1,25 @@
+package com.example.activityscheduler.common.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/** Registers the timing of {@link TimedOperations} beans. */
+@Configuration
+public class OperationMetricsConfig {
+
+  /**
+   * Creates the post-processor that times {@link TimedOperations} beans. It is static, and looks up
+   * the meter registry only when the first operation is timed, so that registering it does not
+   * create the registry before the other post-processors are in place.
+   *
+   * @param meterRegistry the meter registry
+   * @return the post-processor
+   */
+  @Bean
+  public static OperationMetricsPostProcessor operationMetricsPostProcessor(
+      ObjectProvider<MeterRegistry> meterRegistry) {
+    return new OperationMetricsPostProcessor(meterRegistry::getObject);
+  }
+}
@@ -0,0 +1,49 @@
+package com.example.activityscheduler.common.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.Supplier;
+import org.springframework.aop.framework.autoproxy.AbstractAdvisingBeanPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.aop.support.annotation.AnnotationClassFilter;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Proxies beans annotated with {@link TimedOperations} so that every public method they declare is
+ * timed by an {@link OperationTimingInterceptor}. Beans that are already proxied, for example for
+ * transactions, get the interceptor added in front of their existing advice, so the timing includes
+ * the commit.
+ */
+public class OperationMetricsPostProcessor extends AbstractAdvisingBeanPostProcessor {
+
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Constructs an OperationMetricsPostProcessor.
+   *
+   * @param meterRegistry supplies the registry to record timings in; called on first use
+   */
+  public OperationMetricsPostProcessor(Supplier<MeterRegistry> meterRegistry) {
+    this.advisor =
+        new DefaultPointcutAdvisor(
+            new DeclaredPublicMethodPointcut(), new OperationTimingInterceptor(meterRegistry));
+    setBeforeExistingAdvisors(true);
+    setProxyTargetClass(true);
+  }
+
+  /** Matches the public methods declared by a class annotated with {@link TimedOperations}. */
+  private static class DeclaredPublicMethodPointcut extends StaticMethodMatcherPointcut {
+
+    DeclaredPublicMethodPointcut() {
+      setClassFilter(new AnnotationClassFilter(TimedOperations.class, true));
+    }
+
+    @Override
+    public boolean matches(Method method, Class<?> targetClass) {
+      return Modifier.isPublic(method.getModifiers())
+          && method.getDeclaringClass() == ClassUtils.getUserClass(targetClass);
+    }
+  }
+}
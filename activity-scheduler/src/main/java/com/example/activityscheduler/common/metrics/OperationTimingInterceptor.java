@@ -0,0 +1,116 @@
+package com.example.activityscheduler.common.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Times method calls and records them in the {@value #METRIC} timer with a percentile histogram,
+ * tagged with the class, the method and the outcome of the call.
+ *
+ * <p>The outcome follows the conventions the controllers use to pick a response status: an empty
+ * {@link Optional} or a 404 response is {@code not_found}, an {@link IllegalArgumentException} or
+ * other 4xx response is {@code bad_request}, an {@link IllegalStateException} is {@code
+ * not_found} when its message says so and {@code conflict} otherwise, and an optimistic locking
+ * failure or a 409 or 412 response is {@code conflict}. Methods that return a streaming body are
+ * timed until the body is returned, not until it is written.
+ */
+public class OperationTimingInterceptor implements MethodInterceptor {
+
+  /** Name of the timer recording operation latency. */
+  public static final String METRIC = "app.operations";
+
+  private final Supplier<MeterRegistry> meterRegistrySupplier;
+  private volatile MeterRegistry meterRegistry;
+
+  /**
+   * Constructs an OperationTimingInterceptor.
+   *
+   * @param meterRegistry supplies the registry to record timings in; called on first use
+   */
+  public OperationTimingInterceptor(Supplier<MeterRegistry> meterRegistry) {
+    this.meterRegistrySupplier = meterRegistry;
+  }
+
+  @Override
+  public Object invoke(MethodInvocation invocation) throws Throwable {
+    long start = System.nanoTime();
+    String outcome = "error";
+    try {
+      Object result = invocation.proceed();
+      outcome = resultOutcome(result);
+      return result;
+    } catch (Throwable e) {
+      outcome = errorOutcome(e);
+      throw e;
+    } finally {
+      Timer.builder(METRIC)
+          .description("Latency of service and controller operations")
+          .tag("class", invocation.getMethod().getDeclaringClass().getSimpleName())
+          .tag("method", invocation.getMethod().getName())
+          .tag("outcome", outcome)
+          .publishPercentileHistogram()
+          .register(meterRegistry())
+          .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private MeterRegistry meterRegistry() {
+    MeterRegistry registry = meterRegistry;
+    if (registry == null) {
+      registry = meterRegistrySupplier.get();
+      meterRegistry = registry;
+    }
+    return registry;
+  }
+
+  /** Classifies a returned value. */
+  static String resultOutcome(Object result) {
+    if (result instanceof Optional<?> optional) {
+      return optional.isPresent() ? "found" : "not_found";
+    }
+    if (result instanceof ResponseEntity<?> response) {
+      return statusOutcome(response.getStatusCode());
+    }
+    return "success";
+  }
+
+  /** Classifies a thrown exception. */
+  static String errorOutcome(Throwable error) {
+    if (error instanceof ResponseStatusException e) {
+      return statusOutcome(e.getStatusCode());
+    }
+    if (error instanceof IllegalArgumentException) {
+      return "bad_request";
+    }
+    if (error instanceof IllegalStateException) {
+      String message = error.getMessage();
+      return message != null && message.contains("not found") ? "not_found" : "conflict";
+    }
+    if (error instanceof OptimisticLockingFailureException) {
+      return "conflict";
+    }
+    return "error";
+  }
+
+  private static String statusOutcome(HttpStatusCode status) {
+    if (status.value() == 404) {
+      return "not_found";
+    }
+    if (status.value() == 409 || status.value() == 412) {
+      return "conflict";
+    }
+    if (status.is4xxClientError()) {
+      return "bad_request";
+    }
+    return status.isError() ? "error" : "success";
+  }
+}
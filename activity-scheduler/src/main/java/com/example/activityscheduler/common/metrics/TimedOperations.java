@@ -0,0 +1,16 @@
+package com.example.activityscheduler.common.metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a bean whose public methods are each timed as an operation in the {@value
+ * OperationTimingInterceptor#METRIC} metric.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface TimedOperations {}
@@ -0,0 +1,86 @@
+package com.example.activityscheduler.common.pagination;
+
+import com.example.activityscheduler.common.id.Ids;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Encodes and decodes the opaque cursors used by keyset pagination. A cursor is the sort key of the
+ * last item of a page, URL-safe Base64 encoded so that clients treat it as a token rather than
+ * building it themselves.
+ */
+public final class CursorCodec {
+
+  private static final char SEPARATOR = '\u0000';
+
+  private CursorCodec() {}
+
+  /**
+   * Encodes the given key parts into an opaque cursor.
+   *
+   * @param parts the sort key values of the last item in a page
+   * @return the encoded cursor
+   */
+  public static String encode(String... parts) {
+    String joined = String.join(String.valueOf(SEPARATOR), parts);
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(joined.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Decodes a cursor into its key parts.
+   *
+   * @param cursor the encoded cursor
+   * @param expectedParts the number of key parts the cursor must contain
+   * @return the decoded key parts
+   * @throws IllegalArgumentException if the cursor is malformed
+   */
+  public static String[] decode(String cursor, int expectedParts) {
+    String joined;
+    try {
+      joined = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid cursor", e);
+    }
+    String[] parts = joined.split(String.valueOf(SEPARATOR), -1);
+    if (parts.length != expectedParts) {
+      throw new IllegalArgumentException("Invalid cursor");
+    }
+    for (String part : parts) {
+      if (part.isEmpty()) {
+        throw new IllegalArgumentException("Invalid cursor");
+      }
+    }
+    return parts;
+  }
+
+  /**
+   * Parses a timestamp key part produced by {@link LocalDateTime#toString()}.
+   *
+   * @param part the key part
+   * @return the parsed timestamp
+   * @throws IllegalArgumentException if the key part is not a valid timestamp
+   */
+  public static LocalDateTime parseTimestamp(String part) {
+    try {
+      return LocalDateTime.parse(part);
+    } catch (DateTimeParseException e) {
+      throw new IllegalArgumentException("Invalid cursor", e);
+    }
+  }
+
+  /**
+   * Parses an ID key part produced by {@link UUID#toString()}.
+   *
+   * @param part the key part
+   * @return the parsed ID
+   * @throws IllegalArgumentException if the key part is not a valid ID
+   */
+  public static UUID parseId(String part) {
+    return Ids.parse(part).orElseThrow(() -> new IllegalArgumentException("Invalid cursor"));
+  }
+}
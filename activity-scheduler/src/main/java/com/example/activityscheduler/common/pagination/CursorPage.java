@@ -0,0 +1,66 @@
+package com.example.activityscheduler.common.pagination;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+import java.util.function.Function;
+import org.springframework.data.domain.Slice;
+
+/**
+ * A single page of a keyset-paginated listing. The {@code nextCursor} is an opaque token that the
+ * client passes back to fetch the following page; it is null once the last page has been reached.
+ *
+ * @param <T> the type of the items in the page
+ */
+@Schema(description = "A page of results with an opaque cursor for the next page")
+public class CursorPage<T> {
+
+  @Schema(description = "Items in this page")
+  private final List<T> items;
+
+  @Schema(description = "Cursor to pass back to fetch the next page, null on the last page")
+  private final String nextCursor;
+
+  @Schema(description = "Whether more items are available after this page")
+  private final boolean hasMore;
+
+  /**
+   * Constructs a CursorPage.
+   *
+   * @param items the items in this page
+   * @param nextCursor the cursor for the next page, or null if this is the last page
+   */
+  public CursorPage(List<T> items, String nextCursor) {
+    this.items = items;
+    this.nextCursor = nextCursor;
+    this.hasMore = nextCursor != null;
+  }
+
+  /**
+   * Builds a CursorPage from a repository slice, deriving the next cursor from the last item.
+   *
+   * @param slice the slice returned by the repository
+   * @param cursorOf function that encodes the keyset cursor of an item
+   * @param <T> the type of the items in the page
+   * @return the cursor page
+   */
+  public static <T> CursorPage<T> of(Slice<T> slice, Function<T, String> cursorOf) {
+    List<T> content = slice.getContent();
+    String nextCursor =
+        slice.hasNext() && !content.isEmpty()
+            ? cursorOf.apply(content.get(content.size() - 1))
+            : null;
+    return new CursorPage<>(content, nextCursor);
+  }
+
+  public List<T> getItems() {
+    return items;
+  }
+
+  public String getNextCursor() {
+    return nextCursor;
+  }
+
+  public boolean isHasMore() {
+    return hasMore;
+  }
+}
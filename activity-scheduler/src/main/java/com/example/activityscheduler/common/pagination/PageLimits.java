@@ -0,0 +1,47 @@
+package com.example.activityscheduler.common.pagination;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Server-side limits for paginated listings. Clients may ask for a smaller page, but never for more
+ * than {@link #MAX_LIMIT} items at once.
+ */
+public final class PageLimits {
+
+  /** Page size used when the client does not specify one. */
+  public static final int DEFAULT_LIMIT = 50;
+
+  /** Largest page size the server will return. */
+  public static final int MAX_LIMIT = 500;
+
+  private PageLimits() {}
+
+  /**
+   * Resolves the page size requested by a client, applying the default and the maximum.
+   *
+   * @param limit the requested page size, may be null
+   * @return the page size to use
+   * @throws IllegalArgumentException if the requested page size is not positive
+   */
+  public static int resolve(Integer limit) {
+    if (limit == null) {
+      return DEFAULT_LIMIT;
+    }
+    if (limit < 1) {
+      throw new IllegalArgumentException("Limit must be a positive number");
+    }
+    return Math.min(limit, MAX_LIMIT);
+  }
+
+  /**
+   * Builds the pageable for a keyset query. Keyset queries always read from the start of their
+   * range, so only the page size matters.
+   *
+   * @param limit the requested page size, may be null
+   * @return the pageable to pass to the repository
+   */
+  public static Pageable keyset(Integer limit) {
+    return PageRequest.of(0, resolve(limit));
+  }
+}
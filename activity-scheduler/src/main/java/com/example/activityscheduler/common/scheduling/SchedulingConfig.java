@@ -0,0 +1,9 @@
+package com.example.activityscheduler.common.scheduling;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/** Enables {@code @Scheduled} background tasks. */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {}
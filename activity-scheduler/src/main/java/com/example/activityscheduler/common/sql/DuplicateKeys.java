@@ -0,0 +1,49 @@
+package com.example.activityscheduler.common.sql;
+
+import java.sql.SQLException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+
+/**
+ * Recognizes unique constraint violations, so that a write can insert first and report a taken
+ * value from the violation instead of checking for it with a query beforehand. Other integrity
+ * violations, such as foreign key failures, are not duplicates.
+ */
+public final class DuplicateKeys {
+
+  /** SQL state of a unique violation in H2 and the SQL standard. */
+  private static final String UNIQUE_VIOLATION_STATE = "23505";
+
+  /** MySQL error code of a duplicate entry, reported with the generic SQL state 23000. */
+  private static final int MYSQL_DUPLICATE_ENTRY = 1062;
+
+  private DuplicateKeys() {}
+
+  /**
+   * Tells whether an integrity violation was caused by a duplicate value in a unique index.
+   *
+   * @param e the integrity violation
+   * @return true if a unique constraint was violated
+   */
+  public static boolean isDuplicateKey(DataIntegrityViolationException e) {
+    return e instanceof DuplicateKeyException || causedByDuplicateKey(e);
+  }
+
+  /**
+   * Tells whether a failure was caused by a duplicate value in a unique index, judging only by the
+   * driver's error. Use this for failures that Spring has not translated, such as a failed flush.
+   *
+   * @param e the failure
+   * @return true if a unique constraint was violated
+   */
+  public static boolean causedByDuplicateKey(Throwable e) {
+    for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+      if (cause instanceof SQLException sqlException
+          && (UNIQUE_VIOLATION_STATE.equals(sqlException.getSQLState())
+              || sqlException.getErrorCode() == MYSQL_DUPLICATE_ENTRY)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
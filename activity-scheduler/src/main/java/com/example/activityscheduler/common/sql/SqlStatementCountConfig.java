@@ -0,0 +1,51 @@
+package com.example.activityscheduler.common.sql;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/** Registers the SQL statement counter with Hibernate and the filter that reports it. */
+@Configuration
+public class SqlStatementCountConfig {
+
+  /**
+   * Creates the statement counter.
+   *
+   * @return the statement counter
+   */
+  @Bean
+  public SqlStatementCounter sqlStatementCounter() {
+    return new SqlStatementCounter();
+  }
+
+  /**
+   * Installs the statement counter as Hibernate's statement inspector.
+   *
+   * @param counter the statement counter
+   * @return the Hibernate properties customizer
+   */
+  @Bean
+  public HibernatePropertiesCustomizer sqlStatementCounterCustomizer(SqlStatementCounter counter) {
+    return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, counter);
+  }
+
+  /**
+   * Registers the filter that reports statement counts for every request.
+   *
+   * @param counter the statement counter
+   * @param meterRegistry the meter registry
+   * @return the filter registration
+   */
+  @Bean
+  public FilterRegistrationBean<SqlStatementCountFilter> sqlStatementCountFilter(
+      SqlStatementCounter counter, MeterRegistry meterRegistry) {
+    FilterRegistrationBean<SqlStatementCountFilter> registration =
+        new FilterRegistrationBean<>(new SqlStatementCountFilter(counter, meterRegistry));
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+    return registration;
+  }
+}
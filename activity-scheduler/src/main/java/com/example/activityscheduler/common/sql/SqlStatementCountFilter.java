@@ -0,0 +1,120 @@
+package com.example.activityscheduler.common.sql;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Filter that counts the SQL statements run while handling each HTTP request. The count is
+ * reported in the {@value #HEADER} response header and recorded in the {@value #METRIC} metric,
+ * tagged with the request method and URI pattern.
+ */
+public class SqlStatementCountFilter extends OncePerRequestFilter {
+
+  /** Response header carrying the number of SQL statements run for the request. */
+  public static final String HEADER = "X-SQL-Statement-Count";
+
+  /** Name of the distribution summary recording statements per request. */
+  public static final String METRIC = "http.server.requests.sql.statements";
+
+  private final SqlStatementCounter counter;
+  private final MeterRegistry meterRegistry;
+
+  /**
+   * Constructs a SqlStatementCountFilter.
+   *
+   * @param counter the statement counter registered with Hibernate
+   * @param meterRegistry the registry to record statement counts in
+   */
+  public SqlStatementCountFilter(SqlStatementCounter counter, MeterRegistry meterRegistry) {
+    this.counter = counter;
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    counter.start();
+    CountingResponse countingResponse = new CountingResponse(response);
+    try {
+      filterChain.doFilter(request, countingResponse);
+    } finally {
+      if (!response.isCommitted()) {
+        response.setHeader(HEADER, String.valueOf(counter.current()));
+      }
+      record(request, counter.stop());
+    }
+  }
+
+  @Override
+  protected boolean shouldNotFilterAsyncDispatch() {
+    return true;
+  }
+
+  private void record(HttpServletRequest request, long count) {
+    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    DistributionSummary.builder(METRIC)
+        .description("SQL statements run per HTTP request")
+        .tag("method", request.getMethod())
+        .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+        .register(meterRegistry)
+        .record(count);
+  }
+
+  /**
+   * Response wrapper that sets the count header just before the body is written, since headers
+   * can no longer be changed once the response is committed.
+   */
+  private final class CountingResponse extends HttpServletResponseWrapper {
+
+    CountingResponse(HttpServletResponse response) {
+      super(response);
+    }
+
+    private void setCountHeader() {
+      if (!isCommitted()) {
+        setHeader(HEADER, String.valueOf(counter.current()));
+      }
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+      setCountHeader();
+      return super.getOutputStream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+      setCountHeader();
+      return super.getWriter();
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+      setCountHeader();
+      super.flushBuffer();
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+      setCountHeader();
+      super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+      setCountHeader();
+      super.sendError(sc);
+    }
+  }
+}
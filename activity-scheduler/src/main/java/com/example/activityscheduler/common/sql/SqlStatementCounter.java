@@ -0,0 +1,53 @@
+package com.example.activityscheduler.common.sql;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate statement inspector that counts the SQL statements prepared on the current thread.
+ * Counting only happens between {@link #start()} and {@link #stop()}, which {@link
+ * SqlStatementCountFilter} calls around each HTTP request.
+ *
+ * <p>Only statements issued through Hibernate are counted. Work done on other threads, such as
+ * streaming exports, is not attributed to the request.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+  private static final long serialVersionUID = 1L;
+
+  private static final ThreadLocal<long[]> COUNT = new ThreadLocal<>();
+
+  @Override
+  public String inspect(String sql) {
+    long[] count = COUNT.get();
+    if (count != null) {
+      count[0]++;
+    }
+    return sql;
+  }
+
+  /** Starts counting statements on the current thread, resetting any previous count. */
+  public void start() {
+    COUNT.set(new long[1]);
+  }
+
+  /**
+   * Returns the number of statements counted on the current thread so far.
+   *
+   * @return the statement count, or 0 if counting has not been started
+   */
+  public long current() {
+    long[] count = COUNT.get();
+    return count == null ? 0 : count[0];
+  }
+
+  /**
+   * Stops counting statements on the current thread.
+   *
+   * @return the number of statements counted since {@link #start()}
+   */
+  public long stop() {
+    long count = current();
+    COUNT.remove();
+    return count;
+  }
+}
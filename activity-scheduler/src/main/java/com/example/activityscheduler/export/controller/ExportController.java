@@ -0,0 +1,94 @@
+package com.example.activityscheduler.export.controller;
+
+import com.example.activityscheduler.export.service.ExportService;
+import com.example.activityscheduler.export.service.ExportType;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * REST controller for bulk exports. Streams whole tables as newline-delimited JSON for downstream
+ * jobs that need every row rather than a page.
+ *
+ * <p>An export is written by an asynchronous task with a timeout of its own, {@code
+ * export.timeout}, so that reading a large table is not cut short by the timeout of other
+ * asynchronous requests.
+ */
+@RestController
+@RequestMapping("/api/export")
+@Tag(name = "Export", description = "APIs for exporting all data as NDJSON")
+public class ExportController {
+
+  /** Media type of newline-delimited JSON. */
+  public static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+  private final ExportService exportService;
+  private final Duration timeout;
+  private static final Logger logger = LoggerFactory.getLogger(ExportController.class);
+
+  /**
+   * Constructs an ExportController with the given service and export timeout.
+   *
+   * @param exportService the export service
+   * @param timeout how long an export may take before it is cut off
+   */
+  public ExportController(
+      ExportService exportService, @Value("${export.timeout:30m}") Duration timeout) {
+    this.exportService = exportService;
+    this.timeout = timeout;
+  }
+
+  /**
+   * Streams every entity of the given type as newline-delimited JSON.
+   *
+   * @param entity the type of entity to export: users, organizations or memberships
+   * @param response the response to stream one JSON object per line to
+   * @return the task that writes the response
+   */
+  @Operation(
+      summary = "Export all entities of a type",
+      description =
+          "Streams every user, organization or membership as newline-delimited JSON. The response"
+              + " is written while rows are read, so it is safe to use on large tables.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Export started"),
+        @ApiResponse(responseCode = "404", description = "Unknown entity type")
+      })
+  @GetMapping("/{entity}")
+  public WebAsyncTask<Void> export(
+      @Parameter(description = "Entity type: users, organizations or memberships", required = true)
+          @PathVariable
+          String entity,
+      HttpServletResponse response) {
+    logger.info("Export requested for: {}", entity);
+    ExportType type =
+        ExportType.fromPath(entity)
+            .orElseThrow(
+                () ->
+                    new ResponseStatusException(
+                        HttpStatus.NOT_FOUND, "Unknown export type: " + entity));
+    response.setContentType(NDJSON.toString());
+    return new WebAsyncTask<>(
+        timeout.toMillis(),
+        () -> {
+          exportService.export(type, response.getOutputStream());
+          return null;
+        });
+  }
+}
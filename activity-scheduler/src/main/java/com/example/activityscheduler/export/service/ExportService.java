@@ -0,0 +1,143 @@
+package com.example.activityscheduler.export.service;
+
+import com.example.activityscheduler.membership.repository.MembershipRepository;
+import com.example.activityscheduler.membership.shard.MembershipShards;
+import com.example.activityscheduler.organization.repository.OrganizationRepository;
+import com.example.activityscheduler.user.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service that writes whole tables as newline-delimited JSON. Rows are read through a database
+ * cursor and each entity is detached once it has been written, so memory use does not grow with
+ * the number of rows. Memberships are read from every membership shard in turn, one transaction
+ * per shard.
+ *
+ * <p>On MySQL the JDBC URL needs {@code useCursorFetch=true} for the fetch size hint to take
+ * effect; without it the driver reads the whole result set into memory.
+ */
+@Service
+public class ExportService {
+
+  /** Number of rows written between flushes of the output stream. */
+  static final int FLUSH_INTERVAL = 500;
+
+  private static final Logger logger = LoggerFactory.getLogger(ExportService.class);
+
+  private final UserRepository userRepository;
+  private final OrganizationRepository organizationRepository;
+  private final MembershipRepository membershipRepository;
+  private final EntityManager entityManager;
+  private final MembershipShards shards;
+  private final TransactionTemplate transactionTemplate;
+  private final ObjectWriter writer;
+
+  /**
+   * Constructs an ExportService with the given dependencies.
+   *
+   * @param userRepository the user repository
+   * @param organizationRepository the organization repository
+   * @param membershipRepository the membership repository
+   * @param entityManager the entity manager used to detach written entities
+   * @param shards the databases the memberships are spread over
+   * @param transactionManager the transaction manager
+   * @param objectMapper the object mapper used to serialize rows
+   */
+  public ExportService(
+      UserRepository userRepository,
+      OrganizationRepository organizationRepository,
+      MembershipRepository membershipRepository,
+      EntityManager entityManager,
+      MembershipShards shards,
+      PlatformTransactionManager transactionManager,
+      ObjectMapper objectMapper) {
+    this.userRepository = userRepository;
+    this.organizationRepository = organizationRepository;
+    this.membershipRepository = membershipRepository;
+    this.entityManager = entityManager;
+    this.shards = shards;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setReadOnly(true);
+    this.writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+  }
+
+  /**
+   * Writes every entity of the given type to the output stream, one JSON object per line. Writing
+   * stops as soon as the output stream fails, for example when the client disconnects.
+   *
+   * @param type the type of entity to export
+   * @param out the output stream to write to
+   * @return the number of rows written
+   * @throws IOException if writing to the output stream fails
+   */
+  public long export(ExportType type, OutputStream out) throws IOException {
+    switch (type) {
+      case USERS:
+        return export(type, List.of(0), userRepository::streamAll, out);
+      case ORGANIZATIONS:
+        return export(type, List.of(0), organizationRepository::streamAll, out);
+      case MEMBERSHIPS:
+        List<Integer> everyShard = IntStream.range(0, shards.count()).boxed().toList();
+        return export(type, everyShard, membershipRepository::streamAll, out);
+      default:
+        throw new IllegalArgumentException("Unknown export type: " + type);
+    }
+  }
+
+  /** Writes the rows of the source on each of the given shards, in shard order. */
+  private <T> long export(
+      ExportType type, List<Integer> shardIds, Supplier<Stream<T>> source, OutputStream out)
+      throws IOException {
+    logger.info("Starting export of {}", type);
+    long count = 0;
+    try (JsonGenerator generator = writer.getFactory().createGenerator(out)) {
+      generator.setRootValueSeparator(null);
+      for (int shard : shardIds) {
+        count +=
+            shards.onShard(
+                shard, () -> transactionTemplate.execute(status -> writeRows(source, generator)));
+      }
+      logger.info("Exported {} rows of {}", count, type);
+      return count;
+    } catch (UncheckedIOException e) {
+      logger.info("Export of {} stopped: {}", type, e.getCause().getMessage());
+      throw e.getCause();
+    }
+  }
+
+  private <T> long writeRows(Supplier<Stream<T>> source, JsonGenerator generator) {
+    long count = 0;
+    try (Stream<T> rows = source.get()) {
+      Iterator<T> iterator = rows.iterator();
+      while (iterator.hasNext()) {
+        T row = iterator.next();
+        writer.writeValue(generator, row);
+        generator.writeRaw('\n');
+        entityManager.detach(row);
+        count++;
+        if (count % FLUSH_INTERVAL == 0) {
+          generator.flush();
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return count;
+  }
+}
@@ -0,0 +1,26 @@
+package com.example.activityscheduler.export.service;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/** The kinds of entities that can be exported in bulk. */
+public enum ExportType {
+  USERS,
+  ORGANIZATIONS,
+  MEMBERSHIPS;
+
+  /**
+   * Finds the export type named by a URL path segment, such as {@code users}.
+   *
+   * @param name the path segment
+   * @return an Optional containing the export type if the name is known, empty otherwise
+   */
+  public static Optional<ExportType> fromPath(String name) {
+    for (ExportType type : values()) {
+      if (type.name().toLowerCase(Locale.ROOT).equals(name)) {
+        return Optional.of(type);
+      }
+    }
+    return Optional.empty();
+  }
+}
@@ -1,7 +1,14 @@
 package com.example.activityscheduler.membership.controller;
 
+import com.example.activityscheduler.common.http.ETags;
+import com.example.activityscheduler.common.id.Ids;
+import com.example.activityscheduler.common.pagination.CursorPage;
+import com.example.activityscheduler.membership.dto.MembershipBatchItem;
+import com.example.activityscheduler.membership.dto.MembershipBatchResult;
 import com.example.activityscheduler.membership.model.Membership;
+import com.example.activityscheduler.membership.model.MembershipRosterVersion;
 import com.example.activityscheduler.membership.model.MembershipStatus;
+import com.example.activityscheduler.membership.service.MembershipBatchService;
 import com.example.activityscheduler.membership.service.MembershipService;
 import com.example.activityscheduler.organization.repository.OrganizationRepository;
 import com.example.activityscheduler.user.repository.UserRepository;
@@ -13,15 +20,21 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import java.util.List;
 import java.util.Optional;
-import java.util.logging.Logger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -35,22 +48,26 @@ import org.springframework.web.server.ResponseStatusException;
 public class MembershipController {
 
   private final MembershipService membershipService;
+  private final MembershipBatchService membershipBatchService;
   private final UserRepository userRepository;
   private final OrganizationRepository organizationRepository;
-  private static final Logger logger = Logger.getLogger(MembershipController.class.getName());
+  private static final Logger logger = LoggerFactory.getLogger(MembershipController.class);
 
   /**
-   * Constructs a MembershipController with the given service.
+   * Constructs a MembershipController with the given services.
    *
    * @param membershipService the membership service
+   * @param membershipBatchService the service for batch membership creation
    * @param userRepository the user repository
    * @param organizationRepository the organization repository
    */
   public MembershipController(
       MembershipService membershipService,
+      MembershipBatchService membershipBatchService,
       UserRepository userRepository,
       OrganizationRepository organizationRepository) {
     this.membershipService = membershipService;
+    this.membershipBatchService = membershipBatchService;
     this.userRepository = userRepository;
     this.organizationRepository = organizationRepository;
   }
@@ -69,18 +86,21 @@ public class MembershipController {
       })
   @GetMapping
   public List<Membership> getAllMemberships() {
-    logger.info("Retrieving all memberships");
+    logger.debug("Retrieving all memberships");
     List<Membership> memberships = membershipService.getAllMemberships();
-    logger.info("Retrieved " + memberships.size() + " memberships");
+    logger.info("Retrieved {} memberships", memberships.size());
     return memberships;
   }
 
   /**
-   * Retrieves a specific membership by organization ID and user ID.
+   * Retrieves a specific membership by organization ID and user ID. The response carries the
+   * membership's version as its entity tag; a request whose {@code If-None-Match} names the current
+   * version is answered with 304 Not Modified.
    *
    * @param orgId the organization ID
    * @param userId the user ID
-   * @return an Optional containing the membership if found, empty otherwise
+   * @param ifNoneMatch the entity tags the client already has, if any
+   * @return the membership if found
    */
   @Operation(
       summary = "Get membership by organization and user",
@@ -88,30 +108,40 @@ public class MembershipController {
   @ApiResponses(
       value = {
         @ApiResponse(responseCode = "200", description = "Membership found successfully"),
+        @ApiResponse(responseCode = "304", description = "Membership has not changed"),
         @ApiResponse(responseCode = "404", description = "Membership not found")
       })
   @GetMapping("/{orgId}/{userId}")
-  public Optional<Membership> getMembership(
+  public ResponseEntity<Membership> getMembership(
       @Parameter(description = "Organization ID") @PathVariable String orgId,
-      @Parameter(description = "User ID") @PathVariable String userId) {
-    logger.info("Retrieving membership for organization: " + orgId + " and user: " + userId);
+      @Parameter(description = "User ID") @PathVariable String userId,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+    logger.debug("Retrieving membership for organization: {} and user: {}", orgId, userId);
     Optional<Membership> membership = membershipService.getMembership(orgId, userId);
-    if (membership.isPresent()) {
-      logger.info(
-          "Membership found: organization: "
-              + membership.get().getOrgId()
-              + " and user: "
-              + membership.get().getUserId());
-    } else {
-      logger.info("Membership not found for organization: " + orgId + " and user: " + userId);
+    if (membership.isEmpty()) {
+      logger.info("Membership not found for organization: {} and user: {}", orgId, userId);
+      return ResponseEntity.notFound().build();
     }
-    return membership;
+    String etag = ETags.ofVersion(membership.get().getVersion());
+    if (ETags.matches(ifNoneMatch, etag)) {
+      logger.debug("Membership of organization {} and user {} not modified", orgId, userId);
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+    logger.info(
+        "Membership found: organization: {} and user: {}",
+        membership.get().getOrgId(),
+        membership.get().getUserId());
+    return ResponseEntity.ok().eTag(etag).body(membership.get());
   }
 
   /**
-   * Retrieves all memberships for a specific organization.
+   * Retrieves all memberships for a specific organization. The response carries a weak entity tag
+   * made from the roster's fingerprint; a request whose {@code If-None-Match} names the current
+   * fingerprint is answered with 304 Not Modified from one aggregate query, without loading the
+   * memberships.
    *
    * @param orgId the organization ID
+   * @param ifNoneMatch the entity tags the client already has, if any
    * @return a list of memberships for the organization
    */
   @Operation(
@@ -121,15 +151,26 @@ public class MembershipController {
       value = {
         @ApiResponse(
             responseCode = "200",
-            description = "Successfully retrieved organization memberships")
+            description = "Successfully retrieved organization memberships"),
+        @ApiResponse(responseCode = "304", description = "Memberships have not changed")
       })
   @GetMapping("/organization/{orgId}")
-  public List<Membership> getMembershipsByOrganization(
-      @Parameter(description = "Organization ID") @PathVariable String orgId) {
-    logger.info("Retrieving memberships for organization: " + orgId);
+  public ResponseEntity<List<Membership>> getMembershipsByOrganization(
+      @Parameter(description = "Organization ID") @PathVariable String orgId,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+    logger.debug("Retrieving memberships for organization: {}", orgId);
+    if (ifNoneMatch != null) {
+      String etag = ETags.weak(membershipService.getRosterVersion(orgId).tag());
+      if (ETags.matches(ifNoneMatch, etag)) {
+        logger.debug("Memberships of organization {} not modified", orgId);
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+      }
+    }
     List<Membership> memberships = membershipService.getMembershipsByOrganization(orgId);
-    logger.info("Retrieved " + memberships.size() + " memberships for organization: " + orgId);
-    return memberships;
+    logger.info("Retrieved {} memberships for organization: {}", memberships.size(), orgId);
+    return ResponseEntity.ok()
+        .eTag(ETags.weak(MembershipRosterVersion.of(memberships).tag()))
+        .body(memberships);
   }
 
   /**
@@ -148,9 +189,9 @@ public class MembershipController {
   @GetMapping("/user/{userId}")
   public List<Membership> getMembershipsByUser(
       @Parameter(description = "User ID") @PathVariable String userId) {
-    logger.info("Retrieving memberships for user: " + userId);
+    logger.debug("Retrieving memberships for user: {}", userId);
     List<Membership> memberships = membershipService.getMembershipsByUser(userId);
-    logger.info("Retrieved " + memberships.size() + " memberships for user: " + userId);
+    logger.info("Retrieved {} memberships for user: {}", memberships.size(), userId);
     return memberships;
   }
 
@@ -172,12 +213,144 @@ public class MembershipController {
   @GetMapping("/status/{status}")
   public List<Membership> getMembershipsByStatus(
       @Parameter(description = "Membership status") @PathVariable MembershipStatus status) {
-    logger.info("Retrieving memberships by status: " + status);
+    logger.debug("Retrieving memberships by status: {}", status);
     List<Membership> memberships = membershipService.getMembershipsByStatus(status);
-    logger.info("Retrieved " + memberships.size() + " memberships by status: " + status);
+    logger.info("Retrieved {} memberships by status: {}", memberships.size(), status);
     return memberships;
   }
 
+  /**
+   * Retrieves a page of all memberships.
+   *
+   * @param cursor the cursor returned with the previous page
+   * @param limit the requested page size
+   * @return a page of memberships
+   */
+  @Operation(
+      summary = "Get a page of memberships",
+      description =
+          "Retrieves memberships one page at a time, ordered by organization and user ID. Pass the"
+              + " returned nextCursor to fetch the following page.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved the page"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or limit")
+      })
+  @GetMapping("/page")
+  public CursorPage<Membership> getMembershipsPage(
+      @Parameter(description = "Cursor from the previous page") @RequestParam(required = false)
+          String cursor,
+      @Parameter(description = "Maximum number of items to return")
+          @RequestParam(required = false)
+          Integer limit) {
+    try {
+      return membershipService.getMembershipsPage(cursor, limit);
+    } catch (IllegalArgumentException e) {
+      logger.warn("Bad request for membership page: {}", e.getMessage());
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+  }
+
+  /**
+   * Retrieves a page of memberships for a specific organization.
+   *
+   * @param orgId the organization ID
+   * @param cursor the cursor returned with the previous page
+   * @param limit the requested page size
+   * @return a page of memberships for the organization
+   */
+  @Operation(
+      summary = "Get a page of memberships by organization",
+      description =
+          "Retrieves the memberships of an organization one page at a time, ordered by user ID")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved the page"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or limit")
+      })
+  @GetMapping("/organization/{orgId}/page")
+  public CursorPage<Membership> getMembershipsByOrganizationPage(
+      @Parameter(description = "Organization ID") @PathVariable String orgId,
+      @Parameter(description = "Cursor from the previous page") @RequestParam(required = false)
+          String cursor,
+      @Parameter(description = "Maximum number of items to return")
+          @RequestParam(required = false)
+          Integer limit) {
+    try {
+      return membershipService.getMembershipsByOrganizationPage(orgId, cursor, limit);
+    } catch (IllegalArgumentException e) {
+      logger.warn("Bad request for organization membership page: {}", e.getMessage());
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+  }
+
+  /**
+   * Retrieves a page of memberships for a specific user.
+   *
+   * @param userId the user ID
+   * @param cursor the cursor returned with the previous page
+   * @param limit the requested page size
+   * @return a page of memberships for the user
+   */
+  @Operation(
+      summary = "Get a page of memberships by user",
+      description =
+          "Retrieves the memberships of a user one page at a time, ordered by organization ID")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved the page"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or limit")
+      })
+  @GetMapping("/user/{userId}/page")
+  public CursorPage<Membership> getMembershipsByUserPage(
+      @Parameter(description = "User ID") @PathVariable String userId,
+      @Parameter(description = "Cursor from the previous page") @RequestParam(required = false)
+          String cursor,
+      @Parameter(description = "Maximum number of items to return")
+          @RequestParam(required = false)
+          Integer limit) {
+    try {
+      return membershipService.getMembershipsByUserPage(userId, cursor, limit);
+    } catch (IllegalArgumentException e) {
+      logger.warn("Bad request for user membership page: {}", e.getMessage());
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+  }
+
+  /**
+   * Retrieves a page of memberships with a specific status.
+   *
+   * @param status the membership status
+   * @param cursor the cursor returned with the previous page
+   * @param limit the requested page size
+   * @return a page of memberships with the specified status
+   */
+  @Operation(
+      summary = "Get a page of memberships by status",
+      description =
+          "Retrieves memberships with a specific status one page at a time, ordered by"
+              + " organization and user ID")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved the page"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or limit")
+      })
+  @GetMapping("/status/{status}/page")
+  public CursorPage<Membership> getMembershipsByStatusPage(
+      @Parameter(description = "Membership status") @PathVariable MembershipStatus status,
+      @Parameter(description = "Cursor from the previous page") @RequestParam(required = false)
+          String cursor,
+      @Parameter(description = "Maximum number of items to return")
+          @RequestParam(required = false)
+          Integer limit) {
+    try {
+      return membershipService.getMembershipsByStatusPage(status, cursor, limit);
+    } catch (IllegalArgumentException e) {
+      logger.warn("Bad request for membership status page: {}", e.getMessage());
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+  }
+
   /**
    * Creates a new membership.
    *
@@ -198,17 +371,15 @@ public class MembershipController {
     if (membershipRequest == null
         || membershipRequest.getOrgId() == null
         || membershipRequest.getUserId() == null) {
-      logger.warning("Invalid membership creation request: missing required fields");
+      logger.warn("Invalid membership creation request: missing required fields");
       throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid membership data");
     }
 
-    logger.info(
-        "Creating membership for organization: "
-            + membershipRequest.getOrgId()
-            + " and user: "
-            + membershipRequest.getUserId()
-            + " with status: "
-            + membershipRequest.getStatus());
+    logger.debug(
+        "Creating membership for organization: {} and user: {} with status: {}",
+        membershipRequest.getOrgId(),
+        membershipRequest.getUserId(),
+        membershipRequest.getStatus());
 
     try {
       Membership createdMembership =
@@ -217,26 +388,61 @@ public class MembershipController {
               membershipRequest.getUserId(),
               membershipRequest.getStatus());
       logger.info(
-          "Successfully created membership for organization: "
-              + membershipRequest.getOrgId()
-              + " and user: "
-              + membershipRequest.getUserId());
+          "Successfully created membership for organization: {} and user: {}",
+          membershipRequest.getOrgId(),
+          membershipRequest.getUserId());
       return createdMembership;
     } catch (IllegalArgumentException e) {
-      logger.warning("Bad request for membership creation: " + e.getMessage());
+      logger.warn("Bad request for membership creation: {}", e.getMessage());
       throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
     } catch (IllegalStateException e) {
-      logger.warning("Conflict during membership creation: " + e.getMessage());
+      logger.warn("Conflict during membership creation: {}", e.getMessage());
       throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
     }
   }
 
   /**
-   * Updates the status of an existing membership.
+   * Creates many memberships in one request.
+   *
+   * @param items the memberships to create
+   * @return one result per item, in request order
+   */
+  @Operation(
+      summary = "Create memberships in bulk",
+      description =
+          "Creates up to the configured maximum of memberships in one transaction. Every item gets"
+              + " a result: CREATED, EXISTS if the membership already exists or repeats an earlier"
+              + " item, or INVALID if an ID is missing or malformed.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Batch processed"),
+        @ApiResponse(responseCode = "400", description = "Batch is empty or too large")
+      })
+  @PostMapping("/batch")
+  public List<MembershipBatchResult> createMemberships(
+      @RequestBody List<MembershipBatchItem> items) {
+    if (items == null || items.isEmpty()) {
+      logger.warn("Invalid membership batch request: no items");
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid membership data");
+    }
+
+    logger.debug("Creating batch of {} memberships", items.size());
+    try {
+      return membershipBatchService.createMemberships(items);
+    } catch (IllegalArgumentException e) {
+      logger.warn("Bad request for membership batch: {}", e.getMessage());
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+  }
+
+  /**
+   * Updates the status of an existing membership. With {@code If-Match}, the update only goes
+   * through while the membership still has the version the tag names.
    *
    * @param orgId the organization ID
    * @param userId the user ID
    * @param statusUpdate the status update request
+   * @param ifMatch the entity tag of the version the client last saw, if any
    * @return the updated membership
    */
   @Operation(
@@ -246,54 +452,54 @@ public class MembershipController {
       value = {
         @ApiResponse(responseCode = "200", description = "Membership status updated successfully"),
         @ApiResponse(responseCode = "400", description = "Invalid status data"),
-        @ApiResponse(responseCode = "404", description = "Membership not found")
+        @ApiResponse(responseCode = "404", description = "Membership not found"),
+        @ApiResponse(
+            responseCode = "412",
+            description = "Membership has changed since the version in If-Match")
       })
   @PutMapping("/{orgId}/{userId}/status")
   public Membership updateMembershipStatus(
       @Parameter(description = "Organization ID") @PathVariable String orgId,
       @Parameter(description = "User ID") @PathVariable String userId,
-      @RequestBody StatusUpdateRequest statusUpdate) {
+      @RequestBody StatusUpdateRequest statusUpdate,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
     if (statusUpdate == null || statusUpdate.getStatus() == null) {
-      logger.warning("Invalid status update request: status is null");
+      logger.warn("Invalid status update request: status is null");
       throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid status data");
     }
 
-    logger.info(
-        "Updating membership status for organization: "
-            + orgId
-            + " and user: "
-            + userId
-            + " to status: "
-            + statusUpdate.getStatus());
-    if (userRepository.findById(userId).isEmpty()) {
-      logger.warning("User not found for membership status update: " + userId);
-      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
-    }
-    if (organizationRepository.findById(orgId).isEmpty()) {
-      logger.warning("Organization not found for membership status update: " + orgId);
-      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Organization not found");
-    }
+    logger.debug(
+        "Updating membership status for organization: {} and user: {} to status: {}",
+        orgId,
+        userId,
+        statusUpdate.getStatus());
     if (!statusUpdate.getStatus().equals(MembershipStatus.ACTIVE)
         && !statusUpdate.getStatus().equals(MembershipStatus.SUSPENDED)) {
-      logger.warning("Invalid status for membership update: " + statusUpdate.getStatus());
+      logger.warn("Invalid status for membership update: {}", statusUpdate.getStatus());
       throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid status data");
     }
 
     try {
+      Long expectedVersion = ifMatch == null ? null : ETags.parseVersion(ifMatch);
       Membership updatedMembership =
-          membershipService.updateMembershipStatus(orgId, userId, statusUpdate.getStatus());
+          expectedVersion == null
+              ? membershipService.updateMembershipStatus(orgId, userId, statusUpdate.getStatus())
+              : membershipService.updateMembershipStatus(
+                  orgId, userId, statusUpdate.getStatus(), expectedVersion);
       logger.info(
-          "Successfully updated membership status for organization: "
-              + orgId
-              + " and user: "
-              + userId);
+          "Successfully updated membership status for organization: {} and user: {}",
+          orgId,
+          userId);
       return updatedMembership;
     } catch (IllegalArgumentException e) {
-      logger.warning("Bad request for membership status update: " + e.getMessage());
+      logger.warn("Bad request for membership status update: {}", e.getMessage());
       throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
     } catch (IllegalStateException e) {
-      logger.warning("Membership not found for status update: " + e.getMessage());
-      throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+      throw membershipNotFound(orgId, userId, e.getMessage());
+    } catch (OptimisticLockingFailureException e) {
+      logger.warn("Membership modified concurrently: {}", e.getMessage());
+      throw new ResponseStatusException(
+          ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT, e.getMessage());
     }
   }
 
@@ -315,16 +521,16 @@ public class MembershipController {
   public void deleteMembership(
       @Parameter(description = "Organization ID") @PathVariable String orgId,
       @Parameter(description = "User ID") @PathVariable String userId) {
-    logger.info("Deleting membership for organization: " + orgId + " and user: " + userId);
+    logger.debug("Deleting membership for organization: {} and user: {}", orgId, userId);
     try {
       membershipService.deleteMembership(orgId, userId);
       logger.info(
-          "Successfully deleted membership for organization: " + orgId + " and user: " + userId);
+          "Successfully deleted membership for organization: {} and user: {}", orgId, userId);
     } catch (IllegalArgumentException e) {
-      logger.warning("Bad request for membership deletion: " + e.getMessage());
+      logger.warn("Bad request for membership deletion: {}", e.getMessage());
       throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
     } catch (IllegalStateException e) {
-      logger.warning("Membership not found for deletion: " + e.getMessage());
+      logger.warn("Membership not found for deletion: {}", e.getMessage());
       throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
     }
   }
@@ -349,10 +555,9 @@ public class MembershipController {
   public boolean existsMembership(
       @Parameter(description = "Organization ID") @PathVariable String orgId,
       @Parameter(description = "User ID") @PathVariable String userId) {
-    logger.info(
-        "Checking if membership exists for organization: " + orgId + " and user: " + userId);
+    logger.debug("Checking if membership exists for organization: {} and user: {}", orgId, userId);
     boolean exists = membershipService.existsMembership(orgId, userId);
-    logger.info("Membership exists check result: " + exists);
+    logger.info("Membership exists check result: {}", exists);
     return exists;
   }
 
@@ -374,9 +579,9 @@ public class MembershipController {
   @GetMapping("/organization/{orgId}/active-count")
   public long countActiveMembers(
       @Parameter(description = "Organization ID") @PathVariable String orgId) {
-    logger.info("Counting active members for organization: " + orgId);
+    logger.debug("Counting active members for organization: {}", orgId);
     long count = membershipService.countActiveMembers(orgId);
-    logger.info("Active member count for organization " + orgId + ": " + count);
+    logger.info("Active member count for organization {}: {}", orgId, count);
     return count;
   }
 
@@ -398,12 +603,30 @@ public class MembershipController {
   @GetMapping("/user/{userId}/count")
   public long countUserMemberships(
       @Parameter(description = "User ID") @PathVariable String userId) {
-    logger.info("Counting memberships for user: " + userId);
+    logger.debug("Counting memberships for user: {}", userId);
     long count = membershipService.countUserMemberships(userId);
-    logger.info("Membership count for user " + userId + ": " + count);
+    logger.info("Membership count for user {}: {}", userId, count);
     return count;
   }
 
+  /**
+   * Explains a status update that found no membership, naming the user or organization when that
+   * is what is missing. Runs only after the update failed, so a successful update never looks up
+   * the user or organization.
+   */
+  private ResponseStatusException membershipNotFound(String orgId, String userId, String message) {
+    if (!Ids.parse(userId).map(userRepository::existsById).orElse(false)) {
+      logger.warn("User not found for membership status update: {}", userId);
+      return new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
+    }
+    if (!Ids.parse(orgId).map(organizationRepository::existsById).orElse(false)) {
+      logger.warn("Organization not found for membership status update: {}", orgId);
+      return new ResponseStatusException(HttpStatus.NOT_FOUND, "Organization not found");
+    }
+    logger.warn("Membership not found for status update: {}", message);
+    return new ResponseStatusException(HttpStatus.NOT_FOUND, message);
+  }
+
   /** Request DTO for creating a membership. */
   public static class MembershipRequest {
     @Schema(description = "Organization ID", required = true)
@@ -0,0 +1,59 @@
+package com.example.activityscheduler.membership.dto;
+
+import com.example.activityscheduler.membership.model.MembershipStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/** DTO for one membership of a batch creation request. */
+@Schema(description = "Membership to create as part of a batch")
+public class MembershipBatchItem {
+
+  @Schema(description = "Organization ID", required = true)
+  private String orgId;
+
+  @Schema(description = "User ID", required = true)
+  private String userId;
+
+  @Schema(description = "Membership status", example = "INVITED", defaultValue = "INVITED")
+  private MembershipStatus status = MembershipStatus.INVITED;
+
+  /** Default constructor. */
+  public MembershipBatchItem() {}
+
+  /**
+   * Constructs a MembershipBatchItem with the specified organization ID, user ID, and status.
+   *
+   * @param orgId the organization ID
+   * @param userId the user ID
+   * @param status the membership status
+   */
+  public MembershipBatchItem(String orgId, String userId, MembershipStatus status) {
+    this.orgId = orgId;
+    this.userId = userId;
+    this.status = status;
+  }
+
+  // Getters and setters
+  public String getOrgId() {
+    return orgId;
+  }
+
+  public void setOrgId(String orgId) {
+    this.orgId = orgId;
+  }
+
+  public String getUserId() {
+    return userId;
+  }
+
+  public void setUserId(String userId) {
+    this.userId = userId;
+  }
+
+  public MembershipStatus getStatus() {
+    return status;
+  }
+
+  public void setStatus(MembershipStatus status) {
+    this.status = status;
+  }
+}
@@ -0,0 +1,72 @@
+package com.example.activityscheduler.membership.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/** DTO reporting what happened to one item of a batch membership creation request. */
+@Schema(description = "Result for one membership of a batch")
+public class MembershipBatchResult {
+
+  /** Outcome of a batch item. */
+  public enum Outcome {
+    /** The membership was created. */
+    CREATED,
+    /** The membership already existed or appeared earlier in the same batch. */
+    EXISTS,
+    /** The item was rejected because an ID is missing or not a UUID. */
+    INVALID
+  }
+
+  @Schema(description = "Position of the item in the request, starting at 0")
+  private final int index;
+
+  @Schema(description = "Organization ID as sent")
+  private final String orgId;
+
+  @Schema(description = "User ID as sent")
+  private final String userId;
+
+  @Schema(description = "Outcome of the item")
+  private final Outcome outcome;
+
+  @Schema(description = "Why the item was not created, if it was not")
+  private final String message;
+
+  /**
+   * Constructs a MembershipBatchResult.
+   *
+   * @param index the position of the item in the request
+   * @param orgId the organization ID as sent
+   * @param userId the user ID as sent
+   * @param outcome the outcome of the item
+   * @param message why the item was not created, or null if it was
+   */
+  public MembershipBatchResult(
+      int index, String orgId, String userId, Outcome outcome, String message) {
+    this.index = index;
+    this.orgId = orgId;
+    this.userId = userId;
+    this.outcome = outcome;
+    this.message = message;
+  }
+
+  // Getters
+  public int getIndex() {
+    return index;
+  }
+
+  public String getOrgId() {
+    return orgId;
+  }
+
+  public String getUserId() {
+    return userId;
+  }
+
+  public Outcome getOutcome() {
+    return outcome;
+  }
+
+  public String getMessage() {
+    return message;
+  }
+}
@@ -6,63 +6,92 @@ import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
 import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 /**
  * Membership entity representing the relationship between users and organizations. Maps to the
  * 'memberships' table in the database with composite primary key.
  */
 @Entity
-@Table(name = "memberships")
+@Table(
+    name = "memberships",
+    indexes = {
+      @Index(name = "idx_memberships_user_id_status", columnList = "user_id, status"),
+      @Index(
+          name = "idx_memberships_org_id_status_created_at_user_id",
+          columnList = "org_id, status, created_at, user_id"),
+      @Index(name = "idx_memberships_status_org_id_user_id", columnList = "status, org_id, user_id")
+    })
 @IdClass(MembershipId.class)
 public class Membership {
 
   @Id
-  @Column(name = "org_id", length = 36, nullable = false)
-  private String orgId;
+  @Column(name = "org_id", nullable = false)
+  private UUID orgId;
 
   @Id
-  @Column(name = "user_id", length = 36, nullable = false)
-  private String userId;
+  @Column(name = "user_id", nullable = false)
+  private UUID userId;
 
   @Enumerated(EnumType.STRING)
   @Column(name = "status", nullable = false)
   private MembershipStatus status = MembershipStatus.ACTIVE;
 
   @Column(name = "created_at", nullable = false)
-  private LocalDateTime createdAt = LocalDateTime.now();
+  private LocalDateTime createdAt;
 
-  /** Default constructor. */
+  // Null until the membership is first stored. Spring Data's save() reads a null version as new
+  // and persists the membership, where the assigned key alone would make it merge, which selects
+  // by key before inserting.
+  @Version
+  @Column(name = "version", nullable = false)
+  private Long version;
+
+  /** Default constructor, used by JPA for every row it loads. Leaves the creation time unset. */
   public Membership() {}
 
   /**
-   * Constructs a Membership with the specified organization ID, user ID, and status.
+   * Constructs a new Membership with the specified organization ID, user ID, and status. Sets the
+   * creation time to now.
    *
    * @param orgId the organization ID
    * @param userId the user ID
    * @param status the membership status
    */
-  public Membership(String orgId, String userId, MembershipStatus status) {
+  public Membership(UUID orgId, UUID userId, MembershipStatus status) {
     this.orgId = orgId;
     this.userId = userId;
     this.status = status;
+    this.createdAt = LocalDateTime.now();
+  }
+
+  /** Stamps the creation time of a membership built with the default constructor and setters. */
+  @PrePersist
+  void onCreate() {
+    if (createdAt == null) {
+      createdAt = LocalDateTime.now();
+    }
   }
 
   // Getters and Setters
-  public String getOrgId() {
+  public UUID getOrgId() {
     return orgId;
   }
 
-  public void setOrgId(String orgId) {
+  public void setOrgId(UUID orgId) {
     this.orgId = orgId;
   }
 
-  public String getUserId() {
+  public UUID getUserId() {
     return userId;
   }
 
-  public void setUserId(String userId) {
+  public void setUserId(UUID userId) {
     this.userId = userId;
   }
 
@@ -81,4 +110,12 @@ public class Membership {
   public void setCreatedAt(LocalDateTime createdAt) {
     this.createdAt = createdAt;
   }
+
+  public Long getVersion() {
+    return version;
+  }
+
+  public void setVersion(Long version) {
+    this.version = version;
+  }
 }
@@ -2,6 +2,7 @@ package com.example.activityscheduler.membership.model;
 
 import java.io.Serializable;
 import java.util.Objects;
+import java.util.UUID;
 
 /**
  * Composite primary key for Membership entity. Represents the combination of organization ID and
@@ -9,8 +10,8 @@ import java.util.Objects;
  */
 public class MembershipId implements Serializable {
 
-  private String orgId;
-  private String userId;
+  private UUID orgId;
+  private UUID userId;
 
   /** Default constructor. */
   public MembershipId() {}
@@ -21,24 +22,24 @@ public class MembershipId implements Serializable {
    * @param orgId the organization ID
    * @param userId the user ID
    */
-  public MembershipId(String orgId, String userId) {
+  public MembershipId(UUID orgId, UUID userId) {
     this.orgId = orgId;
     this.userId = userId;
   }
 
-  public String getOrgId() {
+  public UUID getOrgId() {
     return orgId;
   }
 
-  public void setOrgId(String orgId) {
+  public void setOrgId(UUID orgId) {
     this.orgId = orgId;
   }
 
-  public String getUserId() {
+  public UUID getUserId() {
     return userId;
   }
 
-  public void setUserId(String userId) {
+  public void setUserId(UUID userId) {
     this.userId = userId;
   }
 
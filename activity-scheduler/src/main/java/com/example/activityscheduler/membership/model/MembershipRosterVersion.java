@@ -0,0 +1,76 @@
+package com.example.activityscheduler.membership.model;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Fingerprint of an organization's roster, as computed by an aggregate query over the memberships
+ * table. Adding a membership changes the count and the newest creation time, removing one changes
+ * the count, and changing one bumps its version and so the version sum, which makes the
+ * fingerprint usable as a weak entity tag for the roster.
+ */
+public class MembershipRosterVersion {
+
+  private final long memberCount;
+  private final long versionSum;
+  private final LocalDateTime newestCreatedAt;
+
+  /**
+   * Constructs a MembershipRosterVersion.
+   *
+   * @param memberCount the number of memberships
+   * @param versionSum the sum of the versions of the memberships
+   * @param newestCreatedAt the creation time of the newest membership, or null if there is none
+   */
+  public MembershipRosterVersion(long memberCount, long versionSum, LocalDateTime newestCreatedAt) {
+    this.memberCount = memberCount;
+    this.versionSum = versionSum;
+    this.newestCreatedAt = newestCreatedAt;
+  }
+
+  /**
+   * Computes the fingerprint of a roster that has already been loaded, the same way the query
+   * does.
+   *
+   * @param memberships the memberships of the organization
+   * @return the fingerprint
+   */
+  public static MembershipRosterVersion of(List<Membership> memberships) {
+    long versionSum = 0;
+    LocalDateTime newestCreatedAt = null;
+    for (Membership membership : memberships) {
+      versionSum += membership.getVersion() == null ? 0 : membership.getVersion();
+      LocalDateTime createdAt = membership.getCreatedAt();
+      if (createdAt != null && (newestCreatedAt == null || createdAt.isAfter(newestCreatedAt))) {
+        newestCreatedAt = createdAt;
+      }
+    }
+    return new MembershipRosterVersion(memberships.size(), versionSum, newestCreatedAt);
+  }
+
+  /**
+   * Returns the opaque tag value of the fingerprint.
+   *
+   * @return the tag value, without quotes
+   */
+  public String tag() {
+    // The database keeps microseconds, so a roster read back from it gives the same tag
+    String newest =
+        newestCreatedAt == null ? "0" : newestCreatedAt.truncatedTo(ChronoUnit.MICROS).toString();
+    return memberCount + "-" + versionSum + "-" + newest;
+  }
+
+  // Getters
+  public long getMemberCount() {
+    return memberCount;
+  }
+
+  public long getVersionSum() {
+    return versionSum;
+  }
+
+  public LocalDateTime getNewestCreatedAt() {
+    return newestCreatedAt;
+  }
+}
@@ -0,0 +1,52 @@
+package com.example.activityscheduler.membership.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Aggregate of the memberships an organization has with one status, as computed by a grouped
+ * query over the memberships table.
+ */
+public class MembershipStatusSummary {
+
+  private final MembershipStatus status;
+  private final long memberCount;
+  private final LocalDateTime newestCreatedAt;
+  private final long matchingUserCount;
+
+  /**
+   * Constructs a MembershipStatusSummary.
+   *
+   * @param status the membership status
+   * @param memberCount the number of memberships with the status
+   * @param newestCreatedAt the creation time of the newest membership with the status
+   * @param matchingUserCount the number of those memberships that belong to the user the query
+   *     looked for, which is 0 or 1
+   */
+  public MembershipStatusSummary(
+      MembershipStatus status,
+      long memberCount,
+      LocalDateTime newestCreatedAt,
+      long matchingUserCount) {
+    this.status = status;
+    this.memberCount = memberCount;
+    this.newestCreatedAt = newestCreatedAt;
+    this.matchingUserCount = matchingUserCount;
+  }
+
+  // Getters
+  public MembershipStatus getStatus() {
+    return status;
+  }
+
+  public long getMemberCount() {
+    return memberCount;
+  }
+
+  public LocalDateTime getNewestCreatedAt() {
+    return newestCreatedAt;
+  }
+
+  public long getMatchingUserCount() {
+    return matchingUserCount;
+  }
+}
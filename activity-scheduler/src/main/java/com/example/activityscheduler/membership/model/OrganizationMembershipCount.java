@@ -0,0 +1,74 @@
+package com.example.activityscheduler.membership.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import java.util.UUID;
+
+/**
+ * Number of memberships an organization has with one status. Maintained together with the
+ * memberships so that member counts are read by primary key instead of counted.
+ */
+@Entity
+@Table(name = "organization_membership_counts")
+@IdClass(OrganizationMembershipCountId.class)
+public class OrganizationMembershipCount {
+
+  @Id
+  @Column(name = "org_id", nullable = false)
+  private UUID orgId;
+
+  @Id
+  @Enumerated(EnumType.STRING)
+  @Column(name = "status", nullable = false)
+  private MembershipStatus status;
+
+  @Column(name = "member_count", nullable = false)
+  private long memberCount;
+
+  /** Default constructor. */
+  public OrganizationMembershipCount() {}
+
+  /**
+   * Constructs an OrganizationMembershipCount.
+   *
+   * @param orgId the organization ID
+   * @param status the membership status
+   * @param memberCount the number of memberships
+   */
+  public OrganizationMembershipCount(UUID orgId, MembershipStatus status, long memberCount) {
+    this.orgId = orgId;
+    this.status = status;
+    this.memberCount = memberCount;
+  }
+
+  /**
+   * Returns the key of this counter.
+   *
+   * @return the organization ID and status
+   */
+  public OrganizationMembershipCountId getId() {
+    return new OrganizationMembershipCountId(orgId, status);
+  }
+
+  // Getters and Setters
+  public UUID getOrgId() {
+    return orgId;
+  }
+
+  public MembershipStatus getStatus() {
+    return status;
+  }
+
+  public long getMemberCount() {
+    return memberCount;
+  }
+
+  public void setMemberCount(long memberCount) {
+    this.memberCount = memberCount;
+  }
+}
@@ -0,0 +1,67 @@
+package com.example.activityscheduler.membership.model;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Composite primary key for OrganizationMembershipCount entity. Represents the combination of
+ * organization ID and membership status.
+ */
+public class OrganizationMembershipCountId implements Serializable {
+
+  private UUID orgId;
+  private MembershipStatus status;
+
+  /** Default constructor. */
+  public OrganizationMembershipCountId() {}
+
+  /**
+   * Constructs an OrganizationMembershipCountId with the specified organization ID and status.
+   *
+   * @param orgId the organization ID
+   * @param status the membership status
+   */
+  public OrganizationMembershipCountId(UUID orgId, MembershipStatus status) {
+    this.orgId = orgId;
+    this.status = status;
+  }
+
+  public UUID getOrgId() {
+    return orgId;
+  }
+
+  public void setOrgId(UUID orgId) {
+    this.orgId = orgId;
+  }
+
+  public MembershipStatus getStatus() {
+    return status;
+  }
+
+  public void setStatus(MembershipStatus status) {
+    this.status = status;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    OrganizationMembershipCountId that = (OrganizationMembershipCountId) o;
+    return Objects.equals(orgId, that.orgId) && status == that.status;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(orgId, status);
+  }
+
+  @Override
+  public String toString() {
+    return "OrganizationMembershipCountId{orgId='" + orgId + "', status=" + status + '}';
+  }
+}
@@ -0,0 +1,50 @@
+package com.example.activityscheduler.membership.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.util.UUID;
+
+/**
+ * Number of memberships a user has across all organizations. Maintained together with the
+ * memberships so that the count is read by primary key instead of counted.
+ */
+@Entity
+@Table(name = "user_membership_counts")
+public class UserMembershipCount {
+
+  @Id
+  @Column(name = "user_id", nullable = false)
+  private UUID userId;
+
+  @Column(name = "membership_count", nullable = false)
+  private long membershipCount;
+
+  /** Default constructor. */
+  public UserMembershipCount() {}
+
+  /**
+   * Constructs a UserMembershipCount.
+   *
+   * @param userId the user ID
+   * @param membershipCount the number of memberships
+   */
+  public UserMembershipCount(UUID userId, long membershipCount) {
+    this.userId = userId;
+    this.membershipCount = membershipCount;
+  }
+
+  // Getters and Setters
+  public UUID getUserId() {
+    return userId;
+  }
+
+  public long getMembershipCount() {
+    return membershipCount;
+  }
+
+  public void setMembershipCount(long membershipCount) {
+    this.membershipCount = membershipCount;
+  }
+}
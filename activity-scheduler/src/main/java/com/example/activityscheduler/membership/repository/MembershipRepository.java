@@ -2,11 +2,26 @@ package com.example.activityscheduler.membership.repository;
 
 import com.example.activityscheduler.membership.model.Membership;
 import com.example.activityscheduler.membership.model.MembershipId;
+import com.example.activityscheduler.membership.model.MembershipRosterVersion;
 import com.example.activityscheduler.membership.model.MembershipStatus;
+import com.example.activityscheduler.membership.model.MembershipStatusSummary;
+import com.example.activityscheduler.membership.model.OrganizationMembershipCount;
+import com.example.activityscheduler.membership.model.UserMembershipCount;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -23,7 +38,7 @@ public interface MembershipRepository extends JpaRepository<Membership, Membersh
    * @param orgId the organization ID
    * @return a list of memberships for the organization
    */
-  List<Membership> findByOrgId(String orgId);
+  List<Membership> findByOrgId(UUID orgId);
 
   /**
    * Finds all memberships for a specific user.
@@ -31,7 +46,7 @@ public interface MembershipRepository extends JpaRepository<Membership, Membersh
    * @param userId the user ID
    * @return a list of memberships for the user
    */
-  List<Membership> findByUserId(String userId);
+  List<Membership> findByUserId(UUID userId);
 
   /**
    * Finds a specific membership by organization ID and user ID.
@@ -40,7 +55,7 @@ public interface MembershipRepository extends JpaRepository<Membership, Membersh
    * @param userId the user ID
    * @return an Optional containing the membership if found, empty otherwise
    */
-  Optional<Membership> findByOrgIdAndUserId(String orgId, String userId);
+  Optional<Membership> findByOrgIdAndUserId(UUID orgId, UUID userId);
 
   /**
    * Finds all memberships with a specific status.
@@ -57,7 +72,7 @@ public interface MembershipRepository extends JpaRepository<Membership, Membersh
    * @param status the membership status
    * @return a list of memberships for the organization with the specified status
    */
-  List<Membership> findByOrgIdAndStatus(String orgId, MembershipStatus status);
+  List<Membership> findByOrgIdAndStatus(UUID orgId, MembershipStatus status);
 
   /**
    * Finds all memberships for a user with a specific status.
@@ -66,7 +81,7 @@ public interface MembershipRepository extends JpaRepository<Membership, Membersh
    * @param status the membership status
    * @return a list of memberships for the user with the specified status
    */
-  List<Membership> findByUserIdAndStatus(String userId, MembershipStatus status);
+  List<Membership> findByUserIdAndStatus(UUID userId, MembershipStatus status);
 
   /**
    * Checks if a membership exists for the given organization and user.
@@ -75,23 +90,271 @@ public interface MembershipRepository extends JpaRepository<Membership, Membersh
    * @param userId the user ID
    * @return true if a membership exists, false otherwise
    */
-  boolean existsByOrgIdAndUserId(String orgId, String userId);
+  boolean existsByOrgIdAndUserId(UUID orgId, UUID userId);
 
   /**
-   * Counts the number of active memberships for an organization.
+   * Finds the keys of existing memberships whose organization ID and user ID are both among the
+   * given ones. The result can include pairs that were not asked for, so callers must match it
+   * against the pairs they need.
+   *
+   * @param orgIds the organization IDs
+   * @param userIds the user IDs
+   * @return the keys of the matching memberships
+   */
+  @Query(
+      "SELECT new com.example.activityscheduler.membership.model.MembershipId(m.orgId, m.userId)"
+          + " FROM Membership m WHERE m.orgId IN :orgIds AND m.userId IN :userIds")
+  List<MembershipId> findIdsByOrgIdInAndUserIdIn(
+      @Param("orgIds") Collection<UUID> orgIds, @Param("userIds") Collection<UUID> userIds);
+
+  /**
+   * Summarizes the memberships of an organization per status in one grouped query: the number of
+   * memberships, the newest creation time, and whether the given user is among them. Statuses
+   * without memberships are left out. The covering index on (org_id, status, created_at, user_id)
+   * answers the query without reading table rows.
+   *
+   * @param orgId the organization ID
+   * @param userId the user to look for, normally the organization creator
+   * @return one summary per status that has memberships
+   */
+  @Query(
+      "SELECT new com.example.activityscheduler.membership.model.MembershipStatusSummary("
+          + "m.status, COUNT(m), MAX(m.createdAt),"
+          + " SUM(CASE WHEN m.userId = :userId THEN 1 ELSE 0 END))"
+          + " FROM Membership m WHERE m.orgId = :orgId GROUP BY m.status")
+  List<MembershipStatusSummary> summarizeByOrgId(
+      @Param("orgId") UUID orgId, @Param("userId") UUID userId);
+
+  /**
+   * Finds and write-locks the first memberships of an organization in key order, returning only
+   * their user IDs. Deleting them and asking again walks the organization in batches without
+   * loading any membership.
+   *
+   * @param orgId the organization ID
+   * @param pageable the batch size
+   * @return the user IDs of the locked memberships
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT m.userId FROM Membership m WHERE m.orgId = :orgId ORDER BY m.userId")
+  List<UUID> findUserIdsForUpdateByOrgId(@Param("orgId") UUID orgId, Pageable pageable);
+
+  /**
+   * Deletes the given users' memberships of an organization with one DELETE, without loading
+   * them.
+   *
+   * @param orgId the organization ID
+   * @param userIds the user IDs
+   * @return the number of memberships deleted
+   */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("DELETE FROM Membership m WHERE m.orgId = :orgId AND m.userId IN :userIds")
+  int deleteByOrgIdAndUserIdIn(
+      @Param("orgId") UUID orgId, @Param("userIds") Collection<UUID> userIds);
+
+  /**
+   * Changes the status of a membership with one conditional UPDATE, provided it still has the
+   * given status and, when one is given, the given version. Bumps the version the way saving the
+   * entity would. The persistence context is flushed before and cleared after, since the UPDATE
+   * bypasses it.
+   *
+   * @param orgId the organization ID
+   * @param userId the user ID
+   * @param oldStatus the status the membership must have
+   * @param newStatus the status to change to
+   * @param expectedVersion the version the membership must have, or null for any version
+   * @return the number of memberships changed, 0 or 1
+   */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(
+      "UPDATE Membership m SET m.status = :newStatus, m.version = m.version + 1"
+          + " WHERE m.orgId = :orgId AND m.userId = :userId AND m.status = :oldStatus"
+          + " AND (:expectedVersion IS NULL OR m.version = :expectedVersion)")
+  int updateStatus(
+      @Param("orgId") UUID orgId,
+      @Param("userId") UUID userId,
+      @Param("oldStatus") MembershipStatus oldStatus,
+      @Param("newStatus") MembershipStatus newStatus,
+      @Param("expectedVersion") Long expectedVersion);
+
+  /**
+   * Computes the fingerprint of an organization's roster in one aggregate query: the number of
+   * memberships, the sum of their versions, and the newest creation time.
+   *
+   * @param orgId the organization ID
+   * @return the fingerprint, with a count of 0 if the organization has no memberships
+   */
+  @Query(
+      "SELECT new com.example.activityscheduler.membership.model.MembershipRosterVersion("
+          + "COUNT(m), COALESCE(SUM(m.version), 0), MAX(m.createdAt))"
+          + " FROM Membership m WHERE m.orgId = :orgId")
+  MembershipRosterVersion findRosterVersion(@Param("orgId") UUID orgId);
+
+  /**
+   * Counts the memberships of the given organizations per organization and status. Combinations
+   * without memberships are left out.
+   *
+   * @param orgIds the organization IDs
+   * @return the counts, as unmanaged counter entities
+   */
+  @Query(
+      "SELECT new com.example.activityscheduler.membership.model.OrganizationMembershipCount("
+          + "m.orgId, m.status, COUNT(m)) FROM Membership m WHERE m.orgId IN :orgIds"
+          + " GROUP BY m.orgId, m.status")
+  List<OrganizationMembershipCount> countByOrgIdIn(@Param("orgIds") Collection<UUID> orgIds);
+
+  /**
+   * Counts the memberships of the given users per user. Users without memberships are left out.
+   *
+   * @param userIds the user IDs
+   * @return the counts, as unmanaged counter entities
+   */
+  @Query(
+      "SELECT new com.example.activityscheduler.membership.model.UserMembershipCount("
+          + "m.userId, COUNT(m)) FROM Membership m WHERE m.userId IN :userIds GROUP BY m.userId")
+  List<UserMembershipCount> countByUserIdIn(@Param("userIds") Collection<UUID> userIds);
+
+  /**
+   * Finds the first page of distinct organization IDs that have memberships, in ascending order.
+   *
+   * @param pageable the page size
+   * @return the organization IDs
+   */
+  @Query("SELECT DISTINCT m.orgId FROM Membership m ORDER BY m.orgId")
+  List<UUID> findOrgIds(Pageable pageable);
+
+  /**
+   * Finds the page of distinct organization IDs that have memberships and follow the given one, in
+   * ascending order.
+   *
+   * @param orgId the last organization ID of the previous page
+   * @param pageable the page size
+   * @return the organization IDs
+   */
+  @Query("SELECT DISTINCT m.orgId FROM Membership m WHERE m.orgId > :orgId ORDER BY m.orgId")
+  List<UUID> findOrgIdsAfter(@Param("orgId") UUID orgId, Pageable pageable);
+
+  /**
+   * Finds the first page of distinct user IDs that have memberships, in ascending order.
+   *
+   * @param pageable the page size
+   * @return the user IDs
+   */
+  @Query("SELECT DISTINCT m.userId FROM Membership m ORDER BY m.userId")
+  List<UUID> findUserIds(Pageable pageable);
+
+  /**
+   * Finds the page of distinct user IDs that have memberships and follow the given one, in
+   * ascending order.
+   *
+   * @param userId the last user ID of the previous page
+   * @param pageable the page size
+   * @return the user IDs
+   */
+  @Query("SELECT DISTINCT m.userId FROM Membership m WHERE m.userId > :userId ORDER BY m.userId")
+  List<UUID> findUserIdsAfter(@Param("userId") UUID userId, Pageable pageable);
+
+  /**
+   * Finds the first page of all memberships ordered by organization ID and user ID.
+   *
+   * @param pageable the page size
+   * @return a slice of memberships
+   */
+  Slice<Membership> findAllByOrderByOrgIdAscUserIdAsc(Pageable pageable);
+
+  /**
+   * Finds the page of memberships that follows the given keyset position, ordered by organization
+   * ID and user ID.
+   *
+   * @param orgId the organization ID of the last membership of the previous page
+   * @param userId the user ID of the last membership of the previous page
+   * @param pageable the page size
+   * @return a slice of memberships
+   */
+  @Query(
+      "SELECT m FROM Membership m WHERE m.orgId >= :orgId"
+          + " AND (m.orgId > :orgId OR m.userId > :userId) ORDER BY m.orgId, m.userId")
+  Slice<Membership> findPageAfter(
+      @Param("orgId") UUID orgId, @Param("userId") UUID userId, Pageable pageable);
+
+  /**
+   * Finds the first page of memberships for an organization ordered by user ID.
    *
    * @param orgId the organization ID
-   * @return the count of active memberships
+   * @param pageable the page size
+   * @return a slice of memberships for the organization
    */
-  @Query("SELECT COUNT(m) FROM Membership m WHERE m.orgId = :orgId AND m.status = 'ACTIVE'")
-  long countActiveMembersByOrgId(@Param("orgId") String orgId);
+  Slice<Membership> findByOrgIdOrderByUserIdAsc(UUID orgId, Pageable pageable);
 
   /**
-   * Counts the number of memberships for a user across all organizations.
+   * Finds the page of memberships for an organization that follows the given user ID.
+   *
+   * @param orgId the organization ID
+   * @param userId the user ID of the last membership of the previous page
+   * @param pageable the page size
+   * @return a slice of memberships for the organization
+   */
+  Slice<Membership> findByOrgIdAndUserIdGreaterThanOrderByUserIdAsc(
+      UUID orgId, UUID userId, Pageable pageable);
+
+  /**
+   * Finds the first page of memberships for a user ordered by organization ID.
    *
    * @param userId the user ID
-   * @return the count of memberships for the user
+   * @param pageable the page size
+   * @return a slice of memberships for the user
+   */
+  Slice<Membership> findByUserIdOrderByOrgIdAsc(UUID userId, Pageable pageable);
+
+  /**
+   * Finds the page of memberships for a user that follows the given organization ID.
+   *
+   * @param userId the user ID
+   * @param orgId the organization ID of the last membership of the previous page
+   * @param pageable the page size
+   * @return a slice of memberships for the user
+   */
+  Slice<Membership> findByUserIdAndOrgIdGreaterThanOrderByOrgIdAsc(
+      UUID userId, UUID orgId, Pageable pageable);
+
+  /**
+   * Finds the first page of memberships with a specific status ordered by organization ID and user
+   * ID.
+   *
+   * @param status the membership status
+   * @param pageable the page size
+   * @return a slice of memberships with the specified status
+   */
+  Slice<Membership> findByStatusOrderByOrgIdAscUserIdAsc(
+      MembershipStatus status, Pageable pageable);
+
+  /**
+   * Finds the page of memberships with a specific status that follows the given keyset position.
+   *
+   * @param status the membership status
+   * @param orgId the organization ID of the last membership of the previous page
+   * @param userId the user ID of the last membership of the previous page
+   * @param pageable the page size
+   * @return a slice of memberships with the specified status
+   */
+  @Query(
+      "SELECT m FROM Membership m WHERE m.status = :status AND m.orgId >= :orgId"
+          + " AND (m.orgId > :orgId OR m.userId > :userId) ORDER BY m.orgId, m.userId")
+  Slice<Membership> findByStatusPageAfter(
+      @Param("status") MembershipStatus status,
+      @Param("orgId") UUID orgId,
+      @Param("userId") UUID userId,
+      Pageable pageable);
+
+  /**
+   * Streams every membership as read-only entities, fetching rows from the database in batches.
+   * The stream must be consumed and closed inside a transaction.
+   *
+   * @return a stream of all memberships
    */
-  @Query("SELECT COUNT(m) FROM Membership m WHERE m.userId = :userId")
-  long countMembershipsByUserId(@Param("userId") String userId);
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+    @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("SELECT m FROM Membership m")
+  Stream<Membership> streamAll();
 }
@@ -0,0 +1,112 @@
+package com.example.activityscheduler.membership.repository;
+
+import com.example.activityscheduler.membership.model.MembershipStatus;
+import com.example.activityscheduler.membership.model.OrganizationMembershipCount;
+import com.example.activityscheduler.membership.model.OrganizationMembershipCountId;
+import jakarta.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for OrganizationMembershipCount entity operations. Counters are read by
+ * primary key and locked before they are changed.
+ */
+@Repository
+public interface OrganizationMembershipCountRepository
+    extends JpaRepository<OrganizationMembershipCount, OrganizationMembershipCountId> {
+
+  /**
+   * Finds the keys of the counters of the given organizations without locking or loading them.
+   *
+   * @param orgIds the organization IDs
+   * @return the keys of the existing counters
+   */
+  @Query(
+      "SELECT new com.example.activityscheduler.membership.model.OrganizationMembershipCountId("
+          + "c.orgId, c.status) FROM OrganizationMembershipCount c WHERE c.orgId IN :orgIds")
+  List<OrganizationMembershipCountId> findIdsByOrgIdIn(@Param("orgIds") Collection<UUID> orgIds);
+
+  /**
+   * Finds and write-locks the counters of the given organizations until the transaction ends. Rows
+   * are locked in key order so that concurrent writers cannot deadlock on each other.
+   *
+   * @param orgIds the organization IDs
+   * @return the counters of the organizations
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query(
+      "SELECT c FROM OrganizationMembershipCount c WHERE c.orgId IN :orgIds"
+          + " ORDER BY c.orgId, c.status")
+  List<OrganizationMembershipCount> findForUpdateByOrgIdIn(
+      @Param("orgIds") Collection<UUID> orgIds);
+
+  /**
+   * Moves one membership of an organization from one status's counter to another's with one
+   * UPDATE, which locks the two rows in key order. Both counters must exist.
+   *
+   * @param orgId the organization ID
+   * @param oldStatus the status the membership left
+   * @param newStatus the status the membership moved to
+   * @return the number of counters updated, 2 unless a counter is missing
+   */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(
+      "UPDATE OrganizationMembershipCount c SET c.memberCount = c.memberCount"
+          + " + CASE WHEN c.status = :newStatus THEN 1 ELSE -1 END"
+          + " WHERE c.orgId = :orgId AND c.status IN (:oldStatus, :newStatus)")
+  int moveMember(
+      @Param("orgId") UUID orgId,
+      @Param("oldStatus") MembershipStatus oldStatus,
+      @Param("newStatus") MembershipStatus newStatus);
+
+  /**
+   * Sums the counters of an organization over every status.
+   *
+   * @param orgId the organization ID
+   * @return the number of memberships of the organization, 0 if it has no counters
+   */
+  @Query(
+      "SELECT COALESCE(SUM(c.memberCount), 0) FROM OrganizationMembershipCount c"
+          + " WHERE c.orgId = :orgId")
+  long sumByOrgId(@Param("orgId") UUID orgId);
+
+  /**
+   * Deletes every counter of an organization with one DELETE.
+   *
+   * @param orgId the organization ID
+   * @return the number of counters deleted
+   */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("DELETE FROM OrganizationMembershipCount c WHERE c.orgId = :orgId")
+  int deleteByOrgId(@Param("orgId") UUID orgId);
+
+  /**
+   * Finds the first page of distinct organization IDs that have counters, in ascending order.
+   *
+   * @param pageable the page size
+   * @return the organization IDs
+   */
+  @Query("SELECT DISTINCT c.orgId FROM OrganizationMembershipCount c ORDER BY c.orgId")
+  List<UUID> findOrgIds(Pageable pageable);
+
+  /**
+   * Finds the page of distinct organization IDs that have counters and follow the given one, in
+   * ascending order.
+   *
+   * @param orgId the last organization ID of the previous page
+   * @param pageable the page size
+   * @return the organization IDs
+   */
+  @Query(
+      "SELECT DISTINCT c.orgId FROM OrganizationMembershipCount c WHERE c.orgId > :orgId"
+          + " ORDER BY c.orgId")
+  List<UUID> findOrgIdsAfter(@Param("orgId") UUID orgId, Pageable pageable);
+}
@@ -0,0 +1,73 @@
+package com.example.activityscheduler.membership.repository;
+
+import com.example.activityscheduler.membership.model.UserMembershipCount;
+import jakarta.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for UserMembershipCount entity operations. Counters are read by primary key
+ * and locked before they are changed.
+ */
+@Repository
+public interface UserMembershipCountRepository extends JpaRepository<UserMembershipCount, UUID> {
+
+  /**
+   * Finds which of the given users have a counter, without locking or loading the counters.
+   *
+   * @param userIds the user IDs
+   * @return the IDs of the users that have a counter
+   */
+  @Query("SELECT c.userId FROM UserMembershipCount c WHERE c.userId IN :userIds")
+  List<UUID> findUserIdsIn(@Param("userIds") Collection<UUID> userIds);
+
+  /**
+   * Finds and write-locks the counters of the given users until the transaction ends. Rows are
+   * locked in key order so that concurrent writers cannot deadlock on each other.
+   *
+   * @param userIds the user IDs
+   * @return the counters of the users
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT c FROM UserMembershipCount c WHERE c.userId IN :userIds ORDER BY c.userId")
+  List<UserMembershipCount> findForUpdateByUserIdIn(@Param("userIds") Collection<UUID> userIds);
+
+  /**
+   * Takes one membership off the counter of each of the given users with one UPDATE.
+   *
+   * @param userIds the user IDs, each of which lost one membership
+   * @return the number of counters changed
+   */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(
+      "UPDATE UserMembershipCount c SET c.membershipCount = c.membershipCount - 1"
+          + " WHERE c.userId IN :userIds")
+  int decrementByUserIdIn(@Param("userIds") Collection<UUID> userIds);
+
+  /**
+   * Finds the first page of user IDs that have counters, in ascending order.
+   *
+   * @param pageable the page size
+   * @return the user IDs
+   */
+  @Query("SELECT c.userId FROM UserMembershipCount c ORDER BY c.userId")
+  List<UUID> findUserIds(Pageable pageable);
+
+  /**
+   * Finds the page of user IDs that have counters and follow the given one, in ascending order.
+   *
+   * @param userId the last user ID of the previous page
+   * @param pageable the page size
+   * @return the user IDs
+   */
+  @Query("SELECT c.userId FROM UserMembershipCount c WHERE c.userId > :userId ORDER BY c.userId")
+  List<UUID> findUserIdsAfter(@Param("userId") UUID userId, Pageable pageable);
+}
@@ -0,0 +1,233 @@
+package com.example.activityscheduler.membership.service;
+
+import com.example.activityscheduler.common.id.Ids;
+import com.example.activityscheduler.membership.dto.MembershipBatchItem;
+import com.example.activityscheduler.membership.dto.MembershipBatchResult;
+import com.example.activityscheduler.membership.dto.MembershipBatchResult.Outcome;
+import com.example.activityscheduler.membership.model.Membership;
+import com.example.activityscheduler.membership.model.MembershipId;
+import com.example.activityscheduler.membership.model.MembershipStatus;
+import com.example.activityscheduler.membership.repository.MembershipRepository;
+import com.example.activityscheduler.membership.shard.MembershipShards;
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service that creates many memberships in one transaction. Items are handled in chunks of the
+ * Hibernate JDBC batch size: each chunk finds its existing memberships with one query, persists the
+ * new ones, and is flushed as a single JDBC batch before the persistence context is cleared. The
+ * membership counters of every affected organization and user are then adjusted once for the whole
+ * batch.
+ *
+ * <p>When memberships are spread over several databases (see {@link MembershipShards}), the items
+ * are grouped by the shard of their organization and each group is created in a transaction of
+ * its own on that shard, one shard after the other, so a batch is atomic per shard rather than as
+ * a whole. No transaction is held on the application's own database meanwhile.
+ *
+ * <p>On MySQL the JDBC URL needs {@code rewriteBatchedStatements=true} for the driver to send a
+ * batch as one multi-row insert.
+ */
+@Service
+public class MembershipBatchService {
+
+  private static final Logger logger = LoggerFactory.getLogger(MembershipBatchService.class);
+
+  private final MembershipRepository membershipRepository;
+  private final MembershipLookupCache lookupCache;
+  private final MembershipCounters counters;
+  private final EntityManager entityManager;
+  private final MembershipShards shards;
+  private final int maxItems;
+  private final int chunkSize;
+
+  /**
+   * Constructs a MembershipBatchService.
+   *
+   * @param membershipRepository the membership repository
+   * @param lookupCache the cache of single-membership lookups
+   * @param counters the per-organization and per-user membership counters
+   * @param entityManager the entity manager used to persist, flush and clear
+   * @param shards the databases the memberships are spread over
+   * @param maxItems the largest number of items accepted in one request
+   * @param chunkSize the number of items handled per chunk, normally the JDBC batch size
+   */
+  public MembershipBatchService(
+      MembershipRepository membershipRepository,
+      MembershipLookupCache lookupCache,
+      MembershipCounters counters,
+      EntityManager entityManager,
+      MembershipShards shards,
+      @Value("${membership.batch.max-items:1000}") int maxItems,
+      @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:100}") int chunkSize) {
+    if (maxItems < 1 || chunkSize < 1) {
+      throw new IllegalArgumentException("Batch limits must be positive");
+    }
+    this.membershipRepository = membershipRepository;
+    this.lookupCache = lookupCache;
+    this.counters = counters;
+    this.entityManager = entityManager;
+    this.shards = shards;
+    this.maxItems = maxItems;
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * Returns the largest number of items accepted in one request.
+   *
+   * @return the maximum batch size
+   */
+  public int getMaxItems() {
+    return maxItems;
+  }
+
+  /**
+   * Creates the given memberships. Items with a missing or malformed ID are reported as invalid,
+   * and items whose membership already exists, or that repeat an earlier item, are reported as
+   * existing; neither stops the rest of the batch. A missing status defaults to ACTIVE.
+   *
+   * @param items the memberships to create
+   * @return one result per item, in request order
+   * @throws IllegalArgumentException if the list is null, empty or larger than the maximum
+   */
+  public List<MembershipBatchResult> createMemberships(List<MembershipBatchItem> items) {
+    if (items == null || items.isEmpty()) {
+      logger.warn("Membership batch cannot be empty");
+      throw new IllegalArgumentException("Membership batch cannot be empty");
+    }
+    if (items.size() > maxItems) {
+      logger.warn("Membership batch of {} items exceeds {}", items.size(), maxItems);
+      throw new IllegalArgumentException(
+          "Membership batch cannot contain more than " + maxItems + " items");
+    }
+
+    MembershipBatchResult[] results = new MembershipBatchResult[items.size()];
+    Set<MembershipId> seen = new HashSet<>();
+    int created = 0;
+    for (Map.Entry<Integer, List<Integer>> group : groupByShard(items).entrySet()) {
+      List<Integer> indices = group.getValue();
+      created +=
+          shards.inShard(
+              group.getKey(), false, () -> createOnShard(items, indices, seen, results));
+    }
+    logger.info("Created {} of {} batched memberships", created, items.size());
+    return List.of(results);
+  }
+
+  /**
+   * Groups the indices of the items by the shard of their organization, keeping the request order
+   * within each group. Items without a valid organization ID go with shard 0.
+   */
+  private Map<Integer, List<Integer>> groupByShard(List<MembershipBatchItem> items) {
+    Map<Integer, List<Integer>> groups = new LinkedHashMap<>();
+    for (int i = 0; i < items.size(); i++) {
+      int shard = parseId(items.get(i)).map(id -> shards.shardOf(id.getOrgId())).orElse(0);
+      groups.computeIfAbsent(shard, key -> new ArrayList<>()).add(i);
+    }
+    return groups;
+  }
+
+  /**
+   * Creates the memberships of the given items, which all belong to the same shard, in chunks,
+   * and adjusts their counters. Runs on that shard.
+   *
+   * @return the number of memberships created
+   */
+  private int createOnShard(
+      List<MembershipBatchItem> items,
+      List<Integer> indices,
+      Set<MembershipId> seen,
+      MembershipBatchResult[] results) {
+    List<Membership> created = new ArrayList<>();
+    for (int start = 0; start < indices.size(); start += chunkSize) {
+      int end = Math.min(start + chunkSize, indices.size());
+      createChunk(items, indices.subList(start, end), seen, results, created);
+      entityManager.flush();
+      entityManager.clear();
+    }
+    if (!created.isEmpty()) {
+      counters.added(created);
+    }
+    lookupCache.invalidateAllAfterCommit(
+        created.stream().map(m -> new MembershipId(m.getOrgId(), m.getUserId())).toList());
+    return created.size();
+  }
+
+  /** Handles the items at the given indices and records their results. */
+  private void createChunk(
+      List<MembershipBatchItem> items,
+      List<Integer> chunk,
+      Set<MembershipId> seen,
+      MembershipBatchResult[] results,
+      List<Membership> created) {
+    Map<MembershipId, Integer> pending = new LinkedHashMap<>();
+    for (int i : chunk) {
+      MembershipBatchItem item = items.get(i);
+      Optional<MembershipId> id = parseId(item);
+      if (id.isEmpty()) {
+        results[i] = result(i, item, Outcome.INVALID, "Organization ID and user ID must be UUIDs");
+      } else if (!seen.add(id.get())) {
+        results[i] = result(i, item, Outcome.EXISTS, "Repeats an earlier item of the batch");
+      } else {
+        pending.put(id.get(), i);
+      }
+    }
+    if (pending.isEmpty()) {
+      return;
+    }
+
+    Set<UUID> orgIds = new HashSet<>();
+    Set<UUID> userIds = new HashSet<>();
+    for (MembershipId id : pending.keySet()) {
+      orgIds.add(id.getOrgId());
+      userIds.add(id.getUserId());
+    }
+    Set<MembershipId> existing =
+        new HashSet<>(membershipRepository.findIdsByOrgIdInAndUserIdIn(orgIds, userIds));
+
+    for (Map.Entry<MembershipId, Integer> entry : pending.entrySet()) {
+      MembershipId id = entry.getKey();
+      int index = entry.getValue();
+      MembershipBatchItem item = items.get(index);
+      if (existing.contains(id)) {
+        results[index] = result(index, item, Outcome.EXISTS, "Membership already exists");
+        continue;
+      }
+      MembershipStatus status =
+          item.getStatus() != null ? item.getStatus() : MembershipStatus.ACTIVE;
+      Membership membership = new Membership(id.getOrgId(), id.getUserId(), status);
+      entityManager.persist(membership);
+      created.add(membership);
+      results[index] = result(index, item, Outcome.CREATED, null);
+    }
+  }
+
+  private static Optional<MembershipId> parseId(MembershipBatchItem item) {
+    if (item == null) {
+      return Optional.empty();
+    }
+    Optional<UUID> org = Ids.parse(item.getOrgId());
+    Optional<UUID> user = Ids.parse(item.getUserId());
+    if (org.isEmpty() || user.isEmpty()) {
+      return Optional.empty();
+    }
+    return Optional.of(new MembershipId(org.get(), user.get()));
+  }
+
+  private static MembershipBatchResult result(
+      int index, MembershipBatchItem item, Outcome outcome, String message) {
+    return item == null
+        ? new MembershipBatchResult(index, null, null, outcome, message)
+        : new MembershipBatchResult(index, item.getOrgId(), item.getUserId(), outcome, message);
+  }
+}
@@ -0,0 +1,231 @@
+package com.example.activityscheduler.membership.service;
+
+import com.example.activityscheduler.membership.model.OrganizationMembershipCount;
+import com.example.activityscheduler.membership.model.OrganizationMembershipCountId;
+import com.example.activityscheduler.membership.model.UserMembershipCount;
+import com.example.activityscheduler.membership.repository.MembershipRepository;
+import com.example.activityscheduler.membership.repository.OrganizationMembershipCountRepository;
+import com.example.activityscheduler.membership.repository.UserMembershipCountRepository;
+import com.example.activityscheduler.membership.shard.MembershipShards;
+import jakarta.persistence.EntityManager;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Repairs membership counters that no longer match the memberships, for example after a write
+ * that bypassed {@link MembershipCounters} or a database restored from a backup.
+ *
+ * <p>Organizations and users are walked in pages, once from the memberships table, which finds
+ * missing counters, and once from the counter tables, which finds counters whose memberships are
+ * gone. Each page is checked in its own transaction that locks the page's counters, recounts
+ * their memberships and corrects the counters that differ. A page that fails is logged and skipped.
+ * Every membership shard is reconciled in turn, each against its own memberships: a user's
+ * counter on a shard only counts the memberships on that shard.
+ */
+@Component
+public class MembershipCountReconciler {
+
+  private static final Logger logger = LoggerFactory.getLogger(MembershipCountReconciler.class);
+
+  private final MembershipRepository membershipRepository;
+  private final OrganizationMembershipCountRepository organizationCountRepository;
+  private final UserMembershipCountRepository userCountRepository;
+  private final EntityManager entityManager;
+  private final MembershipShards shards;
+  private final TransactionTemplate transactionTemplate;
+  private final int pageSize;
+
+  /**
+   * Constructs a MembershipCountReconciler.
+   *
+   * @param membershipRepository the membership repository
+   * @param organizationCountRepository the per-organization counter repository
+   * @param userCountRepository the per-user counter repository
+   * @param entityManager the entity manager used to insert missing counters
+   * @param shards the databases the memberships are spread over
+   * @param transactionManager the transaction manager used for each page
+   * @param pageSize the number of organizations or users checked per transaction
+   */
+  public MembershipCountReconciler(
+      MembershipRepository membershipRepository,
+      OrganizationMembershipCountRepository organizationCountRepository,
+      UserMembershipCountRepository userCountRepository,
+      EntityManager entityManager,
+      MembershipShards shards,
+      PlatformTransactionManager transactionManager,
+      @Value("${membership.counts.reconcile-page-size:500}") int pageSize) {
+    if (pageSize < 1) {
+      throw new IllegalArgumentException("Reconcile page size must be positive");
+    }
+    this.membershipRepository = membershipRepository;
+    this.organizationCountRepository = organizationCountRepository;
+    this.userCountRepository = userCountRepository;
+    this.entityManager = entityManager;
+    this.shards = shards;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.pageSize = pageSize;
+  }
+
+  /**
+   * Checks every counter against the memberships and corrects the ones that differ.
+   *
+   * @return the number of counters corrected or created
+   */
+  @Scheduled(
+      initialDelayString = "${membership.counts.reconcile-interval:PT15M}",
+      fixedDelayString = "${membership.counts.reconcile-interval:PT15M}")
+  public long reconcile() {
+    long start = System.nanoTime();
+    long repaired = 0;
+    for (int shard = 0; shard < shards.count(); shard++) {
+      repaired += shards.onShard(shard, this::reconcileShard);
+    }
+    long millis = (System.nanoTime() - start) / 1_000_000;
+    if (repaired > 0) {
+      logger.warn("Repaired {} membership counters in {} ms", repaired, millis);
+    } else {
+      logger.info("Membership counters are consistent; checked in {} ms", millis);
+    }
+    return repaired;
+  }
+
+  /** Reconciles the counters of the current shard. */
+  private long reconcileShard() {
+    long repaired = 0;
+    repaired +=
+        walk(
+            "organization",
+            membershipRepository::findOrgIds,
+            membershipRepository::findOrgIdsAfter,
+            this::reconcileOrganizations);
+    repaired +=
+        walk(
+            "organization",
+            organizationCountRepository::findOrgIds,
+            organizationCountRepository::findOrgIdsAfter,
+            this::reconcileOrganizations);
+    repaired +=
+        walk(
+            "user",
+            membershipRepository::findUserIds,
+            membershipRepository::findUserIdsAfter,
+            this::reconcileUsers);
+    repaired +=
+        walk(
+            "user",
+            userCountRepository::findUserIds,
+            userCountRepository::findUserIdsAfter,
+            this::reconcileUsers);
+    return repaired;
+  }
+
+  /** Reconciles every page of owner IDs listed by the given queries. */
+  private long walk(
+      String owner,
+      Function<Pageable, List<UUID>> firstPage,
+      BiFunction<UUID, Pageable, List<UUID>> nextPage,
+      ToLongFunction<List<UUID>> reconcilePage) {
+    Pageable pageable = PageRequest.ofSize(pageSize);
+    long repaired = 0;
+    List<UUID> ids = firstPage.apply(pageable);
+    while (!ids.isEmpty()) {
+      List<UUID> page = ids;
+      try {
+        Long fixed = transactionTemplate.execute(status -> reconcilePage.applyAsLong(page));
+        repaired += fixed == null ? 0 : fixed;
+      } catch (RuntimeException e) {
+        logger.warn("Failed to reconcile {} membership counters from {}", owner, page.get(0), e);
+      }
+      if (ids.size() < pageSize) {
+        break;
+      }
+      ids = nextPage.apply(ids.get(ids.size() - 1), pageable);
+    }
+    return repaired;
+  }
+
+  /** Corrects the counters of one page of organizations. Runs inside the page's transaction. */
+  private long reconcileOrganizations(List<UUID> orgIds) {
+    Map<OrganizationMembershipCountId, OrganizationMembershipCount> stored = new HashMap<>();
+    for (OrganizationMembershipCount counter :
+        organizationCountRepository.findForUpdateByOrgIdIn(orgIds)) {
+      stored.put(counter.getId(), counter);
+    }
+    Map<OrganizationMembershipCountId, Long> actual = new HashMap<>();
+    for (OrganizationMembershipCount count : membershipRepository.countByOrgIdIn(orgIds)) {
+      actual.put(count.getId(), count.getMemberCount());
+    }
+
+    Set<OrganizationMembershipCountId> keys = new HashSet<>(stored.keySet());
+    keys.addAll(actual.keySet());
+    long repaired = 0;
+    for (OrganizationMembershipCountId key : keys) {
+      long expected = actual.getOrDefault(key, 0L);
+      OrganizationMembershipCount counter = stored.get(key);
+      if (counter == null) {
+        entityManager.persist(
+            new OrganizationMembershipCount(key.getOrgId(), key.getStatus(), expected));
+        repaired++;
+      } else if (counter.getMemberCount() != expected) {
+        logger.warn(
+            "Membership counter for organization {} and status {} was {} instead of {}",
+            key.getOrgId(),
+            key.getStatus(),
+            counter.getMemberCount(),
+            expected);
+        counter.setMemberCount(expected);
+        repaired++;
+      }
+    }
+    return repaired;
+  }
+
+  /** Corrects the counters of one page of users. Runs inside the page's transaction. */
+  private long reconcileUsers(List<UUID> userIds) {
+    Map<UUID, UserMembershipCount> stored = new HashMap<>();
+    for (UserMembershipCount counter : userCountRepository.findForUpdateByUserIdIn(userIds)) {
+      stored.put(counter.getUserId(), counter);
+    }
+    Map<UUID, Long> actual = new HashMap<>();
+    for (UserMembershipCount count : membershipRepository.countByUserIdIn(userIds)) {
+      actual.put(count.getUserId(), count.getMembershipCount());
+    }
+
+    long repaired = 0;
+    for (UUID userId : userIds) {
+      long expected = actual.getOrDefault(userId, 0L);
+      UserMembershipCount counter = stored.get(userId);
+      if (counter == null) {
+        if (expected != 0) {
+          entityManager.persist(new UserMembershipCount(userId, expected));
+          repaired++;
+        }
+      } else if (counter.getMembershipCount() != expected) {
+        logger.warn(
+            "Membership counter for user {} was {} instead of {}",
+            userId,
+            counter.getMembershipCount(),
+            expected);
+        counter.setMembershipCount(expected);
+        repaired++;
+      }
+    }
+    return repaired;
+  }
+}
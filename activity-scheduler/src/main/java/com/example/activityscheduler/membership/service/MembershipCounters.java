@@ -0,0 +1,261 @@
+package com.example.activityscheduler.membership.service;
+
+import com.example.activityscheduler.membership.model.Membership;
+import com.example.activityscheduler.membership.model.MembershipStatus;
+import com.example.activityscheduler.membership.model.OrganizationMembershipCount;
+import com.example.activityscheduler.membership.model.OrganizationMembershipCountId;
+import com.example.activityscheduler.membership.model.UserMembershipCount;
+import com.example.activityscheduler.membership.repository.OrganizationMembershipCountRepository;
+import com.example.activityscheduler.membership.repository.UserMembershipCountRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps the per-organization and per-user membership counters in step with the memberships, so
+ * that member counts are primary-key reads instead of counts over the memberships table.
+ *
+ * <p>Changes are applied in the caller's transaction. Counter rows that do not exist yet are first
+ * inserted with a count of zero in a separate transaction, then every affected row is write-locked
+ * in key order and adjusted, and Hibernate flushes the adjustments as batched updates at commit.
+ * Inserting before locking keeps MySQL from taking gap locks that the insert would then wait on.
+ * A status change adjusts its two counters with one UPDATE instead of a locking read.
+ */
+@Component
+public class MembershipCounters {
+
+  private static final Logger logger = LoggerFactory.getLogger(MembershipCounters.class);
+
+  private final OrganizationMembershipCountRepository organizationCountRepository;
+  private final UserMembershipCountRepository userCountRepository;
+  private final EntityManager entityManager;
+  private final TransactionTemplate newTransaction;
+
+  /**
+   * Constructs a MembershipCounters.
+   *
+   * @param organizationCountRepository the per-organization counter repository
+   * @param userCountRepository the per-user counter repository
+   * @param entityManager the entity manager used to insert missing counters
+   * @param transactionManager the transaction manager used to insert missing counters
+   */
+  public MembershipCounters(
+      OrganizationMembershipCountRepository organizationCountRepository,
+      UserMembershipCountRepository userCountRepository,
+      EntityManager entityManager,
+      PlatformTransactionManager transactionManager) {
+    this.organizationCountRepository = organizationCountRepository;
+    this.userCountRepository = userCountRepository;
+    this.entityManager = entityManager;
+    this.newTransaction = new TransactionTemplate(transactionManager);
+    this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+  }
+
+  /**
+   * Returns the number of memberships an organization has with the given status.
+   *
+   * @param orgId the organization ID
+   * @param status the membership status
+   * @return the number of memberships
+   */
+  @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+  public long countByOrganization(UUID orgId, MembershipStatus status) {
+    return organizationCountRepository
+        .findById(new OrganizationMembershipCountId(orgId, status))
+        .map(OrganizationMembershipCount::getMemberCount)
+        .orElse(0L);
+  }
+
+  /**
+   * Returns the number of memberships an organization has over every status.
+   *
+   * @param orgId the organization ID
+   * @return the number of memberships
+   */
+  @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+  public long countByOrganization(UUID orgId) {
+    return organizationCountRepository.sumByOrgId(orgId);
+  }
+
+  /**
+   * Returns the number of memberships a user has.
+   *
+   * @param userId the user ID
+   * @return the number of memberships
+   */
+  @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+  public long countByUser(UUID userId) {
+    return userCountRepository
+        .findById(userId)
+        .map(UserMembershipCount::getMembershipCount)
+        .orElse(0L);
+  }
+
+  /**
+   * Counts memberships that were created in the current transaction.
+   *
+   * @param memberships the created memberships
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void added(Collection<Membership> memberships) {
+    Map<OrganizationMembershipCountId, Long> orgDeltas = new HashMap<>();
+    Map<UUID, Long> userDeltas = new HashMap<>();
+    for (Membership membership : memberships) {
+      orgDeltas.merge(
+          new OrganizationMembershipCountId(membership.getOrgId(), membership.getStatus()),
+          1L,
+          Long::sum);
+      userDeltas.merge(membership.getUserId(), 1L, Long::sum);
+    }
+    apply(orgDeltas, userDeltas);
+  }
+
+  /**
+   * Uncounts a membership that was deleted in the current transaction.
+   *
+   * @param membership the deleted membership
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void removed(Membership membership) {
+    apply(
+        Map.of(
+            new OrganizationMembershipCountId(membership.getOrgId(), membership.getStatus()), -1L),
+        Map.of(membership.getUserId(), -1L));
+  }
+
+  /**
+   * Uncounts a batch of an organization's memberships that were deleted in the current transaction,
+   * with one UPDATE over the users' counters. The organization's own counters are left to {@link
+   * #organizationDeleted(UUID)}.
+   *
+   * @param userIds the users whose membership was deleted
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void removedFromOrganization(Collection<UUID> userIds) {
+    userCountRepository.decrementByUserIdIn(userIds);
+  }
+
+  /**
+   * Drops the counters of an organization whose memberships have all been deleted.
+   *
+   * @param orgId the organization ID
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void organizationDeleted(UUID orgId) {
+    organizationCountRepository.deleteByOrgId(orgId);
+  }
+
+  /**
+   * Moves a membership whose status changed in the current transaction to its new status. Runs
+   * one query for the organization's counters and one UPDATE of the two affected ones.
+   *
+   * @param orgId the organization ID
+   * @param oldStatus the status before the change
+   * @param newStatus the status after the change
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void statusChanged(UUID orgId, MembershipStatus oldStatus, MembershipStatus newStatus) {
+    if (oldStatus == newStatus) {
+      return;
+    }
+    Set<OrganizationMembershipCountId> missing =
+        new HashSet<>(
+            Set.of(
+                new OrganizationMembershipCountId(orgId, oldStatus),
+                new OrganizationMembershipCountId(orgId, newStatus)));
+    missing.removeAll(organizationCountRepository.findIdsByOrgIdIn(Set.of(orgId)));
+    if (!missing.isEmpty()) {
+      createCounters(missing, Set.of());
+    }
+    organizationCountRepository.moveMember(orgId, oldStatus, newStatus);
+  }
+
+  /** Adds the deltas to the counters, creating the counters that do not exist yet. */
+  private void apply(
+      Map<OrganizationMembershipCountId, Long> orgDeltas, Map<UUID, Long> userDeltas) {
+    Set<UUID> orgIds = new HashSet<>();
+    orgDeltas.keySet().forEach(id -> orgIds.add(id.getOrgId()));
+    Set<UUID> userIds = userDeltas.keySet();
+
+    Set<OrganizationMembershipCountId> missingOrgCounters = new HashSet<>(orgDeltas.keySet());
+    if (!orgIds.isEmpty()) {
+      missingOrgCounters.removeAll(organizationCountRepository.findIdsByOrgIdIn(orgIds));
+    }
+    Set<UUID> missingUserCounters = new HashSet<>(userIds);
+    if (!userIds.isEmpty()) {
+      missingUserCounters.removeAll(userCountRepository.findUserIdsIn(userIds));
+    }
+    if (!missingOrgCounters.isEmpty() || !missingUserCounters.isEmpty()) {
+      createCounters(missingOrgCounters, missingUserCounters);
+    }
+
+    if (!orgIds.isEmpty()) {
+      for (OrganizationMembershipCount counter :
+          organizationCountRepository.findForUpdateByOrgIdIn(orgIds)) {
+        Long delta = orgDeltas.get(counter.getId());
+        if (delta != null) {
+          counter.setMemberCount(counter.getMemberCount() + delta);
+        }
+      }
+    }
+    if (!userIds.isEmpty()) {
+      for (UserMembershipCount counter : userCountRepository.findForUpdateByUserIdIn(userIds)) {
+        long delta = userDeltas.get(counter.getUserId());
+        counter.setMembershipCount(counter.getMembershipCount() + delta);
+      }
+    }
+  }
+
+  /**
+   * Inserts zero counters in a transaction of their own. If another transaction created some of
+   * them first, the rest are inserted one at a time and the duplicates are skipped.
+   */
+  private void createCounters(
+      Set<OrganizationMembershipCountId> orgCounters, Set<UUID> userCounters) {
+    try {
+      newTransaction.executeWithoutResult(status -> insert(orgCounters, userCounters));
+    } catch (PersistenceException | DataAccessException | TransactionException e) {
+      logger.info("Membership counters were created concurrently; inserting them one at a time");
+      for (OrganizationMembershipCountId id : orgCounters) {
+        insertIgnoringDuplicate(Set.of(id), Set.of());
+      }
+      for (UUID userId : userCounters) {
+        insertIgnoringDuplicate(Set.of(), Set.of(userId));
+      }
+    }
+  }
+
+  private void insertIgnoringDuplicate(
+      Set<OrganizationMembershipCountId> orgCounters, Set<UUID> userCounters) {
+    try {
+      newTransaction.executeWithoutResult(status -> insert(orgCounters, userCounters));
+    } catch (PersistenceException | DataAccessException | TransactionException e) {
+      // Another transaction inserted the counter, which is all this needed
+    }
+  }
+
+  private void insert(Set<OrganizationMembershipCountId> orgCounters, Set<UUID> userCounters) {
+    for (OrganizationMembershipCountId id : orgCounters) {
+      entityManager.persist(new OrganizationMembershipCount(id.getOrgId(), id.getStatus(), 0));
+    }
+    for (UUID userId : userCounters) {
+      entityManager.persist(new UserMembershipCount(userId, 0));
+    }
+    entityManager.flush();
+  }
+}
@@ -0,0 +1,144 @@
+package com.example.activityscheduler.membership.service;
+
+import com.example.activityscheduler.membership.model.Membership;
+import com.example.activityscheduler.membership.model.MembershipId;
+import com.example.activityscheduler.membership.model.MembershipStatus;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Bounded, time-limited cache of membership lookups keyed by (organization ID, user ID). Misses are
+ * cached too, so repeated checks for a user who is not a member do not reach the database.
+ *
+ * <p>Writers must call {@link #invalidateAfterCommit(UUID, UUID)} so that the entry is dropped
+ * once the change is visible to other transactions, and loaders must read from the primary
+ * database, since a replica may not have applied that change yet. Hit and miss counts are
+ * published as the {@value #CACHE_NAME} cache metrics.
+ */
+@Component
+public class MembershipLookupCache {
+
+  /** Name under which the cache metrics are published. */
+  public static final String CACHE_NAME = "membershipLookup";
+
+  private static final Entry ABSENT = new Entry(null, null, null);
+
+  private final Cache<MembershipId, Entry> cache;
+
+  /**
+   * Constructs a MembershipLookupCache.
+   *
+   * @param maximumSize the maximum number of cached lookups
+   * @param timeToLive how long a lookup stays cached after it is loaded
+   * @param meterRegistry the registry to publish cache metrics to
+   */
+  public MembershipLookupCache(
+      @Value("${membership.cache.maximum-size:100000}") long maximumSize,
+      @Value("${membership.cache.time-to-live:30s}") Duration timeToLive,
+      MeterRegistry meterRegistry) {
+    this.cache =
+        Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(timeToLive)
+            .recordStats()
+            .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+  }
+
+  /**
+   * Returns the cached membership for the given key, loading and caching it on a miss. On a hit the
+   * membership is rebuilt from the cached status, creation time and version.
+   *
+   * @param orgId the organization ID
+   * @param userId the user ID
+   * @param loader loads the membership from the database
+   * @return an Optional containing the membership if it exists, empty otherwise
+   */
+  public Optional<Membership> get(UUID orgId, UUID userId, Supplier<Optional<Membership>> loader) {
+    AtomicReference<Optional<Membership>> loaded = new AtomicReference<>();
+    Entry entry =
+        cache.get(
+            new MembershipId(orgId, userId),
+            id -> {
+              loaded.set(loader.get());
+              return loaded.get().map(Entry::of).orElse(ABSENT);
+            });
+    if (loaded.get() != null) {
+      return loaded.get();
+    }
+    if (entry == ABSENT) {
+      return Optional.empty();
+    }
+    Membership membership = new Membership();
+    membership.setOrgId(orgId);
+    membership.setUserId(userId);
+    membership.setStatus(entry.status());
+    membership.setCreatedAt(entry.createdAt());
+    membership.setVersion(entry.version());
+    return Optional.of(membership);
+  }
+
+  /**
+   * Drops the cached lookup for the given key once the current transaction commits, or right away
+   * when there is no transaction.
+   *
+   * @param orgId the organization ID
+   * @param userId the user ID
+   */
+  public void invalidateAfterCommit(UUID orgId, UUID userId) {
+    MembershipId id = new MembershipId(orgId, userId);
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      cache.invalidate(id);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            cache.invalidate(id);
+          }
+        });
+  }
+
+  /**
+   * Drops the cached lookups for the given keys once the current transaction commits, or right
+   * away when there is no transaction.
+   *
+   * @param ids the keys of the memberships that changed
+   */
+  public void invalidateAllAfterCommit(Collection<MembershipId> ids) {
+    List<MembershipId> keys = List.copyOf(ids);
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      cache.invalidateAll(keys);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            cache.invalidateAll(keys);
+          }
+        });
+  }
+
+  /** The cached part of a membership; an entry with a null status marks a missing membership. */
+  private record Entry(MembershipStatus status, LocalDateTime createdAt, Long version) {
+    static Entry of(Membership membership) {
+      return new Entry(membership.getStatus(), membership.getCreatedAt(), membership.getVersion());
+    }
+  }
+}
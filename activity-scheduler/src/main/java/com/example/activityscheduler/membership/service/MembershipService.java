@@ -1,33 +1,84 @@
 package com.example.activityscheduler.membership.service;
 
+import com.example.activityscheduler.common.id.Ids;
+import com.example.activityscheduler.common.metrics.TimedOperations;
+import com.example.activityscheduler.common.pagination.CursorCodec;
+import com.example.activityscheduler.common.pagination.CursorPage;
+import com.example.activityscheduler.common.pagination.PageLimits;
 import com.example.activityscheduler.membership.model.Membership;
 import com.example.activityscheduler.membership.model.MembershipId;
+import com.example.activityscheduler.membership.model.MembershipRosterVersion;
 import com.example.activityscheduler.membership.model.MembershipStatus;
+import com.example.activityscheduler.membership.model.MembershipStatusSummary;
 import com.example.activityscheduler.membership.repository.MembershipRepository;
+import com.example.activityscheduler.membership.shard.MembershipShards;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.logging.Logger;
+import java.util.UUID;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Service class for managing Membership entities. Provides business logic for membership operations
  * including CRUD operations, status management, and validation.
+ *
+ * <p>Memberships may be spread over several databases by organization (see {@link
+ * MembershipShards}): work on one organization's memberships runs on its shard, and listings by
+ * user or status gather the memberships of every shard. The shards run each piece of work in its
+ * own transaction, so the methods of this service do not start one of their own.
  */
 @Service
-@Transactional
+@TimedOperations
 public class MembershipService {
 
   private final MembershipRepository membershipRepository;
-  private static final Logger logger = Logger.getLogger(MembershipService.class.getName());
+  private final MembershipLookupCache lookupCache;
+  private final MembershipCounters counters;
+  private final MembershipShards shards;
+  private static final Logger logger = LoggerFactory.getLogger(MembershipService.class);
+
+  /** The database order of every membership listing that spans organizations. */
+  private static final Comparator<Membership> BY_ORGANIZATION_AND_USER =
+      Comparator.comparing(Membership::getOrgId, Ids.BINARY_ORDER)
+          .thenComparing(Membership::getUserId, Ids.BINARY_ORDER);
 
   /**
-   * Constructs a MembershipService with the given repository.
+   * The status a membership most likely leaves for each status. The status endpoint only switches
+   * between active and suspended.
+   */
+  private static final Map<MembershipStatus, MembershipStatus> LIKELY_PRIOR_STATUS =
+      Map.of(
+          MembershipStatus.ACTIVE, MembershipStatus.SUSPENDED,
+          MembershipStatus.SUSPENDED, MembershipStatus.ACTIVE,
+          MembershipStatus.INVITED, MembershipStatus.ACTIVE);
+
+  /**
+   * Constructs a MembershipService with the given repository, lookup cache, counters and shards.
    *
    * @param membershipRepository the membership repository
+   * @param lookupCache the cache of single-membership lookups
+   * @param counters the per-organization and per-user membership counters
+   * @param shards the databases the memberships are spread over
    */
-  public MembershipService(MembershipRepository membershipRepository) {
+  public MembershipService(
+      MembershipRepository membershipRepository,
+      MembershipLookupCache lookupCache,
+      MembershipCounters counters,
+      MembershipShards shards) {
     this.membershipRepository = membershipRepository;
+    this.lookupCache = lookupCache;
+    this.counters = counters;
+    this.shards = shards;
   }
 
   /**
@@ -35,35 +86,33 @@ public class MembershipService {
    *
    * @return a list of all memberships
    */
-  @Transactional(readOnly = true)
   public List<Membership> getAllMemberships() {
-    logger.info("Retrieving all memberships");
-    List<Membership> memberships = membershipRepository.findAll();
-    logger.info("Retrieved " + memberships.size() + " memberships");
-    return membershipRepository.findAll();
+    logger.debug("Retrieving all memberships");
+    List<Membership> memberships = gather(membershipRepository::findAll);
+    logger.debug("Retrieved {} memberships", memberships.size());
+    return memberships;
   }
 
   /**
-   * Retrieves a membership by organization ID and user ID.
+   * Retrieves a membership by organization ID and user ID. Lookups are served from the membership
+   * lookup cache when possible, and cache hits start no transaction.
    *
    * @param orgId the organization ID
    * @param userId the user ID
    * @return an Optional containing the membership if found, empty otherwise
    */
-  @Transactional(readOnly = true)
   public Optional<Membership> getMembership(String orgId, String userId) {
-    logger.info("Retrieving membership for organization: " + orgId + " and user: " + userId);
-    Optional<Membership> membership = membershipRepository.findByOrgIdAndUserId(orgId, userId);
+    logger.debug("Retrieving membership for organization: {} and user: {}", orgId, userId);
+    Optional<Membership> membership = lookup(orgId, userId);
     if (membership.isPresent()) {
-      logger.info(
-          "Membership found: organization: "
-              + membership.get().getOrgId()
-              + " and user: "
-              + membership.get().getUserId());
+      logger.debug(
+          "Membership found: organization: {} and user: {}",
+          membership.get().getOrgId(),
+          membership.get().getUserId());
     } else {
-      logger.info("Membership not found for organization: " + orgId + " and user: " + userId);
+      logger.debug("Membership not found for organization: {} and user: {}", orgId, userId);
     }
-    return membershipRepository.findByOrgIdAndUserId(orgId, userId);
+    return membership;
   }
 
   /**
@@ -72,12 +121,27 @@ public class MembershipService {
    * @param orgId the organization ID
    * @return a list of memberships for the organization
    */
-  @Transactional(readOnly = true)
   public List<Membership> getMembershipsByOrganization(String orgId) {
-    logger.info("Retrieving memberships for organization: " + orgId);
-    List<Membership> memberships = membershipRepository.findByOrgId(orgId);
-    logger.info("Retrieved " + memberships.size() + " memberships for organization: " + orgId);
-    return membershipRepository.findByOrgId(orgId);
+    logger.debug("Retrieving memberships for organization: {}", orgId);
+    List<Membership> memberships =
+        Ids.parse(orgId)
+            .map(org -> shards.inShardOf(org, true, () -> membershipRepository.findByOrgId(org)))
+            .orElse(List.of());
+    logger.debug("Retrieved {} memberships for organization: {}", memberships.size(), orgId);
+    return memberships;
+  }
+
+  /**
+   * Computes the fingerprint of an organization's roster with a single aggregate query, without
+   * loading the memberships.
+   *
+   * @param orgId the organization ID
+   * @return the fingerprint, that of an empty roster if the ID is not valid
+   */
+  public MembershipRosterVersion getRosterVersion(String orgId) {
+    return Ids.parse(orgId)
+        .map(org -> shards.inShardOf(org, true, () -> membershipRepository.findRosterVersion(org)))
+        .orElse(new MembershipRosterVersion(0, 0, null));
   }
 
   /**
@@ -86,12 +150,14 @@ public class MembershipService {
    * @param userId the user ID
    * @return a list of memberships for the user
    */
-  @Transactional(readOnly = true)
   public List<Membership> getMembershipsByUser(String userId) {
-    logger.info("Retrieving memberships for user: " + userId);
-    List<Membership> memberships = membershipRepository.findByUserId(userId);
-    logger.info("Retrieved " + memberships.size() + " memberships for user: " + userId);
-    return membershipRepository.findByUserId(userId);
+    logger.debug("Retrieving memberships for user: {}", userId);
+    List<Membership> memberships =
+        Ids.parse(userId)
+            .map(user -> gather(() -> membershipRepository.findByUserId(user)))
+            .orElse(List.of());
+    logger.debug("Retrieved {} memberships for user: {}", memberships.size(), userId);
+    return memberships;
   }
 
   /**
@@ -100,12 +166,122 @@ public class MembershipService {
    * @param status the membership status
    * @return a list of memberships with the specified status
    */
-  @Transactional(readOnly = true)
   public List<Membership> getMembershipsByStatus(MembershipStatus status) {
-    logger.info("Retrieving memberships with status: " + status);
-    List<Membership> memberships = membershipRepository.findByStatus(status);
-    logger.info("Retrieved " + memberships.size() + " memberships with status: " + status);
-    return membershipRepository.findByStatus(status);
+    logger.debug("Retrieving memberships with status: {}", status);
+    List<Membership> memberships = gather(() -> membershipRepository.findByStatus(status));
+    logger.debug("Retrieved {} memberships with status: {}", memberships.size(), status);
+    return memberships;
+  }
+
+  /**
+   * Retrieves a page of all memberships, ordered by organization ID and user ID.
+   *
+   * @param cursor the cursor returned with the previous page, or null for the first page
+   * @param limit the requested page size, or null for the default
+   * @return a page of memberships
+   * @throws IllegalArgumentException if the cursor or limit is invalid
+   */
+  public CursorPage<Membership> getMembershipsPage(String cursor, Integer limit) {
+    Pageable pageable = PageLimits.keyset(limit);
+    MembershipId after = cursor == null ? null : decodeKey(cursor);
+    List<Slice<Membership>> slices =
+        shards.onEveryShard(
+            true,
+            () ->
+                after == null
+                    ? membershipRepository.findAllByOrderByOrgIdAscUserIdAsc(pageable)
+                    : membershipRepository.findPageAfter(
+                        after.getOrgId(), after.getUserId(), pageable));
+    return toPage(merge(slices, BY_ORGANIZATION_AND_USER, pageable));
+  }
+
+  /**
+   * Retrieves a page of memberships for a specific organization, ordered by user ID.
+   *
+   * @param orgId the organization ID
+   * @param cursor the cursor returned with the previous page, or null for the first page
+   * @param limit the requested page size, or null for the default
+   * @return a page of memberships for the organization
+   * @throws IllegalArgumentException if the cursor or limit is invalid, or the cursor was returned
+   *     for another organization
+   */
+  public CursorPage<Membership> getMembershipsByOrganizationPage(
+      String orgId, String cursor, Integer limit) {
+    Pageable pageable = PageLimits.keyset(limit);
+    String[] key = cursor == null ? null : CursorCodec.decode(cursor, 2);
+    Optional<UUID> org = Ids.parse(orgId);
+    if (org.isEmpty()) {
+      return new CursorPage<>(List.of(), null);
+    }
+    if (key != null && !CursorCodec.parseId(key[0]).equals(org.get())) {
+      throw new IllegalArgumentException("Invalid cursor");
+    }
+    Slice<Membership> slice =
+        shards.inShardOf(
+            org.get(),
+            true,
+            () ->
+                key == null
+                    ? membershipRepository.findByOrgIdOrderByUserIdAsc(org.get(), pageable)
+                    : membershipRepository.findByOrgIdAndUserIdGreaterThanOrderByUserIdAsc(
+                        org.get(), CursorCodec.parseId(key[1]), pageable));
+    return toPage(slice);
+  }
+
+  /**
+   * Retrieves a page of memberships for a specific user, ordered by organization ID.
+   *
+   * @param userId the user ID
+   * @param cursor the cursor returned with the previous page, or null for the first page
+   * @param limit the requested page size, or null for the default
+   * @return a page of memberships for the user
+   * @throws IllegalArgumentException if the cursor or limit is invalid, or the cursor was returned
+   *     for another user
+   */
+  public CursorPage<Membership> getMembershipsByUserPage(
+      String userId, String cursor, Integer limit) {
+    Pageable pageable = PageLimits.keyset(limit);
+    MembershipId after = cursor == null ? null : decodeKey(cursor);
+    Optional<UUID> user = Ids.parse(userId);
+    if (user.isEmpty()) {
+      return new CursorPage<>(List.of(), null);
+    }
+    if (after != null && !after.getUserId().equals(user.get())) {
+      throw new IllegalArgumentException("Invalid cursor");
+    }
+    List<Slice<Membership>> slices =
+        shards.onEveryShard(
+            true,
+            () ->
+                after == null
+                    ? membershipRepository.findByUserIdOrderByOrgIdAsc(user.get(), pageable)
+                    : membershipRepository.findByUserIdAndOrgIdGreaterThanOrderByOrgIdAsc(
+                        user.get(), after.getOrgId(), pageable));
+    return toPage(merge(slices, BY_ORGANIZATION_AND_USER, pageable));
+  }
+
+  /**
+   * Retrieves a page of memberships with a specific status, ordered by organization ID and user ID.
+   *
+   * @param status the membership status
+   * @param cursor the cursor returned with the previous page, or null for the first page
+   * @param limit the requested page size, or null for the default
+   * @return a page of memberships with the specified status
+   * @throws IllegalArgumentException if the cursor or limit is invalid
+   */
+  public CursorPage<Membership> getMembershipsByStatusPage(
+      MembershipStatus status, String cursor, Integer limit) {
+    Pageable pageable = PageLimits.keyset(limit);
+    MembershipId after = cursor == null ? null : decodeKey(cursor);
+    List<Slice<Membership>> slices =
+        shards.onEveryShard(
+            true,
+            () ->
+                after == null
+                    ? membershipRepository.findByStatusOrderByOrgIdAscUserIdAsc(status, pageable)
+                    : membershipRepository.findByStatusPageAfter(
+                        status, after.getOrgId(), after.getUserId(), pageable));
+    return toPage(merge(slices, BY_ORGANIZATION_AND_USER, pageable));
   }
 
   /**
@@ -115,36 +291,65 @@ public class MembershipService {
    * @param userId the user ID
    * @param status the membership status (defaults to ACTIVE if null)
    * @return the created membership
-   * @throws IllegalArgumentException if organization ID or user ID is null or empty
+   * @throws IllegalArgumentException if organization ID or user ID is null, empty or not a UUID
    * @throws IllegalStateException if membership already exists
    */
   public Membership createMembership(String orgId, String userId, MembershipStatus status) {
     if (orgId == null || orgId.trim().isEmpty()) {
-      logger.warning("Organization ID cannot be null or empty");
+      logger.debug("Organization ID cannot be null or empty");
       throw new IllegalArgumentException("Organization ID cannot be null or empty");
     }
 
     if (userId == null || userId.trim().isEmpty()) {
-      logger.warning("User ID cannot be null or empty");
+      logger.debug("User ID cannot be null or empty");
       throw new IllegalArgumentException("User ID cannot be null or empty");
     }
 
+    UUID org =
+        Ids.parse(orgId)
+            .orElseThrow(() -> new IllegalArgumentException("Invalid organization ID: " + orgId));
+    UUID user =
+        Ids.parse(userId)
+            .orElseThrow(() -> new IllegalArgumentException("Invalid user ID: " + userId));
+    return createMembership(org, user, status);
+  }
+
+  /**
+   * Creates a new membership for IDs that have already been parsed.
+   *
+   * @param orgId the organization ID
+   * @param userId the user ID
+   * @param status the membership status (defaults to ACTIVE if null)
+   * @return the created membership
+   * @throws IllegalArgumentException if organization ID or user ID is null
+   * @throws IllegalStateException if membership already exists
+   */
+  public Membership createMembership(UUID orgId, UUID userId, MembershipStatus status) {
+    if (orgId == null || userId == null) {
+      throw new IllegalArgumentException("Organization ID and user ID cannot be null");
+    }
+    return shards.inShardOf(orgId, false, () -> insert(orgId, userId, status));
+  }
+
+  /** Inserts a membership and updates its counters. Runs on the organization's shard. */
+  private Membership insert(UUID orgId, UUID userId, MembershipStatus status) {
     if (membershipRepository.existsByOrgIdAndUserId(orgId, userId)) {
-      logger.warning("Membership already exists for organization " + orgId + " and user " + userId);
+      logger.debug("Membership already exists for organization {} and user {}", orgId, userId);
       throw new IllegalStateException(
           "Membership already exists for organization " + orgId + " and user " + userId);
     }
 
     MembershipStatus membershipStatus = (status != null) ? status : MembershipStatus.ACTIVE;
     Membership membership = new Membership(orgId, userId, membershipStatus);
-    logger.info(
-        "Creating membership for organization: "
-            + orgId
-            + " and user: "
-            + userId
-            + " with status: "
-            + membershipStatus);
-    return membershipRepository.save(membership);
+    logger.debug(
+        "Creating membership for organization: {} and user: {} with status: {}",
+        orgId,
+        userId,
+        membershipStatus);
+    Membership saved = membershipRepository.save(membership);
+    counters.added(List.of(saved));
+    lookupCache.invalidateAfterCommit(orgId, userId);
+    return saved;
   }
 
   /**
@@ -155,7 +360,7 @@ public class MembershipService {
    * @return the created membership
    */
   public Membership createMembership(String orgId, String userId) {
-    logger.info("Creating membership for organization: " + orgId + " and user: " + userId);
+    logger.debug("Creating membership for organization: {} and user: {}", orgId, userId);
     return createMembership(orgId, userId, MembershipStatus.ACTIVE);
   }
 
@@ -171,38 +376,138 @@ public class MembershipService {
    */
   public Membership updateMembershipStatus(
       String orgId, String userId, MembershipStatus newStatus) {
+    return updateMembershipStatus(orgId, userId, newStatus, null);
+  }
+
+  /**
+   * Updates the status of an existing membership, provided it still has the expected version.
+   *
+   * @param orgId the organization ID
+   * @param userId the user ID
+   * @param newStatus the new membership status
+   * @param expectedVersion the version the membership must have, or null to update any version
+   * @return the updated membership
+   * @throws IllegalArgumentException if organization ID, user ID, or status is null
+   * @throws IllegalStateException if membership is not found
+   * @throws OptimisticLockingFailureException if the membership is not at the expected version
+   */
+  public Membership updateMembershipStatus(
+      String orgId, String userId, MembershipStatus newStatus, Long expectedVersion) {
     if (orgId == null || orgId.trim().isEmpty()) {
-      logger.warning("Organization ID cannot be null or empty");
+      logger.debug("Organization ID cannot be null or empty");
       throw new IllegalArgumentException("Organization ID cannot be null or empty");
     }
 
     if (userId == null || userId.trim().isEmpty()) {
-      logger.warning("User ID cannot be null or empty");
+      logger.debug("User ID cannot be null or empty");
       throw new IllegalArgumentException("User ID cannot be null or empty");
     }
 
     if (newStatus == null) {
-      logger.warning("Status cannot be null");
+      logger.debug("Status cannot be null");
       throw new IllegalArgumentException("Status cannot be null");
     }
 
-    Membership membership =
-        membershipRepository
-            .findByOrgIdAndUserId(orgId, userId)
+    MembershipId id =
+        parseId(orgId, userId)
             .orElseThrow(
                 () ->
                     new IllegalStateException(
                         "Membership not found for organization " + orgId + " and user " + userId));
+    return shards.inShardOf(
+        id.getOrgId(), false, () -> changeStatus(id, newStatus, expectedVersion, orgId, userId));
+  }
+
+  /**
+   * Changes the status of a membership and its counters. Runs on the organization's shard.
+   *
+   * <p>The change is a conditional UPDATE from the status the membership most likely leaves, so
+   * that the common change writes the row without reading it first and the counters still learn
+   * which status was left; the membership is then read back in the same transaction for the
+   * response. Only when no row was changed is the membership read first, to find out why, and
+   * changed from the status and version it was read with.
+   */
+  private Membership changeStatus(
+      MembershipId id,
+      MembershipStatus newStatus,
+      Long expectedVersion,
+      String orgId,
+      String userId) {
+    MembershipStatus likelyStatus = LIKELY_PRIOR_STATUS.get(newStatus);
+    int updated =
+        membershipRepository.updateStatus(
+            id.getOrgId(), id.getUserId(), likelyStatus, newStatus, expectedVersion);
+    if (updated == 1) {
+      statusChanged(id, likelyStatus, newStatus);
+      return findForStatusChange(id, orgId, userId);
+    }
 
+    Membership membership = findForStatusChange(id, orgId, userId);
+    if (expectedVersion != null && !expectedVersion.equals(membership.getVersion())) {
+      logger.debug(
+          "Membership for organization {} and user {} is at version {}, not {}",
+          orgId,
+          userId,
+          membership.getVersion(),
+          expectedVersion);
+      throw new OptimisticLockingFailureException(
+          "Membership for organization "
+              + orgId
+              + " and user "
+              + userId
+              + " has been modified since version "
+              + expectedVersion);
+    }
+    if (membership.getStatus() == newStatus) {
+      logger.debug(
+          "Membership for organization: {} and user: {} already has status: {}",
+          orgId,
+          userId,
+          newStatus);
+      return membership;
+    }
+
+    MembershipStatus oldStatus = membership.getStatus();
+    updated =
+        membershipRepository.updateStatus(
+            id.getOrgId(), id.getUserId(), oldStatus, newStatus, membership.getVersion());
+    if (updated == 0) {
+      // Another transaction changed the membership after it was read
+      throw new OptimisticLockingFailureException(
+          "Membership for organization "
+              + orgId
+              + " and user "
+              + userId
+              + " changed status while being updated");
+    }
+    statusChanged(id, oldStatus, newStatus);
+    // The read membership is detached by the UPDATE; it only lacks what the UPDATE wrote
     membership.setStatus(newStatus);
-    logger.info(
-        "Updating membership status for organization: "
-            + orgId
-            + " and user: "
-            + userId
-            + " to: "
-            + newStatus);
-    return membershipRepository.save(membership);
+    membership.setVersion(membership.getVersion() + 1);
+    return membership;
+  }
+
+  /** Updates the counters and the lookup cache after a membership changed status. */
+  private void statusChanged(
+      MembershipId id, MembershipStatus oldStatus, MembershipStatus newStatus) {
+    logger.debug(
+        "Updated membership status for organization: {} and user: {} from {} to {}",
+        id.getOrgId(),
+        id.getUserId(),
+        oldStatus,
+        newStatus);
+    counters.statusChanged(id.getOrgId(), oldStatus, newStatus);
+    lookupCache.invalidateAfterCommit(id.getOrgId(), id.getUserId());
+  }
+
+  /** Loads a membership whose status is being changed, which must exist. */
+  private Membership findForStatusChange(MembershipId id, String orgId, String userId) {
+    return membershipRepository
+        .findByOrgIdAndUserId(id.getOrgId(), id.getUserId())
+        .orElseThrow(
+            () ->
+                new IllegalStateException(
+                    "Membership not found for organization " + orgId + " and user " + userId));
   }
 
   /**
@@ -215,67 +520,233 @@ public class MembershipService {
    */
   public void deleteMembership(String orgId, String userId) {
     if (orgId == null || orgId.trim().isEmpty()) {
-      logger.warning("Organization ID cannot be null or empty");
+      logger.debug("Organization ID cannot be null or empty");
       throw new IllegalArgumentException("Organization ID cannot be null or empty");
     }
 
     if (userId == null || userId.trim().isEmpty()) {
-      logger.warning("User ID cannot be null or empty");
+      logger.debug("User ID cannot be null or empty");
       throw new IllegalArgumentException("User ID cannot be null or empty");
     }
 
-    MembershipId membershipId = new MembershipId(orgId, userId);
-    if (!membershipRepository.existsById(membershipId)) {
-      logger.warning("Membership not found for organization " + orgId + " and user " + userId);
+    Optional<MembershipId> id = parseId(orgId, userId);
+    boolean deleted =
+        id.isPresent() && shards.inShardOf(id.get().getOrgId(), false, () -> remove(id.get()));
+    if (!deleted) {
+      logger.debug("Membership not found for organization {} and user {}", orgId, userId);
       throw new IllegalStateException(
           "Membership not found for organization " + orgId + " and user " + userId);
     }
+    logger.debug("Deleted membership for organization: {} and user: {}", orgId, userId);
+  }
 
-    membershipRepository.deleteById(membershipId);
-    logger.info("Deleted membership for organization: " + orgId + " and user: " + userId);
+  /**
+   * Deletes the next batch of an organization's memberships, for deleting the organization. The
+   * batch is locked, deleted and uncounted with set-based statements on the organization's shard,
+   * without loading any membership. Once none are left, the organization's counters are dropped.
+   *
+   * @param orgId the organization ID
+   * @param batchSize the most memberships to delete
+   * @return the number of memberships deleted, 0 once the organization has none left
+   */
+  public int deleteOrganizationMemberships(UUID orgId, int batchSize) {
+    return shards.inShardOf(orgId, false, () -> removeBatch(orgId, batchSize));
   }
 
   /**
-   * Checks if a membership exists for the given organization and user.
+   * Returns the number of memberships an organization has over every status, from its counters.
+   *
+   * @param orgId the organization ID
+   * @return the number of memberships
+   */
+  public long countOrganizationMemberships(UUID orgId) {
+    return shards.inShardOf(orgId, true, () -> counters.countByOrganization(orgId));
+  }
+
+  /**
+   * Checks if a membership exists for the given organization and user. Like {@link
+   * #getMembership(String, String)}, this is served from the membership lookup cache.
    *
    * @param orgId the organization ID
    * @param userId the user ID
    * @return true if membership exists, false otherwise
    */
-  @Transactional(readOnly = true)
   public boolean existsMembership(String orgId, String userId) {
-    logger.info(
-        "Checking if membership exists for organization: " + orgId + " and user: " + userId);
-    boolean exists = membershipRepository.existsByOrgIdAndUserId(orgId, userId);
-    logger.info("Membership exists: " + exists);
-    return membershipRepository.existsByOrgIdAndUserId(orgId, userId);
+    logger.debug("Checking if membership exists for organization: {} and user: {}", orgId, userId);
+    boolean exists = lookup(orgId, userId).isPresent();
+    logger.debug("Membership exists: {}", exists);
+    return exists;
   }
 
   /**
-   * Counts the number of active members for an organization.
+   * Counts the number of active members for an organization. The count is read from the
+   * organization's membership counter.
    *
    * @param orgId the organization ID
    * @return the count of active members
    */
-  @Transactional(readOnly = true)
   public long countActiveMembers(String orgId) {
-    logger.info("Counting active members for organization: " + orgId);
-    long count = membershipRepository.countActiveMembersByOrgId(orgId);
-    logger.info("Active member count for organization " + orgId + ": " + count);
-    return membershipRepository.countActiveMembersByOrgId(orgId);
+    logger.debug("Counting active members for organization: {}", orgId);
+    long count =
+        Ids.parse(orgId)
+            .map(
+                org ->
+                    shards.inShardOf(
+                        org,
+                        true,
+                        () -> counters.countByOrganization(org, MembershipStatus.ACTIVE)))
+            .orElse(0L);
+    logger.debug("Active member count for organization {}: {}", orgId, count);
+    return count;
   }
 
   /**
-   * Counts the number of memberships for a user.
+   * Counts the number of memberships for a user. The count is read from the user's membership
+   * counter.
    *
    * @param userId the user ID
    * @return the count of memberships
    */
-  @Transactional(readOnly = true)
   public long countUserMemberships(String userId) {
-    logger.info("Counting memberships for user: " + userId);
-    long count = membershipRepository.countMembershipsByUserId(userId);
-    logger.info("Membership count for user " + userId + ": " + count);
+    logger.debug("Counting memberships for user: {}", userId);
+    long count =
+        Ids.parse(userId)
+            .map(
+                user ->
+                    shards.onEveryShard(true, () -> counters.countByUser(user)).stream()
+                        .mapToLong(Long::longValue)
+                        .sum())
+            .orElse(0L);
+    logger.debug("Membership count for user {}: {}", userId, count);
     return count;
   }
+
+  /**
+   * Summarizes the memberships of an organization per status with a single grouped query.
+   *
+   * @param orgId the organization ID
+   * @param userId the user to look for among the members, normally the organization creator
+   * @return one summary per status that has memberships
+   */
+  public List<MembershipStatusSummary> summarizeOrganization(UUID orgId, UUID userId) {
+    logger.debug("Summarizing memberships for organization: {}", orgId);
+    return shards.inShardOf(
+        orgId, true, () -> membershipRepository.summarizeByOrgId(orgId, userId));
+  }
+
+  /** Deletes a membership and updates its counters. Runs on the organization's shard. */
+  private boolean remove(MembershipId id) {
+    Optional<Membership> existing = membershipRepository.findById(id);
+    if (existing.isEmpty()) {
+      return false;
+    }
+    Membership membership = existing.get();
+    membershipRepository.delete(membership);
+    counters.removed(membership);
+    lookupCache.invalidateAfterCommit(membership.getOrgId(), membership.getUserId());
+    return true;
+  }
+
+  /** Deletes one batch of an organization's memberships. Runs on the organization's shard. */
+  private int removeBatch(UUID orgId, int batchSize) {
+    List<UUID> userIds =
+        membershipRepository.findUserIdsForUpdateByOrgId(orgId, PageRequest.ofSize(batchSize));
+    if (userIds.isEmpty()) {
+      counters.organizationDeleted(orgId);
+      return 0;
+    }
+    int deleted = membershipRepository.deleteByOrgIdAndUserIdIn(orgId, userIds);
+    counters.removedFromOrganization(userIds);
+    for (UUID userId : userIds) {
+      lookupCache.invalidateAfterCommit(orgId, userId);
+    }
+    logger.debug("Deleted {} memberships of organization {}", deleted, orgId);
+    return deleted;
+  }
+
+  /**
+   * Parses a membership key sent by a client. A key that does not parse cannot match any
+   * membership.
+   */
+  private static Optional<MembershipId> parseId(String orgId, String userId) {
+    Optional<UUID> org = Ids.parse(orgId);
+    Optional<UUID> user = Ids.parse(userId);
+    if (org.isEmpty() || user.isEmpty()) {
+      return Optional.empty();
+    }
+    return Optional.of(new MembershipId(org.get(), user.get()));
+  }
+
+  /**
+   * Decodes a membership cursor into the key it points after.
+   *
+   * @throws IllegalArgumentException if the cursor is invalid
+   */
+  private static MembershipId decodeKey(String cursor) {
+    String[] key = CursorCodec.decode(cursor, 2);
+    return new MembershipId(CursorCodec.parseId(key[0]), CursorCodec.parseId(key[1]));
+  }
+
+  /** Looks up a single membership through the lookup cache. */
+  private Optional<Membership> lookup(String orgId, String userId) {
+    return parseId(orgId, userId).flatMap(this::lookup);
+  }
+
+  /**
+   * Looks up a single membership by its parsed key through the lookup cache. Misses are loaded in a
+   * read-write transaction so that they are read from the primary: a lagging replica could still
+   * return the row a write just replaced, and the cache would keep it for its whole time to live.
+   */
+  private Optional<Membership> lookup(MembershipId id) {
+    UUID orgId = id.getOrgId();
+    UUID userId = id.getUserId();
+    return lookupCache.get(
+        orgId,
+        userId,
+        () ->
+            shards.inShardOf(
+                orgId, false, () -> membershipRepository.findByOrgIdAndUserId(orgId, userId)));
+  }
+
+  /** Runs a listing on every shard and concatenates the results. */
+  private List<Membership> gather(Supplier<List<Membership>> listing) {
+    List<List<Membership>> results = shards.onEveryShard(true, listing);
+    if (results.size() == 1) {
+      return results.get(0);
+    }
+    return results.stream().flatMap(List::stream).toList();
+  }
+
+  /**
+   * Merges the slices that every shard returned for the same keyset page into one page of the
+   * requested size. Each slice is already ordered by (organization ID, user ID), so the merged page
+   * is too, and there is a next page if any shard had more than what made it into this one.
+   */
+  private static Slice<Membership> merge(
+      List<Slice<Membership>> slices, Comparator<Membership> order, Pageable pageable) {
+    if (slices.size() == 1) {
+      return slices.get(0);
+    }
+    List<Membership> merged = new ArrayList<>();
+    boolean hasNext = false;
+    for (Slice<Membership> slice : slices) {
+      merged.addAll(slice.getContent());
+      hasNext |= slice.hasNext();
+    }
+    merged.sort(order);
+    if (merged.size() > pageable.getPageSize()) {
+      merged = merged.subList(0, pageable.getPageSize());
+      hasNext = true;
+    }
+    return new SliceImpl<>(merged, pageable, hasNext);
+  }
+
+  /**
+   * Converts a slice of memberships into a cursor page. Every membership cursor carries the full
+   * (organization ID, user ID) key so that the same token format works for every listing.
+   */
+  private static CursorPage<Membership> toPage(Slice<Membership> slice) {
+    return CursorPage.of(
+        slice, m -> CursorCodec.encode(m.getOrgId().toString(), m.getUserId().toString()));
+  }
 }
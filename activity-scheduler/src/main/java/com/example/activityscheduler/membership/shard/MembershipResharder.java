@@ -0,0 +1,206 @@
+package com.example.activityscheduler.membership.shard;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves memberships to the shard they belong on after shards were added.
+ *
+ * <p>Every shard is walked one organization at a time, and an organization whose memberships are
+ * not on the shard {@link MembershipShards#shardOf(UUID, int)} now gives it is copied to that
+ * shard and then deleted from the old one, each in a transaction on its own database. The copy
+ * skips memberships the target already has, so a run that was interrupted between the two steps
+ * can simply be started again. Counters move with the memberships: the organization's counters
+ * are recomputed on the target, and each moved membership is counted for its user on the target
+ * and uncounted on the source.
+ *
+ * <p>The application must not be writing memberships while this runs. Shards can only be added:
+ * the memberships of a shard whose URL was removed are no longer reachable.
+ */
+public class MembershipResharder {
+
+  private static final Logger logger = LoggerFactory.getLogger(MembershipResharder.class);
+
+  private static final int PAGE_SIZE = 500;
+
+  private final List<Shard> shards = new ArrayList<>();
+
+  /**
+   * Constructs a MembershipResharder.
+   *
+   * @param shardDataSources the data source of every shard, in shard order
+   */
+  public MembershipResharder(List<? extends DataSource> shardDataSources) {
+    for (DataSource dataSource : shardDataSources) {
+      shards.add(new Shard(dataSource));
+    }
+  }
+
+  /**
+   * Moves every organization that is on the wrong shard to the right one.
+   *
+   * @return the number of organizations moved
+   */
+  public long reshard() {
+    long start = System.nanoTime();
+    long moved = 0;
+    for (int source = 0; source < shards.size(); source++) {
+      long movedFromSource = 0;
+      List<UUID> orgIds = shards.get(source).orgIdsAfter(null);
+      while (!orgIds.isEmpty()) {
+        for (UUID orgId : orgIds) {
+          int target = MembershipShards.shardOf(orgId, shards.size());
+          if (target != source) {
+            move(orgId, shards.get(source), shards.get(target));
+            movedFromSource++;
+          }
+        }
+        if (orgIds.size() < PAGE_SIZE) {
+          break;
+        }
+        orgIds = shards.get(source).orgIdsAfter(orgIds.get(orgIds.size() - 1));
+      }
+      logger.info("Moved {} organizations off membership shard {}", movedFromSource, source);
+      moved += movedFromSource;
+    }
+    logger.info(
+        "Resharded memberships over {} shards: moved {} organizations in {} ms",
+        shards.size(),
+        moved,
+        (System.nanoTime() - start) / 1_000_000);
+    return moved;
+  }
+
+  /** Copies an organization's memberships to the target, then deletes them from the source. */
+  private void move(UUID orgId, Shard source, Shard target) {
+    byte[] org = bytes(orgId);
+    List<Row> rows =
+        source.jdbc.query(
+            "SELECT user_id, status, created_at, version FROM memberships WHERE org_id = ?",
+            (result, rowNum) ->
+                new Row(
+                    result.getBytes(1),
+                    result.getString(2),
+                    result.getTimestamp(3),
+                    result.getLong(4)),
+            (Object) org);
+
+    target.transaction.executeWithoutResult(
+        status -> {
+          for (Row row : rows) {
+            Integer existing =
+                target.jdbc.queryForObject(
+                    "SELECT COUNT(*) FROM memberships WHERE org_id = ? AND user_id = ?",
+                    Integer.class,
+                    org,
+                    row.userId);
+            if (existing != null && existing > 0) {
+              continue;
+            }
+            target.jdbc.update(
+                "INSERT INTO memberships (org_id, user_id, status, created_at, version)"
+                    + " VALUES (?, ?, ?, ?, ?)",
+                org,
+                row.userId,
+                row.status,
+                row.createdAt,
+                row.version);
+            adjustUserCounter(target.jdbc, row.userId, 1);
+          }
+          target.jdbc.update("DELETE FROM organization_membership_counts WHERE org_id = ?", org);
+          target.jdbc.update(
+              "INSERT INTO organization_membership_counts (org_id, status, member_count)"
+                  + " SELECT org_id, status, COUNT(*) FROM memberships WHERE org_id = ?"
+                  + " GROUP BY org_id, status",
+              org);
+        });
+
+    source.transaction.executeWithoutResult(
+        status -> {
+          for (Row row : rows) {
+            int deleted =
+                source.jdbc.update(
+                    "DELETE FROM memberships WHERE org_id = ? AND user_id = ?", org, row.userId);
+            if (deleted > 0) {
+              adjustUserCounter(source.jdbc, row.userId, -1);
+            }
+          }
+          source.jdbc.update("DELETE FROM organization_membership_counts WHERE org_id = ?", org);
+        });
+    logger.debug("Moved {} memberships of organization {}", rows.size(), orgId);
+  }
+
+  /** Adds the delta to a user's counter on one shard, creating the counter if needed. */
+  private static void adjustUserCounter(JdbcTemplate jdbc, byte[] userId, long delta) {
+    int updated =
+        jdbc.update(
+            "UPDATE user_membership_counts SET membership_count = membership_count + ?"
+                + " WHERE user_id = ?",
+            delta,
+            userId);
+    if (updated == 0 && delta > 0) {
+      jdbc.update(
+          "INSERT INTO user_membership_counts (user_id, membership_count) VALUES (?, ?)",
+          userId,
+          delta);
+    }
+  }
+
+  private static byte[] bytes(UUID id) {
+    byte[] bytes = new byte[16];
+    long msb = id.getMostSignificantBits();
+    long lsb = id.getLeastSignificantBits();
+    for (int i = 0; i < 8; i++) {
+      bytes[i] = (byte) (msb >>> (56 - 8 * i));
+      bytes[8 + i] = (byte) (lsb >>> (56 - 8 * i));
+    }
+    return bytes;
+  }
+
+  private static UUID uuid(byte[] bytes) {
+    long msb = 0;
+    long lsb = 0;
+    for (int i = 0; i < 8; i++) {
+      msb = (msb << 8) | (bytes[i] & 0xff);
+      lsb = (lsb << 8) | (bytes[8 + i] & 0xff);
+    }
+    return new UUID(msb, lsb);
+  }
+
+  /** One shard's database, with a transaction template of its own. */
+  private static final class Shard {
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transaction;
+
+    Shard(DataSource dataSource) {
+      this.jdbc = new JdbcTemplate(dataSource);
+      this.transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    /** Returns the next page of organization IDs with memberships, after the given one. */
+    List<UUID> orgIdsAfter(UUID after) {
+      if (after == null) {
+        return jdbc.query(
+            "SELECT DISTINCT org_id FROM memberships ORDER BY org_id LIMIT ?",
+            (result, rowNum) -> uuid(result.getBytes(1)),
+            PAGE_SIZE);
+      }
+      return jdbc.query(
+          "SELECT DISTINCT org_id FROM memberships WHERE org_id > ? ORDER BY org_id LIMIT ?",
+          (result, rowNum) -> uuid(result.getBytes(1)),
+          bytes(after),
+          PAGE_SIZE);
+    }
+  }
+
+  private record Row(byte[] userId, String status, Timestamp createdAt, long version) {}
+}
@@ -0,0 +1,59 @@
+package com.example.activityscheduler.membership.shard;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Data source that hands out connections to the membership shard the current thread is working
+ * on, as set by {@link MembershipShards}, and to shard 0, the application's own database, when it
+ * is not working on any shard.
+ */
+public class MembershipShardRoutingDataSource extends AbstractRoutingDataSource
+    implements AutoCloseable {
+
+  private final List<DataSource> shards;
+
+  /**
+   * Constructs a MembershipShardRoutingDataSource.
+   *
+   * @param shards the data source of every shard, starting with the application's own database
+   */
+  public MembershipShardRoutingDataSource(List<? extends DataSource> shards) {
+    this.shards = List.copyOf(shards);
+    Map<Object, Object> targets = new HashMap<>();
+    for (int i = 0; i < shards.size(); i++) {
+      targets.put(i, shards.get(i));
+    }
+    setTargetDataSources(targets);
+    setDefaultTargetDataSource(shards.get(0));
+    setLenientFallback(false);
+    afterPropertiesSet();
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    return MembershipShards.currentShard();
+  }
+
+  /**
+   * Returns the data source of every shard, in shard order.
+   *
+   * @return the shard data sources
+   */
+  public List<DataSource> shards() {
+    return shards;
+  }
+
+  /** Closes the data sources of the extra shards. The application's own database is left open. */
+  @Override
+  public void close() throws Exception {
+    for (DataSource shard : shards.subList(1, shards.size())) {
+      if (shard instanceof AutoCloseable closeable) {
+        closeable.close();
+      }
+    }
+  }
+}
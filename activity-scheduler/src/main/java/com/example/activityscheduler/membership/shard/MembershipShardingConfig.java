@@ -0,0 +1,178 @@
+package com.example.activityscheduler.membership.shard;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.flywaydb.core.Flyway;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+/**
+ * Spreads memberships over several databases when {@code membership.sharding.urls} is set.
+ *
+ * <p>The application's data source routes each connection to the shard chosen by {@link
+ * MembershipShards} for the current thread, and to the application's own database, configured by
+ * the usual {@code spring.datasource.*} properties, otherwise. It is wrapped in a {@link
+ * LazyConnectionDataSourceProxy} so that a transaction opened before the shard is known, such as
+ * that of a service method, does not hold a connection it never uses.
+ *
+ * <p>The extra shards get the membership schema at startup: the Flyway migrations when Flyway is
+ * enabled, otherwise the script set by {@code membership.sharding.init-script}, if any. Setting
+ * {@code membership.sharding.reshard=true} starts the application only to move memberships to the
+ * shards they belong on after shards were added (see {@link MembershipResharder}), then exits.
+ * Sharding cannot be combined with read replicas.
+ */
+@Configuration
+@ConditionalOnProperty(name = "membership.sharding.urls")
+public class MembershipShardingConfig {
+
+  private static final Logger logger = LoggerFactory.getLogger(MembershipShardingConfig.class);
+
+  /**
+   * Creates the connection pool of the application's own database, which is also shard 0.
+   *
+   * @param properties the {@code spring.datasource.*} properties
+   * @param replicaUrls the read replica URLs, which must not be set
+   * @return the pool of the application's own database
+   */
+  @Bean
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource homeDataSource(
+      DataSourceProperties properties, @Value("${datasource.replica.urls:}") String replicaUrls) {
+    if (!replicaUrls.isBlank()) {
+      throw new IllegalStateException(
+          "membership.sharding.urls and datasource.replica.urls cannot both be set");
+    }
+    return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+  }
+
+  /**
+   * Creates a connection pool for each extra shard, brings its schema up to date, and creates the
+   * data source that picks among the shards.
+   *
+   * @param homeDataSource the pool of the application's own database
+   * @param properties the {@code spring.datasource.*} properties
+   * @param urls the JDBC URLs of the extra shards
+   * @param username the shard user, by default the application database's
+   * @param password the shard password, by default the application database's
+   * @param maximumPoolSize the maximum number of connections to each extra shard
+   * @param flywayEnabled whether the schema is managed by Flyway
+   * @param flywayLocations the Flyway migration locations
+   * @param baselineOnMigrate whether Flyway baselines a database that has no history
+   * @param baselineVersion the version Flyway baselines such a database at
+   * @param initScript the schema script run on each extra shard when Flyway is disabled
+   * @param resourceLoader the loader of the schema script
+   * @param meterRegistry the registry to publish the shard pool metrics to
+   * @return the routing data source
+   */
+  @Bean
+  public MembershipShardRoutingDataSource membershipShardDataSource(
+      HikariDataSource homeDataSource,
+      DataSourceProperties properties,
+      @Value("${membership.sharding.urls}") List<String> urls,
+      @Value("${membership.sharding.username:${spring.datasource.username:}}") String username,
+      @Value("${membership.sharding.password:${spring.datasource.password:}}") String password,
+      @Value("${membership.sharding.maximum-pool-size:10}") int maximumPoolSize,
+      @Value("${spring.flyway.enabled:true}") boolean flywayEnabled,
+      @Value("${spring.flyway.locations:classpath:db/migration}") List<String> flywayLocations,
+      @Value("${spring.flyway.baseline-on-migrate:false}") boolean baselineOnMigrate,
+      @Value("${spring.flyway.baseline-version:1}") String baselineVersion,
+      @Value("${membership.sharding.init-script:}") String initScript,
+      ResourceLoader resourceLoader,
+      MeterRegistry meterRegistry) {
+    List<DataSource> shards = new ArrayList<>();
+    shards.add(homeDataSource);
+    for (String url : urls) {
+      if (url.isBlank()) {
+        continue;
+      }
+      HikariDataSource shard =
+          properties
+              .initializeDataSourceBuilder()
+              .type(HikariDataSource.class)
+              .url(url.trim())
+              .username(username)
+              .password(password)
+              .build();
+      shard.setPoolName("membership-shard-" + shards.size());
+      shard.setMaximumPoolSize(maximumPoolSize);
+      shard.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+      if (flywayEnabled) {
+        String vendor = DatabaseDriver.fromJdbcUrl(url.trim()).getId();
+        Flyway.configure()
+            .dataSource(shard)
+            .locations(
+                flywayLocations.stream()
+                    .map(location -> location.trim().replace("{vendor}", vendor))
+                    .toArray(String[]::new))
+            .baselineOnMigrate(baselineOnMigrate)
+            .baselineVersion(baselineVersion)
+            .load()
+            .migrate();
+      } else if (!initScript.isBlank()) {
+        new ResourceDatabasePopulator(resourceLoader.getResource(initScript)).execute(shard);
+      }
+      shards.add(shard);
+    }
+    logger.info("Memberships are sharded over {} databases", shards.size());
+    return new MembershipShardRoutingDataSource(shards);
+  }
+
+  /**
+   * Creates the data source used by JPA, Flyway and everything else in the application.
+   *
+   * @param membershipShardDataSource the data source that picks among the shards
+   * @return the lazily connecting routing data source
+   */
+  @Bean
+  @Primary
+  public DataSource dataSource(MembershipShardRoutingDataSource membershipShardDataSource) {
+    return new LazyConnectionDataSourceProxy(membershipShardDataSource);
+  }
+
+  /**
+   * Creates the tool that moves memberships to their shard after shards were added.
+   *
+   * @param membershipShardDataSource the data source that picks among the shards
+   * @return the resharder
+   */
+  @Bean
+  public MembershipResharder membershipResharder(
+      MembershipShardRoutingDataSource membershipShardDataSource) {
+    return new MembershipResharder(membershipShardDataSource.shards());
+  }
+
+  /**
+   * Reshards the memberships and exits, when started with {@code membership.sharding.reshard=true}.
+   *
+   * @param resharder the resharder
+   * @param context the application context, closed before exiting
+   * @return the runner
+   */
+  @Bean
+  @ConditionalOnProperty(name = "membership.sharding.reshard", havingValue = "true")
+  public ApplicationRunner membershipReshardRunner(
+      MembershipResharder resharder, ConfigurableApplicationContext context) {
+    return args -> {
+      resharder.reshard();
+      System.exit(SpringApplication.exit(context));
+    };
+  }
+}
@@ -0,0 +1,264 @@
+package com.example.activityscheduler.membership.shard;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Places memberships on shards by organization and runs membership work on the right shard.
+ *
+ * <p>Shard 0 is the application's own database; {@code membership.sharding.urls} adds shards 1 to
+ * N - 1. An organization's memberships and counters all live on the shard chosen by a jump
+ * consistent hash of its ID, so growing from N to N + 1 shards moves only the organizations that
+ * now belong to the new shard. Users and organizations themselves stay on shard 0.
+ *
+ * <p>Work for one organization runs in a transaction of its own on that organization's shard;
+ * work that concerns every shard, such as a user's memberships, runs on all of them in parallel.
+ * A database transaction cannot span shards, so a write is only atomic within its shard. The work
+ * must not be started inside another transaction: that transaction would hold a connection to
+ * shard 0 while the work takes a second one, which can drain the pool, and its commit or rollback
+ * would not cover the work. Callers that also write to shard 0 commit that write first.
+ *
+ * <p>Without extra shards every method runs the work in the caller's transaction, or in a
+ * transaction of its own if the caller has none, so that a caller's writes and its membership
+ * writes stay atomic.
+ */
+@Component
+public class MembershipShards implements DisposableBean {
+
+  private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+  private final int count;
+  private final TransactionTemplate readOnlyTransaction;
+  private final TransactionTemplate readWriteTransaction;
+  private final ExecutorService executor;
+
+  /**
+   * Constructs a MembershipShards.
+   *
+   * @param shardUrls the JDBC URLs of the shards besides the application's own database
+   * @param transactionManager the transaction manager used for the work on each shard, or null to
+   *     run the work without starting transactions
+   */
+  public MembershipShards(
+      @Value("${membership.sharding.urls:}") List<String> shardUrls,
+      PlatformTransactionManager transactionManager) {
+    this.count = 1 + (int) shardUrls.stream().filter(url -> !url.isBlank()).count();
+    int propagation =
+        count == 1
+            ? TransactionDefinition.PROPAGATION_REQUIRED
+            : TransactionDefinition.PROPAGATION_REQUIRES_NEW;
+    if (transactionManager == null) {
+      this.readOnlyTransaction = null;
+      this.readWriteTransaction = null;
+    } else {
+      this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+      this.readOnlyTransaction.setPropagationBehavior(propagation);
+      this.readOnlyTransaction.setReadOnly(true);
+      this.readWriteTransaction = new TransactionTemplate(transactionManager);
+      this.readWriteTransaction.setPropagationBehavior(propagation);
+    }
+    if (count == 1) {
+      this.executor = null;
+      return;
+    }
+    AtomicInteger threads = new AtomicInteger();
+    this.executor =
+        Executors.newCachedThreadPool(
+            task -> {
+              Thread thread = new Thread(task, "membership-shard-" + threads.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  /**
+   * Returns the shards of a deployment without sharding and without transactions: everything runs
+   * directly on the one database, for use outside a Spring context.
+   *
+   * @return the single-shard layout
+   */
+  public static MembershipShards single() {
+    return new MembershipShards(List.of(), null);
+  }
+
+  /**
+   * Returns the shard the current thread is working on, for routing its connections.
+   *
+   * @return the shard, or null if the thread is not working on a particular shard
+   */
+  public static Integer currentShard() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Returns the shard an organization's memberships are stored on among the given number of
+   * shards. The same organization always maps to the same shard for the same number of shards.
+   *
+   * @param orgId the organization ID
+   * @param shardCount the number of shards
+   * @return the shard, from 0 to shardCount - 1
+   */
+  public static int shardOf(UUID orgId, int shardCount) {
+    long key = mix(orgId.getMostSignificantBits() ^ mix(orgId.getLeastSignificantBits()));
+    // Jump consistent hash (Lamping and Veach)
+    long bucket = -1;
+    long next = 0;
+    while (next < shardCount) {
+      bucket = next;
+      key = key * 2862933555777941757L + 1;
+      next = (long) ((bucket + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+    }
+    return (int) bucket;
+  }
+
+  /** Spreads the bits of a value, so that similar IDs land on unrelated shards (SplitMix64). */
+  private static long mix(long value) {
+    value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+    value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+    return value ^ (value >>> 31);
+  }
+
+  /**
+   * Returns the number of shards.
+   *
+   * @return the number of shards, 1 without sharding
+   */
+  public int count() {
+    return count;
+  }
+
+  /**
+   * Returns the shard an organization's memberships are stored on.
+   *
+   * @param orgId the organization ID
+   * @return the shard
+   */
+  public int shardOf(UUID orgId) {
+    return shardOf(orgId, count);
+  }
+
+  /**
+   * Runs work for one organization on its shard, in a transaction of its own on that shard.
+   * Without sharding the work runs in the caller's transaction if there is one.
+   *
+   * @param orgId the organization ID
+   * @param readOnly whether the work only reads
+   * @param work the work
+   * @param <T> the type of the result
+   * @return the result of the work
+   * @throws IllegalStateException if memberships are sharded and a transaction is active
+   */
+  public <T> T inShardOf(UUID orgId, boolean readOnly, Supplier<T> work) {
+    return inShard(count == 1 ? 0 : shardOf(orgId), readOnly, work);
+  }
+
+  /**
+   * Runs work on the given shard, in a transaction of its own on that shard. Without sharding the
+   * work runs in the caller's transaction if there is one.
+   *
+   * @param shard the shard
+   * @param readOnly whether the work only reads
+   * @param work the work
+   * @param <T> the type of the result
+   * @return the result of the work
+   * @throws IllegalStateException if memberships are sharded and a transaction is active
+   */
+  public <T> T inShard(int shard, boolean readOnly, Supplier<T> work) {
+    TransactionTemplate transaction = readOnly ? readOnlyTransaction : readWriteTransaction;
+    Supplier<T> transactional =
+        transaction == null ? work : () -> transaction.execute(status -> work.get());
+    if (count == 1) {
+      return transactional.get();
+    }
+    requireNoTransaction();
+    return onShard(shard, transactional);
+  }
+
+  /**
+   * Runs work on every shard in parallel, each in a transaction of its own, and returns the
+   * results in shard order. Without sharding the work runs once, in the caller's transaction if
+   * there is one.
+   *
+   * @param readOnly whether the work only reads
+   * @param work the work
+   * @param <T> the type of the results
+   * @return the result of every shard
+   * @throws IllegalStateException if memberships are sharded and a transaction is active
+   * @throws RuntimeException the first failure of any shard, after all of them have finished
+   */
+  public <T> List<T> onEveryShard(boolean readOnly, Supplier<T> work) {
+    if (count == 1) {
+      return Collections.singletonList(inShard(0, readOnly, work));
+    }
+    requireNoTransaction();
+    List<CompletableFuture<T>> futures = new ArrayList<>();
+    for (int shard = 0; shard < count; shard++) {
+      int target = shard;
+      futures.add(
+          CompletableFuture.supplyAsync(() -> inShard(target, readOnly, work), executor));
+    }
+    try {
+      CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+    } catch (CompletionException e) {
+      throw e.getCause() instanceof RuntimeException cause ? cause : e;
+    }
+    return futures.stream().map(CompletableFuture::join).toList();
+  }
+
+  /**
+   * Runs work with the current thread's connections routed to the given shard, without starting a
+   * transaction, for callers that manage their own. A transaction that already holds a connection
+   * keeps using it.
+   *
+   * @param shard the shard
+   * @param work the work
+   * @param <T> the type of the result
+   * @return the result of the work
+   */
+  public <T> T onShard(int shard, Supplier<T> work) {
+    if (shard < 0 || shard >= count) {
+      throw new IllegalArgumentException("No membership shard " + shard);
+    }
+    Integer previous = CURRENT.get();
+    CURRENT.set(shard);
+    try {
+      return work.get();
+    } finally {
+      if (previous == null) {
+        CURRENT.remove();
+      } else {
+        CURRENT.set(previous);
+      }
+    }
+  }
+
+  /** Rejects shard work started inside a transaction, which cannot include the shard. */
+  private static void requireNoTransaction() {
+    if (TransactionSynchronizationManager.isActualTransactionActive()) {
+      throw new IllegalStateException(
+          "Sharded membership work cannot run inside another transaction");
+    }
+  }
+
+  @Override
+  public void destroy() {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+}
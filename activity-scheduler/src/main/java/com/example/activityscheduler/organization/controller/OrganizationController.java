@@ -1,6 +1,11 @@
 package com.example.activityscheduler.organization.controller;
 
+import com.example.activityscheduler.common.http.ETags;
+import com.example.activityscheduler.common.id.Ids;
+import com.example.activityscheduler.common.pagination.CursorPage;
 import com.example.activityscheduler.organization.dto.OrganizationCreationRequest;
+import com.example.activityscheduler.organization.dto.OrganizationDeletion;
+import com.example.activityscheduler.organization.dto.RosterSummary;
 import com.example.activityscheduler.organization.model.Organization;
 import com.example.activityscheduler.organization.service.OrganizationService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -10,7 +15,11 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import java.util.List;
 import java.util.Optional;
-import java.util.logging.Logger;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -19,6 +28,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -34,7 +44,7 @@ import org.springframework.web.server.ResponseStatusException;
 public class OrganizationController {
 
   private final OrganizationService organizationService;
-  private static final Logger logger = Logger.getLogger(OrganizationController.class.getName());
+  private static final Logger logger = LoggerFactory.getLogger(OrganizationController.class);
 
   /**
    * Constructs an OrganizationController with the given service.
@@ -59,16 +69,51 @@ public class OrganizationController {
       })
   @GetMapping
   public List<Organization> getAllOrganizations() {
-    logger.info("Retrieving all organizations");
+    logger.debug("Retrieving all organizations");
     List<Organization> organizations = organizationService.getAllOrganizations();
-    logger.info("Retrieved " + organizations.size() + " organizations");
+    logger.info("Retrieved {} organizations", organizations.size());
     return organizations;
   }
 
   /**
-   * Retrieves an organization by its ID.
+   * Retrieves a page of organizations.
+   *
+   * @param cursor the cursor returned with the previous page
+   * @param limit the requested page size
+   * @return a page of organizations
+   */
+  @Operation(
+      summary = "Get a page of organizations",
+      description =
+          "Retrieves organizations one page at a time, ordered by creation time. Pass the returned"
+              + " nextCursor to fetch the following page.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved the page"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or limit")
+      })
+  @GetMapping("/page")
+  public CursorPage<Organization> getOrganizationsPage(
+      @Parameter(description = "Cursor from the previous page") @RequestParam(required = false)
+          String cursor,
+      @Parameter(description = "Maximum number of items to return")
+          @RequestParam(required = false)
+          Integer limit) {
+    try {
+      return organizationService.getOrganizationsPage(cursor, limit);
+    } catch (IllegalArgumentException e) {
+      logger.warn("Invalid page request: {}", e.getMessage());
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+  }
+
+  /**
+   * Retrieves an organization by its ID. The response carries the organization's version as its
+   * entity tag; a request whose {@code If-None-Match} names the current version is answered with
+   * 304 Not Modified from the version alone, without loading the organization.
    *
    * @param id the organization ID
+   * @param ifNoneMatch the entity tags the client already has, if any
    * @return the organization if found
    */
   @Operation(
@@ -77,19 +122,61 @@ public class OrganizationController {
   @ApiResponses(
       value = {
         @ApiResponse(responseCode = "200", description = "Organization found successfully"),
+        @ApiResponse(responseCode = "304", description = "Organization has not changed"),
         @ApiResponse(responseCode = "404", description = "Organization not found")
       })
   @GetMapping("/{id}")
   public ResponseEntity<Organization> getOrganizationById(
-      @Parameter(description = "Organization ID") @PathVariable String id) {
-    logger.info("Retrieving organization with ID: " + id);
+      @Parameter(description = "Organization ID") @PathVariable String id,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+    logger.debug("Retrieving organization with ID: {}", id);
+    if (ifNoneMatch != null) {
+      Optional<Long> version = organizationService.getOrganizationVersion(id);
+      if (version.isEmpty()) {
+        logger.info("Organization not found with ID: {}", id);
+        return ResponseEntity.notFound().build();
+      }
+      String etag = ETags.ofVersion(version.get());
+      if (ETags.matches(ifNoneMatch, etag)) {
+        logger.debug("Organization {} not modified", id);
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+      }
+    }
     Optional<Organization> organization = organizationService.getOrganizationById(id);
     if (organization.isPresent()) {
-      logger.info("Organization found: " + organization.get().getName());
+      logger.info("Organization found: {}", organization.get().getName());
     } else {
-      logger.info("Organization not found with ID: " + id);
+      logger.info("Organization not found with ID: {}", id);
     }
-    return organization.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+    return organization
+        .map(o -> ResponseEntity.ok().eTag(ETags.ofVersion(o.getVersion())).body(o))
+        .orElse(ResponseEntity.notFound().build());
+  }
+
+  /**
+   * Summarizes the members of an organization.
+   *
+   * @param id the organization ID
+   * @return the roster summary if the organization exists
+   */
+  @Operation(
+      summary = "Get organization roster summary",
+      description =
+          "Returns the number of memberships for every status, the newest membership time and the"
+              + " creator's membership status")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Roster summary retrieved successfully"),
+        @ApiResponse(responseCode = "404", description = "Organization not found")
+      })
+  @GetMapping("/{id}/roster-summary")
+  public ResponseEntity<RosterSummary> getRosterSummary(
+      @Parameter(description = "Organization ID") @PathVariable String id) {
+    logger.info("Retrieving roster summary for organization: {}", id);
+    return organizationService
+        .getRosterSummary(id)
+        .map(ResponseEntity::ok)
+        .orElse(ResponseEntity.notFound().build());
   }
 
   /**
@@ -109,12 +196,12 @@ public class OrganizationController {
   @GetMapping("/by-name")
   public ResponseEntity<Organization> getOrganizationByName(
       @Parameter(description = "Organization name") @RequestParam String name) {
-    logger.info("Retrieving organization with name: " + name);
+    logger.debug("Retrieving organization with name: {}", name);
     Optional<Organization> organization = organizationService.getOrganizationByName(name);
     if (organization.isPresent()) {
-      logger.info("Organization found: " + organization.get().getName());
+      logger.info("Organization found: {}", organization.get().getName());
     } else {
-      logger.info("Organization not found with name: " + name);
+      logger.info("Organization not found with name: {}", name);
     }
     return organization.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
   }
@@ -135,9 +222,9 @@ public class OrganizationController {
   @GetMapping("/exists")
   public boolean existsByName(
       @Parameter(description = "Organization name to check") @RequestParam String name) {
-    logger.info("Checking if organization exists with name: " + name);
+    logger.debug("Checking if organization exists with name: {}", name);
     boolean exists = organizationService.existsByName(name);
-    logger.info("Organization exists: " + exists);
+    logger.info("Organization exists: {}", exists);
     return exists;
   }
 
@@ -153,9 +240,9 @@ public class OrganizationController {
       value = {@ApiResponse(responseCode = "200", description = "Count retrieved successfully")})
   @GetMapping("/count")
   public long getOrganizationCount() {
-    logger.info("Getting organization count");
+    logger.debug("Getting organization count");
     long count = organizationService.getOrganizationCount();
-    logger.info("Organization count: " + count);
+    logger.info("Organization count: {}", count);
     return count;
   }
 
@@ -181,24 +268,26 @@ public class OrganizationController {
       @RequestBody OrganizationCreationRequest request) {
     try {
       // Create Organization entity from request
-      Organization organization = new Organization(request.getCreatedBy(), request.getName());
+      Organization organization = new Organization(parseCreatedBy(request), request.getName());
       Organization createdOrganization = organizationService.createOrganization(organization);
-      logger.info("Organization created: " + createdOrganization.getName());
+      logger.info("Organization created: {}", createdOrganization.getName());
       return ResponseEntity.status(HttpStatus.CREATED).body(createdOrganization);
     } catch (IllegalArgumentException e) {
-      logger.warning("Invalid organization data: " + e.getMessage());
+      logger.warn("Invalid organization data: {}", e.getMessage());
       throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
     } catch (IllegalStateException e) {
-      logger.warning("Organization already exists: " + e.getMessage());
+      logger.warn("Organization already exists: {}", e.getMessage());
       throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
     }
   }
 
   /**
-   * Updates an existing organization.
+   * Updates an existing organization. With {@code If-Match}, the update only goes through while
+   * the organization still has the version the tag names.
    *
    * @param id the organization ID
    * @param organization the updated organization data
+   * @param ifMatch the entity tag of the version the client last saw, if any
    * @return the updated organization
    */
   @Operation(
@@ -211,54 +300,117 @@ public class OrganizationController {
         @ApiResponse(responseCode = "404", description = "Organization not found"),
         @ApiResponse(
             responseCode = "409",
-            description = "Organization with this name already exists")
+            description = "Organization with this name already exists"),
+        @ApiResponse(
+            responseCode = "412",
+            description = "Organization has changed since the version in If-Match")
       })
   @PutMapping("/{id}")
   public ResponseEntity<Organization> updateOrganization(
       @Parameter(description = "Organization ID") @PathVariable String id,
-      @RequestBody Organization organization) {
+      @RequestBody Organization organization,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
     try {
+      // Only If-Match states which version the client expects, not the body
+      organization.setVersion(ifMatch == null ? null : ETags.parseVersion(ifMatch));
       Organization updatedOrganization = organizationService.updateOrganization(id, organization);
-      logger.info("Organization updated: " + updatedOrganization.getName());
-      return ResponseEntity.ok(updatedOrganization);
+      logger.info("Organization updated: {}", updatedOrganization.getName());
+      return ResponseEntity.ok()
+          .eTag(ETags.ofVersion(updatedOrganization.getVersion()))
+          .body(updatedOrganization);
     } catch (IllegalArgumentException e) {
-      logger.warning("Invalid organization data: " + e.getMessage());
+      logger.warn("Invalid organization data: {}", e.getMessage());
       throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
     } catch (IllegalStateException e) {
       if (e.getMessage().contains("not found")) {
-        logger.warning("Organization not found: " + e.getMessage());
+        logger.warn("Organization not found: {}", e.getMessage());
         throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
       } else {
-        logger.warning("Organization already exists: " + e.getMessage());
+        logger.warn("Organization already exists: {}", e.getMessage());
         throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
       }
+    } catch (OptimisticLockingFailureException e) {
+      logger.warn("Organization modified concurrently: {}", e.getMessage());
+      throw new ResponseStatusException(
+          ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT, e.getMessage());
     }
   }
 
   /**
-   * Deletes an organization by its ID.
+   * Deletes an organization and its memberships. A large organization is deleted in the
+   * background; the response is then 202 Accepted with the progress so far, and its Location
+   * header names the status endpoint.
    *
    * @param id the organization ID
-   * @return no content if successful
+   * @return no content once deleted, or the progress of a background deletion
    */
-  @Operation(summary = "Delete organization", description = "Deletes an organization by its ID")
+  @Operation(
+      summary = "Delete organization",
+      description =
+          "Deletes an organization and its memberships, in the background if it has many"
+              + " memberships")
   @ApiResponses(
       value = {
-        @ApiResponse(responseCode = "204", description = "Organization deleted successfully"),
+        @ApiResponse(responseCode = "204", description = "Organization deleted"),
+        @ApiResponse(responseCode = "202", description = "Deletion running in the background"),
+        @ApiResponse(responseCode = "400", description = "Invalid organization ID"),
         @ApiResponse(responseCode = "404", description = "Organization not found")
       })
   @DeleteMapping("/{id}")
-  public ResponseEntity<Void> deleteOrganization(
+  public ResponseEntity<OrganizationDeletion> deleteOrganization(
       @Parameter(description = "Organization ID") @PathVariable String id) {
     try {
-      organizationService.deleteOrganization(id);
-      return ResponseEntity.noContent().build();
+      OrganizationDeletion deletion = organizationService.deleteOrganization(id);
+      if (deletion.getState() == OrganizationDeletion.State.COMPLETED) {
+        return ResponseEntity.noContent().build();
+      }
+      logger.info("Organization deletion running in the background: {}", id);
+      return ResponseEntity.accepted()
+          .header(HttpHeaders.LOCATION, "/api/organizations/" + id + "/deletion")
+          .body(deletion);
     } catch (IllegalArgumentException e) {
-      logger.warning("Invalid organization data: " + e.getMessage());
+      logger.warn("Invalid organization data: {}", e.getMessage());
       throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
     } catch (IllegalStateException e) {
-      logger.warning("Organization not found: " + e.getMessage());
+      logger.warn("Organization not found: {}", e.getMessage());
       throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
     }
   }
+
+  /**
+   * Retrieves the progress of a background organization deletion.
+   *
+   * @param id the organization ID
+   * @return the progress if this instance has deleted the organization in the background
+   */
+  @Operation(
+      summary = "Get organization deletion progress",
+      description = "Returns the progress of the latest background deletion of an organization")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Deletion progress retrieved"),
+        @ApiResponse(responseCode = "404", description = "No background deletion found")
+      })
+  @GetMapping("/{id}/deletion")
+  public ResponseEntity<OrganizationDeletion> getOrganizationDeletion(
+      @Parameter(description = "Organization ID") @PathVariable String id) {
+    return organizationService
+        .getOrganizationDeletion(id)
+        .map(ResponseEntity::ok)
+        .orElse(ResponseEntity.notFound().build());
+  }
+
+  /**
+   * Parses the creator ID of a creation request. A missing ID is passed on as null so that the
+   * service reports it.
+   */
+  private static UUID parseCreatedBy(OrganizationCreationRequest request) {
+    String createdBy = request.getCreatedBy();
+    if (createdBy == null || createdBy.isBlank()) {
+      return null;
+    }
+    return Ids.parse(createdBy)
+        .orElseThrow(
+            () -> new IllegalArgumentException("User with ID '" + createdBy + "' does not exist"));
+  }
 }
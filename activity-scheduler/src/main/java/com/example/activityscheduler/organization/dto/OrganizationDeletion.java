@@ -0,0 +1,88 @@
+package com.example.activityscheduler.organization.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/** DTO reporting the progress of deleting an organization and its memberships. */
+@Schema(description = "Progress of an organization deletion")
+public class OrganizationDeletion {
+
+  /** Stage of a deletion. */
+  public enum State {
+    /** Memberships are still being deleted; the organization itself still exists. */
+    RUNNING,
+    /** The organization and all of its memberships are deleted. */
+    COMPLETED,
+    /** The deletion stopped early; deleting the organization again resumes it. */
+    FAILED
+  }
+
+  @Schema(description = "Organization ID")
+  private final UUID orgId;
+
+  @Schema(description = "Stage of the deletion")
+  private final State state;
+
+  @Schema(description = "Number of memberships the organization had when the deletion started")
+  private final long membershipCount;
+
+  @Schema(description = "Number of memberships deleted so far")
+  private final long membershipsDeleted;
+
+  @Schema(description = "Time the deletion started")
+  private final LocalDateTime startedAt;
+
+  @Schema(description = "Time the deletion completed or failed, or null while it is running")
+  private final LocalDateTime finishedAt;
+
+  /**
+   * Constructs an OrganizationDeletion.
+   *
+   * @param orgId the organization ID
+   * @param state the stage of the deletion
+   * @param membershipCount the number of memberships when the deletion started
+   * @param membershipsDeleted the number of memberships deleted so far
+   * @param startedAt the time the deletion started
+   * @param finishedAt the time the deletion completed or failed, or null while it is running
+   */
+  public OrganizationDeletion(
+      UUID orgId,
+      State state,
+      long membershipCount,
+      long membershipsDeleted,
+      LocalDateTime startedAt,
+      LocalDateTime finishedAt) {
+    this.orgId = orgId;
+    this.state = state;
+    this.membershipCount = membershipCount;
+    this.membershipsDeleted = membershipsDeleted;
+    this.startedAt = startedAt;
+    this.finishedAt = finishedAt;
+  }
+
+  // Getters
+  public UUID getOrgId() {
+    return orgId;
+  }
+
+  public State getState() {
+    return state;
+  }
+
+  public long getMembershipCount() {
+    return membershipCount;
+  }
+
+  public long getMembershipsDeleted() {
+    return membershipsDeleted;
+  }
+
+  public LocalDateTime getStartedAt() {
+    return startedAt;
+  }
+
+  public LocalDateTime getFinishedAt() {
+    return finishedAt;
+  }
+}
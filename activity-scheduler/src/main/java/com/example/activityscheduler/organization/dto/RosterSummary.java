@@ -0,0 +1,79 @@
+package com.example.activityscheduler.organization.dto;
+
+import com.example.activityscheduler.membership.model.MembershipStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/** DTO summarizing the members of an organization for admin screens. */
+@Schema(description = "Member counts and creator membership of an organization")
+public class RosterSummary {
+
+  @Schema(description = "Organization ID")
+  private final UUID orgId;
+
+  @Schema(description = "Number of memberships for every membership status")
+  private final Map<MembershipStatus, Long> counts;
+
+  @Schema(description = "Number of memberships of any status")
+  private final long totalMemberships;
+
+  @Schema(description = "Creation time of the newest membership, or null if there is none")
+  private final LocalDateTime newestJoinedAt;
+
+  @Schema(description = "User ID of the organization creator")
+  private final UUID creatorId;
+
+  @Schema(description = "Membership status of the creator, or null if the creator is not a member")
+  private final MembershipStatus creatorStatus;
+
+  /**
+   * Constructs a RosterSummary.
+   *
+   * @param orgId the organization ID
+   * @param counts the number of memberships for every status
+   * @param newestJoinedAt the creation time of the newest membership, or null if there is none
+   * @param creatorId the user ID of the organization creator
+   * @param creatorStatus the membership status of the creator, or null if the creator is not a
+   *     member
+   */
+  public RosterSummary(
+      UUID orgId,
+      Map<MembershipStatus, Long> counts,
+      LocalDateTime newestJoinedAt,
+      UUID creatorId,
+      MembershipStatus creatorStatus) {
+    this.orgId = orgId;
+    this.counts = counts;
+    this.totalMemberships = counts.values().stream().mapToLong(Long::longValue).sum();
+    this.newestJoinedAt = newestJoinedAt;
+    this.creatorId = creatorId;
+    this.creatorStatus = creatorStatus;
+  }
+
+  // Getters
+  public UUID getOrgId() {
+    return orgId;
+  }
+
+  public Map<MembershipStatus, Long> getCounts() {
+    return counts;
+  }
+
+  public long getTotalMemberships() {
+    return totalMemberships;
+  }
+
+  public LocalDateTime getNewestJoinedAt() {
+    return newestJoinedAt;
+  }
+
+  public UUID getCreatorId() {
+    return creatorId;
+  }
+
+  public MembershipStatus getCreatorStatus() {
+    return creatorStatus;
+  }
+}
@@ -1,9 +1,13 @@
 package com.example.activityscheduler.organization.model;
 
+import com.example.activityscheduler.common.id.UuidV7Generator;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -12,40 +16,58 @@ import java.util.UUID;
  * 'organizations' table in the database.
  */
 @Entity
-@Table(name = "organizations")
+@Table(
+    name = "organizations",
+    indexes = @Index(name = "idx_organizations_created_at_id", columnList = "created_at, id"))
 public class Organization {
 
-  @Id
-  @Column(columnDefinition = "CHAR(36)")
-  private String id;
+  @Id private UUID id;
 
   @Column(nullable = false, unique = true, length = 255)
   private String name;
 
   @Column(name = "created_at", nullable = false)
-  private LocalDateTime createdAt = LocalDateTime.now();
+  private LocalDateTime createdAt;
 
   @Column(name = "created_by", nullable = false)
-  private String createdBy;
-
-  /** Default constructor. Generates a new UUID for the organization ID. */
-  public Organization() {
-    this.id = UUID.randomUUID().toString();
-  }
-
-  /** Parameterized constructor. Generates a new UUID for the organization ID. */
-  public Organization(String createdBy, String name) {
-    this.id = UUID.randomUUID().toString();
+  private UUID createdBy;
+
+  // Null until first stored, so that save() persists a new organization instead of merging it
+  @Version
+  @Column(name = "version", nullable = false)
+  private Long version;
+
+  /**
+   * Default constructor, used by JPA when loading rows and by JSON binding of request bodies.
+   * Leaves the ID and creation time unset.
+   */
+  public Organization() {}
+
+  /**
+   * Parameterized constructor for a new organization. Generates a new time-ordered UUID for the
+   * organization ID and sets the creation time to now.
+   */
+  public Organization(UUID createdBy, String name) {
+    this.id = UuidV7Generator.generate();
+    this.createdAt = LocalDateTime.now();
     this.createdBy = createdBy;
     this.name = name;
   }
 
+  /** Sets the creation time on insert when the organization was built through setters. */
+  @PrePersist
+  void onCreate() {
+    if (createdAt == null) {
+      createdAt = LocalDateTime.now();
+    }
+  }
+
   // getters & setters
-  public String getId() {
+  public UUID getId() {
     return id;
   }
 
-  public void setId(String id) {
+  public void setId(UUID id) {
     this.id = id;
   }
 
@@ -65,14 +87,22 @@ public class Organization {
     this.createdAt = createdAt;
   }
 
-  public String getCreatedBy() {
+  public UUID getCreatedBy() {
     return createdBy;
   }
 
-  public void setCreatedBy(String createdBy) {
+  public void setCreatedBy(UUID createdBy) {
     this.createdBy = createdBy;
   }
 
+  public Long getVersion() {
+    return version;
+  }
+
+  public void setVersion(Long version) {
+    this.version = version;
+  }
+
   @Override
   public String toString() {
     return "Organization{"
@@ -1,8 +1,19 @@
 package com.example.activityscheduler.organization.repository;
 
 import com.example.activityscheduler.organization.model.Organization;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -10,7 +21,7 @@ import org.springframework.stereotype.Repository;
  * Organization entities using Spring Data JPA.
  */
 @Repository
-public interface OrganizationRepository extends JpaRepository<Organization, String> {
+public interface OrganizationRepository extends JpaRepository<Organization, UUID> {
 
   /**
    * Finds an organization by its name.
@@ -27,4 +38,70 @@ public interface OrganizationRepository extends JpaRepository<Organization, Stri
    * @return true if an organization exists with this name, false otherwise
    */
   boolean existsByName(String name);
+
+  /**
+   * Finds the first page of organizations ordered by creation time and ID.
+   *
+   * @param pageable the page size
+   * @return a slice of organizations
+   */
+  @Query("SELECT o FROM Organization o ORDER BY o.createdAt, o.id")
+  Slice<Organization> findFirstPage(Pageable pageable);
+
+  /**
+   * Finds the page of organizations that follows the given keyset position, ordered by creation
+   * time and ID.
+   *
+   * @param createdAt the creation time of the last organization of the previous page
+   * @param id the ID of the last organization of the previous page
+   * @param pageable the page size
+   * @return a slice of organizations
+   */
+  @Query(
+      "SELECT o FROM Organization o WHERE o.createdAt >= :createdAt"
+          + " AND (o.createdAt > :createdAt OR o.id > :id) ORDER BY o.createdAt, o.id")
+  Slice<Organization> findPageAfter(
+      @Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id, Pageable pageable);
+
+  /**
+   * Streams every organization as read-only entities, fetching rows from the database in batches.
+   * The stream must be consumed and closed inside a transaction.
+   *
+   * @return a stream of all organizations
+   */
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+    @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("SELECT o FROM Organization o")
+  Stream<Organization> streamAll();
+
+  /**
+   * Streams the name of every organization, fetching rows from the database in batches. The
+   * stream must be consumed and closed inside a transaction.
+   *
+   * @return a stream of names
+   */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+  @Query("SELECT o.name FROM Organization o")
+  Stream<String> streamAllNames();
+
+  /**
+   * Finds the version of an organization without loading it, for answering conditional requests.
+   *
+   * @param id the organization ID
+   * @return the version, or empty if no organization has the ID
+   */
+  @Query("SELECT o.version FROM Organization o WHERE o.id = :id")
+  Optional<Long> findVersionById(@Param("id") UUID id);
+
+  /**
+   * Deletes an organization with one DELETE, without loading it first.
+   *
+   * @param id the organization ID
+   * @return the number of organizations deleted, 0 if no organization has the ID
+   */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("DELETE FROM Organization o WHERE o.id = :id")
+  int deleteOrganizationById(@Param("id") UUID id);
 }
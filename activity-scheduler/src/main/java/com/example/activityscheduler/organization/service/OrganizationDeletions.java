@@ -0,0 +1,257 @@
+package com.example.activityscheduler.organization.service;
+
+import com.example.activityscheduler.membership.service.MembershipService;
+import com.example.activityscheduler.membership.shard.MembershipShards;
+import com.example.activityscheduler.organization.dto.OrganizationDeletion;
+import com.example.activityscheduler.organization.dto.OrganizationDeletion.State;
+import com.example.activityscheduler.organization.repository.OrganizationRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Deletes organizations together with their memberships.
+ *
+ * <p>Memberships are deleted in batches with set-based statements (see {@link
+ * MembershipService#deleteOrganizationMemberships(UUID, int)}) and the organization row goes last,
+ * so a deletion that stopped early is resumed by deleting the organization again. An organization
+ * with up to {@code organization.deletion.async-threshold} memberships, by its counters, is
+ * deleted before returning: in one transaction without sharding, and otherwise with one
+ * transaction per batch on the organization's shard, followed by one for the organization row. A
+ * larger one is deleted in the background with one transaction per batch, so that no transaction
+ * holds its row locks for long. Background deletions run one at a time, and their progress is kept
+ * in memory on the instance that runs them while they run and for {@code
+ * organization.deletion.retention} after they finish.
+ */
+@Component
+public class OrganizationDeletions implements DisposableBean {
+
+  private static final Logger logger = LoggerFactory.getLogger(OrganizationDeletions.class);
+
+  private static final Duration FOREVER = Duration.ofNanos(Long.MAX_VALUE);
+
+  private final OrganizationRepository organizationRepository;
+  private final MembershipService membershipService;
+  private final MembershipShards shards;
+  private final TransactionTemplate transactionTemplate;
+  private final long asyncThreshold;
+  private final int batchSize;
+  private final Cache<UUID, Job> jobs;
+  private final ExecutorService executor;
+
+  /**
+   * Constructs an OrganizationDeletions.
+   *
+   * @param organizationRepository the organization repository
+   * @param membershipService the membership service
+   * @param shards the databases the memberships are spread over
+   * @param transactionManager the transaction manager used to delete the organization row
+   * @param asyncThreshold the largest number of memberships deleted before returning
+   * @param batchSize the number of memberships deleted per statement
+   * @param retention how long the progress of a finished background deletion is kept
+   */
+  public OrganizationDeletions(
+      OrganizationRepository organizationRepository,
+      MembershipService membershipService,
+      MembershipShards shards,
+      PlatformTransactionManager transactionManager,
+      @Value("${organization.deletion.async-threshold:10000}") long asyncThreshold,
+      @Value("${organization.deletion.batch-size:1000}") int batchSize,
+      @Value("${organization.deletion.retention:PT1H}") Duration retention) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("Organization deletion batch size must be positive");
+    }
+    this.organizationRepository = organizationRepository;
+    this.membershipService = membershipService;
+    this.shards = shards;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.asyncThreshold = asyncThreshold;
+    this.batchSize = batchSize;
+    // Running deletions never expire; finished ones are written again when they finish
+    this.jobs =
+        Caffeine.newBuilder()
+            .expireAfter(
+                Expiry.writing(
+                    (UUID orgId, Job job) -> job.state == State.RUNNING ? FOREVER : retention))
+            .build();
+    this.executor =
+        Executors.newSingleThreadExecutor(
+            task -> {
+              Thread thread = new Thread(task, "organization-deletion");
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  /**
+   * Deletes an organization and its memberships, or starts deleting them in the background if the
+   * organization is large. While a background deletion of the organization is running, its
+   * progress is returned instead.
+   *
+   * @param orgId the organization ID
+   * @return the deletion, completed unless it continues in the background
+   * @throws IllegalStateException if the organization is not found
+   */
+  public OrganizationDeletion delete(UUID orgId) {
+    Job running = jobs.getIfPresent(orgId);
+    if (running != null && running.state == State.RUNNING) {
+      return running.snapshot();
+    }
+
+    LocalDateTime startedAt = LocalDateTime.now();
+    long membershipCount = membershipService.countOrganizationMemberships(orgId);
+    if (membershipCount > asyncThreshold) {
+      if (!organizationRepository.existsById(orgId)) {
+        throw notFound(orgId);
+      }
+      return startInBackground(new Job(orgId, membershipCount, startedAt));
+    }
+
+    // Without sharding the membership batches join the transaction of the organization row
+    long deleted =
+        shards.count() > 1
+            ? deleteNow(orgId)
+            : transactionTemplate.execute(status -> deleteNow(orgId));
+    logger.debug("Deleted organization {} and {} memberships", orgId, deleted);
+    return new OrganizationDeletion(
+        orgId, State.COMPLETED, membershipCount, deleted, startedAt, LocalDateTime.now());
+  }
+
+  /**
+   * Returns the progress of the latest background deletion of an organization.
+   *
+   * @param orgId the organization ID
+   * @return the progress, or empty if this instance has not deleted the organization in the
+   *     background, or finished doing so longer ago than the retention period
+   */
+  public Optional<OrganizationDeletion> getProgress(UUID orgId) {
+    return Optional.ofNullable(jobs.getIfPresent(orgId)).map(Job::snapshot);
+  }
+
+  @Override
+  public void destroy() {
+    executor.shutdownNow();
+  }
+
+  /** Registers and submits a background deletion, unless one is already running. */
+  private OrganizationDeletion startInBackground(Job job) {
+    Job current =
+        jobs.asMap()
+            .compute(
+                job.orgId,
+                (id, existing) ->
+                    existing != null && existing.state == State.RUNNING ? existing : job);
+    if (current != job) {
+      return current.snapshot();
+    }
+    // Taken before submitting, so that the caller sees the deletion it started as running
+    OrganizationDeletion started = job.snapshot();
+    logger.info(
+        "Deleting organization {} with {} memberships in the background",
+        job.orgId,
+        job.membershipCount);
+    executor.execute(() -> run(job));
+    return started;
+  }
+
+  private void run(Job job) {
+    try {
+      deleteMemberships(job.orgId, job.deleted);
+      transactionTemplate.executeWithoutResult(
+          status -> organizationRepository.deleteOrganizationById(job.orgId));
+      finish(job, State.COMPLETED);
+      logger.info(
+          "Deleted organization {} and {} memberships in the background",
+          job.orgId,
+          job.deleted.get());
+    } catch (RuntimeException e) {
+      finish(job, State.FAILED);
+      logger.warn(
+          "Background deletion of organization {} failed after {} memberships",
+          job.orgId,
+          job.deleted.get(),
+          e);
+    }
+  }
+
+  /** Marks a background deletion finished and starts its retention period. */
+  private void finish(Job job, State state) {
+    job.finish(state);
+    jobs.asMap().replace(job.orgId, job, job);
+  }
+
+  /** Deletes an organization's memberships and then the organization, returning the former. */
+  private long deleteNow(UUID orgId) {
+    long deleted = deleteMemberships(orgId, new AtomicLong());
+    Integer organizations =
+        transactionTemplate.execute(status -> organizationRepository.deleteOrganizationById(orgId));
+    if (organizations == null || organizations == 0) {
+      throw notFound(orgId);
+    }
+    return deleted;
+  }
+
+  /**
+   * Deletes batches of memberships until none are left.
+   *
+   * @return the number of memberships deleted
+   */
+  private long deleteMemberships(UUID orgId, AtomicLong deleted) {
+    int batch;
+    do {
+      if (Thread.currentThread().isInterrupted()) {
+        throw new IllegalStateException("Deletion of organization " + orgId + " was interrupted");
+      }
+      batch = membershipService.deleteOrganizationMemberships(orgId, batchSize);
+      deleted.addAndGet(batch);
+    } while (batch > 0);
+    return deleted.get();
+  }
+
+  private static IllegalStateException notFound(UUID orgId) {
+    logger.debug("Organization with ID '{}' not found", orgId);
+    return new IllegalStateException("Organization with ID '" + orgId + "' not found");
+  }
+
+  /** A background deletion and its progress. */
+  private static final class Job {
+
+    private final UUID orgId;
+    private final long membershipCount;
+    private final LocalDateTime startedAt;
+    private final AtomicLong deleted = new AtomicLong();
+    private volatile LocalDateTime finishedAt;
+    private volatile State state = State.RUNNING;
+
+    Job(UUID orgId, long membershipCount, LocalDateTime startedAt) {
+      this.orgId = orgId;
+      this.membershipCount = membershipCount;
+      this.startedAt = startedAt;
+    }
+
+    void finish(State finalState) {
+      finishedAt = LocalDateTime.now();
+      state = finalState;
+    }
+
+    OrganizationDeletion snapshot() {
+      State current = state;
+      return new OrganizationDeletion(
+          orgId, current, membershipCount, deleted.get(), startedAt, finishedAt);
+    }
+  }
+}
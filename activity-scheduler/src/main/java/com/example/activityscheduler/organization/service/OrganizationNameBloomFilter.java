@@ -0,0 +1,50 @@
+package com.example.activityscheduler.organization.service;
+
+import com.example.activityscheduler.common.bloom.KeyExistenceFilter;
+import com.example.activityscheduler.organization.repository.OrganizationRepository;
+import java.time.Duration;
+import java.util.stream.Stream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/** Bloom filter over organization names, used to skip lookups for unused names. */
+@Component
+public class OrganizationNameBloomFilter extends KeyExistenceFilter {
+
+  private final OrganizationRepository organizationRepository;
+
+  /**
+   * Constructs an OrganizationNameBloomFilter.
+   *
+   * @param organizationRepository the organization repository
+   * @param transactionManager the transaction manager used for rebuilds
+   * @param falsePositiveProbability the target false positive probability
+   * @param pendingGrace how long a new name may take to become visible to a rebuild scan
+   * @param maxStaleness how long after its scan started a filter may report a value as unused
+   */
+  public OrganizationNameBloomFilter(
+      OrganizationRepository organizationRepository,
+      PlatformTransactionManager transactionManager,
+      @Value("${bloom-filter.false-positive-probability:0.01}") double falsePositiveProbability,
+      @Value("${bloom-filter.pending-grace:PT5M}") Duration pendingGrace,
+      @Value("${bloom-filter.max-staleness:PT2M}") Duration maxStaleness) {
+    super(
+        "organization name",
+        falsePositiveProbability,
+        pendingGrace,
+        maxStaleness,
+        transactionManager);
+    this.organizationRepository = organizationRepository;
+  }
+
+  @Override
+  protected long countKeys() {
+    return organizationRepository.count();
+  }
+
+  @Override
+  protected Stream<String> streamKeys() {
+    return organizationRepository.streamAllNames();
+  }
+}
@@ -1,44 +1,88 @@
 package com.example.activityscheduler.organization.service;
 
+import com.example.activityscheduler.common.id.Ids;
+import com.example.activityscheduler.common.metrics.TimedOperations;
+import com.example.activityscheduler.common.pagination.CursorCodec;
+import com.example.activityscheduler.common.pagination.CursorPage;
+import com.example.activityscheduler.common.pagination.PageLimits;
+import com.example.activityscheduler.common.sql.DuplicateKeys;
 import com.example.activityscheduler.membership.model.MembershipStatus;
+import com.example.activityscheduler.membership.model.MembershipStatusSummary;
 import com.example.activityscheduler.membership.service.MembershipService;
+import com.example.activityscheduler.membership.shard.MembershipShards;
+import com.example.activityscheduler.organization.dto.OrganizationDeletion;
+import com.example.activityscheduler.organization.dto.RosterSummary;
 import com.example.activityscheduler.organization.model.Organization;
 import com.example.activityscheduler.organization.repository.OrganizationRepository;
 import com.example.activityscheduler.user.repository.UserRepository;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.logging.Logger;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Service class for managing Organization entities. Provides business logic for organization
  * operations including CRUD operations and validation.
+ *
+ * <p>Methods that also work on memberships do not run in a transaction of this service: when
+ * memberships are sharded (see {@link MembershipShards}), their work must not start inside a
+ * transaction on the application's own database.
  */
 @Service
 @Transactional
+@TimedOperations
 public class OrganizationService {
 
   private final OrganizationRepository organizationRepository;
   private final MembershipService membershipService;
   private final UserRepository userRepository;
-  private static final Logger logger = Logger.getLogger(OrganizationService.class.getName());
+  private final OrganizationNameBloomFilter nameFilter;
+  private final OrganizationDeletions deletions;
+  private final MembershipShards shards;
+  private final TransactionTemplate transactionTemplate;
+  private static final Logger logger = LoggerFactory.getLogger(OrganizationService.class);
 
   /**
-   * Constructs an OrganizationService with the given repository, membership service, and user
-   * repository.
+   * Constructs an OrganizationService with the given repository, membership service, user
+   * repository, organization name filter, organization deletions, membership shards, and
+   * transaction manager.
    *
    * @param organizationRepository the organization repository
    * @param membershipService the membership service
    * @param userRepository the user repository
+   * @param nameFilter the Bloom filter over organization names
+   * @param deletions the deletions of organizations and their memberships
+   * @param shards the databases the memberships are spread over
+   * @param transactionManager the transaction manager used to create organizations
    */
   public OrganizationService(
       OrganizationRepository organizationRepository,
       MembershipService membershipService,
-      UserRepository userRepository) {
+      UserRepository userRepository,
+      OrganizationNameBloomFilter nameFilter,
+      OrganizationDeletions deletions,
+      MembershipShards shards,
+      PlatformTransactionManager transactionManager) {
     this.organizationRepository = organizationRepository;
     this.membershipService = membershipService;
     this.userRepository = userRepository;
+    this.nameFilter = nameFilter;
+    this.deletions = deletions;
+    this.shards = shards;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
   }
 
   /**
@@ -48,12 +92,36 @@ public class OrganizationService {
    */
   @Transactional(readOnly = true)
   public List<Organization> getAllOrganizations() {
-    logger.info("Retrieving all organizations");
+    logger.debug("Retrieving all organizations");
     List<Organization> organizations = organizationRepository.findAll();
-    logger.info("Retrieved " + organizations.size() + " organizations");
+    logger.debug("Retrieved {} organizations", organizations.size());
     return organizations;
   }
 
+  /**
+   * Retrieves a page of organizations, ordered by creation time and ID.
+   *
+   * @param cursor the cursor returned with the previous page, or null for the first page
+   * @param limit the requested page size, or null for the default
+   * @return a page of organizations
+   * @throws IllegalArgumentException if the cursor or limit is invalid
+   */
+  @Transactional(readOnly = true)
+  public CursorPage<Organization> getOrganizationsPage(String cursor, Integer limit) {
+    Pageable pageable = PageLimits.keyset(limit);
+    Slice<Organization> slice;
+    if (cursor == null) {
+      slice = organizationRepository.findFirstPage(pageable);
+    } else {
+      String[] key = CursorCodec.decode(cursor, 2);
+      slice =
+          organizationRepository.findPageAfter(
+              CursorCodec.parseTimestamp(key[0]), CursorCodec.parseId(key[1]), pageable);
+    }
+    return CursorPage.of(
+        slice, o -> CursorCodec.encode(o.getCreatedAt().toString(), o.getId().toString()));
+  }
+
   /**
    * Retrieves an organization by its ID.
    *
@@ -62,16 +130,66 @@ public class OrganizationService {
    */
   @Transactional(readOnly = true)
   public Optional<Organization> getOrganizationById(String id) {
-    logger.info("Retrieving organization with ID: " + id);
-    Optional<Organization> organization = organizationRepository.findById(id);
+    logger.debug("Retrieving organization with ID: {}", id);
+    Optional<Organization> organization = Ids.parse(id).flatMap(organizationRepository::findById);
     if (organization.isPresent()) {
-      logger.info("Organization found: " + organization.get().getName());
+      logger.debug("Organization found: {}", organization.get().getName());
     } else {
-      logger.info("Organization not found with ID: " + id);
+      logger.debug("Organization not found with ID: {}", id);
     }
     return organization;
   }
 
+  /**
+   * Retrieves the version of an organization without loading it.
+   *
+   * @param id the organization ID
+   * @return an Optional containing the version if the organization exists, empty otherwise
+   */
+  @Transactional(readOnly = true)
+  public Optional<Long> getOrganizationVersion(String id) {
+    return Ids.parse(id).flatMap(organizationRepository::findVersionById);
+  }
+
+  /**
+   * Summarizes the members of an organization: the number of memberships for every status, the
+   * creation time of the newest membership and the membership status of the creator. Besides
+   * loading the organization, this runs a single grouped query over the memberships.
+   *
+   * @param id the organization ID
+   * @return an Optional containing the summary if the organization exists, empty otherwise
+   */
+  @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+  public Optional<RosterSummary> getRosterSummary(String id) {
+    logger.debug("Summarizing roster of organization with ID: {}", id);
+    Optional<Organization> organization = Ids.parse(id).flatMap(organizationRepository::findById);
+    if (organization.isEmpty()) {
+      logger.debug("Organization not found with ID: {}", id);
+      return Optional.empty();
+    }
+
+    UUID orgId = organization.get().getId();
+    UUID creatorId = organization.get().getCreatedBy();
+    Map<MembershipStatus, Long> counts = new EnumMap<>(MembershipStatus.class);
+    for (MembershipStatus status : MembershipStatus.values()) {
+      counts.put(status, 0L);
+    }
+    LocalDateTime newestJoinedAt = null;
+    MembershipStatus creatorStatus = null;
+    List<MembershipStatusSummary> summaries =
+        membershipService.summarizeOrganization(orgId, creatorId);
+    for (MembershipStatusSummary summary : summaries) {
+      counts.put(summary.getStatus(), summary.getMemberCount());
+      if (newestJoinedAt == null || summary.getNewestCreatedAt().isAfter(newestJoinedAt)) {
+        newestJoinedAt = summary.getNewestCreatedAt();
+      }
+      if (summary.getMatchingUserCount() > 0) {
+        creatorStatus = summary.getStatus();
+      }
+    }
+    return Optional.of(new RosterSummary(orgId, counts, newestJoinedAt, creatorId, creatorStatus));
+  }
+
   /**
    * Retrieves an organization by its name.
    *
@@ -80,12 +198,12 @@ public class OrganizationService {
    */
   @Transactional(readOnly = true)
   public Optional<Organization> getOrganizationByName(String name) {
-    logger.info("Retrieving organization with name: " + name);
+    logger.debug("Retrieving organization with name: {}", name);
     Optional<Organization> organization = organizationRepository.findByName(name);
     if (organization.isPresent()) {
-      logger.info("Organization found: " + organization.get().getName());
+      logger.debug("Organization found: {}", organization.get().getName());
     } else {
-      logger.info("Organization not found with name: " + name);
+      logger.debug("Organization not found with name: {}", name);
     }
     return organization;
   }
@@ -98,20 +216,28 @@ public class OrganizationService {
    */
   @Transactional(readOnly = true)
   public boolean existsByName(String name) {
-    logger.info("Checking if organization exists with name: " + name);
-    boolean exists = organizationRepository.existsByName(name);
-    logger.info("Organization exists: " + exists);
+    logger.debug("Checking if organization exists with name: {}", name);
+    boolean exists = nameFilter.mightExist(name) && organizationRepository.existsByName(name);
+    logger.debug("Organization exists: {}", exists);
     return exists;
   }
 
   /**
    * Creates a new organization and automatically adds the creator as an active member.
    *
+   * <p>Without sharding, the organization and the membership are created in one transaction. With
+   * sharding the membership may belong on another database, so the organization is committed
+   * first and deleted again if the membership cannot be created. Until then other requests can
+   * see the organization without its creator's membership, and if the instance stops in between,
+   * the organization is left without it.
+   *
    * @param organization the organization to create
    * @return the created organization
    * @throws IllegalArgumentException if organization name is null or empty
-   * @throws IllegalStateException if organization with the same name already exists
+   * @throws IllegalStateException if organization with the same name already exists, or the
+   *     creator's membership cannot be created
    */
+  @Transactional(propagation = Propagation.SUPPORTS)
   public Organization createOrganization(Organization organization) {
     if (organization == null) {
       throw new IllegalArgumentException("Organization cannot be null");
@@ -121,121 +247,184 @@ public class OrganizationService {
       throw new IllegalArgumentException("Organization name cannot be null or empty");
     }
 
-    if (organization.getCreatedBy() == null || organization.getCreatedBy().trim().isEmpty()) {
+    if (organization.getCreatedBy() == null) {
       throw new IllegalArgumentException("Created by cannot be null or empty");
     }
 
+    if (shards.count() <= 1) {
+      return transactionTemplate.execute(status -> addCreator(insert(organization)));
+    }
+    // The membership is written on its shard once the organization has committed
+    Organization savedOrganization = transactionTemplate.execute(status -> insert(organization));
+    try {
+      return addCreator(savedOrganization);
+    } catch (RuntimeException e) {
+      logger.debug("Deleting organization {} again", savedOrganization.getId());
+      transactionTemplate.executeWithoutResult(
+          status -> organizationRepository.deleteOrganizationById(savedOrganization.getId()));
+      throw e;
+    }
+  }
+
+  /** Inserts a validated organization, after checking that its creator exists. */
+  private Organization insert(Organization organization) {
     // Validate that the user exists in the user table
     if (!userRepository.existsById(organization.getCreatedBy())) {
       throw new IllegalArgumentException(
           "User with ID '" + organization.getCreatedBy() + "' does not exist");
     }
 
-    if (existsByName(organization.getName())) {
+    // Save the organization first. The insert is flushed right away so that the unique index on
+    // the name rejects a taken name here, also when two requests create the same name at once.
+    nameFilter.add(organization.getName());
+    logger.debug("Saving organization: {}", organization.getName());
+    Organization savedOrganization;
+    try {
+      savedOrganization = organizationRepository.saveAndFlush(organization);
+    } catch (DataIntegrityViolationException e) {
+      if (!DuplicateKeys.isDuplicateKey(e)) {
+        throw e;
+      }
+      logger.debug("Organization with name '{}' already exists", organization.getName());
       throw new IllegalStateException(
-          "Organization with name '" + organization.getName() + "' already exists");
+          "Organization with name '" + organization.getName() + "' already exists", e);
     }
+    logger.debug("Organization saved: {}", savedOrganization.getName());
+    return savedOrganization;
+  }
 
-    // Save the organization first
-    logger.info("Saving organization: " + organization.getName());
-    Organization savedOrganization = organizationRepository.save(organization);
-    logger.info("Organization saved: " + savedOrganization.getName());
-
-    // Automatically create a membership for the organization creator
+  /** Adds the creator of a saved organization to it as an active member. */
+  private Organization addCreator(Organization savedOrganization) {
     try {
-      logger.info(
-          "Creating membership for organization creator: " + savedOrganization.getCreatedBy());
+      logger.debug(
+          "Creating membership for organization creator: {}", savedOrganization.getCreatedBy());
       membershipService.createMembership(
           savedOrganization.getId(), savedOrganization.getCreatedBy(), MembershipStatus.ACTIVE);
-      logger.info(
-          "Membership created for organization creator: " + savedOrganization.getCreatedBy());
+      logger.debug(
+          "Membership created for organization creator: {}", savedOrganization.getCreatedBy());
     } catch (Exception e) {
-      logger.warning("Failed to create membership for organization creator: " + e.getMessage());
-      // If membership creation fails, we should rollback the organization creation
-      // This will be handled by the @Transactional annotation
+      logger.warn("Failed to create membership for organization creator: {}", e.getMessage());
       throw new IllegalStateException(
           "Failed to create membership for organization creator: " + e.getMessage(), e);
     }
-    logger.info(
-        "Organization created and membership created for organization creator: "
-            + savedOrganization.getCreatedBy());
+    logger.debug(
+        "Organization created and membership created for organization creator: {}",
+        savedOrganization.getCreatedBy());
     return savedOrganization;
   }
 
   /**
-   * Updates an existing organization.
+   * Updates an existing organization. If the organization data carries a version, the update
+   * only goes through while the stored organization still has that version.
    *
    * @param id the organization ID
    * @param organization the updated organization data
    * @return the updated organization
    * @throws IllegalArgumentException if organization ID is null or organization data is invalid
    * @throws IllegalStateException if organization is not found or name conflict exists
+   * @throws OptimisticLockingFailureException if the organization has changed since the version
+   *     the data carries
    */
   public Organization updateOrganization(String id, Organization organization) {
     if (id == null || id.trim().isEmpty()) {
-      logger.warning("Organization ID cannot be null or empty");
+      logger.debug("Organization ID cannot be null or empty");
       throw new IllegalArgumentException("Organization ID cannot be null or empty");
     }
 
     if (organization == null) {
-      logger.warning("Organization cannot be null");
+      logger.debug("Organization cannot be null");
       throw new IllegalArgumentException("Organization cannot be null");
     }
 
     if (organization.getName() == null || organization.getName().trim().isEmpty()) {
-      logger.warning("Organization name cannot be null or empty");
+      logger.debug("Organization name cannot be null or empty");
       throw new IllegalArgumentException("Organization name cannot be null or empty");
     }
 
-    if (organization.getCreatedBy() == null || organization.getCreatedBy().trim().isEmpty()) {
-      logger.warning("Created by cannot be null or empty");
+    if (organization.getCreatedBy() == null) {
+      logger.debug("Created by cannot be null or empty");
       throw new IllegalArgumentException("Created by cannot be null or empty");
     }
 
     // Check if another organization with the same name exists (excluding current one)
     Optional<Organization> existingWithName =
         organizationRepository.findByName(organization.getName());
-    if (existingWithName.isPresent() && !existingWithName.get().getId().equals(id)) {
-      logger.warning("Organization with name '" + organization.getName() + "' already exists");
+    if (existingWithName.isPresent()
+        && !existingWithName.get().getId().equals(Ids.parse(id).orElse(null))) {
+      logger.debug("Organization with name '{}' already exists", organization.getName());
       throw new IllegalStateException(
           "Organization with name '" + organization.getName() + "' already exists");
     }
 
-    logger.info("Updating organization: " + id);
+    logger.debug("Updating organization: {}", id);
     Organization existingOrganization =
-        organizationRepository
-            .findById(id)
+        Ids.parse(id)
+            .flatMap(organizationRepository::findById)
             .orElseThrow(
                 () -> new IllegalStateException("Organization with ID '" + id + "' not found"));
 
+    if (organization.getVersion() != null
+        && !organization.getVersion().equals(existingOrganization.getVersion())) {
+      logger.debug(
+          "Organization {} is at version {}, not {}",
+          id,
+          existingOrganization.getVersion(),
+          organization.getVersion());
+      throw new OptimisticLockingFailureException(
+          "Organization with ID '"
+              + id
+              + "' has been modified since version "
+              + organization.getVersion());
+    }
+
+    nameFilter.add(organization.getName());
     existingOrganization.setName(organization.getName());
     existingOrganization.setCreatedBy(organization.getCreatedBy());
-    logger.info("Updating organization: " + existingOrganization.getName());
+    logger.debug("Updating organization: {}", existingOrganization.getName());
     Organization updatedOrganization = organizationRepository.save(existingOrganization);
-    logger.info("Organization updated: " + updatedOrganization.getName());
+    logger.debug("Organization updated: {}", updatedOrganization.getName());
     return updatedOrganization;
   }
 
   /**
-   * Deletes an organization by its ID.
+   * Deletes an organization by its ID, together with its memberships. An organization with more
+   * memberships than {@code organization.deletion.async-threshold} is deleted in the background;
+   * the returned deletion is then still running, and {@link #getOrganizationDeletion(String)}
+   * reports its progress.
    *
    * @param id the organization ID
+   * @return the deletion
    * @throws IllegalArgumentException if organization ID is null or empty
    * @throws IllegalStateException if organization is not found
    */
-  public void deleteOrganization(String id) {
+  @Transactional(propagation = Propagation.SUPPORTS)
+  public OrganizationDeletion deleteOrganization(String id) {
     if (id == null || id.trim().isEmpty()) {
-      logger.warning("Organization ID cannot be null or empty");
+      logger.debug("Organization ID cannot be null or empty");
       throw new IllegalArgumentException("Organization ID cannot be null or empty");
     }
 
-    if (!organizationRepository.existsById(id)) {
-      logger.warning("Organization with ID '" + id + "' not found");
+    Optional<UUID> organizationId = Ids.parse(id);
+    if (organizationId.isEmpty()) {
+      logger.debug("Organization with ID '{}' not found", id);
       throw new IllegalStateException("Organization with ID '" + id + "' not found");
     }
 
-    organizationRepository.deleteById(id);
-    logger.info("Organization deleted: " + id);
+    OrganizationDeletion deletion = deletions.delete(organizationId.get());
+    logger.debug("Organization deletion {}: {}", deletion.getState(), id);
+    return deletion;
+  }
+
+  /**
+   * Retrieves the progress of the latest background deletion of an organization.
+   *
+   * @param id the organization ID
+   * @return an Optional containing the progress if this instance has deleted the organization in
+   *     the background, empty otherwise
+   */
+  @Transactional(readOnly = true)
+  public Optional<OrganizationDeletion> getOrganizationDeletion(String id) {
+    return Ids.parse(id).flatMap(deletions::getProgress);
   }
 
   /**
@@ -245,9 +434,9 @@ public class OrganizationService {
    */
   @Transactional(readOnly = true)
   public long getOrganizationCount() {
-    logger.info("Getting organization count");
+    logger.debug("Getting organization count");
     long count = organizationRepository.count();
-    logger.info("Organization count: " + count);
+    logger.debug("Organization count: {}", count);
     return count;
   }
 }
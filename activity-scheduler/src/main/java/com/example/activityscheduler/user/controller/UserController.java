@@ -1,44 +1,72 @@
 package com.example.activityscheduler.user.controller;
 
+import com.example.activityscheduler.common.http.ETags;
+import com.example.activityscheduler.common.id.Ids;
+import com.example.activityscheduler.common.metrics.TimedOperations;
+import com.example.activityscheduler.common.pagination.CursorCodec;
+import com.example.activityscheduler.common.pagination.CursorPage;
+import com.example.activityscheduler.common.pagination.PageLimits;
+import com.example.activityscheduler.common.sql.DuplicateKeys;
 import com.example.activityscheduler.user.dto.UserRegistrationRequest;
 import com.example.activityscheduler.user.model.User;
 import com.example.activityscheduler.user.repository.UserRepository;
+import com.example.activityscheduler.user.service.EmailBloomFilter;
+import com.example.activityscheduler.user.service.ImportFormat;
+import com.example.activityscheduler.user.service.UserImportService;
 import com.example.activityscheduler.user.utils.EmailValidator;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
-import java.util.logging.Logger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /** REST controller for managing User entities. Provides HTTP endpoints for user operations. */
 @RestController
 @RequestMapping("/api/users")
 @Tag(name = "User Management", description = "APIs for managing users")
+@TimedOperations
 public class UserController {
 
   private final UserRepository repo;
-  private static final Logger logger = Logger.getLogger(UserController.class.getName());
+  private final EmailBloomFilter emailFilter;
+  private final UserImportService importService;
+  private static final Logger logger = LoggerFactory.getLogger(UserController.class);
 
   /**
-   * Constructs a UserController with the given repository.
+   * Constructs a UserController with the given repository, email filter and import service.
    *
    * @param repo the user repository
+   * @param emailFilter the Bloom filter over registered emails
+   * @param importService the bulk user import service
    */
-  public UserController(UserRepository repo) {
+  public UserController(
+      UserRepository repo, EmailBloomFilter emailFilter, UserImportService importService) {
     this.repo = repo;
+    this.emailFilter = emailFilter;
+    this.importService = importService;
   }
 
   /**
@@ -53,17 +81,63 @@ public class UserController {
       })
   @GetMapping
   public List<User> getAll() {
-    logger.info("Retrieving all users");
+    logger.debug("Retrieving all users");
     List<User> users = repo.findAll();
-    logger.info("Retrieved " + users.size() + " users");
+    logger.info("Retrieved {} users", users.size());
     return users;
   }
 
   /**
-   * Retrieves a user by their ID.
+   * Retrieves a page of users, ordered by creation time and ID.
+   *
+   * @param cursor the cursor returned with the previous page
+   * @param limit the requested page size
+   * @return a page of users
+   */
+  @Operation(
+      summary = "Get a page of users",
+      description =
+          "Retrieves users one page at a time, ordered by creation time. Pass the returned"
+              + " nextCursor to fetch the following page.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved the page"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or limit")
+      })
+  @GetMapping("/page")
+  public CursorPage<User> getPage(
+      @Parameter(description = "Cursor from the previous page") @RequestParam(required = false)
+          String cursor,
+      @Parameter(description = "Maximum number of items to return")
+          @RequestParam(required = false)
+          Integer limit) {
+    try {
+      Pageable pageable = PageLimits.keyset(limit);
+      Slice<User> slice;
+      if (cursor == null) {
+        slice = repo.findFirstPage(pageable);
+      } else {
+        String[] key = CursorCodec.decode(cursor, 2);
+        slice =
+            repo.findPageAfter(
+                CursorCodec.parseTimestamp(key[0]), CursorCodec.parseId(key[1]), pageable);
+      }
+      return CursorPage.of(
+          slice, u -> CursorCodec.encode(u.getCreatedAt().toString(), u.getId().toString()));
+    } catch (IllegalArgumentException e) {
+      logger.warn("Invalid page request: {}", e.getMessage());
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+  }
+
+  /**
+   * Retrieves a user by their ID. The response carries the user's version as its entity tag; a
+   * request whose {@code If-None-Match} names the current version is answered with 304 Not
+   * Modified from the version alone, without loading the user.
    *
    * @param id the user ID
-   * @return an Optional containing the user if found, empty otherwise
+   * @param ifNoneMatch the entity tags the client already has, if any
+   * @return the user if found
    */
   @Operation(
       summary = "Get user by ID",
@@ -71,18 +145,35 @@ public class UserController {
   @ApiResponses(
       value = {
         @ApiResponse(responseCode = "200", description = "User found successfully"),
+        @ApiResponse(responseCode = "304", description = "User has not changed"),
         @ApiResponse(responseCode = "404", description = "User not found")
       })
   @GetMapping("/{id}")
-  public Optional<User> getById(@Parameter(description = "User ID") @PathVariable String id) {
-    logger.info("Retrieving user with ID: " + id);
-    Optional<User> user = repo.findById(id);
+  public ResponseEntity<User> getById(
+      @Parameter(description = "User ID") @PathVariable String id,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+    logger.debug("Retrieving user with ID: {}", id);
+    if (ifNoneMatch != null) {
+      Optional<Long> version = Ids.parse(id).flatMap(repo::findVersionById);
+      if (version.isEmpty()) {
+        logger.info("User not found with ID: {}", id);
+        return ResponseEntity.notFound().build();
+      }
+      String etag = ETags.ofVersion(version.get());
+      if (ETags.matches(ifNoneMatch, etag)) {
+        logger.debug("User {} not modified", id);
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+      }
+    }
+    Optional<User> user = Ids.parse(id).flatMap(repo::findById);
     if (user.isPresent()) {
-      logger.info("User found: " + user.get().getEmail());
+      logger.info("User found: {}", user.get().getEmail());
     } else {
-      logger.info("User not found with ID: " + id);
+      logger.info("User not found with ID: {}", id);
     }
-    return user;
+    return user
+        .map(u -> ResponseEntity.ok().eTag(ETags.ofVersion(u.getVersion())).body(u))
+        .orElse(ResponseEntity.notFound().build());
   }
 
   /**
@@ -101,9 +192,9 @@ public class UserController {
   @GetMapping("/exists")
   public boolean existsByEmail(
       @Parameter(description = "Email address to check") @RequestParam String email) {
-    logger.info("Checking if user exists with email: " + email);
-    boolean exists = repo.existsByEmail(email);
-    logger.info("User exists: " + exists);
+    logger.debug("Checking if user exists with email: {}", email);
+    boolean exists = emailFilter.mightExist(email) && repo.existsByEmail(email);
+    logger.info("User exists: {}", exists);
     return exists;
   }
 
@@ -136,18 +227,61 @@ public class UserController {
     if (!EmailValidator.isValidEmail(request.getEmail())) {
       throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid email address");
     }
-    if (repo.existsByEmail(request.getEmail())) {
-      throw new ResponseStatusException(HttpStatus.CONFLICT, "User already exists");
-    }
+    emailFilter.add(request.getEmail());
 
-    // Create a new User entity with auto-generated ID
+    // Insert right away and let the unique index on email reject a taken address, which also
+    // holds when two requests register the same email at once
     User user = new User(request.getEmail(), request.getDisplayName());
-    logger.info("Saving user: " + user.getEmail());
-    User savedUser = repo.save(user);
-    logger.info("User saved: " + savedUser.getEmail());
+    logger.debug("Saving user: {}", user.getEmail());
+    User savedUser;
+    try {
+      savedUser = repo.saveAndFlush(user);
+    } catch (DataIntegrityViolationException e) {
+      if (!DuplicateKeys.isDuplicateKey(e)) {
+        throw e;
+      }
+      logger.info("User already exists: {}", request.getEmail());
+      throw new ResponseStatusException(HttpStatus.CONFLICT, "User already exists");
+    }
+    logger.info("User saved: {}", savedUser.getEmail());
     return savedUser;
   }
 
+  /**
+   * Imports users from a CSV or NDJSON request body and streams back one result per row.
+   *
+   * @param contentType the content type of the request body
+   * @param body the request body
+   * @return a response that streams one JSON result per line
+   */
+  @Operation(
+      summary = "Import users in bulk",
+      description =
+          "Registers the users in a text/csv body (email,displayName per line, header optional) or"
+              + " an application/x-ndjson body. The body is read and stored in chunks while one"
+              + " result per row is streamed back: CREATED, EXISTS, INVALID or FAILED.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Import started"),
+        @ApiResponse(responseCode = "415", description = "Unsupported body format")
+      })
+  @PostMapping(
+      value = "/import",
+      consumes = {"text/csv", "application/x-ndjson"},
+      produces = "application/x-ndjson")
+  public ResponseEntity<StreamingResponseBody> importUsers(
+      @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body) {
+    ImportFormat format =
+        ImportFormat.fromMediaType(MediaType.parseMediaType(contentType))
+            .orElseThrow(
+                () ->
+                    new ResponseStatusException(
+                        HttpStatus.UNSUPPORTED_MEDIA_TYPE, "Unsupported import format"));
+    logger.info("User import requested as {}", format);
+    StreamingResponseBody response = out -> importService.importUsers(format, body, out);
+    return ResponseEntity.ok().contentType(ImportFormat.NDJSON.getMediaType()).body(response);
+  }
+
   /**
    * Updates an existing user's username.
    *
@@ -166,7 +300,8 @@ public class UserController {
       @Parameter(description = "User ID") @PathVariable String id,
       @RequestBody String displayName) {
     User user =
-        repo.findById(id)
+        Ids.parse(id)
+            .flatMap(repo::findById)
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
     if (displayName == null || displayName.isBlank()) {
       throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid display name");
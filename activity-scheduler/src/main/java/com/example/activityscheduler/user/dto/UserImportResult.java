@@ -0,0 +1,76 @@
+package com.example.activityscheduler.user.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.UUID;
+
+/** DTO reporting what happened to one row of a bulk user import. */
+@Schema(description = "Result for one row of a user import")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserImportResult {
+
+  /** Outcome of an import row. */
+  public enum Outcome {
+    /** The user was created. */
+    CREATED,
+    /** A user with the email already exists or appeared earlier in the import. */
+    EXISTS,
+    /** The row was rejected because it could not be read or its data is invalid. */
+    INVALID,
+    /** The row was valid but its chunk could not be stored. */
+    FAILED
+  }
+
+  @Schema(description = "Line number of the row in the request body, starting at 1")
+  private final long line;
+
+  @Schema(description = "Email address as sent")
+  private final String email;
+
+  @Schema(description = "Outcome of the row")
+  private final Outcome outcome;
+
+  @Schema(description = "ID of the created user")
+  private final UUID id;
+
+  @Schema(description = "Why the row was not imported, if it was not")
+  private final String message;
+
+  /**
+   * Constructs a UserImportResult.
+   *
+   * @param line the line number of the row
+   * @param email the email address as sent, may be null
+   * @param outcome the outcome of the row
+   * @param id the ID of the created user, or null if none was created
+   * @param message why the row was not imported, or null if it was
+   */
+  public UserImportResult(long line, String email, Outcome outcome, UUID id, String message) {
+    this.line = line;
+    this.email = email;
+    this.outcome = outcome;
+    this.id = id;
+    this.message = message;
+  }
+
+  // Getters
+  public long getLine() {
+    return line;
+  }
+
+  public String getEmail() {
+    return email;
+  }
+
+  public Outcome getOutcome() {
+    return outcome;
+  }
+
+  public UUID getId() {
+    return id;
+  }
+
+  public String getMessage() {
+    return message;
+  }
+}
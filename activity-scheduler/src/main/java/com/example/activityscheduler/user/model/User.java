@@ -1,9 +1,12 @@
 package com.example.activityscheduler.user.model;
 
+import com.example.activityscheduler.common.id.UuidV7Generator;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -12,12 +15,12 @@ import java.util.UUID;
  * the database.
  */
 @Entity
-@Table(name = "users")
+@Table(
+    name = "users",
+    indexes = @Index(name = "idx_users_created_at_id", columnList = "created_at, id"))
 public class User {
 
-  @Id
-  @Column(columnDefinition = "CHAR(36)")
-  private String id;
+  @Id private UUID id;
 
   @Column(nullable = false, unique = true, length = 320)
   private String email;
@@ -29,27 +32,35 @@ public class User {
   private boolean isActive = true;
 
   @Column(name = "created_at", nullable = false)
-  private LocalDateTime createdAt = LocalDateTime.now();
+  private LocalDateTime createdAt;
 
-  /** Default constructor. Generates a new UUID for the user ID. */
-  public User() {
-    this.id = UUID.randomUUID().toString();
-  }
+  // Null until first stored, so that save() persists a new user instead of merging it
+  @Version
+  @Column(name = "version", nullable = false)
+  private Long version;
+
+  /**
+   * Default constructor, used by JPA for every row it loads. Leaves the ID and creation time unset,
+   * since loading overwrites them.
+   */
+  public User() {}
 
   /**
-   * Constructs a User with the specified email, display name.
+   * Constructs a new User with the specified email, display name. Generates a new time-ordered UUID
+   * for the user ID and sets the creation time to now.
    *
    * @param email the user's email address
    * @param displayName the user's display name
    */
   public User(String email, String displayName) {
-    this();
+    this.id = UuidV7Generator.generate();
+    this.createdAt = LocalDateTime.now();
     this.email = email;
     this.displayName = displayName;
   }
 
   // getters & setters
-  public String getId() {
+  public UUID getId() {
     return id;
   }
 
@@ -76,4 +87,8 @@ public class User {
   public LocalDateTime getCreatedAt() {
     return createdAt;
   }
+
+  public Long getVersion() {
+    return version;
+  }
 }
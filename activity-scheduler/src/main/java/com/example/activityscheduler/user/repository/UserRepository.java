@@ -1,8 +1,20 @@
 package com.example.activityscheduler.user.repository;
 
 import com.example.activityscheduler.user.model.User;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -10,7 +22,7 @@ import org.springframework.stereotype.Repository;
  * using Spring Data JPA.
  */
 @Repository
-public interface UserRepository extends JpaRepository<User, String> {
+public interface UserRepository extends JpaRepository<User, UUID> {
   /**
    * Finds a user by their email address.
    *
@@ -26,4 +38,69 @@ public interface UserRepository extends JpaRepository<User, String> {
    * @return true if a user exists with this email, false otherwise
    */
   boolean existsByEmail(String email);
+
+  /**
+   * Finds which of the given email addresses are registered.
+   *
+   * @param emails the email addresses to check
+   * @return the registered email addresses among them, as stored
+   */
+  @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+  List<String> findEmailsIn(@Param("emails") Collection<String> emails);
+
+  /**
+   * Finds the first page of users ordered by creation time and ID.
+   *
+   * @param pageable the page size
+   * @return a slice of users
+   */
+  @Query("SELECT u FROM User u ORDER BY u.createdAt, u.id")
+  Slice<User> findFirstPage(Pageable pageable);
+
+  /**
+   * Finds the page of users that follows the given keyset position, ordered by creation time and
+   * ID.
+   *
+   * @param createdAt the creation time of the last user of the previous page
+   * @param id the ID of the last user of the previous page
+   * @param pageable the page size
+   * @return a slice of users
+   */
+  @Query(
+      "SELECT u FROM User u WHERE u.createdAt >= :createdAt"
+          + " AND (u.createdAt > :createdAt OR u.id > :id) ORDER BY u.createdAt, u.id")
+  Slice<User> findPageAfter(
+      @Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id, Pageable pageable);
+
+  /**
+   * Streams every user as read-only entities, fetching rows from the database in batches. The
+   * stream must be consumed and closed inside a transaction.
+   *
+   * @return a stream of all users
+   */
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+    @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("SELECT u FROM User u")
+  Stream<User> streamAll();
+
+  /**
+   * Streams the email address of every user, fetching rows from the database in batches. The
+   * stream must be consumed and closed inside a transaction.
+   *
+   * @return a stream of emails
+   */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+  @Query("SELECT u.email FROM User u")
+  Stream<String> streamAllEmails();
+
+  /**
+   * Finds the version of a user without loading it, for answering conditional requests.
+   *
+   * @param id the user ID
+   * @return the version, or empty if no user has the ID
+   */
+  @Query("SELECT u.version FROM User u WHERE u.id = :id")
+  Optional<Long> findVersionById(@Param("id") UUID id);
 }
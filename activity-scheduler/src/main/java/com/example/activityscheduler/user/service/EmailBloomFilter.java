@@ -0,0 +1,45 @@
+package com.example.activityscheduler.user.service;
+
+import com.example.activityscheduler.common.bloom.KeyExistenceFilter;
+import com.example.activityscheduler.user.repository.UserRepository;
+import java.time.Duration;
+import java.util.stream.Stream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/** Bloom filter over registered email addresses, used to skip lookups for unused emails. */
+@Component
+public class EmailBloomFilter extends KeyExistenceFilter {
+
+  private final UserRepository userRepository;
+
+  /**
+   * Constructs an EmailBloomFilter.
+   *
+   * @param userRepository the user repository
+   * @param transactionManager the transaction manager used for rebuilds
+   * @param falsePositiveProbability the target false positive probability
+   * @param pendingGrace how long a new email may take to become visible to a rebuild scan
+   * @param maxStaleness how long after its scan started a filter may report a value as unused
+   */
+  public EmailBloomFilter(
+      UserRepository userRepository,
+      PlatformTransactionManager transactionManager,
+      @Value("${bloom-filter.false-positive-probability:0.01}") double falsePositiveProbability,
+      @Value("${bloom-filter.pending-grace:PT5M}") Duration pendingGrace,
+      @Value("${bloom-filter.max-staleness:PT2M}") Duration maxStaleness) {
+    super("email", falsePositiveProbability, pendingGrace, maxStaleness, transactionManager);
+    this.userRepository = userRepository;
+  }
+
+  @Override
+  protected long countKeys() {
+    return userRepository.count();
+  }
+
+  @Override
+  protected Stream<String> streamKeys() {
+    return userRepository.streamAllEmails();
+  }
+}
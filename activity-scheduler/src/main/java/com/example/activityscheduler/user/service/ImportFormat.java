@@ -0,0 +1,43 @@
+package com.example.activityscheduler.user.service;
+
+import java.util.Optional;
+import org.springframework.http.MediaType;
+
+/** The body formats accepted by the bulk user import. */
+public enum ImportFormat {
+  /** One {@code email,displayName} row per line, optionally preceded by that header. */
+  CSV("text/csv"),
+  /** One {@code {"email": ..., "displayName": ...}} object per line. */
+  NDJSON("application/x-ndjson");
+
+  private final MediaType mediaType;
+
+  ImportFormat(String mediaType) {
+    this.mediaType = MediaType.parseMediaType(mediaType);
+  }
+
+  /**
+   * Returns the media type of this format.
+   *
+   * @return the media type, without parameters
+   */
+  public MediaType getMediaType() {
+    return mediaType;
+  }
+
+  /**
+   * Finds the format of a request body from its content type. Parameters such as the charset are
+   * ignored.
+   *
+   * @param contentType the content type of the request
+   * @return an Optional containing the format if the content type is supported, empty otherwise
+   */
+  public static Optional<ImportFormat> fromMediaType(MediaType contentType) {
+    for (ImportFormat format : values()) {
+      if (format.mediaType.equalsTypeAndSubtype(contentType)) {
+        return Optional.of(format);
+      }
+    }
+    return Optional.empty();
+  }
+}
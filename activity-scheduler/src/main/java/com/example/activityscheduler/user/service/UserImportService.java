@@ -0,0 +1,364 @@
+package com.example.activityscheduler.user.service;
+
+import com.example.activityscheduler.common.sql.DuplicateKeys;
+import com.example.activityscheduler.user.dto.UserImportResult;
+import com.example.activityscheduler.user.dto.UserImportResult.Outcome;
+import com.example.activityscheduler.user.dto.UserRegistrationRequest;
+import com.example.activityscheduler.user.model.User;
+import com.example.activityscheduler.user.repository.UserRepository;
+import com.example.activityscheduler.user.utils.EmailValidator;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service that imports users from a CSV or NDJSON stream and writes one NDJSON result per row.
+ * Rows are read in chunks, so memory use depends on the chunk size and not on the size of the
+ * import.
+ *
+ * <p>Each chunk is parsed and validated in parallel, then stored in its own transaction: one
+ * {@code IN} query finds the emails of the chunk that are already registered, and the new users
+ * are inserted as JDBC batches. Emails are compared case-insensitively.
+ *
+ * <p>An email registered by another request between the query and the insert makes the unique
+ * index reject the chunk's transaction. The chunk is then stored again, and the query finds that
+ * email this time, so only its row is reported as existing.
+ */
+@Service
+public class UserImportService {
+
+  private static final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+
+  private static final int MAX_DISPLAY_NAME_LENGTH = 255;
+
+  /** Number of times a chunk is stored before its rows are reported as failed. */
+  private static final int MAX_STORE_ATTEMPTS = 3;
+
+  private final UserRepository userRepository;
+  private final EmailBloomFilter emailFilter;
+  private final EntityManager entityManager;
+  private final TransactionTemplate transactionTemplate;
+  private final ObjectMapper objectMapper;
+  private final ObjectWriter writer;
+  private final int chunkSize;
+
+  /**
+   * Constructs a UserImportService with the given dependencies.
+   *
+   * @param userRepository the user repository
+   * @param emailFilter the Bloom filter over registered emails
+   * @param entityManager the entity manager used to persist, flush and clear
+   * @param transactionManager the transaction manager
+   * @param objectMapper the object mapper used to read NDJSON rows and write results
+   * @param chunkSize the number of rows validated and stored together
+   */
+  public UserImportService(
+      UserRepository userRepository,
+      EmailBloomFilter emailFilter,
+      EntityManager entityManager,
+      PlatformTransactionManager transactionManager,
+      ObjectMapper objectMapper,
+      @Value("${user.import.chunk-size:1000}") int chunkSize) {
+    if (chunkSize < 1) {
+      throw new IllegalArgumentException("Import chunk size must be positive");
+    }
+    this.userRepository = userRepository;
+    this.emailFilter = emailFilter;
+    this.entityManager = entityManager;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.objectMapper = objectMapper;
+    this.writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * Imports the users in the input stream and writes one result per non-blank row to the output
+   * stream as newline-delimited JSON. Results are written and flushed after every chunk. Chunks
+   * that were stored stay stored if a later chunk or the output stream fails.
+   *
+   * @param format the format of the input
+   * @param in the UTF-8 encoded rows to import
+   * @param out the stream to write the results to
+   * @return the number of users created
+   * @throws IOException if reading the input or writing the results fails
+   */
+  public long importUsers(ImportFormat format, InputStream in, OutputStream out)
+      throws IOException {
+    logger.info("Starting {} user import", format);
+    long created = 0;
+    long rows = 0;
+    BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    try (JsonGenerator generator = writer.getFactory().createGenerator(out)) {
+      generator.setRootValueSeparator(null);
+      List<Row> chunk = new ArrayList<>(chunkSize);
+      long lineNumber = 0;
+      String text;
+      while ((text = reader.readLine()) != null) {
+        lineNumber++;
+        if (lineNumber == 1) {
+          text = stripByteOrderMark(text);
+          if (format == ImportFormat.CSV && isCsvHeader(text)) {
+            continue;
+          }
+        }
+        if (text.isBlank()) {
+          continue;
+        }
+        chunk.add(new Row(lineNumber, text));
+        if (chunk.size() == chunkSize) {
+          created += importChunk(format, chunk, generator);
+          rows += chunk.size();
+          chunk.clear();
+        }
+      }
+      if (!chunk.isEmpty()) {
+        created += importChunk(format, chunk, generator);
+        rows += chunk.size();
+      }
+    }
+    logger.info("Imported {} users from {} rows", created, rows);
+    return created;
+  }
+
+  /** Validates, stores and reports one chunk of rows, returning the number of users created. */
+  private long importChunk(ImportFormat format, List<Row> chunk, JsonGenerator generator)
+      throws IOException {
+    List<Candidate> candidates = chunk.parallelStream().map(row -> parse(format, row)).toList();
+
+    List<UserImportResult> results = new ArrayList<>(candidates.size());
+    Map<String, Candidate> pending = new LinkedHashMap<>();
+    for (Candidate candidate : candidates) {
+      if (candidate.error() != null) {
+        results.add(result(candidate, Outcome.INVALID, null, candidate.error()));
+        continue;
+      }
+      Candidate earlier = pending.putIfAbsent(key(candidate.email()), candidate);
+      if (earlier != null) {
+        results.add(
+            result(candidate, Outcome.EXISTS, null, "Repeats line " + earlier.row().line()));
+      }
+    }
+
+    Map<String, User> stored = new LinkedHashMap<>();
+    Set<String> existing = new HashSet<>();
+    String failure = null;
+    if (!pending.isEmpty()) {
+      failure = storeChunk(chunk.get(0).line(), pending.values(), existing, stored);
+    }
+    for (Map.Entry<String, Candidate> entry : pending.entrySet()) {
+      Candidate candidate = entry.getValue();
+      User user = stored.get(entry.getKey());
+      if (user != null) {
+        results.add(result(candidate, Outcome.CREATED, user, null));
+      } else if (failure != null && !existing.contains(entry.getKey())) {
+        results.add(result(candidate, Outcome.FAILED, null, failure));
+      } else {
+        results.add(result(candidate, Outcome.EXISTS, null, "User already exists"));
+      }
+    }
+
+    results.sort((a, b) -> Long.compare(a.getLine(), b.getLine()));
+    for (UserImportResult result : results) {
+      writer.writeValue(generator, result);
+      generator.writeRaw('\n');
+    }
+    generator.flush();
+    return stored.size();
+  }
+
+  /**
+   * Stores the candidates in a transaction of their own, storing them again if another request
+   * registered one of their emails meanwhile. Returns null once they are stored, or the message to
+   * report for the rows that could not be.
+   */
+  private String storeChunk(
+      long firstLine,
+      Collection<Candidate> candidates,
+      Set<String> existing,
+      Map<String, User> stored) {
+    for (int attempt = 1; ; attempt++) {
+      existing.clear();
+      stored.clear();
+      try {
+        transactionTemplate.executeWithoutResult(status -> store(candidates, existing, stored));
+        return null;
+      } catch (PersistenceException | DataAccessException | TransactionException e) {
+        stored.clear();
+        if (attempt < MAX_STORE_ATTEMPTS && DuplicateKeys.causedByDuplicateKey(e)) {
+          logger.info("Email of lines {} onwards registered meanwhile, retrying", firstLine);
+          continue;
+        }
+        logger.warn("Import of lines {} onwards failed", firstLine, e);
+        return "Could not store this chunk of rows; import them again";
+      }
+    }
+  }
+
+  /**
+   * Finds the already registered emails among the candidates and inserts users for the rest. Runs
+   * inside the chunk's transaction. New emails are added to the Bloom filter before the inserts
+   * are flushed, so that no reader sees a stored email the filter rules out.
+   */
+  private void store(
+      Iterable<Candidate> candidates, Set<String> existing, Map<String, User> stored) {
+    List<String> emails = new ArrayList<>();
+    for (Candidate candidate : candidates) {
+      emails.add(candidate.email());
+    }
+    for (String email : userRepository.findEmailsIn(emails)) {
+      existing.add(key(email));
+    }
+    for (Candidate candidate : candidates) {
+      String key = key(candidate.email());
+      if (!existing.contains(key)) {
+        emailFilter.add(candidate.email());
+        User user = new User(candidate.email(), candidate.displayName());
+        entityManager.persist(user);
+        stored.put(key, user);
+      }
+    }
+    entityManager.flush();
+    entityManager.clear();
+  }
+
+  /** Reads and validates one row. Safe to call from several threads. */
+  private Candidate parse(ImportFormat format, Row row) {
+    String email;
+    String displayName;
+    if (format == ImportFormat.CSV) {
+      List<String> fields = parseCsvLine(row.text());
+      if (fields == null || fields.size() != 2) {
+        return Candidate.invalid(row, null, "Expected two fields: email,displayName");
+      }
+      email = fields.get(0);
+      displayName = fields.get(1);
+    } else {
+      try {
+        UserRegistrationRequest request =
+            objectMapper.readValue(row.text(), UserRegistrationRequest.class);
+        if (request == null) {
+          return Candidate.invalid(row, null, "Expected a JSON object");
+        }
+        email = request.getEmail();
+        displayName = request.getDisplayName();
+      } catch (JsonProcessingException e) {
+        return Candidate.invalid(row, null, "Malformed JSON");
+      }
+    }
+
+    email = email == null ? null : email.trim();
+    displayName = displayName == null ? null : displayName.trim();
+    if (email == null || email.isEmpty()) {
+      return Candidate.invalid(row, email, "Email is required");
+    }
+    if (displayName == null || displayName.isEmpty()) {
+      return Candidate.invalid(row, email, "Display name is required");
+    }
+    if (displayName.length() > MAX_DISPLAY_NAME_LENGTH) {
+      return Candidate.invalid(row, email, "Display name is too long");
+    }
+    if (!EmailValidator.isValidEmail(email)) {
+      return Candidate.invalid(row, email, "Invalid email address");
+    }
+    return new Candidate(row, email, displayName, null);
+  }
+
+  /**
+   * Splits a CSV line into fields. Fields may be quoted with double quotes, and a doubled quote
+   * inside a quoted field stands for one quote. Line breaks inside fields are not supported.
+   *
+   * @return the fields, or null if a quoted field is not closed
+   */
+  private static List<String> parseCsvLine(String line) {
+    List<String> fields = new ArrayList<>();
+    StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (quoted) {
+        if (c != '"') {
+          field.append(c);
+        } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+          field.append('"');
+          i++;
+        } else {
+          quoted = false;
+        }
+      } else if (c == '"') {
+        quoted = true;
+      } else if (c == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else {
+        field.append(c);
+      }
+    }
+    if (quoted) {
+      return null;
+    }
+    fields.add(field.toString());
+    return fields;
+  }
+
+  private static boolean isCsvHeader(String line) {
+    List<String> fields = parseCsvLine(line);
+    return fields != null
+        && fields.size() == 2
+        && fields.get(0).trim().equalsIgnoreCase("email")
+        && fields.get(1).trim().equalsIgnoreCase("displayName");
+  }
+
+  private static String stripByteOrderMark(String line) {
+    return line.startsWith("\uFEFF") ? line.substring(1) : line;
+  }
+
+  private static String key(String email) {
+    return email.toLowerCase(Locale.ROOT);
+  }
+
+  private static UserImportResult result(
+      Candidate candidate, Outcome outcome, User user, String message) {
+    return new UserImportResult(
+        candidate.row().line(),
+        candidate.email(),
+        outcome,
+        user == null ? null : user.getId(),
+        message);
+  }
+
+  /** A non-blank line of the input. */
+  private record Row(long line, String text) {}
+
+  /** A parsed row; rows that failed validation carry an error message. */
+  private record Candidate(Row row, String email, String displayName, String error) {
+    static Candidate invalid(Row row, String email, String error) {
+      return new Candidate(row, email, null, error);
+    }
+  }
+}
@@ -1,21 +1,36 @@
 package com.example.activityscheduler.user.utils;
 
 import java.net.IDN;
-import java.util.regex.Pattern;
 
-/** Validates email addresses according to RFC 5322 and RFC 1034. */
+/**
+ * Validates email addresses according to RFC 5322 and RFC 1034.
+ *
+ * <p>The address is checked in place in a single pass, without allocating, unless the domain
+ * contains non-ASCII characters. Such a domain is first converted to its ASCII form with {@link
+ * IDN#toASCII(String, int)} and then checked the same way.
+ */
 public final class EmailValidator {
 
-  // Local-part: dot-atom per RFC 5322 (simplified), no leading/trailing dot, no ".."
-  private static final Pattern LOCAL_PART =
-      Pattern.compile("^[A-Za-z0-9!#$%&'*+/=?^_`{|}~-]+(?:\\.[A-Za-z0-9!#$%&'*+/=?^_`{|}~-]+)*$");
+  private static final int MAX_EMAIL_LENGTH = 254;
+  private static final int MAX_LOCAL_PART_LENGTH = 64;
+  private static final int MAX_DOMAIN_LENGTH = 253;
+  private static final int MAX_LABEL_LENGTH = 63;
 
-  // Domain label: letters/digits, hyphen allowed inside, 1–63 chars
-  private static final Pattern DNS_LABEL =
-      Pattern.compile("^[A-Za-z0-9](?:[A-Za-z0-9-]{0,61}[A-Za-z0-9])?$");
+  // Characters of an RFC 5322 atom, which are the local-part characters apart from the dot
+  private static final boolean[] ATOM = new boolean[128];
 
-  // TLD: letters only, 2–63 chars (prevents 1-char and numeric-only TLDs)
-  private static final Pattern TLD = Pattern.compile("^[A-Za-z]{2,63}$");
+  static {
+    for (char c = 'A'; c <= 'Z'; c++) {
+      ATOM[c] = true;
+      ATOM[Character.toLowerCase(c)] = true;
+    }
+    for (char c = '0'; c <= '9'; c++) {
+      ATOM[c] = true;
+    }
+    for (char c : "!#$%&'*+/=?^_`{|}~-".toCharArray()) {
+      ATOM[c] = true;
+    }
+  }
 
   private EmailValidator() {}
 
@@ -24,53 +39,138 @@ public final class EmailValidator {
     if (input == null) {
       return false;
     }
-    String email = input.trim();
-    if (email.isEmpty() || email.length() > 254) {
-      return false;
+    // Same bounds as String.trim()
+    int start = 0;
+    int end = input.length();
+    while (start < end && input.charAt(start) <= ' ') {
+      start++;
     }
-
-    int at = email.indexOf('@');
-    if (at <= 0 || at != email.lastIndexOf('@')) {
+    while (end > start && input.charAt(end - 1) <= ' ') {
+      end--;
+    }
+    if (end == start || end - start > MAX_EMAIL_LENGTH) {
       return false;
     }
 
-    String local = email.substring(0, at);
-    String domain = email.substring(at + 1);
-    if (local.length() > 64 || domain.isEmpty()) {
+    // Local part: dot-atom per RFC 5322 (simplified), no leading/trailing dot, no ".."
+    int at = start;
+    boolean afterDot = true;
+    while (at < end) {
+      char c = input.charAt(at);
+      if (c == '@') {
+        break;
+      }
+      if (c == '.') {
+        if (afterDot) {
+          return false;
+        }
+        afterDot = true;
+      } else if (c < ATOM.length && ATOM[c]) {
+        afterDot = false;
+      } else {
+        return false;
+      }
+      at++;
+    }
+    if (at == start || at == end || afterDot || at - start > MAX_LOCAL_PART_LENGTH) {
       return false;
     }
 
-    if (!LOCAL_PART.matcher(local).matches()) {
+    int domainStart = at + 1;
+    for (int i = domainStart; i < end; i++) {
+      char c = input.charAt(i);
+      if (c == '@') {
+        return false;
+      }
+      if (c >= 0x80) {
+        return isValidInternationalDomain(input.substring(domainStart, end));
+      }
+    }
+    if (domainStart == end || end - domainStart > MAX_DOMAIN_LENGTH) {
       return false;
     }
+    // A single trailing dot, as in a fully qualified name, is accepted
+    if (input.charAt(end - 1) == '.') {
+      end--;
+    }
+    return hasValidLabels(input, domainStart, end);
+  }
 
+  /** Checks a domain that needs to be converted to ASCII first. */
+  private static boolean isValidInternationalDomain(String domain) {
     final String asciiDomain;
     try {
       asciiDomain = IDN.toASCII(domain, IDN.ALLOW_UNASSIGNED);
     } catch (IllegalArgumentException e) {
       return false;
     }
-    if (asciiDomain.length() > 253) {
+    if (asciiDomain.length() > MAX_DOMAIN_LENGTH) {
       return false;
     }
-
-    String[] labels = asciiDomain.split("\\.");
-    if (labels.length < 2) {
-      return false;
+    // The conversion can leave several trailing dots, all of which are ignored
+    int end = asciiDomain.length();
+    while (end > 0 && asciiDomain.charAt(end - 1) == '.') {
+      end--;
     }
+    return hasValidLabels(asciiDomain, 0, end);
+  }
 
-    for (int i = 0; i < labels.length; i++) {
-      String label = labels[i];
-      if (label.isEmpty() || label.length() > 63) {
+  /**
+   * Checks the dot-separated labels of an ASCII domain: at least two, each 1 to 63 letters, digits
+   * and inner hyphens, and the last one (the TLD) 2 to 63 letters.
+   */
+  private static boolean hasValidLabels(String domain, int start, int end) {
+    int labels = 0;
+    int labelStart = start;
+    for (int i = start; i <= end; i++) {
+      if (i < end && domain.charAt(i) != '.') {
+        continue;
+      }
+      boolean valid =
+          i == end ? isTopLevelLabel(domain, labelStart, i) : isLabel(domain, labelStart, i);
+      if (!valid) {
         return false;
       }
-      if (!DNS_LABEL.matcher(label).matches()) {
+      labels++;
+      labelStart = i + 1;
+    }
+    return labels >= 2;
+  }
+
+  private static boolean isLabel(String domain, int start, int end) {
+    if (end == start || end - start > MAX_LABEL_LENGTH) {
+      return false;
+    }
+    if (!isLetterOrDigit(domain.charAt(start)) || !isLetterOrDigit(domain.charAt(end - 1))) {
+      return false;
+    }
+    for (int i = start + 1; i < end - 1; i++) {
+      char c = domain.charAt(i);
+      if (c != '-' && !isLetterOrDigit(c)) {
         return false;
       }
-      if (i == labels.length - 1 && !TLD.matcher(label).matches()) {
+    }
+    return true;
+  }
+
+  // Letters only, 2–63 chars (prevents 1-char and numeric-only TLDs)
+  private static boolean isTopLevelLabel(String domain, int start, int end) {
+    if (end - start < 2 || end - start > MAX_LABEL_LENGTH) {
+      return false;
+    }
+    for (int i = start; i < end; i++) {
+      if (!isLetter(domain.charAt(i))) {
         return false;
       }
     }
     return true;
   }
+
+  private static boolean isLetter(char c) {
+    return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+  }
+
+  private static boolean isLetterOrDigit(char c) {
+    return isLetter(c) || (c >= '0' && c <= '9');
+  }
 }
@@ -0,0 +1,33 @@
+-- Schema as created by Hibernate before keys were stored as BINARY(16). Databases that were
+-- created by ddl-auto already have these tables and start from this version.
+
+CREATE TABLE users (
+  id CHAR(36) NOT NULL,
+  email VARCHAR(320) NOT NULL,
+  display_name VARCHAR(255) NOT NULL,
+  is_active BIT NOT NULL,
+  created_at DATETIME(6) NOT NULL,
+  PRIMARY KEY (id),
+  CONSTRAINT uk_users_email UNIQUE (email)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_users_created_at_id ON users (created_at, id);
+
+CREATE TABLE organizations (
+  id CHAR(36) NOT NULL,
+  name VARCHAR(255) NOT NULL,
+  created_at DATETIME(6) NOT NULL,
+  created_by VARCHAR(255) NOT NULL,
+  PRIMARY KEY (id),
+  CONSTRAINT uk_organizations_name UNIQUE (name)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_organizations_created_at_id ON organizations (created_at, id);
+
+CREATE TABLE memberships (
+  org_id VARCHAR(36) NOT NULL,
+  user_id VARCHAR(36) NOT NULL,
+  status ENUM('ACTIVE', 'INVITED', 'SUSPENDED') NOT NULL,
+  created_at DATETIME(6) NOT NULL,
+  PRIMARY KEY (org_id, user_id)
+) ENGINE = InnoDB;
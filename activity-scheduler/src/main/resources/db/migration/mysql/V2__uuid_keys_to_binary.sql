@@ -0,0 +1,49 @@
+-- Stores every UUID key as BINARY(16) in RFC 4122 byte order, which is what Hibernate binds for
+-- java.util.UUID with hibernate.type.preferred_uuid_jdbc_type=BINARY. Each column is widened to
+-- VARBINARY first so the textual value can be rewritten in place, then narrowed to its final type.
+-- Requires MySQL 8.0.16 for UUID_TO_BIN and enforced CHECK constraints.
+--
+-- MySQL commits DDL implicitly, so take a backup first. The application must be stopped while this
+-- runs: an instance still binding CHAR keys would not find any row afterwards.
+
+-- Users and organizations cannot be dropped like memberships, and UUID_TO_BIN fails on the first
+-- key that is not a UUID, which would leave the tables half converted. Count such keys before
+-- changing anything and fail through the CHECK constraint if there are any. To list them, run the
+-- same conditions as a SELECT against users and organizations, then fix or remove those rows.
+CREATE TEMPORARY TABLE uuid_key_precheck (
+  invalid_keys BIGINT NOT NULL,
+  CONSTRAINT users_and_organizations_must_have_uuid_keys CHECK (invalid_keys = 0)
+);
+INSERT INTO uuid_key_precheck (invalid_keys)
+SELECT (SELECT COUNT(*) FROM users
+        WHERE id NOT REGEXP '^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$')
+     + (SELECT COUNT(*) FROM organizations
+        WHERE id NOT REGEXP '^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$'
+           OR created_by NOT REGEXP '^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$');
+DROP TEMPORARY TABLE uuid_key_precheck;
+
+-- Memberships were never checked against existing users or organizations, so rows whose key is not
+-- a UUID cannot reference anything and are dropped before conversion.
+DELETE FROM memberships
+WHERE org_id NOT REGEXP '^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$'
+   OR user_id NOT REGEXP '^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$';
+
+ALTER TABLE users MODIFY id VARBINARY(36) NOT NULL;
+UPDATE users SET id = UUID_TO_BIN(id);
+ALTER TABLE users MODIFY id BINARY(16) NOT NULL;
+
+ALTER TABLE organizations
+  MODIFY id VARBINARY(36) NOT NULL,
+  MODIFY created_by VARBINARY(36) NOT NULL;
+UPDATE organizations SET id = UUID_TO_BIN(id), created_by = UUID_TO_BIN(created_by);
+ALTER TABLE organizations
+  MODIFY id BINARY(16) NOT NULL,
+  MODIFY created_by BINARY(16) NOT NULL;
+
+ALTER TABLE memberships
+  MODIFY org_id VARBINARY(36) NOT NULL,
+  MODIFY user_id VARBINARY(36) NOT NULL;
+UPDATE memberships SET org_id = UUID_TO_BIN(org_id), user_id = UUID_TO_BIN(user_id);
+ALTER TABLE memberships
+  MODIFY org_id BINARY(16) NOT NULL,
+  MODIFY user_id BINARY(16) NOT NULL;
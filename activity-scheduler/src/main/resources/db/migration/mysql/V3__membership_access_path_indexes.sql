@@ -0,0 +1,9 @@
+-- The primary key (org_id, user_id) only serves lookups that start from an organization. These
+-- indexes serve the per-user listings and counts, the per-organization status filters and the
+-- status listings, which otherwise scan the whole table.
+
+CREATE INDEX idx_memberships_user_id_status ON memberships (user_id, status);
+
+CREATE INDEX idx_memberships_org_id_status_created_at ON memberships (org_id, status, created_at);
+
+CREATE INDEX idx_memberships_status_org_id_user_id ON memberships (status, org_id, user_id);
@@ -0,0 +1,22 @@
+-- Materialized membership counts, kept up to date by the application in the same transaction as
+-- the memberships, so that member counts are primary-key reads. The backfill counts whatever is
+-- committed when it runs; the application's reconciler repairs counters that drift afterwards.
+
+CREATE TABLE organization_membership_counts (
+  org_id BINARY(16) NOT NULL,
+  status ENUM('ACTIVE', 'INVITED', 'SUSPENDED') NOT NULL,
+  member_count BIGINT NOT NULL,
+  PRIMARY KEY (org_id, status)
+) ENGINE = InnoDB;
+
+CREATE TABLE user_membership_counts (
+  user_id BINARY(16) NOT NULL,
+  membership_count BIGINT NOT NULL,
+  PRIMARY KEY (user_id)
+) ENGINE = InnoDB;
+
+INSERT INTO organization_membership_counts (org_id, status, member_count)
+SELECT org_id, status, COUNT(*) FROM memberships GROUP BY org_id, status;
+
+INSERT INTO user_membership_counts (user_id, membership_count)
+SELECT user_id, COUNT(*) FROM memberships GROUP BY user_id;
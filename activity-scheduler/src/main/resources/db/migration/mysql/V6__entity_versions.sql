@@ -0,0 +1,9 @@
+-- Version columns for optimistic locking. Every update of a user, organization or membership bumps
+-- its version, which is also the entity tag of the resource, so conditional requests can be
+-- answered from the version alone. Existing rows start at version 0.
+
+ALTER TABLE users ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE organizations ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE memberships ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
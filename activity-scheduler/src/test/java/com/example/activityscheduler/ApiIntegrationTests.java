@@ -2,13 +2,21 @@ package com.example.activityscheduler;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
 import com.example.activityscheduler.user.dto.UserRegistrationRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
@@ -37,6 +45,8 @@ class ApiIntegrationTests {
 
   @Autowired private TestRestTemplate restTemplate;
 
+  @Autowired private ObjectMapper objectMapper;
+
   private String baseUrl;
   private HttpHeaders headers;
 
@@ -89,6 +99,19 @@ class ApiIntegrationTests {
     // This demonstrates that logging is working by making calls that should generate logs
   }
 
+  @Test
+  void testLogEventsAreWrittenAsynchronously() {
+    Logger root = (Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+
+    for (String name : List.of("ASYNC_CONSOLE", "ASYNC_FILE")) {
+      assertThat(root.getAppender(name)).isInstanceOf(AsyncAppender.class);
+      AsyncAppender appender = (AsyncAppender) root.getAppender(name);
+      assertThat(appender.isNeverBlock()).isTrue();
+      assertThat(appender.getQueueSize()).isPositive();
+    }
+    assertThat(LoggerFactory.getLogger(getClass()).isDebugEnabled()).isFalse();
+  }
+
   // ========== MULTI-CLIENT TESTING ==========
 
   @Test
@@ -246,7 +269,12 @@ class ApiIntegrationTests {
   @Test
   void testMembershipCreation() {
     // Test POST /api/memberships/create
-    String membershipJson = "{\"orgId\":\"org123\",\"userId\":\"user456\",\"status\":\"ACTIVE\"}";
+    String membershipJson =
+        "{\"orgId\":\""
+            + UUID.randomUUID()
+            + "\",\"userId\":\""
+            + UUID.randomUUID()
+            + "\",\"status\":\"ACTIVE\"}";
     HttpEntity<String> membershipEntity = new HttpEntity<>(membershipJson, headers);
 
     ResponseEntity<String> createResponse =
@@ -254,6 +282,107 @@ class ApiIntegrationTests {
     assertThat(createResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
   }
 
+  @Test
+  void testMembershipCreationWithMalformedIds() {
+    String membershipJson = "{\"orgId\":\"org123\",\"userId\":\"user456\",\"status\":\"ACTIVE\"}";
+    HttpEntity<String> membershipEntity = new HttpEntity<>(membershipJson, headers);
+
+    ResponseEntity<String> createResponse =
+        restTemplate.postForEntity(baseUrl + "/api/memberships", membershipEntity, String.class);
+    assertThat(createResponse.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+  }
+
+  @Test
+  void testMembershipLookupCacheIsInvalidatedOnWrite() throws Exception {
+    String ownerId = registerUser("cache-owner");
+    String memberId = registerUser("cache-member");
+    String orgId = createOrganization("Cache Org " + System.nanoTime(), ownerId);
+    String membershipUrl = baseUrl + "/api/memberships/" + orgId + "/" + memberId;
+
+    // The negative lookup is cached ...
+    assertThat(restTemplate.getForObject(membershipUrl + "/exists", String.class))
+        .isEqualTo("false");
+
+    // ... until the membership is created
+    String membershipJson =
+        "{\"orgId\":\"" + orgId + "\",\"userId\":\"" + memberId + "\",\"status\":\"INVITED\"}";
+    restTemplate.postForEntity(
+        baseUrl + "/api/memberships", new HttpEntity<>(membershipJson, headers), String.class);
+    assertThat(restTemplate.getForObject(membershipUrl + "/exists", String.class))
+        .isEqualTo("true");
+
+    // Status changes are visible straight away
+    restTemplate.put(
+        membershipUrl + "/status", new HttpEntity<>("{\"status\":\"ACTIVE\"}", headers));
+    JsonNode membership =
+        objectMapper.readTree(restTemplate.getForObject(membershipUrl, String.class));
+    assertThat(membership.get("status").asText()).isEqualTo("ACTIVE");
+
+    ResponseEntity<String> metrics =
+        restTemplate.getForEntity(baseUrl + "/actuator/metrics/cache.gets", String.class);
+    assertThat(metrics.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(metrics.getBody()).contains("membershipLookup");
+  }
+
+  @Test
+  void testOrganizationRosterSummary() throws Exception {
+    String ownerId = registerUser("roster-owner");
+    String memberId = registerUser("roster-member");
+    String orgId = createOrganization("Roster Org " + System.nanoTime(), ownerId);
+    String membershipJson =
+        "{\"orgId\":\"" + orgId + "\",\"userId\":\"" + memberId + "\",\"status\":\"INVITED\"}";
+    restTemplate.postForEntity(
+        baseUrl + "/api/memberships", new HttpEntity<>(membershipJson, headers), String.class);
+
+    ResponseEntity<String> response =
+        restTemplate.getForEntity(
+            baseUrl + "/api/organizations/" + orgId + "/roster-summary", String.class);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    JsonNode summary = objectMapper.readTree(response.getBody());
+    assertThat(summary.get("counts").get("ACTIVE").asLong()).isEqualTo(1);
+    assertThat(summary.get("counts").get("INVITED").asLong()).isEqualTo(1);
+    assertThat(summary.get("counts").get("SUSPENDED").asLong()).isZero();
+    assertThat(summary.get("totalMemberships").asLong()).isEqualTo(2);
+    assertThat(summary.get("newestJoinedAt").isNull()).isFalse();
+    assertThat(summary.get("creatorId").asText()).isEqualTo(ownerId);
+    assertThat(summary.get("creatorStatus").asText()).isEqualTo("ACTIVE");
+
+    ResponseEntity<String> missing =
+        restTemplate.getForEntity(
+            baseUrl + "/api/organizations/" + UUID.randomUUID() + "/roster-summary", String.class);
+    assertThat(missing.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+  }
+
+  @Test
+  void testOperationAndRepositoryMetricsAreRecorded() {
+    restTemplate.getForEntity(baseUrl + "/api/users/" + UUID.randomUUID(), String.class);
+    restTemplate.getForEntity(baseUrl + "/api/organizations/count", String.class);
+
+    ResponseEntity<String> controllerTimer =
+        restTemplate.getForEntity(
+            baseUrl + "/actuator/metrics/app.operations?tag=class:UserController", String.class);
+    assertThat(controllerTimer.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(controllerTimer.getBody()).contains("not_found");
+
+    ResponseEntity<String> serviceTimer =
+        restTemplate.getForEntity(
+            baseUrl + "/actuator/metrics/app.operations?tag=class:OrganizationService",
+            String.class);
+    assertThat(serviceTimer.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+    ResponseEntity<String> repositoryTimer =
+        restTemplate.getForEntity(
+            baseUrl + "/actuator/metrics/spring.data.repository.invocations", String.class);
+    assertThat(repositoryTimer.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(repositoryTimer.getBody()).contains("OrganizationRepository");
+
+    ResponseEntity<String> poolGauge =
+        restTemplate.getForEntity(
+            baseUrl + "/actuator/metrics/hikaricp.connections.active", String.class);
+    assertThat(poolGauge.getStatusCode()).isEqualTo(HttpStatus.OK);
+  }
+
   @Test
   void testMembershipInvalidData() {
     // Test POST /api/memberships/create with invalid data
@@ -265,6 +394,134 @@ class ApiIntegrationTests {
     assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
   }
 
+  // ========== PAGINATION ==========
+
+  @Test
+  void testUserPaginationWalksAllUsersOnce() throws Exception {
+    List<String> createdIds = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      String email = "page" + i + "-" + System.nanoTime() + "@example.com";
+      HttpEntity<UserRegistrationRequest> entity =
+          new HttpEntity<>(new UserRegistrationRequest(email, "Page User " + i), headers);
+      ResponseEntity<String> response =
+          restTemplate.postForEntity(baseUrl + "/api/users/register", entity, String.class);
+      createdIds.add(extractUserIdFromResponse(response.getBody()));
+    }
+
+    List<String> seenIds = new ArrayList<>();
+    String cursor = null;
+    do {
+      String url = baseUrl + "/api/users/page?limit=2";
+      if (cursor != null) {
+        url += "&cursor=" + cursor;
+      }
+      ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
+      assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+      JsonNode page = objectMapper.readTree(response.getBody());
+      assertThat(page.get("items").size()).isLessThanOrEqualTo(2);
+      page.get("items").forEach(item -> seenIds.add(item.get("id").asText()));
+      cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+    } while (cursor != null);
+
+    assertThat(seenIds).doesNotHaveDuplicates().containsAll(createdIds);
+  }
+
+  @Test
+  void testPaginationRejectsInvalidCursor() {
+    ResponseEntity<String> response =
+        restTemplate.getForEntity(baseUrl + "/api/memberships/page?cursor=bogus!", String.class);
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+  }
+
+  // ========== EXPORT ==========
+
+  @Test
+  void testExportUsersStreamsNdjson() throws Exception {
+    String email = "export-" + System.nanoTime() + "@example.com";
+    HttpEntity<UserRegistrationRequest> entity =
+        new HttpEntity<>(new UserRegistrationRequest(email, "Export User"), headers);
+    restTemplate.postForEntity(baseUrl + "/api/users/register", entity, String.class);
+
+    ResponseEntity<String> response =
+        restTemplate.getForEntity(baseUrl + "/api/export/users", String.class);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(response.getHeaders().getContentType().toString())
+        .startsWith("application/x-ndjson");
+    List<String> emails = new ArrayList<>();
+    for (String line : response.getBody().split("\n")) {
+      emails.add(objectMapper.readTree(line).get("email").asText());
+    }
+    assertThat(emails).contains(email);
+  }
+
+  @Test
+  void testExportUnknownEntityReturnsNotFound() {
+    ResponseEntity<String> response =
+        restTemplate.getForEntity(baseUrl + "/api/export/widgets", String.class);
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+  }
+
+  // ========== IMPORT ==========
+
+  @Test
+  void testImportUsersFromCsv() throws Exception {
+    String prefix = "import-" + System.nanoTime();
+    String registered = prefix + "-old@example.com";
+    restTemplate.postForEntity(
+        baseUrl + "/api/users/register",
+        new HttpEntity<>(new UserRegistrationRequest(registered, "Old User"), headers),
+        String.class);
+    String csv =
+        String.join(
+            "\n",
+            "email,displayName",
+            prefix + "-a@example.com,Alice",
+            prefix + "-b@example.com,\"Bravo, Bob\"",
+            "not-an-email,Nobody",
+            "",
+            prefix + "-A@example.com,Alice Again",
+            registered + ",Old User");
+
+    List<JsonNode> results = importUsers(csv, "text/csv");
+
+    assertThat(results).extracting(r -> r.get("line").asInt()).containsExactly(2, 3, 4, 6, 7);
+    assertThat(results)
+        .extracting(r -> r.get("outcome").asText())
+        .containsExactly("CREATED", "CREATED", "INVALID", "EXISTS", "EXISTS");
+    assertThat(results.get(0).get("id").asText()).isNotBlank();
+    assertThat(
+            restTemplate.getForObject(
+                baseUrl + "/api/users/exists?email=" + prefix + "-b@example.com", Boolean.class))
+        .isTrue();
+  }
+
+  @Test
+  void testImportUsersFromNdjson() throws Exception {
+    String email = "import-" + System.nanoTime() + "@example.com";
+    String ndjson = "{\"email\":\"" + email + "\",\"displayName\":\"Nadia\"}\n{\"email\":\n";
+
+    List<JsonNode> results = importUsers(ndjson, "application/x-ndjson");
+
+    assertThat(results)
+        .extracting(r -> r.get("outcome").asText())
+        .containsExactly("CREATED", "INVALID");
+    ResponseEntity<String> user =
+        restTemplate.getForEntity(
+            baseUrl + "/api/users/" + results.get(0).get("id").asText(), String.class);
+    assertThat(objectMapper.readTree(user.getBody()).get("email").asText()).isEqualTo(email);
+  }
+
+  @Test
+  void testImportUsersRejectsUnsupportedFormat() {
+    HttpHeaders jsonHeaders = new HttpHeaders();
+    jsonHeaders.set("Content-Type", "application/json");
+    ResponseEntity<String> response =
+        restTemplate.postForEntity(
+            baseUrl + "/api/users/import", new HttpEntity<>("[]", jsonHeaders), String.class);
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNSUPPORTED_MEDIA_TYPE);
+  }
+
   // ========== HEALTH API ENDPOINTS ==========
 
   @Test
@@ -292,6 +549,39 @@ class ApiIntegrationTests {
 
   // ========== HELPER METHODS ==========
 
+  private List<JsonNode> importUsers(String body, String contentType) throws Exception {
+    HttpHeaders importHeaders = new HttpHeaders();
+    importHeaders.set("Content-Type", contentType);
+    ResponseEntity<String> response =
+        restTemplate.postForEntity(
+            baseUrl + "/api/users/import", new HttpEntity<>(body, importHeaders), String.class);
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    List<JsonNode> results = new ArrayList<>();
+    for (String line : response.getBody().split("\n")) {
+      results.add(objectMapper.readTree(line));
+    }
+    return results;
+  }
+
+  private String registerUser(String prefix) {
+    String email = prefix + "-" + System.nanoTime() + "@example.com";
+    HttpEntity<UserRegistrationRequest> entity =
+        new HttpEntity<>(new UserRegistrationRequest(email, prefix), headers);
+    ResponseEntity<String> response =
+        restTemplate.postForEntity(baseUrl + "/api/users/register", entity, String.class);
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    return extractUserIdFromResponse(response.getBody());
+  }
+
+  private String createOrganization(String name, String creatorId) throws Exception {
+    String json = "{\"name\":\"" + name + "\",\"createdBy\":\"" + creatorId + "\"}";
+    ResponseEntity<String> response =
+        restTemplate.postForEntity(
+            baseUrl + "/api/organizations/create", new HttpEntity<>(json, headers), String.class);
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+    return objectMapper.readTree(response.getBody()).get("id").asText();
+  }
+
   private String extractUserIdFromResponse(String responseBody) {
     // Simple extraction - in real implementation, parse JSON properly
     if (responseBody != null && responseBody.contains("\"id\"")) {
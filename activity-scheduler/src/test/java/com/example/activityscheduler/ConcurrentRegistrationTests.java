@@ -0,0 +1,143 @@
+package com.example.activityscheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.activityscheduler.organization.repository.OrganizationRepository;
+import com.example.activityscheduler.user.dto.UserRegistrationRequest;
+import com.example.activityscheduler.user.model.User;
+import com.example.activityscheduler.user.repository.UserRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Races many requests that register the same email, or create an organization with the same name,
+ * and checks that exactly one wins while every other gets 409 Conflict rather than a server error.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestPropertySource(
+    properties = {
+      "spring.datasource.url="
+          + "jdbc:h2:mem:concurrentdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;LOCK_TIMEOUT=10000"
+    })
+class ConcurrentRegistrationTests {
+
+  private static final int CLIENTS = 16;
+  private static final int ROUNDS = 10;
+
+  @LocalServerPort private int port;
+
+  @Autowired private TestRestTemplate restTemplate;
+
+  @Autowired private UserRepository userRepository;
+
+  @Autowired private OrganizationRepository organizationRepository;
+
+  private ExecutorService executor;
+
+  @BeforeEach
+  void setUp() {
+    executor = Executors.newFixedThreadPool(CLIENTS);
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void concurrentRegistrationsOfOneEmailCreateOneUser() throws Exception {
+    for (int round = 0; round < ROUNDS; round++) {
+      String email = "race-" + round + "-" + UUID.randomUUID() + "@example.com";
+      HttpEntity<UserRegistrationRequest> request =
+          new HttpEntity<>(new UserRegistrationRequest(email, "Racer"), jsonHeaders());
+
+      List<HttpStatusCode> statuses =
+          race(
+              () ->
+                  restTemplate
+                      .postForEntity(url("/api/users/register"), request, String.class)
+                      .getStatusCode());
+
+      assertThat(statuses).as("round %d", round).containsOnly(HttpStatus.OK, HttpStatus.CONFLICT);
+      assertThat(statuses).filteredOn(HttpStatus.OK::equals).hasSize(1);
+      assertThat(userRepository.findByEmail(email)).isPresent();
+    }
+  }
+
+  @Test
+  void concurrentCreationsOfOneOrganizationNameCreateOneOrganization() throws Exception {
+    User creator =
+        userRepository.save(new User("creator-" + UUID.randomUUID() + "@example.com", "Creator"));
+    for (int round = 0; round < ROUNDS; round++) {
+      String name = "Race Org " + round + " " + UUID.randomUUID();
+      HttpEntity<String> request =
+          new HttpEntity<>(
+              "{\"name\":\"" + name + "\",\"createdBy\":\"" + creator.getId() + "\"}",
+              jsonHeaders());
+
+      List<HttpStatusCode> statuses =
+          race(
+              () ->
+                  restTemplate
+                      .postForEntity(url("/api/organizations/create"), request, String.class)
+                      .getStatusCode());
+
+      assertThat(statuses)
+          .as("round %d", round)
+          .containsOnly(HttpStatus.CREATED, HttpStatus.CONFLICT);
+      assertThat(statuses).filteredOn(HttpStatus.CREATED::equals).hasSize(1);
+      assertThat(organizationRepository.findByName(name)).isPresent();
+    }
+  }
+
+  /** Runs the request on every client at once and returns the status each one got. */
+  private List<HttpStatusCode> race(Supplier<HttpStatusCode> request) throws Exception {
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<HttpStatusCode>> futures = new ArrayList<>();
+    for (int i = 0; i < CLIENTS; i++) {
+      futures.add(
+          executor.submit(
+              () -> {
+                start.await();
+                return request.get();
+              }));
+    }
+    start.countDown();
+    List<HttpStatusCode> statuses = new ArrayList<>();
+    for (Future<HttpStatusCode> future : futures) {
+      statuses.add(future.get());
+    }
+    return statuses;
+  }
+
+  private String url(String path) {
+    return "http://localhost:" + port + path;
+  }
+
+  private static HttpHeaders jsonHeaders() {
+    HttpHeaders headers = new HttpHeaders();
+    headers.setContentType(MediaType.APPLICATION_JSON);
+    return headers;
+  }
+}
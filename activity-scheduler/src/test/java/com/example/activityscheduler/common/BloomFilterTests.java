@@ -0,0 +1,147 @@
+package com.example.activityscheduler.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.activityscheduler.common.bloom.BloomFilter;
+import com.example.activityscheduler.common.bloom.KeyExistenceFilter;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/** Unit tests for the Bloom filter and the existence filter built on it. */
+class BloomFilterTests {
+
+  @Test
+  void bloomFilter_hasNoFalseNegatives() {
+    BloomFilter filter = BloomFilter.create(10_000, 0.01);
+    for (int i = 0; i < 10_000; i++) {
+      filter.put("user" + i + "@example.com");
+    }
+
+    for (int i = 0; i < 10_000; i++) {
+      assertThat(filter.mightContain("user" + i + "@example.com")).isTrue();
+    }
+  }
+
+  @Test
+  void bloomFilter_falsePositiveRateIsNearTarget() {
+    BloomFilter filter = BloomFilter.create(10_000, 0.01);
+    for (int i = 0; i < 10_000; i++) {
+      filter.put("user" + i + "@example.com");
+    }
+
+    int falsePositives = 0;
+    for (int i = 0; i < 100_000; i++) {
+      if (filter.mightContain("other" + i + "@example.com")) {
+        falsePositives++;
+      }
+    }
+    assertThat(falsePositives).isLessThan(2_000);
+  }
+
+  @Test
+  void bloomFilter_rejectsInvalidSizing() {
+    assertThatThrownBy(() -> BloomFilter.create(0, 0.01))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> BloomFilter.create(100, 1.0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void existenceFilter_answersMaybeUntilBuilt() {
+    ListFilter filter = new ListFilter(Duration.ofMinutes(5));
+
+    assertThat(filter.isReady()).isFalse();
+    assertThat(filter.mightExist("anything")).isTrue();
+
+    filter.rebuild();
+
+    assertThat(filter.isReady()).isTrue();
+    assertThat(filter.mightExist("anything")).isFalse();
+  }
+
+  @Test
+  void existenceFilter_comparesLikeTheDatabase() {
+    ListFilter filter = new ListFilter(Duration.ofMinutes(5));
+    filter.keys.add("Alice@Example.com");
+    filter.rebuild();
+
+    assertThat(filter.mightExist("alice@example.com")).isTrue();
+    assertThat(filter.mightExist("ALICE@EXAMPLE.COM  ")).isTrue();
+    // Non-ASCII values are never answered from the filter
+    assertThat(filter.mightExist("alicé@example.com")).isTrue();
+  }
+
+  @Test
+  void existenceFilter_rebuildDropsDeletedKeysAndKeepsRecentAdds() {
+    ListFilter filter = new ListFilter(Duration.ofMinutes(5));
+    filter.keys.add("deleted@example.com");
+    filter.rebuild();
+    assertThat(filter.mightExist("deleted@example.com")).isTrue();
+
+    // Added but not yet visible to the scan, as if its transaction had not committed
+    filter.add("new@example.com");
+    filter.keys.clear();
+    filter.rebuild();
+
+    assertThat(filter.mightExist("deleted@example.com")).isFalse();
+    assertThat(filter.mightExist("new@example.com")).isTrue();
+  }
+
+  @Test
+  void existenceFilter_keepsPreviousFilterWhenScanFails() {
+    ListFilter filter = new ListFilter(Duration.ofMinutes(5));
+    filter.keys.add("kept@example.com");
+    filter.rebuild();
+
+    filter.fail = true;
+    filter.rebuild();
+
+    assertThat(filter.mightExist("kept@example.com")).isTrue();
+    assertThat(filter.mightExist("other@example.com")).isFalse();
+  }
+
+  @Test
+  void existenceFilter_answersMaybeOnceStale() {
+    ListFilter filter = new ListFilter(Duration.ofMinutes(5), Duration.ZERO);
+    filter.rebuild();
+
+    assertThat(filter.isReady()).isTrue();
+    // Another instance may have inserted it since the scan
+    assertThat(filter.mightExist("elsewhere@example.com")).isTrue();
+  }
+
+  /** Existence filter over an in-memory list of keys. */
+  private static final class ListFilter extends KeyExistenceFilter {
+
+    private final List<String> keys = new ArrayList<>();
+    private boolean fail;
+
+    ListFilter(Duration pendingGrace) {
+      this(pendingGrace, Duration.ofHours(1));
+    }
+
+    ListFilter(Duration pendingGrace, Duration maxStaleness) {
+      super(
+          "test", 0.01, pendingGrace, maxStaleness, Mockito.mock(PlatformTransactionManager.class));
+    }
+
+    @Override
+    protected long countKeys() {
+      return keys.size();
+    }
+
+    @Override
+    protected Stream<String> streamKeys() {
+      if (fail) {
+        throw new IllegalStateException("database unavailable");
+      }
+      return new ArrayList<>(keys).stream();
+    }
+  }
+}
@@ -0,0 +1,117 @@
+package com.example.activityscheduler.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.activityscheduler.common.sql.SqlStatementCounter;
+import com.example.activityscheduler.user.model.User;
+import com.example.activityscheduler.user.repository.UserRepository;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+/**
+ * Checks the SQL each create endpoint sends for the entity it creates. Users, organizations and
+ * memberships carry their ID from construction, so a save that merged instead of persisting would
+ * show up here as a SELECT by ID before the INSERT.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestPropertySource(
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:insertdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+      // Keeps the filter scans of the users and organizations tables out of the recording
+      "bloom-filter.initial-delay=PT1H"
+    })
+class EntityInsertStatementTests {
+
+  @LocalServerPort private int port;
+
+  @Autowired private TestRestTemplate restTemplate;
+
+  @Autowired private UserRepository userRepository;
+
+  @MockitoSpyBean private SqlStatementCounter counter;
+
+  @BeforeEach
+  void setUp() {
+    Mockito.clearInvocations(counter);
+  }
+
+  @Test
+  void registrationInsertsTheUserOnly() {
+    Map<String, String> request =
+        Map.of("email", "insert-" + UUID.randomUUID() + "@example.com", "displayName", "Insert");
+
+    ResponseEntity<String> response = post("/api/users/register", request);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    List<String> statements = statementsOn("users");
+    assertThat(statements).hasSize(1);
+    assertThat(statements.get(0)).startsWithIgnoringCase("insert");
+  }
+
+  @Test
+  void organizationCreationInsertsTheOrganizationAndMembershipOnce() {
+    User creator =
+        userRepository.save(new User("creator-" + UUID.randomUUID() + "@example.com", "Creator"));
+    Mockito.clearInvocations(counter);
+    Map<String, String> request =
+        Map.of("name", "Insert Org " + UUID.randomUUID(), "createdBy", creator.getId().toString());
+
+    ResponseEntity<String> response = post("/api/organizations/create", request);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+    List<String> organizationStatements = statementsOn("organizations");
+    assertThat(organizationStatements).hasSize(1);
+    assertThat(organizationStatements.get(0)).startsWithIgnoringCase("insert");
+    assertCreatedMembership();
+  }
+
+  @Test
+  void membershipCreationInsertsTheMembershipOnce() {
+    String orgId = UUID.randomUUID().toString();
+    String userId = UUID.randomUUID().toString();
+    Map<String, String> request = Map.of("orgId", orgId, "userId", userId, "status", "ACTIVE");
+
+    ResponseEntity<String> response = post("/api/memberships", request);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertCreatedMembership();
+  }
+
+  /** Checks that creating one membership ran its existence check and one INSERT, nothing more. */
+  private void assertCreatedMembership() {
+    List<String> statements = statementsOn("memberships");
+    assertThat(statements).hasSize(2);
+    assertThat(statements.get(0)).startsWithIgnoringCase("select");
+    assertThat(statements.get(1)).startsWithIgnoringCase("insert");
+  }
+
+  private ResponseEntity<String> post(String path, Object body) {
+    return restTemplate.postForEntity("http://localhost:" + port + path, body, String.class);
+  }
+
+  /** Returns the statements Hibernate prepared since the last reset that touch the given table. */
+  private List<String> statementsOn(String table) {
+    Pattern touches =
+        Pattern.compile("\\b(from|into|update)\\s+" + table + "\\b", Pattern.CASE_INSENSITIVE);
+    return Mockito.mockingDetails(counter).getInvocations().stream()
+        .filter(invocation -> invocation.getMethod().getName().equals("inspect"))
+        .map(invocation -> invocation.<String>getArgument(0))
+        .filter(sql -> touches.matcher(sql).find())
+        .toList();
+  }
+}
@@ -0,0 +1,119 @@
+package com.example.activityscheduler.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.activityscheduler.common.metrics.OperationMetricsPostProcessor;
+import com.example.activityscheduler.common.metrics.OperationTimingInterceptor;
+import com.example.activityscheduler.common.metrics.TimedOperations;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+class OperationMetricsTests {
+
+  private SimpleMeterRegistry registry;
+  private SampleOperations operations;
+
+  /** Stand-in for a service whose operations are timed. */
+  @TimedOperations
+  public static class SampleOperations {
+
+    public Optional<String> find(boolean present) {
+      return present ? Optional.of("value") : Optional.empty();
+    }
+
+    public ResponseEntity<String> respond(HttpStatus status) {
+      return ResponseEntity.status(status).build();
+    }
+
+    public void fail(RuntimeException e) {
+      throw e;
+    }
+
+    public String work() {
+      return "done";
+    }
+  }
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+    OperationMetricsPostProcessor postProcessor = new OperationMetricsPostProcessor(() -> registry);
+    operations =
+        (SampleOperations)
+            postProcessor.postProcessAfterInitialization(new SampleOperations(), "sample");
+  }
+
+  @Test
+  void optionalResults_areTaggedFoundOrNotFound() {
+    operations.find(true);
+    operations.find(false);
+    operations.find(false);
+
+    assertThat(timer("find", "found").count()).isEqualTo(1);
+    assertThat(timer("find", "not_found").count()).isEqualTo(2);
+  }
+
+  @Test
+  void responseStatuses_areTaggedByStatus() {
+    operations.respond(HttpStatus.OK);
+    operations.respond(HttpStatus.NOT_FOUND);
+    operations.respond(HttpStatus.CONFLICT);
+    operations.respond(HttpStatus.BAD_REQUEST);
+
+    assertThat(timer("respond", "success").count()).isEqualTo(1);
+    assertThat(timer("respond", "not_found").count()).isEqualTo(1);
+    assertThat(timer("respond", "conflict").count()).isEqualTo(1);
+    assertThat(timer("respond", "bad_request").count()).isEqualTo(1);
+  }
+
+  @Test
+  void exceptions_areTaggedAndRethrown() {
+    assertThatThrownBy(() -> operations.fail(new IllegalArgumentException("bad")))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> operations.fail(new IllegalStateException("Membership not found")))
+        .isInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(() -> operations.fail(new IllegalStateException("already exists")))
+        .isInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(() -> operations.fail(new ResponseStatusException(HttpStatus.CONFLICT)))
+        .isInstanceOf(ResponseStatusException.class);
+    assertThatThrownBy(() -> operations.fail(new UnsupportedOperationException()))
+        .isInstanceOf(UnsupportedOperationException.class);
+
+    assertThat(timer("fail", "bad_request").count()).isEqualTo(1);
+    assertThat(timer("fail", "not_found").count()).isEqualTo(1);
+    assertThat(timer("fail", "conflict").count()).isEqualTo(2);
+    assertThat(timer("fail", "error").count()).isEqualTo(1);
+  }
+
+  @Test
+  void timers_areTaggedWithClassAndMethod() {
+    operations.work();
+
+    Timer timer = timer("work", "success");
+    assertThat(timer.count()).isEqualTo(1);
+    assertThat(timer.getId().getTag("class")).isEqualTo("SampleOperations");
+  }
+
+  @Test
+  void inheritedMethods_areNotTimed() {
+    operations.toString();
+
+    assertThat(registry.find(OperationTimingInterceptor.METRIC).tag("method", "toString").timer())
+        .isNull();
+  }
+
+  private Timer timer(String method, String outcome) {
+    return registry
+        .get(OperationTimingInterceptor.METRIC)
+        .tag("method", method)
+        .tag("outcome", outcome)
+        .timer();
+  }
+}
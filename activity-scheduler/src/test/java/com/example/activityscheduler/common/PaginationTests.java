@@ -0,0 +1,77 @@
+package com.example.activityscheduler.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.activityscheduler.common.pagination.CursorCodec;
+import com.example.activityscheduler.common.pagination.CursorPage;
+import com.example.activityscheduler.common.pagination.PageLimits;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+
+/** Unit tests for the keyset pagination helpers. */
+class PaginationTests {
+
+  @Test
+  void cursorCodec_roundTripsParts() {
+    String cursor = CursorCodec.encode("org-123", "user-456");
+
+    assertThat(cursor).doesNotContain("org-123");
+    assertThat(CursorCodec.decode(cursor, 2)).containsExactly("org-123", "user-456");
+  }
+
+  @Test
+  void cursorCodec_wrongPartCount_throwsException() {
+    String cursor = CursorCodec.encode("only-one");
+
+    assertThatThrownBy(() -> CursorCodec.decode(cursor, 2))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Invalid cursor");
+  }
+
+  @Test
+  void cursorCodec_notBase64_throwsException() {
+    assertThatThrownBy(() -> CursorCodec.decode("not a cursor!", 2))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Invalid cursor");
+  }
+
+  @Test
+  void cursorCodec_parsesTimestamp() {
+    LocalDateTime time = LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123456000);
+
+    assertThat(CursorCodec.parseTimestamp(time.toString())).isEqualTo(time);
+    assertThatThrownBy(() -> CursorCodec.parseTimestamp("yesterday"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void pageLimits_appliesDefaultAndMaximum() {
+    assertThat(PageLimits.resolve(null)).isEqualTo(PageLimits.DEFAULT_LIMIT);
+    assertThat(PageLimits.resolve(10)).isEqualTo(10);
+    assertThat(PageLimits.resolve(PageLimits.MAX_LIMIT + 1)).isEqualTo(PageLimits.MAX_LIMIT);
+    assertThatThrownBy(() -> PageLimits.resolve(0)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void cursorPage_lastPage_hasNoCursor() {
+    CursorPage<String> page =
+        CursorPage.of(new SliceImpl<>(List.of("a", "b"), PageRequest.of(0, 2), false), s -> s);
+
+    assertThat(page.getItems()).containsExactly("a", "b");
+    assertThat(page.getNextCursor()).isNull();
+    assertThat(page.isHasMore()).isFalse();
+  }
+
+  @Test
+  void cursorPage_moreAvailable_usesLastItemAsCursor() {
+    CursorPage<String> page =
+        CursorPage.of(new SliceImpl<>(List.of("a", "b"), PageRequest.of(0, 2), true), s -> s);
+
+    assertThat(page.getNextCursor()).isEqualTo("b");
+    assertThat(page.isHasMore()).isTrue();
+  }
+}
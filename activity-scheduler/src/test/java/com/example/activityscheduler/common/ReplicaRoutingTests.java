@@ -0,0 +1,212 @@
+package com.example.activityscheduler.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.activityscheduler.common.datasource.ReadYourWrites;
+import com.example.activityscheduler.common.datasource.ReadYourWritesFilter;
+import com.example.activityscheduler.common.datasource.ReplicaDataSource;
+import com.example.activityscheduler.common.datasource.ReplicaRoutingConfig;
+import com.example.activityscheduler.membership.model.Membership;
+import com.example.activityscheduler.membership.model.MembershipStatus;
+import com.example.activityscheduler.membership.repository.MembershipRepository;
+import com.example.activityscheduler.membership.service.MembershipCounters;
+import com.example.activityscheduler.membership.service.MembershipLookupCache;
+import com.example.activityscheduler.membership.service.MembershipService;
+import com.example.activityscheduler.membership.shard.MembershipShardingConfig;
+import com.example.activityscheduler.membership.shard.MembershipShards;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.sql.DataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Tests of read-replica routing against two H2 databases, each of which knows its own name, so
+ * that every query shows which database answered it.
+ */
+class ReplicaRoutingTests {
+
+  private static final Duration WINDOW = Duration.ofSeconds(5);
+
+  private final DataSource primary = h2("replica-routing-primary");
+  private final DataSource replica = h2("replica-routing-replica");
+  private final AtomicLong clock = new AtomicLong();
+  private final ReadYourWrites readYourWrites = new ReadYourWrites(WINDOW, 1_000, clock::get);
+
+  private ReplicaDataSource replicaDataSource;
+  private DataSourceTransactionManager transactionManager;
+  private TransactionTemplate readOnly;
+  private TransactionTemplate readWrite;
+  private JdbcTemplate jdbcTemplate;
+
+  @BeforeEach
+  void setUp() {
+    for (DataSource dataSource : List.of(primary, replica)) {
+      JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+      jdbc.execute("DROP TABLE IF EXISTS node");
+      jdbc.execute("CREATE TABLE node (name VARCHAR(20))");
+      jdbc.update("INSERT INTO node VALUES (?)", dataSource == primary ? "primary" : "replica");
+    }
+    new JdbcTemplate(replica).execute("DROP TABLE IF EXISTS replica_lag");
+    new JdbcTemplate(replica).execute("CREATE TABLE replica_lag (seconds INT)");
+    new JdbcTemplate(replica).update("INSERT INTO replica_lag VALUES (0)");
+    use(List.of(replica), "SELECT seconds FROM replica_lag");
+  }
+
+  /** Builds the routing data source over the given replicas, as the application wires it. */
+  private void use(List<DataSource> replicas, String lagQuery) {
+    replicaDataSource =
+        new ReplicaDataSource(primary, replicas, readYourWrites, lagQuery, Duration.ofSeconds(2));
+    LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+    dataSource.setReadOnlyDataSource(replicaDataSource);
+    transactionManager = new DataSourceTransactionManager(dataSource);
+    readOnly = new TransactionTemplate(transactionManager);
+    readOnly.setReadOnly(true);
+    readWrite = new TransactionTemplate(transactionManager);
+    jdbcTemplate = new JdbcTemplate(dataSource);
+  }
+
+  private String readOnlyNode() {
+    return readOnly.execute(
+        status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+  }
+
+  private String readWriteNode() {
+    return readWrite.execute(
+        status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+  }
+
+  @Test
+  void readOnlyTransactions_goToTheReplica() {
+    assertThat(readOnlyNode()).isEqualTo("replica");
+    assertThat(readWriteNode()).isEqualTo("primary");
+  }
+
+  @Test
+  void clientThatWrote_readsFromThePrimaryDuringTheWindow() throws Exception {
+    ReadYourWritesFilter filter = new ReadYourWritesFilter(readYourWrites);
+
+    assertThat(handle(filter, "POST", "alice")).isEqualTo("primary");
+    assertThat(handle(filter, "GET", "alice")).isEqualTo("primary");
+    assertThat(handle(filter, "GET", "bob")).isEqualTo("replica");
+
+    clock.addAndGet(WINDOW.toNanos() + 1);
+    assertThat(handle(filter, "GET", "alice")).isEqualTo("replica");
+    assertThat(readYourWrites.isPinned()).isFalse();
+  }
+
+  /** Runs a read-only transaction inside a request of the given client and returns its node. */
+  private String handle(ReadYourWritesFilter filter, String method, String client)
+      throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/memberships");
+    request.addHeader(ReadYourWritesFilter.CLIENT_HEADER, client);
+    AtomicReference<String> node = new AtomicReference<>();
+    FilterChain chain = (servletRequest, servletResponse) -> node.set(readOnlyNode());
+    filter.doFilter(request, new MockHttpServletResponse(), chain);
+    return node.get();
+  }
+
+  @Test
+  void laggingReplica_isSkippedUntilItCatchesUp() {
+    new JdbcTemplate(replica).update("UPDATE replica_lag SET seconds = 30");
+    assertThat(replicaDataSource.checkReplicas()).isZero();
+    assertThat(readOnlyNode()).isEqualTo("primary");
+
+    new JdbcTemplate(replica).update("UPDATE replica_lag SET seconds = 1");
+    assertThat(replicaDataSource.checkReplicas()).isEqualTo(1);
+    assertThat(readOnlyNode()).isEqualTo("replica");
+  }
+
+  @Test
+  void unreachableReplica_fallsBackToTheNextReplicaAndThePrimary() {
+    // Nothing listens on port 1, so every connection is refused
+    JdbcDataSource down = new JdbcDataSource();
+    down.setURL("jdbc:h2:tcp://localhost:1/mem:replica-routing-missing");
+    use(List.of(down, replica), "");
+
+    assertThat(readOnlyNode()).isEqualTo("replica");
+    assertThat(readOnlyNode()).isEqualTo("replica");
+    assertThat(replicaDataSource.availableReplicas()).isEqualTo(1);
+
+    use(List.of(down), "");
+    assertThat(readOnlyNode()).isEqualTo("primary");
+    assertThat(replicaDataSource.checkReplicas()).isZero();
+  }
+
+  @Test
+  void membershipLookupCache_loadsMissesFromThePrimary() {
+    // The replica has not applied the suspension the primary committed yet
+    UUID orgId = UUID.randomUUID();
+    UUID userId = UUID.randomUUID();
+    for (DataSource dataSource : List.of(primary, replica)) {
+      JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+      jdbc.execute("DROP TABLE IF EXISTS member");
+      jdbc.execute("CREATE TABLE member (status VARCHAR(20))");
+      jdbc.update("INSERT INTO member VALUES (?)", dataSource == primary ? "SUSPENDED" : "ACTIVE");
+    }
+    MembershipRepository repository = Mockito.mock(MembershipRepository.class);
+    Mockito.when(repository.findByOrgIdAndUserId(orgId, userId))
+        .thenAnswer(
+            invocation -> {
+              String status =
+                  jdbcTemplate.queryForObject("SELECT status FROM member", String.class);
+              return Optional.of(new Membership(orgId, userId, MembershipStatus.valueOf(status)));
+            });
+    MembershipService service =
+        new MembershipService(
+            repository,
+            new MembershipLookupCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry()),
+            Mockito.mock(MembershipCounters.class),
+            new MembershipShards(List.of(), transactionManager));
+
+    assertThat(readOnlyNode()).isEqualTo("replica");
+    Optional<Membership> membership = service.getMembership(orgId.toString(), userId.toString());
+
+    assertThat(membership).map(Membership::getStatus).contains(MembershipStatus.SUSPENDED);
+  }
+
+  @Test
+  void replicasWithSharding_failAtStartupWithAClearMessage() {
+    ApplicationContextRunner runner =
+        new ApplicationContextRunner()
+            .withBean(DataSourceProperties.class)
+            .withPropertyValues(
+                "datasource.replica.urls=jdbc:h2:mem:replica-routing-replica",
+                "membership.sharding.urls=jdbc:h2:mem:replica-routing-shard");
+
+    runner
+        .withUserConfiguration(ReplicaRoutingConfig.class)
+        .run(context -> assertThat(context).doesNotHaveBean(ReplicaDataSource.class));
+    runner
+        .withUserConfiguration(ReplicaRoutingConfig.class, MembershipShardingConfig.class)
+        .run(
+            context ->
+                assertThat(context)
+                    .getFailure()
+                    .rootCause()
+                    .hasMessageContaining("cannot both be set"));
+  }
+
+  private static DataSource h2(String name) {
+    JdbcDataSource dataSource = new JdbcDataSource();
+    dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+    dataSource.setUser("sa");
+    return dataSource;
+  }
+}
@@ -0,0 +1,194 @@
+package com.example.activityscheduler.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.activityscheduler.common.sql.SqlStatementCountFilter;
+import com.example.activityscheduler.membership.model.Membership;
+import com.example.activityscheduler.membership.model.MembershipStatus;
+import com.example.activityscheduler.membership.repository.MembershipRepository;
+import com.example.activityscheduler.organization.model.Organization;
+import com.example.activityscheduler.organization.repository.OrganizationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Checks that each endpoint stays within its SQL statement budget. A failure here usually means a
+ * change added a repeated or N+1 query.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestPropertySource(
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:budgetdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+      "spring.datasource.driver-class-name=org.h2.Driver",
+      "spring.datasource.username=sa",
+      "spring.datasource.password=",
+      "spring.jpa.hibernate.ddl-auto=create-drop"
+    })
+class SqlStatementBudgetTests {
+
+  private static final UUID ORG_ID = UUID.fromString("0b5e3a7c-9d1f-4c2e-8a6b-3f4e5d6c7b8a");
+  private static final UUID USER_ID = UUID.fromString("e2d4f6a8-1b3c-4d5e-9f7a-8b9c0d1e2f3a");
+
+  @LocalServerPort private int port;
+
+  @Autowired private TestRestTemplate restTemplate;
+
+  @Autowired private MembershipRepository membershipRepository;
+
+  @Autowired private OrganizationRepository organizationRepository;
+
+  @Autowired private MeterRegistry meterRegistry;
+
+  @BeforeEach
+  void setUp() {
+    if (!membershipRepository.existsByOrgIdAndUserId(ORG_ID, USER_ID)) {
+      membershipRepository.save(new Membership(ORG_ID, USER_ID, MembershipStatus.ACTIVE));
+    }
+  }
+
+  static Stream<Arguments> budgets() {
+    return Stream.of(
+        Arguments.of("/api/memberships", 1),
+        Arguments.of("/api/memberships/" + ORG_ID + "/" + USER_ID, 1),
+        Arguments.of("/api/memberships/organization/" + ORG_ID, 1),
+        Arguments.of("/api/memberships/user/" + USER_ID, 1),
+        Arguments.of("/api/memberships/status/ACTIVE", 1),
+        Arguments.of("/api/memberships/" + ORG_ID + "/" + USER_ID + "/exists", 1),
+        Arguments.of("/api/memberships/organization/" + ORG_ID + "/active-count", 1),
+        Arguments.of("/api/memberships/user/" + USER_ID + "/count", 1),
+        Arguments.of("/api/memberships/page", 1),
+        Arguments.of("/api/organizations", 1),
+        Arguments.of("/api/organizations/page", 1),
+        Arguments.of("/api/users/page", 1));
+  }
+
+  @ParameterizedTest(name = "GET {0} <= {1} statements")
+  @MethodSource("budgets")
+  void endpointStaysWithinStatementBudget(String path, int budget) {
+    ResponseEntity<String> response =
+        restTemplate.getForEntity("http://localhost:" + port + path, String.class);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(statementCount(response)).isLessThanOrEqualTo(budget);
+  }
+
+  @Test
+  void batchMembershipCreationStaysWithinStatementBudget() {
+    UUID orgId = UUID.randomUUID();
+    List<Map<String, String>> items = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      items.add(Map.of("orgId", orgId.toString(), "userId", UUID.randomUUID().toString()));
+    }
+
+    ResponseEntity<String> response =
+        restTemplate.postForEntity(
+            "http://localhost:" + port + "/api/memberships/batch", items, String.class);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(membershipRepository.findByOrgId(orgId)).hasSize(50);
+    // One existence query and one batched insert for the memberships. For each counter table, one
+    // query for missing counters, one batched insert of them, one locking read and one batched
+    // update
+    assertThat(statementCount(response)).isLessThanOrEqualTo(10);
+  }
+
+  @Test
+  void rosterSummaryStaysWithinStatementBudget() {
+    Organization organization =
+        organizationRepository.save(new Organization(USER_ID, "Budget Org " + UUID.randomUUID()));
+
+    String path = "/api/organizations/" + organization.getId() + "/roster-summary";
+
+    ResponseEntity<String> response =
+        restTemplate.getForEntity("http://localhost:" + port + path, String.class);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    // The organization lookup and one grouped query over its memberships
+    assertThat(statementCount(response)).isLessThanOrEqualTo(2);
+  }
+
+  @Test
+  void registrationStaysWithinStatementBudget() {
+    Map<String, String> request =
+        Map.of("email", "budget-" + UUID.randomUUID() + "@example.com", "displayName", "Budget");
+
+    ResponseEntity<String> response =
+        restTemplate.postForEntity(
+            "http://localhost:" + port + "/api/users/register", request, String.class);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    // Only the insert: a taken email is reported by the unique index, not looked up first
+    assertThat(statementCount(response)).isLessThanOrEqualTo(1);
+  }
+
+  @Test
+  void statusChangeStaysWithinStatementBudget() {
+    String orgId = UUID.randomUUID().toString();
+    String userId = UUID.randomUUID().toString();
+    restTemplate.postForEntity(
+        "http://localhost:" + port + "/api/memberships",
+        Map.of("orgId", orgId, "userId", userId, "status", "ACTIVE"),
+        String.class);
+    // The first change away from ACTIVE creates the organization's SUSPENDED counter
+    changeStatus(orgId, userId, MembershipStatus.SUSPENDED);
+
+    ResponseEntity<String> response = changeStatus(orgId, userId, MembershipStatus.ACTIVE);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(response.getBody()).contains("\"createdAt\"").contains("\"version\"");
+    // One conditional UPDATE of the membership, one query for missing counters, one UPDATE of the
+    // two counters and one read of the membership for the response. The user and organization are
+    // not looked up.
+    assertThat(statementCount(response)).isLessThanOrEqualTo(4);
+  }
+
+  @Test
+  void statementCountIsRecordedAsMetric() {
+    restTemplate.getForEntity(
+        "http://localhost:" + port + "/api/memberships/organization/" + ORG_ID, String.class);
+
+    assertThat(
+            meterRegistry
+                .get(SqlStatementCountFilter.METRIC)
+                .tag("uri", "/api/memberships/organization/{orgId}")
+                .tag("method", "GET")
+                .summary()
+                .count())
+        .isPositive();
+  }
+
+  private ResponseEntity<String> changeStatus(
+      String orgId, String userId, MembershipStatus status) {
+    return restTemplate.exchange(
+        "http://localhost:" + port + "/api/memberships/" + orgId + "/" + userId + "/status",
+        HttpMethod.PUT,
+        new HttpEntity<>(Map.of("status", status)),
+        String.class);
+  }
+
+  private static long statementCount(ResponseEntity<?> response) {
+    String header = response.getHeaders().getFirst(SqlStatementCountFilter.HEADER);
+    assertThat(header).as("statement count header").isNotNull();
+    return Long.parseLong(header);
+  }
+}
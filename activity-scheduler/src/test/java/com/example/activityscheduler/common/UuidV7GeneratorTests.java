@@ -0,0 +1,105 @@
+package com.example.activityscheduler.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.activityscheduler.common.id.UuidV7Generator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for the time-ordered UUID generator. */
+class UuidV7GeneratorTests {
+
+  private static final long NOW = 1_760_000_000_000L;
+
+  @Test
+  void next_producesVersion7WithTimestampAndNode() {
+    UuidV7Generator generator = new UuidV7Generator(0xabcd, () -> NOW);
+
+    UUID id = generator.next();
+
+    assertThat(id.version()).isEqualTo(7);
+    assertThat(id.variant()).isEqualTo(2);
+    assertThat(UuidV7Generator.timestamp(id)).isEqualTo(NOW);
+    assertThat((id.getLeastSignificantBits() >>> 46) & 0xffff).isEqualTo(0xabcd);
+  }
+
+  @Test
+  void next_isStrictlyIncreasingWithinOneMillisecond() {
+    UuidV7Generator generator = new UuidV7Generator(1, () -> NOW);
+
+    UUID previous = generator.next();
+    for (int i = 0; i < 20_000; i++) {
+      UUID id = generator.next();
+      assertThat(id).isGreaterThan(previous);
+      previous = id;
+    }
+    // More IDs than the counter holds borrow the following milliseconds
+    assertThat(UuidV7Generator.timestamp(previous)).isGreaterThan(NOW);
+  }
+
+  @Test
+  void next_staysIncreasingWhenClockGoesBackwards() {
+    AtomicLong clock = new AtomicLong(NOW);
+    UuidV7Generator generator = new UuidV7Generator(1, clock::get);
+
+    UUID before = generator.next();
+    clock.set(NOW - 5_000);
+    UUID after = generator.next();
+
+    assertThat(after).isGreaterThan(before);
+    assertThat(UuidV7Generator.timestamp(after)).isEqualTo(NOW);
+  }
+
+  @Test
+  void next_followsTheClock() {
+    AtomicLong clock = new AtomicLong(NOW);
+    UuidV7Generator generator = new UuidV7Generator(1, clock::get);
+
+    generator.next();
+    clock.set(NOW + 1_000);
+
+    assertThat(UuidV7Generator.timestamp(generator.next())).isEqualTo(NOW + 1_000);
+  }
+
+  @Test
+  void next_isUniqueAcrossThreads() throws Exception {
+    UuidV7Generator generator = new UuidV7Generator(1, () -> NOW);
+    Set<UUID> ids = ConcurrentHashMap.newKeySet();
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < 8; t++) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  for (int i = 0; i < 10_000; i++) {
+                    ids.add(generator.next());
+                  }
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(ids).hasSize(80_000);
+  }
+
+  @Test
+  void constructor_rejectsNodeOutOfRange() {
+    assertThatThrownBy(() -> new UuidV7Generator(UuidV7Generator.MAX_NODE + 1))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new UuidV7Generator(-1)).isInstanceOf(IllegalArgumentException.class);
+  }
+}
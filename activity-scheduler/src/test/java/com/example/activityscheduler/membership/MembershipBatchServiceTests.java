@@ -0,0 +1,178 @@
+package com.example.activityscheduler.membership;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.activityscheduler.membership.dto.MembershipBatchItem;
+import com.example.activityscheduler.membership.dto.MembershipBatchResult;
+import com.example.activityscheduler.membership.dto.MembershipBatchResult.Outcome;
+import com.example.activityscheduler.membership.model.Membership;
+import com.example.activityscheduler.membership.model.MembershipId;
+import com.example.activityscheduler.membership.model.MembershipStatus;
+import com.example.activityscheduler.membership.repository.MembershipRepository;
+import com.example.activityscheduler.membership.service.MembershipBatchService;
+import com.example.activityscheduler.membership.service.MembershipCounters;
+import com.example.activityscheduler.membership.service.MembershipLookupCache;
+import com.example.activityscheduler.membership.shard.MembershipShards;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class MembershipBatchServiceTests {
+
+  private static final UUID ORG_ID = UUID.fromString("7c3e1f2a-5b1d-4c8e-9f0a-1b2c3d4e5f60");
+  private static final UUID USER_1 = UUID.fromString("00000000-0000-4000-8000-000000000001");
+  private static final UUID USER_2 = UUID.fromString("00000000-0000-4000-8000-000000000002");
+  private static final UUID USER_3 = UUID.fromString("00000000-0000-4000-8000-000000000003");
+
+  private MembershipRepository mockRepository;
+  private EntityManager mockEntityManager;
+  private MembershipCounters mockCounters;
+  private MembershipLookupCache lookupCache;
+  private MembershipBatchService batchService;
+
+  @BeforeEach
+  void setUp() {
+    mockRepository = mock(MembershipRepository.class);
+    mockEntityManager = mock(EntityManager.class);
+    mockCounters = mock(MembershipCounters.class);
+    lookupCache = new MembershipLookupCache(1000, Duration.ofMinutes(1), new SimpleMeterRegistry());
+    batchService =
+        new MembershipBatchService(
+            mockRepository,
+            lookupCache,
+            mockCounters,
+            mockEntityManager,
+            MembershipShards.single(),
+            5,
+            2);
+    when(mockRepository.findIdsByOrgIdInAndUserIdIn(anyCollection(), anyCollection()))
+        .thenReturn(List.of());
+  }
+
+  @Test
+  void createMemberships_newMemberships_persistsInChunks() {
+    List<MembershipBatchItem> items =
+        List.of(
+            item(ORG_ID, USER_1, MembershipStatus.ACTIVE),
+            item(ORG_ID, USER_2, MembershipStatus.INVITED),
+            item(ORG_ID, USER_3, null));
+
+    List<MembershipBatchResult> results = batchService.createMemberships(items);
+
+    assertThat(results).extracting(MembershipBatchResult::getOutcome).containsOnly(Outcome.CREATED);
+    assertThat(results).extracting(MembershipBatchResult::getIndex).containsExactly(0, 1, 2);
+    // One existence query, one flush and one clear per chunk of two
+    verify(mockRepository, times(2)).findIdsByOrgIdInAndUserIdIn(anyCollection(), anyCollection());
+    verify(mockEntityManager, times(2)).flush();
+    verify(mockEntityManager, times(2)).clear();
+    ArgumentCaptor<Membership> persisted = ArgumentCaptor.forClass(Membership.class);
+    verify(mockEntityManager, times(3)).persist(persisted.capture());
+    assertThat(persisted.getAllValues())
+        .extracting(Membership::getStatus)
+        .containsExactly(
+            MembershipStatus.ACTIVE, MembershipStatus.INVITED, MembershipStatus.ACTIVE);
+    // The counters are adjusted once, for every membership of the batch
+    verify(mockCounters, times(1)).added(persisted.getAllValues());
+    verify(mockRepository, never()).existsByOrgIdAndUserId(any(), any());
+    verify(mockRepository, never()).save(any());
+  }
+
+  @Test
+  void createMemberships_existingMembership_reportsExists() {
+    when(mockRepository.findIdsByOrgIdInAndUserIdIn(anyCollection(), anyCollection()))
+        .thenReturn(List.of(new MembershipId(ORG_ID, USER_1), new MembershipId(USER_3, USER_2)));
+
+    List<MembershipBatchResult> results =
+        batchService.createMemberships(
+            List.of(item(ORG_ID, USER_1, null), item(ORG_ID, USER_2, null)));
+
+    assertThat(results)
+        .extracting(MembershipBatchResult::getOutcome)
+        .containsExactly(Outcome.EXISTS, Outcome.CREATED);
+    verify(mockEntityManager, times(1)).persist(any(Membership.class));
+    verify(mockCounters)
+        .added(
+            argThat(
+                counted ->
+                    counted.size() == 1 && counted.iterator().next().getUserId().equals(USER_2)));
+  }
+
+  @Test
+  void createMemberships_repeatedItem_reportsExists() {
+    List<MembershipBatchResult> results =
+        batchService.createMemberships(
+            List.of(
+                item(ORG_ID, USER_1, null),
+                item(ORG_ID, USER_2, null),
+                item(ORG_ID, USER_1, null)));
+
+    assertThat(results)
+        .extracting(MembershipBatchResult::getOutcome)
+        .containsExactly(Outcome.CREATED, Outcome.CREATED, Outcome.EXISTS);
+    verify(mockEntityManager, times(2)).persist(any(Membership.class));
+  }
+
+  @Test
+  void createMemberships_invalidItems_reportsInvalidAndContinues() {
+    List<MembershipBatchItem> items = new ArrayList<>();
+    items.add(new MembershipBatchItem("not-a-uuid", USER_1.toString(), null));
+    items.add(new MembershipBatchItem(ORG_ID.toString(), null, null));
+    items.add(null);
+    items.add(item(ORG_ID, USER_2, null));
+
+    List<MembershipBatchResult> results = batchService.createMemberships(items);
+
+    assertThat(results)
+        .extracting(MembershipBatchResult::getOutcome)
+        .containsExactly(Outcome.INVALID, Outcome.INVALID, Outcome.INVALID, Outcome.CREATED);
+    assertThat(results.get(0).getOrgId()).isEqualTo("not-a-uuid");
+    // The first chunk holds only invalid items and needs no query
+    verify(mockRepository, times(1)).findIdsByOrgIdInAndUserIdIn(anyCollection(), anyCollection());
+  }
+
+  @Test
+  void createMemberships_invalidatesCachedLookups() {
+    when(mockRepository.findByOrgIdAndUserId(ORG_ID, USER_1)).thenReturn(Optional.empty());
+    lookupCache.get(ORG_ID, USER_1, () -> mockRepository.findByOrgIdAndUserId(ORG_ID, USER_1));
+
+    batchService.createMemberships(List.of(item(ORG_ID, USER_1, MembershipStatus.ACTIVE)));
+
+    Membership stored = new Membership(ORG_ID, USER_1, MembershipStatus.ACTIVE);
+    assertThat(lookupCache.get(ORG_ID, USER_1, () -> Optional.of(stored))).contains(stored);
+  }
+
+  @Test
+  void createMemberships_emptyOrTooLarge_throwsException() {
+    assertThatThrownBy(() -> batchService.createMemberships(List.of()))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> batchService.createMemberships(null))
+        .isInstanceOf(IllegalArgumentException.class);
+    List<MembershipBatchItem> tooMany = Collections.nCopies(6, item(ORG_ID, USER_1, null));
+    assertThatThrownBy(() -> batchService.createMemberships(tooMany))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("5");
+    verify(mockEntityManager, never()).persist(any());
+    verify(mockCounters, never()).added(any());
+  }
+
+  private static MembershipBatchItem item(UUID orgId, UUID userId, MembershipStatus status) {
+    return new MembershipBatchItem(orgId.toString(), userId.toString(), status);
+  }
+}
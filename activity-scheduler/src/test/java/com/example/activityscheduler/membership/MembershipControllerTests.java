@@ -4,27 +4,44 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import com.example.activityscheduler.membership.controller.MembershipController;
 import com.example.activityscheduler.membership.controller.MembershipController.MembershipRequest;
 import com.example.activityscheduler.membership.controller.MembershipController.StatusUpdateRequest;
+import com.example.activityscheduler.membership.dto.MembershipBatchItem;
+import com.example.activityscheduler.membership.dto.MembershipBatchResult;
+import com.example.activityscheduler.membership.dto.MembershipBatchResult.Outcome;
 import com.example.activityscheduler.membership.model.Membership;
+import com.example.activityscheduler.membership.model.MembershipRosterVersion;
 import com.example.activityscheduler.membership.model.MembershipStatus;
+import com.example.activityscheduler.membership.service.MembershipBatchService;
 import com.example.activityscheduler.membership.service.MembershipService;
 import com.example.activityscheduler.organization.repository.OrganizationRepository;
 import com.example.activityscheduler.user.repository.UserRepository;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.server.ResponseStatusException;
 
 class MembershipControllerTests {
 
+  private static final UUID ORG_ID = UUID.fromString("7c3e1f2a-5b1d-4c8e-9f0a-1b2c3d4e5f60");
+  private static final UUID USER_ID = UUID.fromString("0a1b2c3d-4e5f-4a6b-8c7d-9e0f1a2b3c4d");
+  private static final UUID MISSING_ID = UUID.fromString("f0e1d2c3-b4a5-4968-8776-655443322110");
+
   private MembershipService mockService;
+  private MembershipBatchService mockBatchService;
   private UserRepository mockUserRepository;
   private OrganizationRepository mockOrgRepository;
   private MembershipController controller;
@@ -32,17 +49,20 @@ class MembershipControllerTests {
   @BeforeEach
   void setUp() {
     mockService = mock(MembershipService.class);
+    mockBatchService = mock(MembershipBatchService.class);
     mockUserRepository = mock(UserRepository.class);
     mockOrgRepository = mock(OrganizationRepository.class);
-    controller = new MembershipController(mockService, mockUserRepository, mockOrgRepository);
+    controller =
+        new MembershipController(
+            mockService, mockBatchService, mockUserRepository, mockOrgRepository);
   }
 
   @Test
   void getAllMemberships_returnsAllMemberships() {
     List<Membership> memberships =
         Arrays.asList(
-            new Membership("org1", "user1", MembershipStatus.ACTIVE),
-            new Membership("org2", "user2", MembershipStatus.INVITED));
+            new Membership(UUID.randomUUID(), UUID.randomUUID(), MembershipStatus.ACTIVE),
+            new Membership(UUID.randomUUID(), UUID.randomUUID(), MembershipStatus.INVITED));
     when(mockService.getAllMemberships()).thenReturn(memberships);
 
     List<Membership> result = controller.getAllMemberships();
@@ -52,51 +72,104 @@ class MembershipControllerTests {
   }
 
   @Test
-  void getMembership_existingMembership_returnsMembership() {
-    String orgId = "org-123";
-    String userId = "user-456";
-    Membership membership = new Membership(orgId, userId, MembershipStatus.ACTIVE);
+  void getMembership_existingMembership_returnsMembershipWithETag() {
+    String orgId = ORG_ID.toString();
+    String userId = USER_ID.toString();
+    Membership membership = new Membership(ORG_ID, USER_ID, MembershipStatus.ACTIVE);
+    membership.setVersion(2L);
+    when(mockService.getMembership(orgId, userId)).thenReturn(Optional.of(membership));
+
+    ResponseEntity<Membership> result = controller.getMembership(orgId, userId, null);
+
+    assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(result.getBody()).isEqualTo(membership);
+    assertThat(result.getHeaders().getETag()).isEqualTo("\"2\"");
+  }
+
+  @Test
+  void getMembership_unchangedSinceETag_returnsNotModified() {
+    String orgId = ORG_ID.toString();
+    String userId = USER_ID.toString();
+    Membership membership = new Membership(ORG_ID, USER_ID, MembershipStatus.ACTIVE);
+    membership.setVersion(2L);
     when(mockService.getMembership(orgId, userId)).thenReturn(Optional.of(membership));
 
-    Optional<Membership> result = controller.getMembership(orgId, userId);
+    ResponseEntity<Membership> unchanged = controller.getMembership(orgId, userId, "W/\"2\"");
+    ResponseEntity<Membership> changed = controller.getMembership(orgId, userId, "\"1\"");
 
-    assertThat(result).isPresent();
-    assertThat(result.get()).isEqualTo(membership);
+    assertThat(unchanged.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    assertThat(unchanged.getHeaders().getETag()).isEqualTo("\"2\"");
+    assertThat(unchanged.getBody()).isNull();
+    assertThat(changed.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(changed.getBody()).isEqualTo(membership);
   }
 
   @Test
-  void getMembership_nonExistentMembership_returnsEmpty() {
-    String orgId = "org-123";
-    String userId = "user-456";
+  void getMembership_nonExistentMembership_returnsNotFound() {
+    String orgId = ORG_ID.toString();
+    String userId = USER_ID.toString();
     when(mockService.getMembership(orgId, userId)).thenReturn(Optional.empty());
 
-    Optional<Membership> result = controller.getMembership(orgId, userId);
+    ResponseEntity<Membership> result = controller.getMembership(orgId, userId, null);
 
-    assertThat(result).isEmpty();
+    assertThat(result.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
   }
 
   @Test
   void getMembershipsByOrganization_returnsMemberships() {
-    String orgId = "org-123";
+    String orgId = ORG_ID.toString();
     List<Membership> memberships =
         Arrays.asList(
-            new Membership(orgId, "user1", MembershipStatus.ACTIVE),
-            new Membership(orgId, "user2", MembershipStatus.INVITED));
+            new Membership(ORG_ID, UUID.randomUUID(), MembershipStatus.ACTIVE),
+            new Membership(ORG_ID, UUID.randomUUID(), MembershipStatus.INVITED));
     when(mockService.getMembershipsByOrganization(orgId)).thenReturn(memberships);
 
-    List<Membership> result = controller.getMembershipsByOrganization(orgId);
+    List<Membership> result = controller.getMembershipsByOrganization(orgId, null).getBody();
 
     assertThat(result).hasSize(2);
     assertThat(result).containsExactlyElementsOf(memberships);
   }
 
+  @Test
+  void getMembershipsByOrganization_matchingETag_returnsNotModified() {
+    String orgId = ORG_ID.toString();
+    MembershipRosterVersion roster = new MembershipRosterVersion(2, 3, LocalDateTime.now());
+    when(mockService.getRosterVersion(orgId)).thenReturn(roster);
+
+    ResponseEntity<List<Membership>> response =
+        controller.getMembershipsByOrganization(orgId, "W/\"" + roster.tag() + "\"");
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    assertThat(response.getHeaders().getETag()).isEqualTo("W/\"" + roster.tag() + "\"");
+    verify(mockService, never()).getMembershipsByOrganization(orgId);
+  }
+
+  @Test
+  void getMembershipsByOrganization_staleETag_returnsMembershipsWithNewETag() {
+    String orgId = ORG_ID.toString();
+    Membership membership = new Membership(ORG_ID, USER_ID, MembershipStatus.ACTIVE);
+    membership.setVersion(1L);
+    List<Membership> memberships = List.of(membership);
+    when(mockService.getRosterVersion(orgId))
+        .thenReturn(new MembershipRosterVersion(1, 1, membership.getCreatedAt()));
+    when(mockService.getMembershipsByOrganization(orgId)).thenReturn(memberships);
+
+    ResponseEntity<List<Membership>> response =
+        controller.getMembershipsByOrganization(orgId, "W/\"0-0-0\"");
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(response.getBody()).containsExactly(membership);
+    assertThat(response.getHeaders().getETag())
+        .isEqualTo("W/\"" + MembershipRosterVersion.of(memberships).tag() + "\"");
+  }
+
   @Test
   void getMembershipsByUser_returnsMemberships() {
-    String userId = "user-456";
+    String userId = USER_ID.toString();
     List<Membership> memberships =
         Arrays.asList(
-            new Membership("org1", userId, MembershipStatus.ACTIVE),
-            new Membership("org2", userId, MembershipStatus.SUSPENDED));
+            new Membership(UUID.randomUUID(), USER_ID, MembershipStatus.ACTIVE),
+            new Membership(UUID.randomUUID(), USER_ID, MembershipStatus.SUSPENDED));
     when(mockService.getMembershipsByUser(userId)).thenReturn(memberships);
 
     List<Membership> result = controller.getMembershipsByUser(userId);
@@ -110,7 +183,8 @@ class MembershipControllerTests {
     MembershipStatus status = MembershipStatus.ACTIVE;
     List<Membership> memberships =
         Arrays.asList(
-            new Membership("org1", "user1", status), new Membership("org2", "user2", status));
+            new Membership(UUID.randomUUID(), UUID.randomUUID(), status),
+            new Membership(UUID.randomUUID(), UUID.randomUUID(), status));
     when(mockService.getMembershipsByStatus(status)).thenReturn(memberships);
 
     List<Membership> result = controller.getMembershipsByStatus(status);
@@ -121,8 +195,8 @@ class MembershipControllerTests {
 
   @Test
   void createMembership_validRequest_createsMembership() {
-    String orgId = "org-123";
-    String userId = "user-456";
+    String orgId = ORG_ID.toString();
+    String userId = USER_ID.toString();
     MembershipStatus status = MembershipStatus.ACTIVE;
 
     MembershipRequest request = new MembershipRequest();
@@ -130,7 +204,7 @@ class MembershipControllerTests {
     request.setUserId(userId);
     request.setStatus(status);
 
-    Membership membership = new Membership(orgId, userId, status);
+    Membership membership = new Membership(ORG_ID, USER_ID, status);
     when(mockService.createMembership(orgId, userId, status)).thenReturn(membership);
 
     Membership result = controller.createMembership(request);
@@ -151,7 +225,7 @@ class MembershipControllerTests {
   void createMembership_nullOrgId_throwsException() {
     MembershipRequest request = new MembershipRequest();
     request.setOrgId(null);
-    request.setUserId("user-456");
+    request.setUserId(USER_ID.toString());
 
     assertThat(
             org.junit.jupiter.api.Assertions.assertThrows(
@@ -162,7 +236,7 @@ class MembershipControllerTests {
   @Test
   void createMembership_nullUserId_throwsException() {
     MembershipRequest request = new MembershipRequest();
-    request.setOrgId("org-123");
+    request.setOrgId(ORG_ID.toString());
     request.setUserId(null);
 
     assertThat(
@@ -171,151 +245,169 @@ class MembershipControllerTests {
         .isNotNull();
   }
 
+  @Test
+  void createMemberships_validRequest_returnsResults() {
+    String orgId = ORG_ID.toString();
+    String userId = USER_ID.toString();
+    List<MembershipBatchItem> items =
+        List.of(new MembershipBatchItem(orgId, userId, MembershipStatus.ACTIVE));
+    List<MembershipBatchResult> results =
+        List.of(new MembershipBatchResult(0, orgId, userId, Outcome.CREATED, null));
+    when(mockBatchService.createMemberships(items)).thenReturn(results);
+
+    assertThat(controller.createMemberships(items)).isEqualTo(results);
+  }
+
+  @Test
+  void createMemberships_emptyRequest_returnsBadRequest() {
+    ResponseStatusException e =
+        assertThrows(ResponseStatusException.class, () -> controller.createMemberships(List.of()));
+
+    assertThat(e.getStatusCode().value()).isEqualTo(400);
+  }
+
+  @Test
+  void createMemberships_tooManyItems_returnsBadRequest() {
+    List<MembershipBatchItem> items =
+        List.of(new MembershipBatchItem(ORG_ID.toString(), USER_ID.toString(), null));
+    when(mockBatchService.createMemberships(items))
+        .thenThrow(new IllegalArgumentException("Membership batch cannot contain more than 0"));
+
+    ResponseStatusException e =
+        assertThrows(ResponseStatusException.class, () -> controller.createMemberships(items));
+
+    assertThat(e.getStatusCode().value()).isEqualTo(400);
+  }
+
   @Test
   void updateMembershipStatus_validRequest_updatesStatus() {
-    String orgId = "org-123";
-    String userId = "user-456";
+    String orgId = ORG_ID.toString();
+    String userId = USER_ID.toString();
     MembershipStatus newStatus = MembershipStatus.SUSPENDED;
 
     StatusUpdateRequest request = new StatusUpdateRequest();
     request.setStatus(newStatus);
 
-    // Mock the repository calls that the controller makes
-    when(mockUserRepository.findById(userId))
-        .thenReturn(
-            Optional.of(
-                new com.example.activityscheduler.user.model.User(
-                    "test@example.com", "Test User")));
-    when(mockOrgRepository.findById(orgId))
-        .thenReturn(
-            Optional.of(
-                new com.example.activityscheduler.organization.model.Organization(
-                    "Test Org", "user-123")));
-
-    Membership updatedMembership = new Membership(orgId, userId, newStatus);
+    Membership updatedMembership = new Membership(ORG_ID, USER_ID, newStatus);
     when(mockService.updateMembershipStatus(orgId, userId, newStatus))
         .thenReturn(updatedMembership);
 
-    Membership result = controller.updateMembershipStatus(orgId, userId, request);
+    Membership result = controller.updateMembershipStatus(orgId, userId, request, null);
 
     assertThat(result).isEqualTo(updatedMembership);
     verify(mockService).updateMembershipStatus(orgId, userId, newStatus);
+    verifyNoInteractions(mockUserRepository, mockOrgRepository);
+  }
+
+  @Test
+  void updateMembershipStatus_staleIfMatch_returnsPreconditionFailed() {
+    String orgId = ORG_ID.toString();
+    String userId = USER_ID.toString();
+    StatusUpdateRequest request = new StatusUpdateRequest();
+    request.setStatus(MembershipStatus.SUSPENDED);
+    when(mockService.updateMembershipStatus(orgId, userId, MembershipStatus.SUSPENDED, 2L))
+        .thenThrow(new OptimisticLockingFailureException("modified since version 2"));
+
+    ResponseStatusException exception =
+        assertThrows(
+            ResponseStatusException.class,
+            () -> controller.updateMembershipStatus(orgId, userId, request, "\"2\""));
+
+    assertThat(exception.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
   }
 
   @Test
   void updateMembershipStatus_nullRequest_throwsException() {
-    String orgId = "org-123";
-    String userId = "user-456";
+    String orgId = ORG_ID.toString();
+    String userId = USER_ID.toString();
 
     assertThat(
             org.junit.jupiter.api.Assertions.assertThrows(
                 ResponseStatusException.class,
-                () -> controller.updateMembershipStatus(orgId, userId, null)))
+                () -> controller.updateMembershipStatus(orgId, userId, null, null)))
         .isNotNull();
   }
 
   @Test
   void updateMembershipStatus_nullStatus_throwsException() {
-    String orgId = "org-123";
-    String userId = "user-456";
+    String orgId = ORG_ID.toString();
+    String userId = USER_ID.toString();
     StatusUpdateRequest request = new StatusUpdateRequest();
     request.setStatus(null);
 
     assertThat(
             org.junit.jupiter.api.Assertions.assertThrows(
                 ResponseStatusException.class,
-                () -> controller.updateMembershipStatus(orgId, userId, request)))
+                () -> controller.updateMembershipStatus(orgId, userId, request, null)))
         .isNotNull();
   }
 
   @Test
   void updateMembershipStatus_userNotFound_throwsException() {
-    String orgId = "org-123";
-    String userId = "nonexistent-user";
+    String orgId = ORG_ID.toString();
+    String userId = MISSING_ID.toString();
     MembershipStatus newStatus = MembershipStatus.SUSPENDED;
     StatusUpdateRequest request = new StatusUpdateRequest();
     request.setStatus(newStatus);
 
-    // Mock user not found
-    when(mockUserRepository.findById(userId)).thenReturn(Optional.empty());
+    when(mockService.updateMembershipStatus(orgId, userId, newStatus))
+        .thenThrow(new IllegalStateException("Membership not found"));
+    when(mockUserRepository.existsById(MISSING_ID)).thenReturn(false);
 
-    assertThat(
-            org.junit.jupiter.api.Assertions.assertThrows(
-                ResponseStatusException.class,
-                () -> controller.updateMembershipStatus(orgId, userId, request)))
-        .isNotNull();
+    ResponseStatusException exception =
+        assertThrows(
+            ResponseStatusException.class,
+            () -> controller.updateMembershipStatus(orgId, userId, request, null));
+
+    assertThat(exception.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    assertThat(exception.getReason()).isEqualTo("User not found");
   }
 
   @Test
   void updateMembershipStatus_organizationNotFound_throwsException() {
-    String orgId = "nonexistent-org";
-    String userId = "user-456";
+    String orgId = MISSING_ID.toString();
+    String userId = USER_ID.toString();
     MembershipStatus newStatus = MembershipStatus.SUSPENDED;
     StatusUpdateRequest request = new StatusUpdateRequest();
     request.setStatus(newStatus);
 
-    // Mock user exists but organization not found
-    when(mockUserRepository.findById(userId))
-        .thenReturn(
-            Optional.of(
-                new com.example.activityscheduler.user.model.User(
-                    "test@example.com", "Test User")));
-    when(mockOrgRepository.findById(orgId)).thenReturn(Optional.empty());
+    when(mockService.updateMembershipStatus(orgId, userId, newStatus))
+        .thenThrow(new IllegalStateException("Membership not found"));
+    when(mockUserRepository.existsById(USER_ID)).thenReturn(true);
+    when(mockOrgRepository.existsById(MISSING_ID)).thenReturn(false);
 
-    assertThat(
-            org.junit.jupiter.api.Assertions.assertThrows(
-                ResponseStatusException.class,
-                () -> controller.updateMembershipStatus(orgId, userId, request)))
-        .isNotNull();
+    ResponseStatusException exception =
+        assertThrows(
+            ResponseStatusException.class,
+            () -> controller.updateMembershipStatus(orgId, userId, request, null));
+
+    assertThat(exception.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    assertThat(exception.getReason()).isEqualTo("Organization not found");
   }
 
   @Test
   void updateMembershipStatus_invalidStatus_throwsException() {
-    String orgId = "org-123";
-    String userId = "user-456";
+    String orgId = ORG_ID.toString();
+    String userId = USER_ID.toString();
     MembershipStatus invalidStatus = MembershipStatus.INVITED; // INVITED is not allowed for updates
     StatusUpdateRequest request = new StatusUpdateRequest();
     request.setStatus(invalidStatus);
 
-    // Mock both user and organization exist
-    when(mockUserRepository.findById(userId))
-        .thenReturn(
-            Optional.of(
-                new com.example.activityscheduler.user.model.User(
-                    "test@example.com", "Test User")));
-    when(mockOrgRepository.findById(orgId))
-        .thenReturn(
-            Optional.of(
-                new com.example.activityscheduler.organization.model.Organization(
-                    "Test Org", "user-123")));
-
     assertThat(
             org.junit.jupiter.api.Assertions.assertThrows(
                 ResponseStatusException.class,
-                () -> controller.updateMembershipStatus(orgId, userId, request)))
+                () -> controller.updateMembershipStatus(orgId, userId, request, null)))
         .isNotNull();
   }
 
   @Test
   void updateMembershipStatus_serviceThrowsIllegalArgumentException_throwsBadRequest() {
-    String orgId = "org-123";
-    String userId = "user-456";
+    String orgId = ORG_ID.toString();
+    String userId = USER_ID.toString();
     MembershipStatus newStatus = MembershipStatus.SUSPENDED;
     StatusUpdateRequest request = new StatusUpdateRequest();
     request.setStatus(newStatus);
 
-    // Mock both user and organization exist
-    when(mockUserRepository.findById(userId))
-        .thenReturn(
-            Optional.of(
-                new com.example.activityscheduler.user.model.User(
-                    "test@example.com", "Test User")));
-    when(mockOrgRepository.findById(orgId))
-        .thenReturn(
-            Optional.of(
-                new com.example.activityscheduler.organization.model.Organization(
-                    "Test Org", "user-123")));
-
     // Mock service throws IllegalArgumentException
     when(mockService.updateMembershipStatus(orgId, userId, newStatus))
         .thenThrow(new IllegalArgumentException("Invalid membership data"));
@@ -323,45 +415,37 @@ class MembershipControllerTests {
     assertThat(
             org.junit.jupiter.api.Assertions.assertThrows(
                 ResponseStatusException.class,
-                () -> controller.updateMembershipStatus(orgId, userId, request)))
+                () -> controller.updateMembershipStatus(orgId, userId, request, null)))
         .isNotNull();
   }
 
   @Test
   void updateMembershipStatus_serviceThrowsIllegalStateException_throwsNotFound() {
-    String orgId = "org-123";
-    String userId = "user-456";
+    String orgId = ORG_ID.toString();
+    String userId = USER_ID.toString();
     MembershipStatus newStatus = MembershipStatus.SUSPENDED;
     StatusUpdateRequest request = new StatusUpdateRequest();
     request.setStatus(newStatus);
 
-    // Mock both user and organization exist
-    when(mockUserRepository.findById(userId))
-        .thenReturn(
-            Optional.of(
-                new com.example.activityscheduler.user.model.User(
-                    "test@example.com", "Test User")));
-    when(mockOrgRepository.findById(orgId))
-        .thenReturn(
-            Optional.of(
-                new com.example.activityscheduler.organization.model.Organization(
-                    "Test Org", "user-123")));
-
     // Mock service throws IllegalStateException
     when(mockService.updateMembershipStatus(orgId, userId, newStatus))
         .thenThrow(new IllegalStateException("Membership not found"));
+    when(mockUserRepository.existsById(USER_ID)).thenReturn(true);
+    when(mockOrgRepository.existsById(ORG_ID)).thenReturn(true);
 
-    assertThat(
-            org.junit.jupiter.api.Assertions.assertThrows(
-                ResponseStatusException.class,
-                () -> controller.updateMembershipStatus(orgId, userId, request)))
-        .isNotNull();
+    ResponseStatusException exception =
+        assertThrows(
+            ResponseStatusException.class,
+            () -> controller.updateMembershipStatus(orgId, userId, request, null));
+
+    assertThat(exception.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    assertThat(exception.getReason()).isEqualTo("Membership not found");
   }
 
   @Test
   void deleteMembership_validData_deletesMembership() {
-    String orgId = "org-123";
-    String userId = "user-456";
+    String orgId = ORG_ID.toString();
+    String userId = USER_ID.toString();
 
     controller.deleteMembership(orgId, userId);
 
@@ -370,8 +454,8 @@ class MembershipControllerTests {
 
   @Test
   void existsMembership_existingMembership_returnsTrue() {
-    String orgId = "org-123";
-    String userId = "user-456";
+    String orgId = ORG_ID.toString();
+    String userId = USER_ID.toString();
 
     when(mockService.existsMembership(orgId, userId)).thenReturn(true);
 
@@ -382,8 +466,8 @@ class MembershipControllerTests {
 
   @Test
   void existsMembership_nonExistentMembership_returnsFalse() {
-    String orgId = "org-123";
-    String userId = "user-456";
+    String orgId = ORG_ID.toString();
+    String userId = USER_ID.toString();
 
     when(mockService.existsMembership(orgId, userId)).thenReturn(false);
 
@@ -394,7 +478,7 @@ class MembershipControllerTests {
 
   @Test
   void countActiveMembers_returnsCount() {
-    String orgId = "org-123";
+    String orgId = ORG_ID.toString();
     long expectedCount = 5L;
 
     when(mockService.countActiveMembers(orgId)).thenReturn(expectedCount);
@@ -406,7 +490,7 @@ class MembershipControllerTests {
 
   @Test
   void countUserMemberships_returnsCount() {
-    String userId = "user-456";
+    String userId = USER_ID.toString();
     long expectedCount = 3L;
 
     when(mockService.countUserMemberships(userId)).thenReturn(expectedCount);
@@ -418,8 +502,8 @@ class MembershipControllerTests {
 
   @Test
   void createMembership_serviceThrowsIllegalArgumentException_throwsBadRequest() {
-    String orgId = "org-123";
-    String userId = "user-456";
+    String orgId = ORG_ID.toString();
+    String userId = USER_ID.toString();
     MembershipStatus status = MembershipStatus.ACTIVE;
 
     MembershipRequest request = new MembershipRequest();
@@ -439,8 +523,8 @@ class MembershipControllerTests {
 
   @Test
   void createMembership_serviceThrowsIllegalStateException_throwsConflict() {
-    String orgId = "org-123";
-    String userId = "user-456";
+    String orgId = ORG_ID.toString();
+    String userId = USER_ID.toString();
     MembershipStatus status = MembershipStatus.ACTIVE;
 
     MembershipRequest request = new MembershipRequest();
@@ -479,17 +563,17 @@ class MembershipControllerTests {
     String invalidOrgId = "";
     when(mockService.getMembershipsByOrganization(invalidOrgId)).thenReturn(Arrays.asList());
 
-    List<Membership> result = controller.getMembershipsByOrganization(invalidOrgId);
+    List<Membership> result = controller.getMembershipsByOrganization(invalidOrgId, null).getBody();
 
     assertThat(result).isEmpty();
   }
 
   @Test
   void getMembershipsByOrganization_emptyResults_returnsEmptyList() {
-    String orgId = "org-123";
+    String orgId = ORG_ID.toString();
     when(mockService.getMembershipsByOrganization(orgId)).thenReturn(Arrays.asList());
 
-    List<Membership> result = controller.getMembershipsByOrganization(orgId);
+    List<Membership> result = controller.getMembershipsByOrganization(orgId, null).getBody();
 
     assertThat(result).isEmpty();
   }
@@ -506,7 +590,7 @@ class MembershipControllerTests {
 
   @Test
   void getMembershipsByUser_emptyResults_returnsEmptyList() {
-    String userId = "user-456";
+    String userId = USER_ID.toString();
     when(mockService.getMembershipsByUser(userId)).thenReturn(Arrays.asList());
 
     List<Membership> result = controller.getMembershipsByUser(userId);
@@ -550,8 +634,8 @@ class MembershipControllerTests {
 
   @Test
   void deleteMembership_notFound_throwsException() {
-    String orgId = "org-123";
-    String userId = "user-456";
+    String orgId = ORG_ID.toString();
+    String userId = USER_ID.toString();
 
     doThrow(new IllegalStateException("Membership not found"))
         .when(mockService)
@@ -562,7 +646,7 @@ class MembershipControllerTests {
 
   @Test
   void countActiveMembers_zeroCount_returnsZero() {
-    String orgId = "org-123";
+    String orgId = ORG_ID.toString();
     long expectedCount = 0L;
 
     when(mockService.countActiveMembers(orgId)).thenReturn(expectedCount);
@@ -584,7 +668,7 @@ class MembershipControllerTests {
 
   @Test
   void countUserMemberships_zeroCount_returnsZero() {
-    String userId = "user-456";
+    String userId = USER_ID.toString();
     long expectedCount = 0L;
 
     when(mockService.countUserMemberships(userId)).thenReturn(expectedCount);
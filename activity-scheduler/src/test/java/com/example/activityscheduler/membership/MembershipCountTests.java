@@ -0,0 +1,92 @@
+package com.example.activityscheduler.membership;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.activityscheduler.membership.dto.MembershipBatchItem;
+import com.example.activityscheduler.membership.model.Membership;
+import com.example.activityscheduler.membership.model.MembershipId;
+import com.example.activityscheduler.membership.model.MembershipStatus;
+import com.example.activityscheduler.membership.repository.MembershipRepository;
+import com.example.activityscheduler.membership.service.MembershipBatchService;
+import com.example.activityscheduler.membership.service.MembershipCountReconciler;
+import com.example.activityscheduler.membership.service.MembershipService;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+/** Checks the membership counters against H2 as memberships change and drift. */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+@TestPropertySource(
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:countdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+      "membership.counts.reconcile-page-size=2"
+    })
+class MembershipCountTests {
+
+  @Autowired private MembershipService membershipService;
+
+  @Autowired private MembershipBatchService batchService;
+
+  @Autowired private MembershipCountReconciler reconciler;
+
+  @Autowired private MembershipRepository membershipRepository;
+
+  @Test
+  void countersFollowCreateUpdateAndDelete() {
+    String orgId = UUID.randomUUID().toString();
+    String user1 = UUID.randomUUID().toString();
+    String user2 = UUID.randomUUID().toString();
+
+    membershipService.createMembership(orgId, user1, MembershipStatus.ACTIVE);
+    membershipService.createMembership(orgId, user2, MembershipStatus.INVITED);
+    assertThat(membershipService.countActiveMembers(orgId)).isEqualTo(1);
+    assertThat(membershipService.countUserMemberships(user1)).isEqualTo(1);
+
+    membershipService.updateMembershipStatus(orgId, user2, MembershipStatus.ACTIVE);
+    assertThat(membershipService.countActiveMembers(orgId)).isEqualTo(2);
+
+    membershipService.deleteMembership(orgId, user1);
+    assertThat(membershipService.countActiveMembers(orgId)).isEqualTo(1);
+    assertThat(membershipService.countUserMemberships(user1)).isZero();
+    assertThat(membershipService.countUserMemberships(user2)).isEqualTo(1);
+  }
+
+  @Test
+  void batchCreationUpdatesCounters() {
+    String orgId = UUID.randomUUID().toString();
+    String userId = UUID.randomUUID().toString();
+
+    batchService.createMemberships(
+        List.of(
+            new MembershipBatchItem(orgId, userId, MembershipStatus.ACTIVE),
+            new MembershipBatchItem(orgId, UUID.randomUUID().toString(), MembershipStatus.ACTIVE),
+            new MembershipBatchItem(orgId, UUID.randomUUID().toString(), null)));
+
+    assertThat(membershipService.countActiveMembers(orgId)).isEqualTo(3);
+    assertThat(membershipService.countUserMemberships(userId)).isEqualTo(1);
+  }
+
+  @Test
+  void reconcilerRepairsDriftedCounters() {
+    UUID orgId = UUID.randomUUID();
+    UUID userId = UUID.randomUUID();
+    // Written behind the service's back, so no counter knows about it
+    membershipRepository.save(new Membership(orgId, userId, MembershipStatus.ACTIVE));
+    assertThat(membershipService.countActiveMembers(orgId.toString())).isZero();
+
+    assertThat(reconciler.reconcile()).isGreaterThanOrEqualTo(2);
+    assertThat(membershipService.countActiveMembers(orgId.toString())).isEqualTo(1);
+    assertThat(membershipService.countUserMemberships(userId.toString())).isEqualTo(1);
+
+    membershipRepository.deleteById(new MembershipId(orgId, userId));
+    assertThat(reconciler.reconcile()).isGreaterThanOrEqualTo(2);
+    assertThat(membershipService.countActiveMembers(orgId.toString())).isZero();
+    assertThat(membershipService.countUserMemberships(userId.toString())).isZero();
+    assertThat(reconciler.reconcile()).isZero();
+  }
+}
@@ -3,10 +3,17 @@ package com.example.activityscheduler.membership;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.example.activityscheduler.membership.model.MembershipId;
+import java.util.UUID;
 import org.junit.jupiter.api.Test;
 
 class MembershipIdTests {
 
+  private static final UUID ORG_A = UUID.fromString("7c3e1f2a-5b1d-4c8e-9f0a-1b2c3d4e5f60");
+  private static final UUID ORG_B = UUID.fromString("d4c3b2a1-0f9e-4d8c-b7a6-5f4e3d2c1b0a");
+  private static final UUID USER_A = UUID.fromString("0a1b2c3d-4e5f-4a6b-8c7d-9e0f1a2b3c4d");
+  private static final UUID USER_B = UUID.fromString("5e6f7a8b-9c0d-4e1f-a2b3-c4d5e6f7a8b9");
+  private static final UUID USER_C = UUID.fromString("9b8a7f6e-5d4c-4b3a-8f2e-1d0c9b8a7f6e");
+
   @Test
   void defaultConstructor_createsEmptyId() {
     MembershipId id = new MembershipId();
@@ -17,8 +24,8 @@ class MembershipIdTests {
 
   @Test
   void parameterizedConstructor_setsFields() {
-    String orgId = "org-123";
-    String userId = "user-456";
+    UUID orgId = ORG_A;
+    UUID userId = USER_A;
 
     MembershipId id = new MembershipId(orgId, userId);
 
@@ -29,8 +36,8 @@ class MembershipIdTests {
   @Test
   void setters_updateFields() {
     MembershipId id = new MembershipId();
-    String orgId = "org-789";
-    String userId = "user-101";
+    UUID orgId = ORG_B;
+    UUID userId = USER_C;
 
     id.setOrgId(orgId);
     id.setUserId(userId);
@@ -41,17 +48,17 @@ class MembershipIdTests {
 
   @Test
   void equals_sameValues_returnsTrue() {
-    MembershipId id1 = new MembershipId("org-123", "user-456");
-    MembershipId id2 = new MembershipId("org-123", "user-456");
+    MembershipId id1 = new MembershipId(ORG_A, USER_A);
+    MembershipId id2 = new MembershipId(ORG_A, USER_A);
 
     assertThat(id1).isEqualTo(id2);
   }
 
   @Test
   void equals_differentValues_returnsFalse() {
-    MembershipId id1 = new MembershipId("org-123", "user-456");
-    MembershipId id2 = new MembershipId("org-789", "user-456");
-    MembershipId id3 = new MembershipId("org-123", "user-789");
+    MembershipId id1 = new MembershipId(ORG_A, USER_A);
+    MembershipId id2 = new MembershipId(ORG_B, USER_A);
+    MembershipId id3 = new MembershipId(ORG_A, USER_B);
 
     assertThat(id1).isNotEqualTo(id2);
     assertThat(id1).isNotEqualTo(id3);
@@ -59,21 +66,21 @@ class MembershipIdTests {
 
   @Test
   void equals_sameInstance_returnsTrue() {
-    MembershipId id = new MembershipId("org-123", "user-456");
+    MembershipId id = new MembershipId(ORG_A, USER_A);
 
     assertThat(id).isEqualTo(id);
   }
 
   @Test
   void equals_null_returnsFalse() {
-    MembershipId id = new MembershipId("org-123", "user-456");
+    MembershipId id = new MembershipId(ORG_A, USER_A);
 
     assertThat(id).isNotEqualTo(null);
   }
 
   @Test
   void equals_differentClass_returnsFalse() {
-    MembershipId id = new MembershipId("org-123", "user-456");
+    MembershipId id = new MembershipId(ORG_A, USER_A);
     String other = "not-a-membership-id";
 
     assertThat(id).isNotEqualTo(other);
@@ -81,26 +88,26 @@ class MembershipIdTests {
 
   @Test
   void hashCode_sameValues_returnsSameHash() {
-    MembershipId id1 = new MembershipId("org-123", "user-456");
-    MembershipId id2 = new MembershipId("org-123", "user-456");
+    MembershipId id1 = new MembershipId(ORG_A, USER_A);
+    MembershipId id2 = new MembershipId(ORG_A, USER_A);
 
     assertThat(id1.hashCode()).isEqualTo(id2.hashCode());
   }
 
   @Test
   void hashCode_differentValues_returnsDifferentHash() {
-    MembershipId id1 = new MembershipId("org-123", "user-456");
-    MembershipId id2 = new MembershipId("org-789", "user-456");
+    MembershipId id1 = new MembershipId(ORG_A, USER_A);
+    MembershipId id2 = new MembershipId(ORG_B, USER_A);
 
     assertThat(id1.hashCode()).isNotEqualTo(id2.hashCode());
   }
 
   @Test
   void toString_containsBothIds() {
-    MembershipId id = new MembershipId("org-123", "user-456");
+    MembershipId id = new MembershipId(ORG_A, USER_A);
     String toString = id.toString();
 
-    assertThat(toString).contains("org-123");
-    assertThat(toString).contains("user-456");
+    assertThat(toString).contains(ORG_A.toString());
+    assertThat(toString).contains(USER_A.toString());
   }
 }
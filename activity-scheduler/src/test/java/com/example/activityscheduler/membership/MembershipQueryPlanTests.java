@@ -0,0 +1,207 @@
+package com.example.activityscheduler.membership;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.activityscheduler.membership.model.MembershipStatus;
+import com.example.activityscheduler.membership.repository.MembershipRepository;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Runs every filtering query of {@link MembershipRepository} against H2, then asks H2 for the plan
+ * of each SQL statement it sent, with the same parameter values. A query whose plan reads the
+ * whole memberships table is missing an index.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+@TestPropertySource(
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:plandb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+    })
+class MembershipQueryPlanTests {
+
+  private static final List<RecordedStatement> STATEMENTS = new CopyOnWriteArrayList<>();
+
+  @Autowired private MembershipRepository membershipRepository;
+
+  @Autowired private DataSource dataSource;
+
+  /** Wraps the data source so that the test sees the statements that queries execute. */
+  @TestConfiguration
+  static class RecordingConfig {
+
+    @Bean
+    static BeanPostProcessor recordingDataSourcePostProcessor() {
+      return new BeanPostProcessor() {
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+          return bean instanceof DataSource dataSource ? recording(dataSource) : bean;
+        }
+      };
+    }
+  }
+
+  /**
+   * Lists the repository methods that filter or seek, i.e. take a parameter other than paging.
+   * Unfiltered listings read the whole table by design.
+   */
+  static Stream<String> filteringQueries() {
+    return Arrays.stream(MembershipRepository.class.getDeclaredMethods())
+        .filter(m -> !m.isDefault() && !m.isSynthetic())
+        .filter(
+            m -> Arrays.stream(m.getParameterTypes()).anyMatch(t -> !Pageable.class.equals(t)))
+        .map(Method::getName)
+        .sorted();
+  }
+
+  @BeforeEach
+  void setUp() {
+    STATEMENTS.clear();
+  }
+
+  @ParameterizedTest
+  @MethodSource("filteringQueries")
+  void queryUsesAnIndex(String methodName) throws Exception {
+    Method method =
+        Arrays.stream(MembershipRepository.class.getDeclaredMethods())
+            .filter(m -> m.getName().equals(methodName))
+            .findFirst()
+            .orElseThrow();
+    Object[] args = Arrays.stream(method.getParameterTypes()).map(this::sampleValue).toArray();
+
+    method.invoke(membershipRepository, args);
+
+    List<RecordedStatement> queries =
+        STATEMENTS.stream()
+            .filter(s -> s.sql().toLowerCase().contains("from memberships"))
+            .toList();
+    assertThat(queries).as("SQL executed by " + methodName).isNotEmpty();
+    for (RecordedStatement query : queries) {
+      String plan = explain(query);
+      assertThat(plan).as("Plan of " + methodName).doesNotContainIgnoringCase("tableScan");
+    }
+  }
+
+  private Object sampleValue(Class<?> type) {
+    if (UUID.class.equals(type)) {
+      return UUID.randomUUID();
+    }
+    if (MembershipStatus.class.equals(type)) {
+      return MembershipStatus.ACTIVE;
+    }
+    if (Pageable.class.equals(type)) {
+      return PageRequest.of(0, 20);
+    }
+    if (LocalDateTime.class.equals(type)) {
+      return LocalDateTime.now();
+    }
+    if (Collection.class.isAssignableFrom(type)) {
+      // Every collection parameter of the repository holds IDs
+      return List.of(UUID.randomUUID(), UUID.randomUUID());
+    }
+    throw new IllegalArgumentException("No sample value for " + type);
+  }
+
+  /** Replays a recorded statement under EXPLAIN and returns the plan. */
+  private String explain(RecordedStatement statement) throws Exception {
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement explain = connection.prepareStatement("EXPLAIN " + statement.sql())) {
+      for (ParameterCall call : statement.parameters()) {
+        call.method().invoke(explain, call.args());
+      }
+      try (ResultSet plan = explain.executeQuery()) {
+        plan.next();
+        return plan.getString(1);
+      }
+    }
+  }
+
+  private static DataSource recording(DataSource target) {
+    return proxy(
+        DataSource.class,
+        target,
+        (method, args, result) ->
+            method.getName().equals("getConnection") ? recording((Connection) result) : result);
+  }
+
+  private static Connection recording(Connection target) {
+    return proxy(
+        Connection.class,
+        target,
+        (method, args, result) ->
+            method.getName().equals("prepareStatement")
+                ? recording((PreparedStatement) result, (String) args[0])
+                : result);
+  }
+
+  private static PreparedStatement recording(PreparedStatement target, String sql) {
+    List<ParameterCall> parameters = new ArrayList<>();
+    return (PreparedStatement)
+        Proxy.newProxyInstance(
+            MembershipQueryPlanTests.class.getClassLoader(),
+            new Class<?>[] {PreparedStatement.class},
+            (proxy, method, args) -> {
+              if (method.getName().startsWith("set")
+                  && args != null
+                  && args.length >= 2
+                  && args[0] instanceof Integer) {
+                parameters.add(new ParameterCall(method, args.clone()));
+              } else if (method.getName().startsWith("execute")
+                  && (args == null || args.length == 0)) {
+                STATEMENTS.add(new RecordedStatement(sql, List.copyOf(parameters)));
+              }
+              return invoke(target, method, args);
+            });
+  }
+
+  /** Creates a pass-through proxy whose results can be replaced. */
+  private static <T> T proxy(Class<T> type, T target, ResultMapper mapper) {
+    InvocationHandler handler =
+        (proxy, method, args) -> mapper.map(method, args, invoke(target, method, args));
+    return type.cast(
+        Proxy.newProxyInstance(
+            MembershipQueryPlanTests.class.getClassLoader(), new Class<?>[] {type}, handler));
+  }
+
+  private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+
+  private interface ResultMapper {
+    Object map(Method method, Object[] args, Object result) throws Throwable;
+  }
+
+  private record ParameterCall(Method method, Object[] args) {}
+
+  private record RecordedStatement(String sql, List<ParameterCall> parameters) {}
+}
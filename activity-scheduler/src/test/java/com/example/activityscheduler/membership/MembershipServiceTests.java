@@ -3,38 +3,65 @@ package com.example.activityscheduler.membership;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.example.activityscheduler.common.pagination.CursorCodec;
+import com.example.activityscheduler.common.pagination.CursorPage;
 import com.example.activityscheduler.membership.model.Membership;
 import com.example.activityscheduler.membership.model.MembershipId;
 import com.example.activityscheduler.membership.model.MembershipStatus;
 import com.example.activityscheduler.membership.repository.MembershipRepository;
+import com.example.activityscheduler.membership.service.MembershipCounters;
+import com.example.activityscheduler.membership.service.MembershipLookupCache;
 import com.example.activityscheduler.membership.service.MembershipService;
+import com.example.activityscheduler.membership.shard.MembershipShards;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 
 class MembershipServiceTests {
 
+  private static final UUID ORG_ID = UUID.fromString("7c3e1f2a-5b1d-4c8e-9f0a-1b2c3d4e5f60");
+  private static final UUID USER_ID = UUID.fromString("0a1b2c3d-4e5f-4a6b-8c7d-9e0f1a2b3c4d");
+  private static final UUID USER_1 = UUID.fromString("00000000-0000-4000-8000-000000000001");
+  private static final UUID USER_2 = UUID.fromString("00000000-0000-4000-8000-000000000002");
+  private static final UUID USER_3 = UUID.fromString("00000000-0000-4000-8000-000000000003");
+
   private MembershipRepository mockRepository;
+  private MembershipCounters mockCounters;
   private MembershipService membershipService;
 
   @BeforeEach
   void setUp() {
     mockRepository = mock(MembershipRepository.class);
-    membershipService = new MembershipService(mockRepository);
+    mockCounters = mock(MembershipCounters.class);
+    MembershipLookupCache lookupCache =
+        new MembershipLookupCache(1000, Duration.ofMinutes(1), new SimpleMeterRegistry());
+    membershipService =
+        new MembershipService(mockRepository, lookupCache, mockCounters, MembershipShards.single());
   }
 
   @Test
   void getAllMemberships_returnsAllMemberships() {
     List<Membership> memberships =
         Arrays.asList(
-            new Membership("org1", "user1", MembershipStatus.ACTIVE),
-            new Membership("org2", "user2", MembershipStatus.INVITED));
+            new Membership(UUID.randomUUID(), UUID.randomUUID(), MembershipStatus.ACTIVE),
+            new Membership(UUID.randomUUID(), UUID.randomUUID(), MembershipStatus.INVITED));
     when(mockRepository.findAll()).thenReturn(memberships);
 
     List<Membership> result = membershipService.getAllMemberships();
@@ -45,22 +72,23 @@ class MembershipServiceTests {
 
   @Test
   void getMembership_existingMembership_returnsMembership() {
-    String orgId = "org-123";
-    String userId = "user-456";
-    Membership membership = new Membership(orgId, userId, MembershipStatus.ACTIVE);
-    when(mockRepository.findByOrgIdAndUserId(orgId, userId)).thenReturn(Optional.of(membership));
+    String orgId = ORG_ID.toString();
+    String userId = USER_ID.toString();
+    Membership membership = new Membership(ORG_ID, USER_ID, MembershipStatus.ACTIVE);
+    when(mockRepository.findByOrgIdAndUserId(ORG_ID, USER_ID)).thenReturn(Optional.of(membership));
 
     Optional<Membership> result = membershipService.getMembership(orgId, userId);
 
     assertThat(result).isPresent();
     assertThat(result.get()).isEqualTo(membership);
+    verify(mockRepository).findByOrgIdAndUserId(ORG_ID, USER_ID);
   }
 
   @Test
   void getMembership_nonExistentMembership_returnsEmpty() {
-    String orgId = "org-123";
-    String userId = "user-456";
-    when(mockRepository.findByOrgIdAndUserId(orgId, userId)).thenReturn(Optional.empty());
+    String orgId = ORG_ID.toString();
+    String userId = USER_ID.toString();
+    when(mockRepository.findByOrgIdAndUserId(ORG_ID, USER_ID)).thenReturn(Optional.empty());
 
     Optional<Membership> result = membershipService.getMembership(orgId, userId);
 
@@ -69,12 +97,12 @@ class MembershipServiceTests {
 
   @Test
   void getMembershipsByOrganization_returnsMemberships() {
-    String orgId = "org-123";
+    String orgId = ORG_ID.toString();
     List<Membership> memberships =
         Arrays.asList(
-            new Membership(orgId, "user1", MembershipStatus.ACTIVE),
-            new Membership(orgId, "user2", MembershipStatus.INVITED));
-    when(mockRepository.findByOrgId(orgId)).thenReturn(memberships);
+            new Membership(ORG_ID, USER_1, MembershipStatus.ACTIVE),
+            new Membership(ORG_ID, USER_2, MembershipStatus.INVITED));
+    when(mockRepository.findByOrgId(ORG_ID)).thenReturn(memberships);
 
     List<Membership> result = membershipService.getMembershipsByOrganization(orgId);
 
@@ -84,12 +112,12 @@ class MembershipServiceTests {
 
   @Test
   void getMembershipsByUser_returnsMemberships() {
-    String userId = "user-456";
+    String userId = USER_ID.toString();
     List<Membership> memberships =
         Arrays.asList(
-            new Membership("org1", userId, MembershipStatus.ACTIVE),
-            new Membership("org2", userId, MembershipStatus.SUSPENDED));
-    when(mockRepository.findByUserId(userId)).thenReturn(memberships);
+            new Membership(UUID.randomUUID(), USER_ID, MembershipStatus.ACTIVE),
+            new Membership(UUID.randomUUID(), USER_ID, MembershipStatus.SUSPENDED));
+    when(mockRepository.findByUserId(USER_ID)).thenReturn(memberships);
 
     List<Membership> result = membershipService.getMembershipsByUser(userId);
 
@@ -102,7 +130,8 @@ class MembershipServiceTests {
     MembershipStatus status = MembershipStatus.ACTIVE;
     List<Membership> memberships =
         Arrays.asList(
-            new Membership("org1", "user1", status), new Membership("org2", "user2", status));
+            new Membership(UUID.randomUUID(), UUID.randomUUID(), status),
+            new Membership(UUID.randomUUID(), UUID.randomUUID(), status));
     when(mockRepository.findByStatus(status)).thenReturn(memberships);
 
     List<Membership> result = membershipService.getMembershipsByStatus(status);
@@ -111,26 +140,83 @@ class MembershipServiceTests {
     assertThat(result).containsExactlyElementsOf(memberships);
   }
 
+  @Test
+  void getMembershipsByOrganizationPage_firstPage_returnsCursorOfLastItem() {
+    String orgId = ORG_ID.toString();
+    List<Membership> memberships =
+        Arrays.asList(
+            new Membership(ORG_ID, USER_1, MembershipStatus.ACTIVE),
+            new Membership(ORG_ID, USER_2, MembershipStatus.INVITED));
+    when(mockRepository.findByOrgIdOrderByUserIdAsc(eq(ORG_ID), any()))
+        .thenReturn(new SliceImpl<>(memberships, PageRequest.of(0, 2), true));
+
+    CursorPage<Membership> page =
+        membershipService.getMembershipsByOrganizationPage(orgId, null, 2);
+
+    assertThat(page.getItems()).containsExactlyElementsOf(memberships);
+    assertThat(page.isHasMore()).isTrue();
+    assertThat(CursorCodec.decode(page.getNextCursor(), 2))
+        .containsExactly(orgId, USER_2.toString());
+  }
+
+  @Test
+  void getMembershipsByOrganizationPage_withCursor_continuesAfterUser() {
+    String orgId = ORG_ID.toString();
+    List<Membership> memberships = List.of(new Membership(ORG_ID, USER_3, MembershipStatus.ACTIVE));
+    when(mockRepository.findByOrgIdAndUserIdGreaterThanOrderByUserIdAsc(
+            eq(ORG_ID), eq(USER_2), any()))
+        .thenReturn(new SliceImpl<>(memberships, PageRequest.of(0, 2), false));
+
+    CursorPage<Membership> page =
+        membershipService.getMembershipsByOrganizationPage(
+            orgId, CursorCodec.encode(orgId, USER_2.toString()), 2);
+
+    assertThat(page.getItems()).containsExactlyElementsOf(memberships);
+    assertThat(page.getNextCursor()).isNull();
+  }
+
+  @Test
+  void getMembershipsByOrganizationPage_cursorOfAnotherOrganization_throwsException() {
+    String cursor = CursorCodec.encode(UUID.randomUUID().toString(), USER_2.toString());
+
+    assertThatThrownBy(
+            () -> membershipService.getMembershipsByOrganizationPage(ORG_ID.toString(), cursor, 2))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Invalid cursor");
+    verify(mockRepository, never())
+        .findByOrgIdAndUserIdGreaterThanOrderByUserIdAsc(any(), any(), any());
+  }
+
+  @Test
+  void getMembershipsPage_invalidCursor_throwsException() {
+    assertThatThrownBy(() -> membershipService.getMembershipsPage("garbage!", null))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Invalid cursor");
+  }
+
   @Test
   void createMembership_validData_createsMembership() {
-    String orgId = "org-123";
-    String userId = "user-456";
+    String orgId = ORG_ID.toString();
+    String userId = USER_ID.toString();
     MembershipStatus status = MembershipStatus.ACTIVE;
-    Membership membership = new Membership(orgId, userId, status);
+    Membership membership = new Membership(ORG_ID, USER_ID, status);
 
-    when(mockRepository.existsByOrgIdAndUserId(orgId, userId)).thenReturn(false);
+    when(mockRepository.existsByOrgIdAndUserId(ORG_ID, USER_ID)).thenReturn(false);
     when(mockRepository.save(any(Membership.class))).thenReturn(membership);
 
     Membership result = membershipService.createMembership(orgId, userId, status);
 
     assertThat(result).isEqualTo(membership);
     verify(mockRepository).save(any(Membership.class));
+    verify(mockCounters).added(List.of(membership));
   }
 
   @Test
   void createMembership_nullOrgId_throwsException() {
     assertThatThrownBy(
-            () -> membershipService.createMembership(null, "user-456", MembershipStatus.ACTIVE))
+            () ->
+                membershipService.createMembership(
+                    null, USER_ID.toString(), MembershipStatus.ACTIVE))
         .isInstanceOf(IllegalArgumentException.class)
         .hasMessage("Organization ID cannot be null or empty");
   }
@@ -138,7 +224,9 @@ class MembershipServiceTests {
   @Test
   void createMembership_emptyOrgId_throwsException() {
     assertThatThrownBy(
-            () -> membershipService.createMembership("", "user-456", MembershipStatus.ACTIVE))
+            () ->
+                membershipService.createMembership(
+                    "", USER_ID.toString(), MembershipStatus.ACTIVE))
         .isInstanceOf(IllegalArgumentException.class)
         .hasMessage("Organization ID cannot be null or empty");
   }
@@ -146,16 +234,28 @@ class MembershipServiceTests {
   @Test
   void createMembership_nullUserId_throwsException() {
     assertThatThrownBy(
-            () -> membershipService.createMembership("org-123", null, MembershipStatus.ACTIVE))
+            () ->
+                membershipService.createMembership(
+                    ORG_ID.toString(), null, MembershipStatus.ACTIVE))
         .isInstanceOf(IllegalArgumentException.class)
         .hasMessage("User ID cannot be null or empty");
   }
 
+  @Test
+  void createMembership_malformedOrgId_throwsException() {
+    assertThatThrownBy(
+            () ->
+                membershipService.createMembership(
+                    "org-123", USER_ID.toString(), MembershipStatus.ACTIVE))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Invalid organization ID: org-123");
+  }
+
   @Test
   void createMembership_existingMembership_throwsException() {
-    String orgId = "org-123";
-    String userId = "user-456";
-    when(mockRepository.existsByOrgIdAndUserId(orgId, userId)).thenReturn(true);
+    String orgId = ORG_ID.toString();
+    String userId = USER_ID.toString();
+    when(mockRepository.existsByOrgIdAndUserId(ORG_ID, USER_ID)).thenReturn(true);
 
     assertThatThrownBy(
             () -> membershipService.createMembership(orgId, userId, MembershipStatus.ACTIVE))
@@ -165,11 +265,11 @@ class MembershipServiceTests {
 
   @Test
   void createMembership_nullStatus_usesDefaultStatus() {
-    String orgId = "org-123";
-    String userId = "user-456";
-    Membership membership = new Membership(orgId, userId, MembershipStatus.ACTIVE);
+    String orgId = ORG_ID.toString();
+    String userId = USER_ID.toString();
+    Membership membership = new Membership(ORG_ID, USER_ID, MembershipStatus.ACTIVE);
 
-    when(mockRepository.existsByOrgIdAndUserId(orgId, userId)).thenReturn(false);
+    when(mockRepository.existsByOrgIdAndUserId(ORG_ID, USER_ID)).thenReturn(false);
     when(mockRepository.save(any(Membership.class))).thenReturn(membership);
 
     Membership result = membershipService.createMembership(orgId, userId, null);
@@ -179,29 +279,122 @@ class MembershipServiceTests {
   }
 
   @Test
-  void updateMembershipStatus_validData_updatesStatus() {
-    String orgId = "org-123";
-    String userId = "user-456";
+  void updateMembershipStatus_validData_updatesStatusAndReadsItBack() {
+    String orgId = ORG_ID.toString();
+    String userId = USER_ID.toString();
     MembershipStatus newStatus = MembershipStatus.SUSPENDED;
-    Membership membership = new Membership(orgId, userId, MembershipStatus.ACTIVE);
-    Membership updatedMembership = new Membership(orgId, userId, newStatus);
+    Membership updated = new Membership(ORG_ID, USER_ID, newStatus);
+    updated.setVersion(1L);
 
-    when(mockRepository.findByOrgIdAndUserId(orgId, userId)).thenReturn(Optional.of(membership));
-    when(mockRepository.save(any(Membership.class))).thenReturn(updatedMembership);
+    when(mockRepository.updateStatus(ORG_ID, USER_ID, MembershipStatus.ACTIVE, newStatus, null))
+        .thenReturn(1);
+    when(mockRepository.findByOrgIdAndUserId(ORG_ID, USER_ID)).thenReturn(Optional.of(updated));
 
     Membership result = membershipService.updateMembershipStatus(orgId, userId, newStatus);
 
-    assertThat(result.getStatus()).isEqualTo(newStatus);
-    verify(mockRepository).save(membership);
+    assertThat(result).isEqualTo(updated);
+    assertThat(result.getCreatedAt()).isNotNull();
+    assertThat(result.getVersion()).isEqualTo(1L);
+    InOrder inOrder = inOrder(mockRepository, mockCounters);
+    inOrder
+        .verify(mockRepository)
+        .updateStatus(ORG_ID, USER_ID, MembershipStatus.ACTIVE, newStatus, null);
+    inOrder.verify(mockCounters).statusChanged(ORG_ID, MembershipStatus.ACTIVE, newStatus);
+    inOrder.verify(mockRepository).findByOrgIdAndUserId(ORG_ID, USER_ID);
+    verify(mockRepository, never()).save(any(Membership.class));
+  }
+
+  @Test
+  void updateMembershipStatus_expectedVersion_isCheckedByTheUpdate() {
+    String orgId = ORG_ID.toString();
+    String userId = USER_ID.toString();
+    Membership updated = new Membership(ORG_ID, USER_ID, MembershipStatus.SUSPENDED);
+    updated.setVersion(3L);
+    when(mockRepository.updateStatus(
+            ORG_ID, USER_ID, MembershipStatus.ACTIVE, MembershipStatus.SUSPENDED, 2L))
+        .thenReturn(1);
+    when(mockRepository.findByOrgIdAndUserId(ORG_ID, USER_ID)).thenReturn(Optional.of(updated));
+
+    Membership result =
+        membershipService.updateMembershipStatus(orgId, userId, MembershipStatus.SUSPENDED, 2L);
+
+    assertThat(result.getVersion()).isEqualTo(3L);
+    verify(mockRepository, times(1)).findByOrgIdAndUserId(ORG_ID, USER_ID);
+  }
+
+  @Test
+  void updateMembershipStatus_fromLessLikelyStatus_readsAndChangesThatStatus() {
+    String orgId = ORG_ID.toString();
+    String userId = USER_ID.toString();
+    Membership invited = new Membership(ORG_ID, USER_ID, MembershipStatus.INVITED);
+    invited.setVersion(4L);
+    when(mockRepository.findByOrgIdAndUserId(ORG_ID, USER_ID)).thenReturn(Optional.of(invited));
+    when(mockRepository.updateStatus(
+            ORG_ID, USER_ID, MembershipStatus.INVITED, MembershipStatus.ACTIVE, 4L))
+        .thenReturn(1);
+
+    Membership result =
+        membershipService.updateMembershipStatus(orgId, userId, MembershipStatus.ACTIVE);
+
+    assertThat(result.getStatus()).isEqualTo(MembershipStatus.ACTIVE);
+    assertThat(result.getVersion()).isEqualTo(5L);
+    assertThat(result.getCreatedAt()).isEqualTo(invited.getCreatedAt());
+    verify(mockRepository)
+        .updateStatus(ORG_ID, USER_ID, MembershipStatus.SUSPENDED, MembershipStatus.ACTIVE, null);
+    verify(mockCounters).statusChanged(ORG_ID, MembershipStatus.INVITED, MembershipStatus.ACTIVE);
+  }
+
+  @Test
+  void updateMembershipStatus_changedAfterRead_throwsOptimisticLockingFailure() {
+    String orgId = ORG_ID.toString();
+    String userId = USER_ID.toString();
+    Membership invited = new Membership(ORG_ID, USER_ID, MembershipStatus.INVITED);
+    invited.setVersion(4L);
+    when(mockRepository.findByOrgIdAndUserId(ORG_ID, USER_ID)).thenReturn(Optional.of(invited));
+
+    assertThatThrownBy(
+            () -> membershipService.updateMembershipStatus(orgId, userId, MembershipStatus.ACTIVE))
+        .isInstanceOf(OptimisticLockingFailureException.class);
+    verify(mockCounters, never()).statusChanged(any(), any(), any());
+  }
+
+  @Test
+  void updateMembershipStatus_unchangedStatus_leavesCountersAlone() {
+    String orgId = ORG_ID.toString();
+    String userId = USER_ID.toString();
+    Membership membership = new Membership(ORG_ID, USER_ID, MembershipStatus.SUSPENDED);
+    when(mockRepository.findByOrgIdAndUserId(ORG_ID, USER_ID)).thenReturn(Optional.of(membership));
+
+    Membership result =
+        membershipService.updateMembershipStatus(orgId, userId, MembershipStatus.SUSPENDED);
+
+    assertThat(result).isEqualTo(membership);
+    verify(mockCounters, never()).statusChanged(any(), any(), any());
+  }
+
+  @Test
+  void updateMembershipStatus_staleVersion_throwsOptimisticLockingFailure() {
+    String orgId = ORG_ID.toString();
+    String userId = USER_ID.toString();
+    Membership membership = new Membership(ORG_ID, USER_ID, MembershipStatus.ACTIVE);
+    membership.setVersion(3L);
+    when(mockRepository.findByOrgIdAndUserId(ORG_ID, USER_ID)).thenReturn(Optional.of(membership));
+
+    assertThatThrownBy(
+            () ->
+                membershipService.updateMembershipStatus(
+                    orgId, userId, MembershipStatus.SUSPENDED, 2L))
+        .isInstanceOf(OptimisticLockingFailureException.class);
+    verify(mockCounters, never()).statusChanged(any(), any(), any());
   }
 
   @Test
   void updateMembershipStatus_nonExistentMembership_throwsException() {
-    String orgId = "org-123";
-    String userId = "user-456";
+    String orgId = ORG_ID.toString();
+    String userId = USER_ID.toString();
     MembershipStatus newStatus = MembershipStatus.SUSPENDED;
 
-    when(mockRepository.findByOrgIdAndUserId(orgId, userId)).thenReturn(Optional.empty());
+    when(mockRepository.findByOrgIdAndUserId(ORG_ID, USER_ID)).thenReturn(Optional.empty());
 
     assertThatThrownBy(() -> membershipService.updateMembershipStatus(orgId, userId, newStatus))
         .isInstanceOf(IllegalStateException.class)
@@ -210,36 +403,40 @@ class MembershipServiceTests {
 
   @Test
   void deleteMembership_validData_deletesMembership() {
-    String orgId = "org-123";
-    String userId = "user-456";
-    MembershipId membershipId = new MembershipId(orgId, userId);
+    String orgId = ORG_ID.toString();
+    String userId = USER_ID.toString();
+    MembershipId membershipId = new MembershipId(ORG_ID, USER_ID);
+    Membership membership = new Membership(ORG_ID, USER_ID, MembershipStatus.INVITED);
 
-    when(mockRepository.existsById(membershipId)).thenReturn(true);
+    when(mockRepository.findById(membershipId)).thenReturn(Optional.of(membership));
 
     membershipService.deleteMembership(orgId, userId);
 
-    verify(mockRepository).deleteById(membershipId);
+    verify(mockRepository).delete(membership);
+    verify(mockCounters).removed(membership);
   }
 
   @Test
   void deleteMembership_nonExistentMembership_throwsException() {
-    String orgId = "org-123";
-    String userId = "user-456";
-    MembershipId membershipId = new MembershipId(orgId, userId);
+    String orgId = ORG_ID.toString();
+    String userId = USER_ID.toString();
+    MembershipId membershipId = new MembershipId(ORG_ID, USER_ID);
 
-    when(mockRepository.existsById(membershipId)).thenReturn(false);
+    when(mockRepository.findById(membershipId)).thenReturn(Optional.empty());
 
     assertThatThrownBy(() -> membershipService.deleteMembership(orgId, userId))
         .isInstanceOf(IllegalStateException.class)
         .hasMessage("Membership not found for organization " + orgId + " and user " + userId);
+    verify(mockCounters, never()).removed(any());
   }
 
   @Test
   void existsMembership_existingMembership_returnsTrue() {
-    String orgId = "org-123";
-    String userId = "user-456";
+    String orgId = ORG_ID.toString();
+    String userId = USER_ID.toString();
 
-    when(mockRepository.existsByOrgIdAndUserId(orgId, userId)).thenReturn(true);
+    when(mockRepository.findByOrgIdAndUserId(ORG_ID, USER_ID))
+        .thenReturn(Optional.of(new Membership(ORG_ID, USER_ID, MembershipStatus.ACTIVE)));
 
     boolean result = membershipService.existsMembership(orgId, userId);
 
@@ -248,10 +445,10 @@ class MembershipServiceTests {
 
   @Test
   void existsMembership_nonExistentMembership_returnsFalse() {
-    String orgId = "org-123";
-    String userId = "user-456";
+    String orgId = ORG_ID.toString();
+    String userId = USER_ID.toString();
 
-    when(mockRepository.existsByOrgIdAndUserId(orgId, userId)).thenReturn(false);
+    when(mockRepository.findByOrgIdAndUserId(ORG_ID, USER_ID)).thenReturn(Optional.empty());
 
     boolean result = membershipService.existsMembership(orgId, userId);
 
@@ -259,11 +456,94 @@ class MembershipServiceTests {
   }
 
   @Test
-  void countActiveMembers_returnsCount() {
-    String orgId = "org-123";
+  void existsMembership_malformedId_returnsFalseWithoutQuery() {
+    boolean result = membershipService.existsMembership("org-123", USER_ID.toString());
+
+    assertThat(result).isFalse();
+    verify(mockRepository, never()).findByOrgIdAndUserId(any(), any());
+  }
+
+  @Test
+  void getMembership_repeatedLookup_isServedFromCache() {
+    String orgId = ORG_ID.toString();
+    String userId = USER_ID.toString();
+    Membership membership = new Membership(ORG_ID, USER_ID, MembershipStatus.ACTIVE);
+    when(mockRepository.findByOrgIdAndUserId(ORG_ID, USER_ID)).thenReturn(Optional.of(membership));
+
+    membershipService.getMembership(orgId, userId);
+    Optional<Membership> result = membershipService.getMembership(orgId, userId);
+    boolean exists = membershipService.existsMembership(orgId, userId);
+
+    assertThat(result).isPresent();
+    assertThat(result.get().getStatus()).isEqualTo(MembershipStatus.ACTIVE);
+    assertThat(result.get().getCreatedAt()).isEqualTo(membership.getCreatedAt());
+    assertThat(exists).isTrue();
+    verify(mockRepository, times(1)).findByOrgIdAndUserId(ORG_ID, USER_ID);
+  }
+
+  @Test
+  void getMembership_repeatedLookup_keepsTheVersion() {
+    String orgId = ORG_ID.toString();
+    String userId = USER_ID.toString();
+    Membership membership = new Membership(ORG_ID, USER_ID, MembershipStatus.ACTIVE);
+    membership.setVersion(3L);
+    when(mockRepository.findByOrgIdAndUserId(ORG_ID, USER_ID)).thenReturn(Optional.of(membership));
+
+    Optional<Membership> first = membershipService.getMembership(orgId, userId);
+    Optional<Membership> second = membershipService.getMembership(orgId, userId);
+
+    assertThat(first).map(Membership::getVersion).contains(3L);
+    assertThat(second).map(Membership::getVersion).contains(3L);
+    verify(mockRepository, times(1)).findByOrgIdAndUserId(ORG_ID, USER_ID);
+  }
+
+  @Test
+  void existsMembership_missingMembership_isCachedUntilCreated() {
+    String orgId = ORG_ID.toString();
+    String userId = USER_ID.toString();
+    when(mockRepository.findByOrgIdAndUserId(ORG_ID, USER_ID)).thenReturn(Optional.empty());
+    when(mockRepository.existsByOrgIdAndUserId(ORG_ID, USER_ID)).thenReturn(false);
+    when(mockRepository.save(any(Membership.class))).thenAnswer(inv -> inv.getArgument(0));
+
+    assertThat(membershipService.existsMembership(orgId, userId)).isFalse();
+    assertThat(membershipService.existsMembership(orgId, userId)).isFalse();
+    verify(mockRepository, times(1)).findByOrgIdAndUserId(ORG_ID, USER_ID);
+
+    membershipService.createMembership(orgId, userId);
+    when(mockRepository.findByOrgIdAndUserId(ORG_ID, USER_ID))
+        .thenReturn(Optional.of(new Membership(ORG_ID, USER_ID, MembershipStatus.ACTIVE)));
+
+    assertThat(membershipService.existsMembership(orgId, userId)).isTrue();
+  }
+
+  @Test
+  void updateMembershipStatus_invalidatesCachedLookup() {
+    String orgId = ORG_ID.toString();
+    String userId = USER_ID.toString();
+    Membership membership = new Membership(ORG_ID, USER_ID, MembershipStatus.INVITED);
+    Membership activeMembership = new Membership(ORG_ID, USER_ID, MembershipStatus.ACTIVE);
+    when(mockRepository.findByOrgIdAndUserId(ORG_ID, USER_ID))
+        .thenReturn(
+            Optional.of(membership), Optional.of(membership), Optional.of(activeMembership));
+    when(mockRepository.updateStatus(
+            ORG_ID, USER_ID, MembershipStatus.INVITED, MembershipStatus.ACTIVE, null))
+        .thenReturn(1);
+
+    assertThat(membershipService.getMembership(orgId, userId).get().getStatus())
+        .isEqualTo(MembershipStatus.INVITED);
+    membershipService.updateMembershipStatus(orgId, userId, MembershipStatus.ACTIVE);
+
+    assertThat(membershipService.getMembership(orgId, userId).get().getStatus())
+        .isEqualTo(MembershipStatus.ACTIVE);
+  }
+
+  @Test
+  void countActiveMembers_readsOrganizationCounter() {
+    String orgId = ORG_ID.toString();
     long expectedCount = 5L;
 
-    when(mockRepository.countActiveMembersByOrgId(orgId)).thenReturn(expectedCount);
+    when(mockCounters.countByOrganization(ORG_ID, MembershipStatus.ACTIVE))
+        .thenReturn(expectedCount);
 
     long result = membershipService.countActiveMembers(orgId);
 
@@ -271,14 +551,22 @@ class MembershipServiceTests {
   }
 
   @Test
-  void countUserMemberships_returnsCount() {
-    String userId = "user-456";
+  void countUserMemberships_readsUserCounter() {
+    String userId = USER_ID.toString();
     long expectedCount = 3L;
 
-    when(mockRepository.countMembershipsByUserId(userId)).thenReturn(expectedCount);
+    when(mockCounters.countByUser(USER_ID)).thenReturn(expectedCount);
 
     long result = membershipService.countUserMemberships(userId);
 
     assertThat(result).isEqualTo(expectedCount);
   }
+
+  @Test
+  void countActiveMembers_malformedId_returnsZero() {
+    assertThat(membershipService.countActiveMembers("org-123")).isZero();
+    assertThat(membershipService.countUserMemberships("user-123")).isZero();
+    verify(mockCounters, never()).countByOrganization(any(), any());
+    verify(mockCounters, never()).countByUser(any());
+  }
 }
@@ -0,0 +1,282 @@
+package com.example.activityscheduler.membership;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.activityscheduler.common.id.Ids;
+import com.example.activityscheduler.common.pagination.CursorPage;
+import com.example.activityscheduler.membership.dto.MembershipBatchItem;
+import com.example.activityscheduler.membership.model.Membership;
+import com.example.activityscheduler.membership.model.MembershipStatus;
+import com.example.activityscheduler.membership.service.MembershipBatchService;
+import com.example.activityscheduler.membership.service.MembershipService;
+import com.example.activityscheduler.membership.shard.MembershipResharder;
+import com.example.activityscheduler.membership.shard.MembershipShards;
+import com.example.activityscheduler.organization.model.Organization;
+import com.example.activityscheduler.organization.service.OrganizationService;
+import com.example.activityscheduler.user.model.User;
+import com.example.activityscheduler.user.repository.UserRepository;
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import javax.sql.DataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Checks membership sharding against three H2 databases: the application's own and two extra
+ * shards, each read directly to see where the memberships landed.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+@TestPropertySource(
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:sharddb0;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+      "membership.sharding.urls=jdbc:h2:mem:sharddb1;DB_CLOSE_DELAY=-1,"
+          + "jdbc:h2:mem:sharddb2;DB_CLOSE_DELAY=-1",
+      "membership.sharding.init-script=classpath:membership-shard-schema.sql"
+    })
+class MembershipShardingTests {
+
+  private static final List<String> SHARD_URLS =
+      List.of(
+          "jdbc:h2:mem:sharddb0;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+          "jdbc:h2:mem:sharddb1;DB_CLOSE_DELAY=-1",
+          "jdbc:h2:mem:sharddb2;DB_CLOSE_DELAY=-1");
+
+  @Autowired private MembershipService membershipService;
+
+  @Autowired private MembershipBatchService batchService;
+
+  @Autowired private MembershipShards shards;
+
+  @Autowired private OrganizationService organizationService;
+
+  @Autowired private UserRepository userRepository;
+
+  @Autowired private PlatformTransactionManager transactionManager;
+
+  @Test
+  void membershipsAreStoredOnTheShardOfTheirOrganization() {
+    assertThat(shards.count()).isEqualTo(3);
+    UUID userId = UUID.randomUUID();
+    List<UUID> orgIds = new ArrayList<>();
+    for (int i = 0; i < 30; i++) {
+      UUID orgId = UUID.randomUUID();
+      orgIds.add(orgId);
+      membershipService.createMembership(orgId, userId, MembershipStatus.ACTIVE);
+    }
+
+    for (UUID orgId : orgIds) {
+      for (int shard = 0; shard < SHARD_URLS.size(); shard++) {
+        int expected = shard == shards.shardOf(orgId) ? 1 : 0;
+        assertThat(countRows(shard, orgId)).as("shard %d", shard).isEqualTo(expected);
+      }
+      assertThat(membershipService.getMembership(orgId.toString(), userId.toString())).isPresent();
+      assertThat(membershipService.countActiveMembers(orgId.toString())).isEqualTo(1);
+    }
+    assertThat(orgIds.stream().map(shards::shardOf).distinct()).hasSize(3);
+  }
+
+  @Test
+  void userQueriesGatherEveryShard() {
+    UUID userId = UUID.randomUUID();
+    List<UUID> orgIds = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      UUID orgId = UUID.randomUUID();
+      orgIds.add(orgId);
+      membershipService.createMembership(orgId, userId, MembershipStatus.ACTIVE);
+    }
+    orgIds.sort(Ids.BINARY_ORDER);
+
+    assertThat(membershipService.countUserMemberships(userId.toString())).isEqualTo(20);
+    assertThat(membershipService.getMembershipsByUser(userId.toString())).hasSize(20);
+
+    List<UUID> paged = new ArrayList<>();
+    String cursor = null;
+    do {
+      CursorPage<Membership> page =
+          membershipService.getMembershipsByUserPage(userId.toString(), cursor, 6);
+      page.getItems().forEach(m -> paged.add(m.getOrgId()));
+      cursor = page.getNextCursor();
+    } while (cursor != null);
+    assertThat(paged).containsExactlyElementsOf(orgIds);
+  }
+
+  @Test
+  void updatesAndDeletesReachTheShard() {
+    UUID orgId = UUID.randomUUID();
+    String org = orgId.toString();
+    String user = UUID.randomUUID().toString();
+    membershipService.createMembership(org, user, MembershipStatus.INVITED);
+
+    membershipService.updateMembershipStatus(org, user, MembershipStatus.ACTIVE);
+    assertThat(membershipService.countActiveMembers(org)).isEqualTo(1);
+    assertThat(membershipService.getMembershipsByOrganization(org)).hasSize(1);
+
+    membershipService.deleteMembership(org, user);
+    assertThat(countRows(shards.shardOf(orgId), orgId)).isZero();
+    assertThat(membershipService.countUserMemberships(user)).isZero();
+  }
+
+  @Test
+  void batchIsSplitByShard() {
+    String userId = UUID.randomUUID().toString();
+    List<MembershipBatchItem> items = new ArrayList<>();
+    for (int i = 0; i < 12; i++) {
+      items.add(new MembershipBatchItem(UUID.randomUUID().toString(), userId, null));
+    }
+    items.add(new MembershipBatchItem("not-a-uuid", userId, null));
+
+    batchService.createMemberships(items);
+
+    for (MembershipBatchItem item : items.subList(0, 12)) {
+      UUID orgId = UUID.fromString(item.getOrgId());
+      assertThat(countRows(shards.shardOf(orgId), orgId)).isEqualTo(1);
+    }
+    assertThat(membershipService.countUserMemberships(userId)).isEqualTo(12);
+  }
+
+  @Test
+  void organizationCreatorsAreAddedOnTheShardOfTheirOrganization() {
+    User creator = userRepository.save(new User("creator@example.com", "Creator"));
+    for (int i = 0; i < 6; i++) {
+      Organization organization =
+          organizationService.createOrganization(
+              new Organization(creator.getId(), "Sharded organization " + i));
+
+      UUID orgId = organization.getId();
+      assertThat(countRows(shards.shardOf(orgId), orgId)).isEqualTo(1);
+    }
+    assertThat(membershipService.countUserMemberships(creator.getId().toString())).isEqualTo(6);
+  }
+
+  @Test
+  void shardWorkIsRejectedInsideAnotherTransaction() {
+    UUID orgId = UUID.randomUUID();
+    TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+    assertThatThrownBy(
+            () ->
+                transaction.execute(
+                    status ->
+                        membershipService.createMembership(
+                            orgId, UUID.randomUUID(), MembershipStatus.ACTIVE)))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("inside another transaction");
+    assertThat(countRows(shards.shardOf(orgId), orgId)).isZero();
+  }
+
+  @Test
+  void jumpHashSpreadsEvenlyAndMovesLittleWhenGrowing() {
+    int[] perShard = new int[4];
+    int moved = 0;
+    for (int i = 0; i < 4000; i++) {
+      UUID orgId = UUID.randomUUID();
+      int before = MembershipShards.shardOf(orgId, 3);
+      int after = MembershipShards.shardOf(orgId, 4);
+      perShard[after]++;
+      if (after != before) {
+        moved++;
+        // Growing only ever moves an organization to the new shard
+        assertThat(after).isEqualTo(3);
+      }
+    }
+    for (int count : perShard) {
+      assertThat(count).isBetween(850, 1150);
+    }
+    assertThat(moved).isEqualTo(perShard[3]);
+  }
+
+  @Test
+  void resharderMovesOrganizationsToTheirNewShard() {
+    List<DataSource> dataSources = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      DataSource dataSource = h2("jdbc:h2:mem:reshard" + i + ";DB_CLOSE_DELAY=-1");
+      new ResourceDatabasePopulator(new ClassPathResource("membership-shard-schema.sql"))
+          .execute(dataSource);
+      dataSources.add(dataSource);
+    }
+    // Everything starts on shard 0, as before the two extra shards were added
+    JdbcTemplate first = new JdbcTemplate(dataSources.get(0));
+    UUID userId = UUID.randomUUID();
+    List<UUID> orgIds = new ArrayList<>();
+    for (int i = 0; i < 40; i++) {
+      UUID orgId = UUID.randomUUID();
+      orgIds.add(orgId);
+      first.update(
+          "INSERT INTO memberships (org_id, user_id, status, created_at)"
+              + " VALUES (?, ?, 'ACTIVE', ?)",
+          bytes(orgId),
+          bytes(userId),
+          Timestamp.valueOf(LocalDateTime.now()));
+      first.update(
+          "INSERT INTO organization_membership_counts VALUES (?, 'ACTIVE', 1)", bytes(orgId));
+    }
+    first.update("INSERT INTO user_membership_counts VALUES (?, 40)", bytes(userId));
+
+    MembershipResharder resharder = new MembershipResharder(dataSources);
+    long moved = resharder.reshard();
+
+    long expectedMoves =
+        orgIds.stream().filter(orgId -> MembershipShards.shardOf(orgId, 3) != 0).count();
+    assertThat(moved).isEqualTo(expectedMoves).isPositive();
+    long userCount = 0;
+    for (int shard = 0; shard < 3; shard++) {
+      JdbcTemplate jdbc = new JdbcTemplate(dataSources.get(shard));
+      for (UUID orgId : orgIds) {
+        int expected = MembershipShards.shardOf(orgId, 3) == shard ? 1 : 0;
+        assertThat(count(jdbc, "memberships", orgId)).isEqualTo(expected);
+        assertThat(count(jdbc, "organization_membership_counts", orgId)).isEqualTo(expected);
+      }
+      List<Long> counter =
+          jdbc.queryForList(
+              "SELECT membership_count FROM user_membership_counts WHERE user_id = ?",
+              Long.class,
+              (Object) bytes(userId));
+      userCount += counter.isEmpty() ? 0 : counter.get(0);
+    }
+    assertThat(userCount).isEqualTo(40);
+
+    // A second run finds nothing left to move
+    assertThat(resharder.reshard()).isZero();
+  }
+
+  /** Returns the number of memberships an organization has in the given shard's database. */
+  private static int countRows(int shard, UUID orgId) {
+    return count(new JdbcTemplate(h2(SHARD_URLS.get(shard))), "memberships", orgId);
+  }
+
+  private static int count(JdbcTemplate jdbc, String table, UUID orgId) {
+    Integer count =
+        jdbc.queryForObject(
+            "SELECT COUNT(*) FROM " + table + " WHERE org_id = ?", Integer.class, bytes(orgId));
+    return count == null ? 0 : count;
+  }
+
+  private static byte[] bytes(UUID id) {
+    return ByteBuffer.allocate(16)
+        .putLong(id.getMostSignificantBits())
+        .putLong(id.getLeastSignificantBits())
+        .array();
+  }
+
+  private static DataSource h2(String url) {
+    JdbcDataSource dataSource = new JdbcDataSource();
+    dataSource.setURL(url);
+    dataSource.setUser("sa");
+    return dataSource;
+  }
+}
@@ -5,6 +5,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import com.example.activityscheduler.membership.model.Membership;
 import com.example.activityscheduler.membership.model.MembershipStatus;
 import java.time.LocalDateTime;
+import java.util.UUID;
 import org.junit.jupiter.api.Test;
 
 class MembershipTests {
@@ -16,13 +17,13 @@ class MembershipTests {
     assertThat(membership.getOrgId()).isNull();
     assertThat(membership.getUserId()).isNull();
     assertThat(membership.getStatus()).isEqualTo(MembershipStatus.ACTIVE);
-    assertThat(membership.getCreatedAt()).isNotNull();
+    assertThat(membership.getCreatedAt()).isNull();
   }
 
   @Test
   void parameterizedConstructor_setsFields() {
-    String orgId = "org-123";
-    String userId = "user-456";
+    UUID orgId = UUID.randomUUID();
+    UUID userId = UUID.randomUUID();
     MembershipStatus status = MembershipStatus.INVITED;
 
     Membership membership = new Membership(orgId, userId, status);
@@ -36,8 +37,8 @@ class MembershipTests {
   @Test
   void setters_updateFields() {
     Membership membership = new Membership();
-    String orgId = "org-789";
-    String userId = "user-101";
+    UUID orgId = UUID.randomUUID();
+    UUID userId = UUID.randomUUID();
     MembershipStatus status = MembershipStatus.SUSPENDED;
     LocalDateTime createdAt = LocalDateTime.now().minusDays(1);
 
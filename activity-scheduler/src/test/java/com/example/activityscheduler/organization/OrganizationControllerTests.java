@@ -2,9 +2,10 @@ package com.example.activityscheduler.organization;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
@@ -12,21 +13,32 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.example.activityscheduler.membership.model.MembershipStatus;
 import com.example.activityscheduler.organization.controller.OrganizationController;
 import com.example.activityscheduler.organization.dto.OrganizationCreationRequest;
+import com.example.activityscheduler.organization.dto.OrganizationDeletion;
+import com.example.activityscheduler.organization.dto.OrganizationDeletion.State;
+import com.example.activityscheduler.organization.dto.RosterSummary;
 import com.example.activityscheduler.organization.model.Organization;
 import com.example.activityscheduler.organization.service.OrganizationService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -35,6 +47,10 @@ import org.springframework.test.web.servlet.MockMvc;
 @WebMvcTest(OrganizationController.class)
 class OrganizationControllerTests {
 
+  private static final UUID CREATOR_ID = UUID.fromString("b7a9c2d4-1e3f-4a5b-8c6d-7e8f9a0b1c2d");
+  private static final UUID OTHER_USER_ID =
+      UUID.fromString("4c5d6e7f-8a9b-4c0d-9e1f-2a3b4c5d6e7f");
+
   @Autowired private MockMvc mockMvc;
 
   @MockitoBean private OrganizationService organizationService;
@@ -45,14 +61,15 @@ class OrganizationControllerTests {
 
   @BeforeEach
   void setUp() {
-    testOrganization = new Organization("user123", "Test Organization");
+    testOrganization = new Organization(CREATOR_ID, "Test Organization");
   }
 
   @Test
   void testGetAllOrganizations() throws Exception {
     // Given
     List<Organization> organizations =
-        Arrays.asList(new Organization("user1", "Org 1"), new Organization("user2", "Org 2"));
+        Arrays.asList(
+            new Organization(CREATOR_ID, "Org 1"), new Organization(OTHER_USER_ID, "Org 2"));
     when(organizationService.getAllOrganizations()).thenReturn(organizations);
 
     // When & Then
@@ -79,7 +96,7 @@ class OrganizationControllerTests {
         .perform(get("/api/organizations/{id}", orgId))
         .andExpect(status().isOk())
         .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-        .andExpect(jsonPath("$.id").value(testOrganization.getId()))
+        .andExpect(jsonPath("$.id").value(testOrganization.getId().toString()))
         .andExpect(jsonPath("$.name").value("Test Organization"));
 
     verify(organizationService).getOrganizationById(orgId);
@@ -97,6 +114,83 @@ class OrganizationControllerTests {
     verify(organizationService).getOrganizationById(orgId);
   }
 
+  @Test
+  void testGetOrganizationByIdNotModified() throws Exception {
+    // Given
+    String orgId = "test-id";
+    when(organizationService.getOrganizationVersion(orgId)).thenReturn(Optional.of(3L));
+
+    // When & Then
+    mockMvc
+        .perform(get("/api/organizations/{id}", orgId).header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+
+    verify(organizationService, never()).getOrganizationById(anyString());
+  }
+
+  @Test
+  void testGetOrganizationByIdChangedSinceETag() throws Exception {
+    // Given
+    String orgId = "test-id";
+    testOrganization.setVersion(4L);
+    when(organizationService.getOrganizationVersion(orgId)).thenReturn(Optional.of(4L));
+    when(organizationService.getOrganizationById(orgId)).thenReturn(Optional.of(testOrganization));
+
+    // When & Then
+    mockMvc
+        .perform(get("/api/organizations/{id}", orgId).header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+        .andExpect(jsonPath("$.version").value(4));
+  }
+
+  @Test
+  void testGetRosterSummary() throws Exception {
+    // Given
+    String orgId = testOrganization.getId().toString();
+    Map<MembershipStatus, Long> counts = new EnumMap<>(MembershipStatus.class);
+    counts.put(MembershipStatus.ACTIVE, 3L);
+    counts.put(MembershipStatus.INVITED, 2L);
+    counts.put(MembershipStatus.SUSPENDED, 0L);
+    RosterSummary summary =
+        new RosterSummary(
+            testOrganization.getId(),
+            counts,
+            LocalDateTime.of(2025, 1, 2, 3, 4, 5),
+            CREATOR_ID,
+            MembershipStatus.ACTIVE);
+    when(organizationService.getRosterSummary(orgId)).thenReturn(Optional.of(summary));
+
+    // When & Then
+    mockMvc
+        .perform(get("/api/organizations/{id}/roster-summary", orgId))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.orgId").value(orgId))
+        .andExpect(jsonPath("$.counts.ACTIVE").value(3))
+        .andExpect(jsonPath("$.counts.INVITED").value(2))
+        .andExpect(jsonPath("$.counts.SUSPENDED").value(0))
+        .andExpect(jsonPath("$.totalMemberships").value(5))
+        .andExpect(jsonPath("$.creatorId").value(CREATOR_ID.toString()))
+        .andExpect(jsonPath("$.creatorStatus").value("ACTIVE"));
+
+    verify(organizationService).getRosterSummary(orgId);
+  }
+
+  @Test
+  void testGetRosterSummaryNotFound() throws Exception {
+    // Given
+    String orgId = "non-existent-id";
+    when(organizationService.getRosterSummary(orgId)).thenReturn(Optional.empty());
+
+    // When & Then
+    mockMvc
+        .perform(get("/api/organizations/{id}/roster-summary", orgId))
+        .andExpect(status().isNotFound());
+
+    verify(organizationService).getRosterSummary(orgId);
+  }
+
   @Test
   void testGetOrganizationByName() throws Exception {
     // Given
@@ -148,7 +242,7 @@ class OrganizationControllerTests {
   void testCreateOrganization() throws Exception {
     // Given
     OrganizationCreationRequest request =
-        new OrganizationCreationRequest("Test Organization", "user123");
+        new OrganizationCreationRequest("Test Organization", CREATOR_ID.toString());
     when(organizationService.createOrganization(any(Organization.class)))
         .thenReturn(testOrganization);
 
@@ -169,7 +263,7 @@ class OrganizationControllerTests {
   void testCreateOrganizationWithInvalidData() throws Exception {
     // Given
     OrganizationCreationRequest request =
-        new OrganizationCreationRequest("", "user123"); // Empty name
+        new OrganizationCreationRequest("", CREATOR_ID.toString()); // Empty name
     when(organizationService.createOrganization(any(Organization.class)))
         .thenThrow(new IllegalArgumentException("Organization name cannot be null or empty"));
 
@@ -188,7 +282,7 @@ class OrganizationControllerTests {
   void testCreateOrganizationWithDuplicateName() throws Exception {
     // Given
     OrganizationCreationRequest request =
-        new OrganizationCreationRequest("Test Organization", "user123");
+        new OrganizationCreationRequest("Test Organization", CREATOR_ID.toString());
     when(organizationService.createOrganization(any(Organization.class)))
         .thenThrow(
             new IllegalStateException("Organization with name 'Test Organization' already exists"));
@@ -208,7 +302,7 @@ class OrganizationControllerTests {
   void testUpdateOrganization() throws Exception {
     // Given
     String orgId = "test-id";
-    Organization updatedOrg = new Organization("user456", "Updated Organization");
+    Organization updatedOrg = new Organization(OTHER_USER_ID, "Updated Organization");
     when(organizationService.updateOrganization(anyString(), any(Organization.class)))
         .thenReturn(updatedOrg);
 
@@ -243,11 +337,65 @@ class OrganizationControllerTests {
     verify(organizationService).updateOrganization(eq(orgId), any(Organization.class));
   }
 
+  @Test
+  void testUpdateOrganizationWithIfMatch() throws Exception {
+    // Given
+    String orgId = "test-id";
+    Organization updatedOrg = new Organization(OTHER_USER_ID, "Updated Organization");
+    updatedOrg.setVersion(6L);
+    when(organizationService.updateOrganization(anyString(), any(Organization.class)))
+        .thenReturn(updatedOrg);
+
+    // When & Then
+    mockMvc
+        .perform(
+            put("/api/organizations/{id}", orgId)
+                .header(HttpHeaders.IF_MATCH, "\"5\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updatedOrg)))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"6\""));
+
+    verify(organizationService)
+        .updateOrganization(eq(orgId), argThat(o -> Long.valueOf(5L).equals(o.getVersion())));
+  }
+
+  @Test
+  void testUpdateOrganizationWithStaleIfMatch() throws Exception {
+    // Given
+    String orgId = "test-id";
+    when(organizationService.updateOrganization(anyString(), any(Organization.class)))
+        .thenThrow(new OptimisticLockingFailureException("modified since version 5"));
+
+    // When & Then
+    mockMvc
+        .perform(
+            put("/api/organizations/{id}", orgId)
+                .header(HttpHeaders.IF_MATCH, "\"5\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testOrganization)))
+        .andExpect(status().isPreconditionFailed());
+  }
+
+  @Test
+  void testUpdateOrganizationWithMalformedIfMatch() throws Exception {
+    // When & Then
+    mockMvc
+        .perform(
+            put("/api/organizations/{id}", "test-id")
+                .header(HttpHeaders.IF_MATCH, "W/\"5\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testOrganization)))
+        .andExpect(status().isBadRequest());
+
+    verify(organizationService, never()).updateOrganization(anyString(), any(Organization.class));
+  }
+
   @Test
   void testDeleteOrganization() throws Exception {
     // Given
     String orgId = "test-id";
-    doNothing().when(organizationService).deleteOrganization(orgId);
+    when(organizationService.deleteOrganization(orgId)).thenReturn(deletion(State.COMPLETED));
 
     // When & Then
     mockMvc.perform(delete("/api/organizations/{id}", orgId)).andExpect(status().isNoContent());
@@ -255,6 +403,48 @@ class OrganizationControllerTests {
     verify(organizationService).deleteOrganization(orgId);
   }
 
+  @Test
+  void testDeleteLargeOrganizationIsAccepted() throws Exception {
+    // Given
+    String orgId = UUID.randomUUID().toString();
+    when(organizationService.deleteOrganization(orgId)).thenReturn(deletion(State.RUNNING));
+
+    // When & Then
+    mockMvc
+        .perform(delete("/api/organizations/{id}", orgId))
+        .andExpect(status().isAccepted())
+        .andExpect(
+            header().string(HttpHeaders.LOCATION, "/api/organizations/" + orgId + "/deletion"))
+        .andExpect(jsonPath("$.state").value("RUNNING"))
+        .andExpect(jsonPath("$.membershipsDeleted").value(500));
+  }
+
+  @Test
+  void testGetOrganizationDeletion() throws Exception {
+    // Given
+    String orgId = UUID.randomUUID().toString();
+    when(organizationService.getOrganizationDeletion(orgId))
+        .thenReturn(Optional.of(deletion(State.COMPLETED)));
+
+    // When & Then
+    mockMvc
+        .perform(get("/api/organizations/{id}/deletion", orgId))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.state").value("COMPLETED"));
+  }
+
+  @Test
+  void testGetOrganizationDeletionNotFound() throws Exception {
+    // Given
+    String orgId = UUID.randomUUID().toString();
+    when(organizationService.getOrganizationDeletion(orgId)).thenReturn(Optional.empty());
+
+    // When & Then
+    mockMvc
+        .perform(get("/api/organizations/{id}/deletion", orgId))
+        .andExpect(status().isNotFound());
+  }
+
   @Test
   void testDeleteOrganizationNotFound() throws Exception {
     // Given
@@ -369,7 +559,8 @@ class OrganizationControllerTests {
   @Test
   void testCreateOrganizationWithNullData() throws Exception {
     // Given
-    OrganizationCreationRequest request = new OrganizationCreationRequest(null, "user123");
+    OrganizationCreationRequest request =
+        new OrganizationCreationRequest(null, CREATOR_ID.toString());
     when(organizationService.createOrganization(any(Organization.class)))
         .thenThrow(new IllegalArgumentException("Organization name cannot be null"));
 
@@ -384,11 +575,46 @@ class OrganizationControllerTests {
     verify(organizationService).createOrganization(any(Organization.class));
   }
 
+  @Test
+  void testCreateOrganizationWithMalformedCreatedBy() throws Exception {
+    // Given
+    OrganizationCreationRequest request =
+        new OrganizationCreationRequest("Test Organization", "user123");
+
+    // When & Then
+    mockMvc
+        .perform(
+            post("/api/organizations/create")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isBadRequest());
+
+    verify(organizationService, never()).createOrganization(any(Organization.class));
+  }
+
+  @Test
+  void testCreateOrganizationWithBlankCreatedBy() throws Exception {
+    // Given
+    OrganizationCreationRequest request = new OrganizationCreationRequest("Test Organization", " ");
+    when(organizationService.createOrganization(any(Organization.class)))
+        .thenThrow(new IllegalArgumentException("Created by cannot be null or empty"));
+
+    // When & Then
+    mockMvc
+        .perform(
+            post("/api/organizations/create")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isBadRequest());
+
+    verify(organizationService).createOrganization(any(Organization.class));
+  }
+
   @Test
   void testUpdateOrganizationWithInvalidData() throws Exception {
     // Given
     String orgId = "test-id";
-    Organization invalidOrg = new Organization("user456", ""); // Empty name
+    Organization invalidOrg = new Organization(OTHER_USER_ID, ""); // Empty name
     when(organizationService.updateOrganization(anyString(), any(Organization.class)))
         .thenThrow(new IllegalArgumentException("Organization name cannot be empty"));
 
@@ -416,4 +642,16 @@ class OrganizationControllerTests {
 
     verify(organizationService).deleteOrganization(orgId);
   }
+
+  /** Returns a deletion of 1,000 memberships, halfway through unless completed. */
+  private static OrganizationDeletion deletion(State state) {
+    LocalDateTime now = LocalDateTime.now();
+    return new OrganizationDeletion(
+        UUID.randomUUID(),
+        state,
+        1000,
+        state == State.COMPLETED ? 1000 : 500,
+        now,
+        state == State.COMPLETED ? now : null);
+  }
 }
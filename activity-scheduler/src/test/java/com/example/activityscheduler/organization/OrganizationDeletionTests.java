@@ -0,0 +1,144 @@
+package com.example.activityscheduler.organization;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.activityscheduler.membership.model.MembershipId;
+import com.example.activityscheduler.membership.model.MembershipStatus;
+import com.example.activityscheduler.membership.repository.MembershipRepository;
+import com.example.activityscheduler.membership.service.MembershipService;
+import com.example.activityscheduler.organization.model.Organization;
+import com.example.activityscheduler.organization.repository.OrganizationRepository;
+import com.example.activityscheduler.organization.service.OrganizationService;
+import com.example.activityscheduler.user.model.User;
+import com.example.activityscheduler.user.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Deletes organizations through the API against H2 and checks that their memberships and the
+ * membership counters go with them, both for small organizations deleted in the request and for
+ * large ones deleted in the background.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestPropertySource(
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:orgdeletiondb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+      "organization.deletion.async-threshold=5",
+      "organization.deletion.batch-size=2"
+    })
+class OrganizationDeletionTests {
+
+  @LocalServerPort private int port;
+
+  @Autowired private TestRestTemplate restTemplate;
+
+  @Autowired private OrganizationService organizationService;
+
+  @Autowired private MembershipService membershipService;
+
+  @Autowired private OrganizationRepository organizationRepository;
+
+  @Autowired private MembershipRepository membershipRepository;
+
+  @Autowired private UserRepository userRepository;
+
+  @Test
+  void smallOrganizationIsDeletedWithItsMemberships() {
+    Organization organization = createOrganization();
+    List<UUID> members = addMembers(organization, 3);
+
+    ResponseEntity<JsonNode> response = delete(organization.getId());
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+    assertDeleted(organization, members);
+  }
+
+  @Test
+  void largeOrganizationIsDeletedInTheBackground() throws InterruptedException {
+    Organization organization = createOrganization();
+    List<UUID> members = addMembers(organization, 8);
+
+    ResponseEntity<JsonNode> response = delete(organization.getId());
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+    assertThat(response.getHeaders().getLocation())
+        .hasToString("/api/organizations/" + organization.getId() + "/deletion");
+    assertThat(response.getBody().get("state").asText()).isEqualTo("RUNNING");
+    assertThat(response.getBody().get("membershipCount").asLong()).isEqualTo(9);
+
+    JsonNode deletion = awaitDeletion(organization.getId());
+    assertThat(deletion.get("state").asText()).isEqualTo("COMPLETED");
+    assertThat(deletion.get("membershipsDeleted").asLong()).isEqualTo(9);
+    assertDeleted(organization, members);
+  }
+
+  @Test
+  void deletingMissingOrganizationIsNotFound() {
+    ResponseEntity<JsonNode> response = delete(UUID.randomUUID());
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+  }
+
+  /** Creates an organization, which makes its creator an active member. */
+  private Organization createOrganization() {
+    User creator =
+        userRepository.save(new User("creator-" + UUID.randomUUID() + "@example.com", "Creator"));
+    return organizationService.createOrganization(
+        new Organization(creator.getId(), "Deleted Org " + UUID.randomUUID()));
+  }
+
+  /** Adds active members besides the creator and returns the IDs of all members. */
+  private List<UUID> addMembers(Organization organization, int count) {
+    List<UUID> members = new ArrayList<>(List.of(organization.getCreatedBy()));
+    for (int i = 0; i < count; i++) {
+      UUID userId = UUID.randomUUID();
+      membershipService.createMembership(organization.getId(), userId, MembershipStatus.ACTIVE);
+      members.add(userId);
+    }
+    return members;
+  }
+
+  private void assertDeleted(Organization organization, List<UUID> members) {
+    assertThat(organizationRepository.existsById(organization.getId())).isFalse();
+    for (UUID userId : members) {
+      assertThat(membershipRepository.existsById(new MembershipId(organization.getId(), userId)))
+          .isFalse();
+      assertThat(membershipService.countUserMemberships(userId.toString())).isZero();
+    }
+    assertThat(membershipService.countOrganizationMemberships(organization.getId())).isZero();
+  }
+
+  /** Polls the status endpoint until the background deletion is no longer running. */
+  private JsonNode awaitDeletion(UUID orgId) throws InterruptedException {
+    String url = "http://localhost:" + port + "/api/organizations/" + orgId + "/deletion";
+    for (int attempt = 0; attempt < 100; attempt++) {
+      JsonNode deletion = restTemplate.getForObject(url, JsonNode.class);
+      if (!deletion.get("state").asText().equals("RUNNING")) {
+        return deletion;
+      }
+      Thread.sleep(100);
+    }
+    throw new AssertionError("Deletion of organization " + orgId + " did not finish");
+  }
+
+  private ResponseEntity<JsonNode> delete(UUID orgId) {
+    return restTemplate.exchange(
+        "http://localhost:" + port + "/api/organizations/" + orgId,
+        HttpMethod.DELETE,
+        null,
+        JsonNode.class);
+  }
+}
@@ -7,34 +7,60 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.example.activityscheduler.common.pagination.CursorCodec;
+import com.example.activityscheduler.common.pagination.CursorPage;
 import com.example.activityscheduler.membership.model.MembershipStatus;
 import com.example.activityscheduler.membership.service.MembershipService;
+import com.example.activityscheduler.membership.shard.MembershipShards;
+import com.example.activityscheduler.organization.dto.OrganizationDeletion;
 import com.example.activityscheduler.organization.model.Organization;
 import com.example.activityscheduler.organization.repository.OrganizationRepository;
+import com.example.activityscheduler.organization.service.OrganizationDeletions;
+import com.example.activityscheduler.organization.service.OrganizationNameBloomFilter;
 import com.example.activityscheduler.organization.service.OrganizationService;
 import com.example.activityscheduler.user.repository.UserRepository;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.PlatformTransactionManager;
 
 /** Unit tests for Organization entity and service layer. */
 @ExtendWith(MockitoExtension.class)
 class OrganizationTests {
 
+  private static final UUID ORG_ID = UUID.fromString("3f2b8c1e-7d4a-4e59-9b6c-2a1d0e8f7c35");
+  private static final UUID MISSING_ORG_ID =
+      UUID.fromString("8e1d4f7a-2c5b-4b3e-a6d9-0f1e2d3c4b5a");
+  private static final UUID CREATOR_ID = UUID.fromString("b7a9c2d4-1e3f-4a5b-8c6d-7e8f9a0b1c2d");
+  private static final UUID OTHER_USER_ID =
+      UUID.fromString("4c5d6e7f-8a9b-4c0d-9e1f-2a3b4c5d6e7f");
+
   @Mock private OrganizationRepository organizationRepository;
   @Mock private MembershipService membershipService;
   @Mock private UserRepository userRepository;
+  @Mock private OrganizationNameBloomFilter nameFilter;
+  @Mock private OrganizationDeletions deletions;
+  @Mock private MembershipShards shards;
+  @Mock private PlatformTransactionManager transactionManager;
 
   @InjectMocks private OrganizationService organizationService;
 
@@ -42,24 +68,25 @@ class OrganizationTests {
 
   @BeforeEach
   void setUp() {
-    testOrganization = new Organization("user123", "Test Organization");
+    testOrganization = new Organization(CREATOR_ID, "Test Organization");
+    lenient().when(nameFilter.mightExist(anyString())).thenReturn(true);
   }
 
   @Test
   void testOrganizationConstructor() {
     // Test constructor with createdBy and name
-    Organization orgWithName = new Organization("user123", "Test Org");
+    Organization orgWithName = new Organization(CREATOR_ID, "Test Org");
     assertNotNull(orgWithName.getId());
     assertNotNull(orgWithName.getCreatedAt());
     assertEquals("Test Org", orgWithName.getName());
-    assertEquals("user123", orgWithName.getCreatedBy());
+    assertEquals(CREATOR_ID, orgWithName.getCreatedBy());
   }
 
   @Test
   void testOrganizationGettersAndSetters() {
-    Organization org = new Organization("user123", "Test Organization");
+    Organization org = new Organization(CREATOR_ID, "Test Organization");
     String testName = "Updated Organization";
-    String testCreatedBy = "user456";
+    UUID testCreatedBy = OTHER_USER_ID;
     LocalDateTime testTime = LocalDateTime.now();
 
     org.setName(testName);
@@ -73,19 +100,20 @@ class OrganizationTests {
 
   @Test
   void testOrganizationToString() {
-    Organization org = new Organization("user123", "Test Organization");
+    Organization org = new Organization(CREATOR_ID, "Test Organization");
     String toString = org.toString();
 
     assertTrue(toString.contains("Test Organization"));
-    assertTrue(toString.contains("user123"));
-    assertTrue(toString.contains(org.getId()));
+    assertTrue(toString.contains(CREATOR_ID.toString()));
+    assertTrue(toString.contains(org.getId().toString()));
   }
 
   @Test
   void testGetAllOrganizations() {
     // Given
     List<Organization> organizations =
-        Arrays.asList(new Organization("user1", "Org 1"), new Organization("user2", "Org 2"));
+        Arrays.asList(
+            new Organization(CREATOR_ID, "Org 1"), new Organization(OTHER_USER_ID, "Org 2"));
     when(organizationRepository.findAll()).thenReturn(organizations);
 
     // When
@@ -96,11 +124,27 @@ class OrganizationTests {
     verify(organizationRepository).findAll();
   }
 
+  @Test
+  void testGetOrganizationsPageWithCursor() {
+    // Given
+    LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 9, 0);
+    String cursor = CursorCodec.encode(createdAt.toString(), ORG_ID.toString());
+    when(organizationRepository.findPageAfter(eq(createdAt), eq(ORG_ID), any()))
+        .thenReturn(new SliceImpl<>(List.of(testOrganization), PageRequest.of(0, 10), false));
+
+    // When
+    CursorPage<Organization> page = organizationService.getOrganizationsPage(cursor, 10);
+
+    // Then
+    assertEquals(List.of(testOrganization), page.getItems());
+    assertFalse(page.isHasMore());
+  }
+
   @Test
   void testGetOrganizationById() {
     // Given
-    String orgId = "test-id";
-    when(organizationRepository.findById(orgId)).thenReturn(Optional.of(testOrganization));
+    String orgId = ORG_ID.toString();
+    when(organizationRepository.findById(ORG_ID)).thenReturn(Optional.of(testOrganization));
 
     // When
     Optional<Organization> result = organizationService.getOrganizationById(orgId);
@@ -108,21 +152,31 @@ class OrganizationTests {
     // Then
     assertTrue(result.isPresent());
     assertEquals(testOrganization, result.get());
-    verify(organizationRepository).findById(orgId);
+    verify(organizationRepository).findById(ORG_ID);
   }
 
   @Test
   void testGetOrganizationByIdNotFound() {
     // Given
-    String orgId = "non-existent-id";
-    when(organizationRepository.findById(orgId)).thenReturn(Optional.empty());
+    String orgId = MISSING_ORG_ID.toString();
+    when(organizationRepository.findById(MISSING_ORG_ID)).thenReturn(Optional.empty());
 
     // When
     Optional<Organization> result = organizationService.getOrganizationById(orgId);
 
     // Then
     assertFalse(result.isPresent());
-    verify(organizationRepository).findById(orgId);
+    verify(organizationRepository).findById(MISSING_ORG_ID);
+  }
+
+  @Test
+  void testGetOrganizationByMalformedId() {
+    // When
+    Optional<Organization> result = organizationService.getOrganizationById("not-a-uuid");
+
+    // Then
+    assertFalse(result.isPresent());
+    verify(organizationRepository, never()).findById(any());
   }
 
   @Test
@@ -154,21 +208,31 @@ class OrganizationTests {
     verify(organizationRepository).existsByName(orgName);
   }
 
+  @Test
+  void testExistsByNameDefinitelyUnusedSkipsDatabase() {
+    when(nameFilter.mightExist("Unused Organization")).thenReturn(false);
+
+    boolean result = organizationService.existsByName("Unused Organization");
+
+    assertFalse(result);
+    verify(organizationRepository, never()).existsByName(anyString());
+  }
+
   @Test
   void testCreateOrganizationSuccess() {
     // Given
-    when(organizationRepository.existsByName(anyString())).thenReturn(false);
     when(userRepository.existsById(testOrganization.getCreatedBy())).thenReturn(true);
-    when(organizationRepository.save(any(Organization.class))).thenReturn(testOrganization);
+    when(organizationRepository.saveAndFlush(any(Organization.class))).thenReturn(testOrganization);
 
     // When
     Organization result = organizationService.createOrganization(testOrganization);
 
     // Then
     assertEquals(testOrganization, result);
-    verify(organizationRepository).existsByName(testOrganization.getName());
+    verify(organizationRepository, never()).existsByName(anyString());
+    verify(nameFilter).add(testOrganization.getName());
     verify(userRepository).existsById(testOrganization.getCreatedBy());
-    verify(organizationRepository).save(testOrganization);
+    verify(organizationRepository).saveAndFlush(testOrganization);
     // Verify that a membership is automatically created for the organization creator
     verify(membershipService)
         .createMembership(
@@ -178,7 +242,7 @@ class OrganizationTests {
   @Test
   void testCreateOrganizationWithNullName() {
     // Given
-    Organization orgWithNullName = new Organization("user123", "Test Org");
+    Organization orgWithNullName = new Organization(CREATOR_ID, "Test Org");
     orgWithNullName.setName(null);
 
     // When & Then
@@ -192,7 +256,7 @@ class OrganizationTests {
   @Test
   void testCreateOrganizationWithEmptyName() {
     // Given
-    Organization orgWithEmptyName = new Organization("user123", "Test Org");
+    Organization orgWithEmptyName = new Organization(CREATOR_ID, "Test Org");
     orgWithEmptyName.setName("   ");
 
     // When & Then
@@ -206,7 +270,7 @@ class OrganizationTests {
   @Test
   void testCreateOrganizationWithNullCreatedBy() {
     // Given
-    Organization orgWithNullCreatedBy = new Organization("user123", "Test Org");
+    Organization orgWithNullCreatedBy = new Organization(CREATOR_ID, "Test Org");
     orgWithNullCreatedBy.setCreatedBy(null);
 
     // When & Then
@@ -218,31 +282,39 @@ class OrganizationTests {
   }
 
   @Test
-  void testCreateOrganizationWithEmptyCreatedBy() {
+  void testCreateOrganizationWithExistingName() {
     // Given
-    Organization orgWithEmptyCreatedBy = new Organization("user123", "Test Org");
-    orgWithEmptyCreatedBy.setCreatedBy("   ");
+    when(userRepository.existsById(testOrganization.getCreatedBy())).thenReturn(true);
+    when(organizationRepository.saveAndFlush(any(Organization.class)))
+        .thenThrow(
+            new DataIntegrityViolationException(
+                "duplicate name", new SQLException("Unique index violation", "23505")));
 
     // When & Then
-    assertThrows(
-        IllegalArgumentException.class,
-        () -> {
-          organizationService.createOrganization(orgWithEmptyCreatedBy);
-        });
+    IllegalStateException exception =
+        assertThrows(
+            IllegalStateException.class,
+            () -> {
+              organizationService.createOrganization(testOrganization);
+            });
+    assertTrue(exception.getMessage().contains("already exists"));
+    verify(membershipService, never())
+        .createMembership(any(UUID.class), any(UUID.class), any(MembershipStatus.class));
   }
 
   @Test
-  void testCreateOrganizationWithExistingName() {
+  void testCreateOrganizationWithOtherIntegrityViolation() {
     // Given
     when(userRepository.existsById(testOrganization.getCreatedBy())).thenReturn(true);
-    when(organizationRepository.existsByName(testOrganization.getName())).thenReturn(true);
+    when(organizationRepository.saveAndFlush(any(Organization.class)))
+        .thenThrow(
+            new DataIntegrityViolationException(
+                "foreign key", new SQLException("Referential integrity violation", "23506")));
 
     // When & Then
     assertThrows(
-        IllegalStateException.class,
-        () -> {
-          organizationService.createOrganization(testOrganization);
-        });
+        DataIntegrityViolationException.class,
+        () -> organizationService.createOrganization(testOrganization));
   }
 
   @Test
@@ -260,18 +332,18 @@ class OrganizationTests {
     // Verify that user existence was checked but organization was not saved
     verify(userRepository).existsById(testOrganization.getCreatedBy());
     verify(organizationRepository, never()).existsByName(anyString());
-    verify(organizationRepository, never()).save(any(Organization.class));
+    verify(organizationRepository, never()).saveAndFlush(any(Organization.class));
     verify(membershipService, never())
-        .createMembership(anyString(), anyString(), any(MembershipStatus.class));
+        .createMembership(any(UUID.class), any(UUID.class), any(MembershipStatus.class));
   }
 
   @Test
   void testCreateOrganizationWithMembershipCreationFailure() {
     // Given
-    when(organizationRepository.existsByName(anyString())).thenReturn(false);
     when(userRepository.existsById(testOrganization.getCreatedBy())).thenReturn(true);
-    when(organizationRepository.save(any(Organization.class))).thenReturn(testOrganization);
-    when(membershipService.createMembership(anyString(), anyString(), any(MembershipStatus.class)))
+    when(organizationRepository.saveAndFlush(any(Organization.class))).thenReturn(testOrganization);
+    when(membershipService.createMembership(
+            any(UUID.class), any(UUID.class), any(MembershipStatus.class)))
         .thenThrow(new IllegalStateException("Membership creation failed"));
 
     // When & Then
@@ -282,18 +354,39 @@ class OrganizationTests {
         });
 
     // Verify that organization was saved but membership creation failed
-    verify(organizationRepository).save(testOrganization);
+    verify(organizationRepository).saveAndFlush(testOrganization);
     verify(membershipService)
         .createMembership(
             testOrganization.getId(), testOrganization.getCreatedBy(), MembershipStatus.ACTIVE);
+    // Without sharding the transaction rollback removes the organization
+    verify(organizationRepository, never()).deleteOrganizationById(any(UUID.class));
+  }
+
+  @Test
+  void testCreateOrganizationWithShardedMembershipFailureDeletesOrganization() {
+    // Given
+    when(shards.count()).thenReturn(3);
+    when(userRepository.existsById(testOrganization.getCreatedBy())).thenReturn(true);
+    when(organizationRepository.saveAndFlush(any(Organization.class))).thenReturn(testOrganization);
+    when(membershipService.createMembership(
+            any(UUID.class), any(UUID.class), any(MembershipStatus.class)))
+        .thenThrow(new IllegalStateException("Membership creation failed"));
+
+    // When & Then
+    assertThrows(
+        IllegalStateException.class,
+        () -> organizationService.createOrganization(testOrganization));
+
+    // The organization committed before the membership, so it is deleted again
+    verify(organizationRepository).deleteOrganizationById(testOrganization.getId());
   }
 
   @Test
   void testUpdateOrganizationSuccess() {
     // Given
-    String orgId = "test-id";
-    Organization updatedOrg = new Organization("user456", "Updated Organization");
-    when(organizationRepository.findById(orgId)).thenReturn(Optional.of(testOrganization));
+    String orgId = ORG_ID.toString();
+    Organization updatedOrg = new Organization(OTHER_USER_ID, "Updated Organization");
+    when(organizationRepository.findById(ORG_ID)).thenReturn(Optional.of(testOrganization));
     when(organizationRepository.findByName(updatedOrg.getName())).thenReturn(Optional.empty());
     when(organizationRepository.save(any(Organization.class))).thenReturn(updatedOrg);
 
@@ -302,16 +395,33 @@ class OrganizationTests {
 
     // Then
     assertEquals(updatedOrg.getName(), result.getName());
-    verify(organizationRepository).findById(orgId);
+    verify(organizationRepository).findById(ORG_ID);
     verify(organizationRepository).findByName(updatedOrg.getName());
     verify(organizationRepository).save(any(Organization.class));
   }
 
+  @Test
+  void testUpdateOrganizationWithStaleVersion() {
+    // Given
+    String orgId = ORG_ID.toString();
+    testOrganization.setVersion(3L);
+    Organization updatedOrg = new Organization(OTHER_USER_ID, "Updated Organization");
+    updatedOrg.setVersion(2L);
+    when(organizationRepository.findById(ORG_ID)).thenReturn(Optional.of(testOrganization));
+    when(organizationRepository.findByName(updatedOrg.getName())).thenReturn(Optional.empty());
+
+    // When & Then
+    assertThrows(
+        OptimisticLockingFailureException.class,
+        () -> organizationService.updateOrganization(orgId, updatedOrg));
+    verify(organizationRepository, never()).save(any(Organization.class));
+  }
+
   @Test
   void testUpdateOrganizationNotFound() {
     // Given
-    String orgId = "non-existent-id";
-    when(organizationRepository.findById(orgId)).thenReturn(Optional.empty());
+    String orgId = MISSING_ORG_ID.toString();
+    when(organizationRepository.findById(MISSING_ORG_ID)).thenReturn(Optional.empty());
 
     // When & Then
     assertThrows(
@@ -324,22 +434,26 @@ class OrganizationTests {
   @Test
   void testDeleteOrganizationSuccess() {
     // Given
-    String orgId = "test-id";
-    when(organizationRepository.existsById(orgId)).thenReturn(true);
+    String orgId = ORG_ID.toString();
+    LocalDateTime now = LocalDateTime.now();
+    OrganizationDeletion completed =
+        new OrganizationDeletion(ORG_ID, OrganizationDeletion.State.COMPLETED, 3, 3, now, now);
+    when(deletions.delete(ORG_ID)).thenReturn(completed);
 
     // When
-    organizationService.deleteOrganization(orgId);
+    OrganizationDeletion result = organizationService.deleteOrganization(orgId);
 
     // Then
-    verify(organizationRepository).existsById(orgId);
-    verify(organizationRepository).deleteById(orgId);
+    assertEquals(completed, result);
+    verify(deletions).delete(ORG_ID);
   }
 
   @Test
   void testDeleteOrganizationNotFound() {
     // Given
-    String orgId = "non-existent-id";
-    when(organizationRepository.existsById(orgId)).thenReturn(false);
+    String orgId = MISSING_ORG_ID.toString();
+    when(deletions.delete(MISSING_ORG_ID))
+        .thenThrow(new IllegalStateException("Organization with ID '" + orgId + "' not found"));
 
     // When & Then
     assertThrows(
@@ -349,6 +463,34 @@ class OrganizationTests {
         });
   }
 
+  @Test
+  void testDeleteOrganizationWithMalformedIdIsNotFound() {
+    // When & Then
+    assertThrows(
+        IllegalStateException.class,
+        () -> {
+          organizationService.deleteOrganization("not-a-uuid");
+        });
+    verify(deletions, never()).delete(any(UUID.class));
+  }
+
+  @Test
+  void testGetOrganizationDeletion() {
+    // Given
+    LocalDateTime now = LocalDateTime.now();
+    OrganizationDeletion running =
+        new OrganizationDeletion(ORG_ID, OrganizationDeletion.State.RUNNING, 20, 5, now, null);
+    when(deletions.getProgress(ORG_ID)).thenReturn(Optional.of(running));
+
+    // When
+    Optional<OrganizationDeletion> result =
+        organizationService.getOrganizationDeletion(ORG_ID.toString());
+
+    // Then
+    assertTrue(result.isPresent());
+    assertEquals(5, result.get().getMembershipsDeleted());
+  }
+
   @Test
   void testGetOrganizationCount() {
     // Given
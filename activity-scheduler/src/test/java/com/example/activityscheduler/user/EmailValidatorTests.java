@@ -0,0 +1,190 @@
+package com.example.activityscheduler.user;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.activityscheduler.user.utils.EmailValidator;
+import java.net.IDN;
+import java.util.SplittableRandom;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/** Unit tests for the email validator, checked against the regex-based validator it replaced. */
+class EmailValidatorTests {
+
+  // The expressions of the regex-based validator
+  private static final Pattern LOCAL_PART =
+      Pattern.compile("^[A-Za-z0-9!#$%&'*+/=?^_`{|}~-]+(?:\\.[A-Za-z0-9!#$%&'*+/=?^_`{|}~-]+)*$");
+  private static final Pattern DNS_LABEL =
+      Pattern.compile("^[A-Za-z0-9](?:[A-Za-z0-9-]{0,61}[A-Za-z0-9])?$");
+  private static final Pattern TLD = Pattern.compile("^[A-Za-z]{2,63}$");
+
+  private static final String LABEL_63 = "a".repeat(63);
+
+  // Fragments the fuzzer builds addresses from: valid characters, separators, whitespace,
+  // characters that are invalid in either part, and non-ASCII characters that IDN maps to letters
+  // or dots
+  private static final String[] FRAGMENTS = {
+    "a", "Z", "0", "9", "-", ".", "..", "@", "_", "+", "!", "~", " ", "\t", "\n", "\u00a0",
+    "ü", "ß", "例", "。", "．", "\u2024", "＠", "ｂ", "Ⅸ", "ﬁ", "\u200b", "xn--", "com", "de",
+    "c0m", LABEL_63
+  };
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "alice@example.com",
+        "bob.smith+events@mail.example.org",
+        "  padded@example.com\t",
+        "a@b.co",
+        "fqdn@example.com.",
+        "anna@bücher.de",
+        "li@例子.com",
+        "ideographic@example。com",
+        "user@xn--bcher-kva.de"
+      })
+  void isValidEmail_acceptsValidAddresses(String email) {
+    assertThat(EmailValidator.isValidEmail(email)).isTrue();
+    assertThat(referenceIsValidEmail(email)).isTrue();
+  }
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "",
+        "no-at-sign.example.com",
+        "@example.com",
+        "user@",
+        "two@@example.com",
+        ".leading@example.com",
+        "trailing.@example.com",
+        "dots..in@example.com",
+        "user@nodot",
+        "user@example.c0m",
+        "user@example.c",
+        "user@-leading-hyphen.com",
+        "user@trailing-hyphen-.com",
+        "user@.example.com",
+        "user@example..com",
+        "user@example.com..",
+        "user@exa_mple.com",
+        "usér@example.com"
+      })
+  void isValidEmail_rejectsInvalidAddresses(String email) {
+    assertThat(EmailValidator.isValidEmail(email)).isFalse();
+    assertThat(referenceIsValidEmail(email)).isFalse();
+  }
+
+  @Test
+  void isValidEmail_enforcesLengthLimits() {
+    String local64 = "a".repeat(64);
+    String domain252 = (LABEL_63 + ".").repeat(3) + "a".repeat(56) + ".com";
+
+    assertThat(EmailValidator.isValidEmail(null)).isFalse();
+    assertThat(EmailValidator.isValidEmail(local64 + "@example.com")).isTrue();
+    assertThat(EmailValidator.isValidEmail("a" + local64 + "@example.com")).isFalse();
+    assertThat(EmailValidator.isValidEmail("a@" + LABEL_63 + ".com")).isTrue();
+    assertThat(EmailValidator.isValidEmail("a@a" + LABEL_63 + ".com")).isFalse();
+    assertThat(EmailValidator.isValidEmail("a@" + domain252)).isTrue();
+    assertThat(EmailValidator.isValidEmail("ab@" + domain252)).isFalse();
+    assertThat(EmailValidator.isValidEmail(" a@" + domain252 + " ")).isTrue();
+  }
+
+  @Test
+  void isValidEmail_matchesReferenceOnFuzzedInput() {
+    SplittableRandom random = new SplittableRandom(4156);
+    int accepted = 0;
+    for (int i = 0; i < 200_000; i++) {
+      String email = fuzz(random);
+      boolean expected = referenceIsValidEmail(email);
+      assertThat(EmailValidator.isValidEmail(email)).as("[%s]", email).isEqualTo(expected);
+      if (expected) {
+        accepted++;
+      }
+    }
+    // The comparison is only meaningful if both outcomes occur often
+    assertThat(accepted).isGreaterThan(1_000);
+  }
+
+  /** Builds a random string that is, more often than not, shaped like an address. */
+  private static String fuzz(SplittableRandom random) {
+    StringBuilder email = new StringBuilder();
+    int shape = random.nextInt(3);
+    if (shape == 0) {
+      for (int i = random.nextInt(12); i > 0; i--) {
+        email.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+      }
+      return email.toString();
+    }
+    for (int i = random.nextInt(1, 6); i > 0; i--) {
+      email.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+    }
+    email.append('@');
+    int labels = random.nextInt(5);
+    for (int label = 0; label < labels; label++) {
+      for (int i = random.nextInt(1, 4); i > 0; i--) {
+        // Mostly letters, so that many labels are valid
+        int fragment =
+            random.nextInt(4) == 0 ? random.nextInt(FRAGMENTS.length) : random.nextInt(2);
+        email.append(FRAGMENTS[fragment]);
+      }
+      if (label < labels - 1 || random.nextInt(5) == 0) {
+        email.append(random.nextInt(8) == 0 ? FRAGMENTS[random.nextInt(FRAGMENTS.length)] : ".");
+      }
+    }
+    if (shape == 2) {
+      email.append(random.nextBoolean() ? "com" : "de");
+    }
+    if (random.nextInt(6) == 0) {
+      email.append(email.toString().repeat(random.nextInt(1, 4)));
+    }
+    return email.toString();
+  }
+
+  /** The regex-based implementation that the single-pass validator must agree with. */
+  private static boolean referenceIsValidEmail(String input) {
+    if (input == null) {
+      return false;
+    }
+    String email = input.trim();
+    if (email.isEmpty() || email.length() > 254) {
+      return false;
+    }
+    int at = email.indexOf('@');
+    if (at <= 0 || at != email.lastIndexOf('@')) {
+      return false;
+    }
+    String local = email.substring(0, at);
+    String domain = email.substring(at + 1);
+    if (local.length() > 64 || domain.isEmpty()) {
+      return false;
+    }
+    if (!LOCAL_PART.matcher(local).matches()) {
+      return false;
+    }
+    final String asciiDomain;
+    try {
+      asciiDomain = IDN.toASCII(domain, IDN.ALLOW_UNASSIGNED);
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+    if (asciiDomain.length() > 253) {
+      return false;
+    }
+    String[] labels = asciiDomain.split("\\.");
+    if (labels.length < 2) {
+      return false;
+    }
+    for (int i = 0; i < labels.length; i++) {
+      String label = labels[i];
+      if (label.isEmpty() || label.length() > 63 || !DNS_LABEL.matcher(label).matches()) {
+        return false;
+      }
+      if (i == labels.length - 1 && !TLD.matcher(label).matches()) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -3,26 +3,43 @@ package com.example.activityscheduler.user;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import com.example.activityscheduler.common.pagination.CursorCodec;
+import com.example.activityscheduler.common.pagination.CursorPage;
 import com.example.activityscheduler.user.controller.UserController;
 import com.example.activityscheduler.user.dto.UserRegistrationRequest;
 import com.example.activityscheduler.user.model.User;
 import com.example.activityscheduler.user.repository.UserRepository;
+import com.example.activityscheduler.user.service.EmailBloomFilter;
+import com.example.activityscheduler.user.service.UserImportService;
+import java.sql.SQLException;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
 class UserControllerTests {
 
+  private static final UUID USER_ID = UUID.fromString("6a1f3c9e-2b7d-4e8a-9c5f-0d1e2f3a4b5c");
+
   private UserRepository mockRepo;
+  private EmailBloomFilter mockFilter;
+  private UserImportService mockImportService;
   private UserController controller;
 
   @BeforeEach
   void setUp() {
     mockRepo = Mockito.mock(UserRepository.class);
-    controller = new UserController(mockRepo);
+    mockFilter = Mockito.mock(EmailBloomFilter.class);
+    Mockito.when(mockFilter.mightExist(Mockito.anyString())).thenReturn(true);
+    mockImportService = Mockito.mock(UserImportService.class);
+    controller = new UserController(mockRepo, mockFilter, mockImportService);
   }
 
   @Test
@@ -35,11 +52,30 @@ class UserControllerTests {
     assertThat(users.get(0).getEmail()).isEqualTo("a@b.com");
   }
 
+  @Test
+  void testGetPage() {
+    User user = new User("a@b.com", "Alice");
+    Mockito.when(mockRepo.findFirstPage(Mockito.any()))
+        .thenReturn(new SliceImpl<>(List.of(user), PageRequest.of(0, 1), true));
+
+    CursorPage<User> page = controller.getPage(null, 1);
+
+    assertThat(page.getItems()).containsExactly(user);
+    assertThat(CursorCodec.decode(page.getNextCursor(), 2))
+        .containsExactly(user.getCreatedAt().toString(), user.getId().toString());
+  }
+
+  @Test
+  void testGetPageInvalidCursor() {
+    assertThrows(ResponseStatusException.class, () -> controller.getPage("garbage!", null));
+  }
+
   @Test
   void testGetUserById() {
-    Mockito.when(mockRepo.findById("1")).thenReturn(Optional.of(new User("a@b.com", "Alice")));
+    Mockito.when(mockRepo.findById(USER_ID)).thenReturn(Optional.of(new User("a@b.com", "Alice")));
 
-    Optional<User> user = controller.getById("1");
+    Optional<User> user =
+        Optional.ofNullable(controller.getById(USER_ID.toString(), null).getBody());
 
     assertThat(user).isPresent();
     assertThat(user.get().getEmail()).isEqualTo("a@b.com");
@@ -55,8 +91,7 @@ class UserControllerTests {
 
   @Test
   void testRegisterUser() {
-    Mockito.when(mockRepo.existsByEmail("a@b.com")).thenReturn(false);
-    Mockito.when(mockRepo.save(Mockito.any(User.class)))
+    Mockito.when(mockRepo.saveAndFlush(Mockito.any(User.class)))
         .thenAnswer(inv -> inv.getArgument(0, User.class));
 
     UserRegistrationRequest request = new UserRegistrationRequest("a@b.com", "Alice");
@@ -67,10 +102,29 @@ class UserControllerTests {
 
   @Test
   void testRegisterUserAlreadyExists() {
-    Mockito.when(mockRepo.existsByEmail("a@b.com")).thenReturn(true);
+    Mockito.when(mockRepo.saveAndFlush(Mockito.any(User.class)))
+        .thenThrow(
+            new DataIntegrityViolationException(
+                "duplicate email", new SQLException("Unique index violation", "23505")));
 
     UserRegistrationRequest request = new UserRegistrationRequest("a@b.com", "Alice");
-    assertThrows(ResponseStatusException.class, () -> controller.register(request));
+    ResponseStatusException exception =
+        assertThrows(ResponseStatusException.class, () -> controller.register(request));
+    assertThat(exception.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+    Mockito.verify(mockRepo, Mockito.never()).existsByEmail(Mockito.anyString());
+  }
+
+  @Test
+  void testRegisterUserOtherIntegrityViolation() {
+    DataIntegrityViolationException violation =
+        new DataIntegrityViolationException(
+            "value too long", new SQLException("Value too long for column", "22001"));
+    Mockito.when(mockRepo.saveAndFlush(Mockito.any(User.class))).thenThrow(violation);
+
+    UserRegistrationRequest request = new UserRegistrationRequest("a@b.com", "Alice");
+    DataIntegrityViolationException thrown =
+        assertThrows(DataIntegrityViolationException.class, () -> controller.register(request));
+    assertThat(thrown).isSameAs(violation);
   }
 
   @Test
@@ -104,20 +158,20 @@ class UserControllerTests {
 
   @Test
   void testGetUserByIdNotFound() {
-    Mockito.when(mockRepo.findById("nonexistent")).thenReturn(Optional.empty());
+    Mockito.when(mockRepo.findById(USER_ID)).thenReturn(Optional.empty());
 
-    Optional<User> user = controller.getById("nonexistent");
+    Optional<User> user =
+        Optional.ofNullable(controller.getById(USER_ID.toString(), null).getBody());
 
     assertThat(user).isEmpty();
   }
 
   @Test
   void testGetUserByIdInvalidId() {
-    Mockito.when(mockRepo.findById("")).thenReturn(Optional.empty());
-
-    Optional<User> user = controller.getById("");
+    Optional<User> user = Optional.ofNullable(controller.getById("", null).getBody());
 
     assertThat(user).isEmpty();
+    Mockito.verify(mockRepo, Mockito.never()).findById(Mockito.any());
   }
 
   @Test
@@ -128,6 +182,28 @@ class UserControllerTests {
     assertThat(exists).isFalse();
   }
 
+  @Test
+  void testExistsByEmailDefinitelyUnusedSkipsDatabase() {
+    Mockito.when(mockFilter.mightExist("new@example.com")).thenReturn(false);
+
+    boolean exists = controller.existsByEmail("new@example.com");
+
+    assertThat(exists).isFalse();
+    Mockito.verify(mockRepo, Mockito.never()).existsByEmail(Mockito.anyString());
+  }
+
+  @Test
+  void testRegisterAddsEmailToFilter() {
+    Mockito.when(mockFilter.mightExist("new@example.com")).thenReturn(false);
+    Mockito.when(mockRepo.saveAndFlush(Mockito.any(User.class)))
+        .thenAnswer(inv -> inv.getArgument(0, User.class));
+
+    controller.register(new UserRegistrationRequest("new@example.com", "New"));
+
+    Mockito.verify(mockRepo, Mockito.never()).existsByEmail(Mockito.anyString());
+    Mockito.verify(mockFilter).add("new@example.com");
+  }
+
   @Test
   void testExistsByEmailInvalidEmail() {
     Mockito.when(mockRepo.existsByEmail("")).thenReturn(false);
@@ -156,12 +232,12 @@ class UserControllerTests {
   void testUpdateUsername() {
     UserRepository mockRepo = Mockito.mock(UserRepository.class);
     User testUser = new User("a@b.com", "Alice");
-    Mockito.when(mockRepo.findById("1")).thenReturn(Optional.of(testUser));
+    Mockito.when(mockRepo.findById(USER_ID)).thenReturn(Optional.of(testUser));
     Mockito.when(mockRepo.save(Mockito.any(User.class)))
         .thenAnswer(inv -> inv.getArgument(0, User.class));
-    UserController ctrl = new UserController(mockRepo);
+    UserController ctrl = new UserController(mockRepo, mockFilter, mockImportService);
 
-    User user = ctrl.updateUsername("1", "Bob");
+    User user = ctrl.updateUsername(USER_ID.toString(), "Bob");
     assertThat(user).isNotNull();
     assertThat(user.getDisplayName()).isEqualTo("Bob");
   }
@@ -169,28 +245,30 @@ class UserControllerTests {
   @Test
   void testUpdateUsernameNotFound() {
     UserRepository mockRepo = Mockito.mock(UserRepository.class);
-    UserController ctrl = new UserController(mockRepo);
-    assertThrows(ResponseStatusException.class, () -> ctrl.updateUsername("1", "Bob"));
+    UserController ctrl = new UserController(mockRepo, mockFilter, mockImportService);
+    String id = USER_ID.toString();
+    assertThrows(ResponseStatusException.class, () -> ctrl.updateUsername(id, "Bob"));
   }
 
   @Test
   void testUpdateUsernameInvalidDisplayName() {
     UserRepository mockRepo = Mockito.mock(UserRepository.class);
     User testUser = new User("a@b.com", "Alice");
-    Mockito.when(mockRepo.findById("1")).thenReturn(Optional.of(testUser));
-    UserController ctrl = new UserController(mockRepo);
+    Mockito.when(mockRepo.findById(USER_ID)).thenReturn(Optional.of(testUser));
+    UserController ctrl = new UserController(mockRepo, mockFilter, mockImportService);
+    String id = USER_ID.toString();
 
-    assertThrows(ResponseStatusException.class, () -> ctrl.updateUsername("1", null));
+    assertThrows(ResponseStatusException.class, () -> ctrl.updateUsername(id, null));
 
-    assertThrows(ResponseStatusException.class, () -> ctrl.updateUsername("1", ""));
+    assertThrows(ResponseStatusException.class, () -> ctrl.updateUsername(id, ""));
 
-    assertThrows(ResponseStatusException.class, () -> ctrl.updateUsername("1", "   "));
+    assertThrows(ResponseStatusException.class, () -> ctrl.updateUsername(id, "   "));
   }
 
   @Test
   void testRegisterWithInvalidEmail() {
     UserRepository mockRepo = Mockito.mock(UserRepository.class);
-    UserController ctrl = new UserController(mockRepo);
+    UserController ctrl = new UserController(mockRepo, mockFilter, mockImportService);
     UserRegistrationRequest request = new UserRegistrationRequest("invalid-email", "Alice");
     assertThrows(ResponseStatusException.class, () -> ctrl.register(request));
   }
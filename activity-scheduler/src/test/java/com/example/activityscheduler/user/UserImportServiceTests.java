@@ -0,0 +1,96 @@
+package com.example.activityscheduler.user;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.activityscheduler.user.model.User;
+import com.example.activityscheduler.user.repository.UserRepository;
+import com.example.activityscheduler.user.service.EmailBloomFilter;
+import com.example.activityscheduler.user.service.ImportFormat;
+import com.example.activityscheduler.user.service.UserImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.List;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+class UserImportServiceTests {
+
+  private UserRepository mockRepo;
+  private EmailBloomFilter mockFilter;
+  private EntityManager mockEntityManager;
+  private PlatformTransactionManager mockTransactionManager;
+  private UserImportService importService;
+
+  @BeforeEach
+  void setUp() {
+    mockRepo = Mockito.mock(UserRepository.class);
+    mockFilter = Mockito.mock(EmailBloomFilter.class);
+    mockEntityManager = Mockito.mock(EntityManager.class);
+    mockTransactionManager = Mockito.mock(PlatformTransactionManager.class);
+    Mockito.when(mockTransactionManager.getTransaction(Mockito.any()))
+        .thenReturn(new SimpleTransactionStatus());
+    importService =
+        new UserImportService(
+            mockRepo,
+            mockFilter,
+            mockEntityManager,
+            mockTransactionManager,
+            new ObjectMapper(),
+            10);
+  }
+
+  @Test
+  void testImportAddsEmailsToFilterBeforeTheInsertsCommit() throws Exception {
+    String csv = "alice@example.com,Alice\nbob@example.com,Bob\n";
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    long created =
+        importService.importUsers(
+            ImportFormat.CSV, new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), out);
+
+    assertThat(created).isEqualTo(2);
+    InOrder inOrder = Mockito.inOrder(mockFilter, mockEntityManager, mockTransactionManager);
+    inOrder.verify(mockFilter).add("alice@example.com");
+    inOrder.verify(mockFilter).add("bob@example.com");
+    inOrder.verify(mockEntityManager).flush();
+    inOrder.verify(mockTransactionManager).commit(Mockito.any());
+    Mockito.verify(mockEntityManager, Mockito.times(2)).persist(Mockito.any(User.class));
+  }
+
+  @Test
+  void testImportRetriesChunkWhenEmailIsRegisteredMeanwhile() throws Exception {
+    // Bob registers between the first query and the insert; the retry's query finds him
+    Mockito.when(mockRepo.findEmailsIn(Mockito.anyCollection()))
+        .thenReturn(List.of())
+        .thenReturn(List.of("bob@example.com"));
+    Mockito.doThrow(
+            new ConstraintViolationException(
+                "duplicate", new SQLException("Unique index violation", "23505"), "uk_email"))
+        .doNothing()
+        .when(mockEntityManager)
+        .flush();
+    String csv = "alice@example.com,Alice\nbob@example.com,Bob\n";
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    long created =
+        importService.importUsers(
+            ImportFormat.CSV, new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), out);
+
+    assertThat(created).isEqualTo(1);
+    String[] results = out.toString(StandardCharsets.UTF_8).split("\n");
+    assertThat(results[0]).contains("\"outcome\":\"CREATED\"");
+    assertThat(results[1]).contains("\"outcome\":\"EXISTS\"");
+    Mockito.verify(mockRepo, Mockito.times(2))
+        .findEmailsIn(List.of("alice@example.com", "bob@example.com"));
+    Mockito.verify(mockTransactionManager).rollback(Mockito.any());
+  }
+}
@@ -9,16 +9,12 @@ import org.junit.jupiter.api.Test;
 class UserTests {
 
   @Test
-  void defaultConstructor_generatesId_setsDefaults() {
+  void defaultConstructor_leavesGeneratedValuesUnset() {
     User user = new User();
 
-    assertThat(user.getId()).isNotNull().isNotBlank();
+    assertThat(user.getId()).isNull();
+    assertThat(user.getCreatedAt()).isNull();
     assertThat(user.isActive()).isTrue();
-    assertThat(user.getCreatedAt()).isNotNull();
-
-    // validate UUID format (36 chars with hyphens)
-    assertThat(user.getId().length()).isEqualTo(36);
-    assertThat(UUID.fromString(user.getId())).isNotNull();
   }
 
   @Test
@@ -27,7 +23,13 @@ class UserTests {
 
     assertThat(user.getEmail()).isEqualTo("alice@example.com");
     assertThat(user.getDisplayName()).isEqualTo("Alice");
-    assertThat(user.getId()).isNotBlank();
+    assertThat(user.getId()).isNotNull();
+    assertThat(user.getCreatedAt()).isNotNull();
+    assertThat(user.isActive()).isTrue();
+
+    // serialized form is the canonical 36-char UUID string
+    assertThat(user.getId().toString()).hasSize(36);
+    assertThat(UUID.fromString(user.getId().toString())).isEqualTo(user.getId());
   }
 
   @Test
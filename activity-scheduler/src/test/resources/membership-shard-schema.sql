@@ -0,0 +1,24 @@
+-- Membership tables of an extra membership shard, for the H2 databases used by the sharding tests.
+-- Production shards get the Flyway migrations instead.
+
+CREATE TABLE IF NOT EXISTS memberships (
+  org_id BINARY(16) NOT NULL,
+  user_id BINARY(16) NOT NULL,
+  status VARCHAR(20) NOT NULL,
+  created_at TIMESTAMP(6) NOT NULL,
+  version BIGINT NOT NULL DEFAULT 0,
+  PRIMARY KEY (org_id, user_id)
+);
+
+CREATE TABLE IF NOT EXISTS organization_membership_counts (
+  org_id BINARY(16) NOT NULL,
+  status VARCHAR(20) NOT NULL,
+  member_count BIGINT NOT NULL,
+  PRIMARY KEY (org_id, status)
+);
+
+CREATE TABLE IF NOT EXISTS user_membership_counts (
+  user_id BINARY(16) NOT NULL,
+  membership_count BIGINT NOT NULL,
+  PRIMARY KEY (user_id)
+);